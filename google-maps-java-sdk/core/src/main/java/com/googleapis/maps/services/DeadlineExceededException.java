@@ -0,0 +1,48 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services;
+
+/**
+ * The Class DeadlineExceededException.
+ *
+ * Thrown when a call is not over by its deadline. The exchange in progress
+ * was aborted and no retry or hedge will follow.
+ */
+public class DeadlineExceededException extends GoogleMapsException {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 6410374829153209856L;
+
+	/**
+	 * Instantiates a new deadline exceeded exception.
+	 * 
+	 * @param message the message
+	 */
+	public DeadlineExceededException(String message) {
+		super(message);
+	}
+
+	/**
+	 * Instantiates a new deadline exceeded exception.
+	 * 
+	 * @param message the message
+	 * @param cause the cause
+	 */
+	public DeadlineExceededException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
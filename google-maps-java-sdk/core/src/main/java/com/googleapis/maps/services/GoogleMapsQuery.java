@@ -17,6 +17,9 @@
 package com.googleapis.maps.services;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 
 
 
@@ -25,6 +28,31 @@ import java.util.List;
  */
 public interface GoogleMapsQuery<T> extends GoogleMapsAuthenticationClient {
 	
+	/**
+	 * With timeout. Each call gets the timeout from the moment it is made
+	 * until its result is parsed, retries and hedges included, and fails
+	 * with a {@link DeadlineExceededException} once it is over.
+	 * 
+	 * @param timeout the timeout, 0 for none
+	 * @param unit the unit
+	 * 
+	 * @return the google maps query< t>
+	 */
+	public GoogleMapsQuery<T> withTimeout(long timeout, TimeUnit unit);
+	
+	/**
+	 * With fields. Only the given fields of the results are read, the
+	 * members of the others are skipped as the response streams past. A
+	 * nested field is named by its path, e.g. <code>overviewPolyline.points</code>.
+	 * 
+	 * @param fields the fields of the result type, none to read them all
+	 * 
+	 * @return the google maps query< t>
+	 * 
+	 * @throws IllegalArgumentException if a field is not one of the result type
+	 */
+	public GoogleMapsQuery<T> withFields(String... fields);
+	
 	/**
 	 * Single result.
 	 * 
@@ -39,6 +67,34 @@ public interface GoogleMapsQuery<T> extends GoogleMapsAuthenticationClient {
 	 */
 	public List<T> list();
 	
+	/**
+	 * Single result, fetched without blocking the calling thread. Cancelling
+	 * the future aborts the underlying connection.
+	 * 
+	 * @return the future t
+	 */
+	public CompletableFuture<T> singleResultAsync();
+
+	/**
+	 * List, fetched without blocking the calling thread. The response
+	 * handlers are given the returned future and called once it completes.
+	 * Cancelling the future aborts the underlying connection.
+	 * 
+	 * @return the future list< t>
+	 */
+	public CompletableFuture<List<T>> listAsync();
+
+	/**
+	 * Publisher of the results of the list, one result at a time as the
+	 * subscriber asks for them. The list is only fetched once a result is
+	 * asked for, and cancelling the subscription aborts it while it is in
+	 * flight. Each subscriber gets the list of the state of the query when
+	 * this is called.
+	 * 
+	 * @return the publisher t
+	 */
+	public Flow.Publisher<T> publisher();
+	
 	/**
 	 * Adds the resonse handler.
 	 * 
@@ -16,11 +16,25 @@
  */
 package com.googleapis.maps.services;
 
+import java.util.concurrent.Executor;
+
+import com.googleapis.maps.services.cache.ResponseCache;
+import com.googleapis.maps.services.circuitbreaker.CircuitBreakerRegistry;
+import com.googleapis.maps.services.coalescing.RequestCoalescer;
+import com.googleapis.maps.services.enumeration.ExecutionMode;
+import com.googleapis.maps.services.hedging.HedgingPolicy;
 import com.googleapis.maps.services.impl.DirectionsQueryImpl;
 import com.googleapis.maps.services.impl.DistanceMatrixQueryImpl;
 import com.googleapis.maps.services.impl.ElevationQueryImpl;
 import com.googleapis.maps.services.impl.GeocodingQueryImpl;
+import com.googleapis.maps.services.impl.GoogleMapsApiGateway;
 import com.googleapis.maps.services.impl.PlacesQueryImpl;
+import com.googleapis.maps.services.ratelimit.RateLimiter;
+import com.googleapis.maps.services.retry.RetryPolicy;
+import com.googleapis.maps.services.transport.ClientConfiguration;
+import com.googleapis.maps.services.transport.Http2Transport;
+import com.googleapis.maps.services.transport.HttpTransport;
+import com.googleapis.maps.services.transport.PooledHttpTransport;
 
 
 
@@ -31,14 +45,43 @@ public class GoogleMapsQueryFactory {
 
     /** The application key. */
     private String applicationKey;
+    
+    /** The transport shared by the queries. */
+    private HttpTransport transport;
+    
+    /** The executor of the asynchronous calls, null for the default one. */
+    private Executor executor;
+    
+    /** The coalescer shared by the queries, null for none. */
+    private RequestCoalescer coalescer = new RequestCoalescer();
+    
+    /** The response cache shared by the queries, null for none. */
+    private ResponseCache cache;
+    
+    /** The retry policy shared by the queries, null for none. */
+    private RetryPolicy retryPolicy = new RetryPolicy();
+    
+    /** The rate limiter shared by the queries, null for none. */
+    private RateLimiter rateLimiter;
+    
+    /** The circuit breakers shared by the queries, null for none. */
+    private CircuitBreakerRegistry circuitBreakerRegistry = new CircuitBreakerRegistry();
+    
+    /** The hedging policy shared by the queries, null for none. */
+    private HedgingPolicy hedgingPolicy;
+    
+    /** The timeouts of the calls of the queries. */
+    private ClientConfiguration clientConfiguration = ClientConfiguration.getDefault();
 
     /**
      * Instantiates a new google maps query factory.
      * 
      * @param applicationKey the application key
+     * @param transport the transport
      */
-	private GoogleMapsQueryFactory(String applicationKey) {
+	private GoogleMapsQueryFactory(String applicationKey, HttpTransport transport) {
         this.applicationKey = applicationKey;
+        this.transport = transport;
     }
 	
     /**
@@ -49,7 +92,208 @@ public class GoogleMapsQueryFactory {
      * @return the google maps query factory
      */
     public static GoogleMapsQueryFactory newInstance(String applicationKey) {
-        return new GoogleMapsQueryFactory(applicationKey);
+        return new GoogleMapsQueryFactory(applicationKey, PooledHttpTransport.getSharedInstance());
+    }
+    
+    /**
+     * New instance whose queries share the non blocking HTTP/2 transport, a
+     * few multiplexed connections serve any number of concurrent queries.
+     * 
+     * @param applicationKey the application key
+     * 
+     * @return the google maps query factory
+     */
+    public static GoogleMapsQueryFactory newAsyncInstance(String applicationKey) {
+        return new GoogleMapsQueryFactory(applicationKey, Http2Transport.getSharedInstance());
+    }
+    
+    /**
+     * New instance.
+     * 
+     * @param applicationKey the application key
+     * @param transport the transport used by all the queries of this factory
+     * 
+     * @return the google maps query factory
+     */
+    public static GoogleMapsQueryFactory newInstance(String applicationKey, HttpTransport transport) {
+        return new GoogleMapsQueryFactory(applicationKey, transport);
+    }
+    
+    /**
+     * Gets the transport.
+     * 
+     * @return the transport
+     */
+    public HttpTransport getTransport() {
+    	return transport;
+    }
+    
+    /**
+     * Gets the executor of the asynchronous calls.
+     * 
+     * @return the executor, null for the default one
+     */
+    public Executor getExecutor() {
+    	return executor;
+    }
+    
+    /**
+     * Sets the executor used by the asynchronous calls of the queries created
+     * from now on.
+     * 
+     * @param executor the new executor, null for the default one
+     */
+    public void setExecutor(Executor executor) {
+    	this.executor = executor;
+    }
+    
+    /**
+     * Sets the execution mode of the asynchronous calls of the queries created
+     * from now on, replacing any executor set before. In virtual thread mode
+     * every call gets its own virtual thread, which parks instead of holding
+     * a platform thread while it waits on the network.
+     * 
+     * @param mode the new execution mode
+     */
+    public void setExecutionMode(ExecutionMode mode) {
+    	this.executor = GoogleMapsApiGateway.getDefaultExecutor(mode);
+    }
+    
+    /**
+     * Gets the request coalescer. Identical queries in flight at the same
+     * time share one call and one parsed result, its stats tell how many
+     * calls were saved.
+     * 
+     * @return the request coalescer, null if requests are not coalesced
+     */
+    public RequestCoalescer getRequestCoalescer() {
+    	return coalescer;
+    }
+    
+    /**
+     * Sets the request coalescer of the queries created from now on.
+     * 
+     * @param coalescer the new request coalescer, null not to coalesce requests
+     */
+    public void setRequestCoalescer(RequestCoalescer coalescer) {
+    	this.coalescer = coalescer;
+    }
+    
+    /**
+     * Gets the response cache.
+     * 
+     * @return the response cache, null if responses are not cached
+     */
+    public ResponseCache getResponseCache() {
+    	return cache;
+    }
+    
+    /**
+     * Sets the response cache of the queries created from now on, e.g.
+     * <code>new ResponseCache()</code> for the sizes and times to live of
+     * the application constants.
+     * 
+     * @param cache the new response cache, null not to cache responses
+     */
+    public void setResponseCache(ResponseCache cache) {
+    	this.cache = cache;
+    }
+    
+    /**
+     * Gets the retry policy. All the queries of the factory draw their
+     * retries from its budget, its stats tell how many were made.
+     * 
+     * @return the retry policy, null if failed calls are not retried
+     */
+    public RetryPolicy getRetryPolicy() {
+    	return retryPolicy;
+    }
+    
+    /**
+     * Sets the retry policy of the queries created from now on.
+     * 
+     * @param retryPolicy the new retry policy, null not to retry failed calls
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+    	this.retryPolicy = retryPolicy;
+    }
+    
+    /**
+     * Gets the rate limiter. By default there is none.
+     * 
+     * @return the rate limiter, null if calls are not rate limited
+     */
+    public RateLimiter getRateLimiter() {
+    	return rateLimiter;
+    }
+    
+    /**
+     * Sets the rate limiter of the queries created from now on, e.g.
+     * <code>RateLimiter.forApplicationKey(applicationKey)</code> to share
+     * the quota of the key with the other factories that use it.
+     * 
+     * @param rateLimiter the new rate limiter, null not to rate limit calls
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+    	this.rateLimiter = rateLimiter;
+    }
+    
+    /**
+     * Gets the circuit breakers of the endpoints, shared by the queries of
+     * this factory.
+     * 
+     * @return the circuit breaker registry, null if calls are not guarded
+     */
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+    	return circuitBreakerRegistry;
+    }
+    
+    /**
+     * Sets the circuit breakers of the queries created from now on, a
+     * registry may be shared by several factories.
+     * 
+     * @param circuitBreakerRegistry the new circuit breaker registry, null not to guard calls
+     */
+    public void setCircuitBreakerRegistry(CircuitBreakerRegistry circuitBreakerRegistry) {
+    	this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+    
+    /**
+     * Gets the hedging policy. Requests are not hedged unless one is set.
+     * 
+     * @return the hedging policy, null if requests are not hedged
+     */
+    public HedgingPolicy getHedgingPolicy() {
+    	return hedgingPolicy;
+    }
+    
+    /**
+     * Sets the hedging policy of the queries created from now on.
+     * 
+     * @param hedgingPolicy the new hedging policy, null not to hedge requests
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+    	this.hedgingPolicy = hedgingPolicy;
+    }
+    
+    /**
+     * Gets the client configuration, the timeouts of the calls.
+     * 
+     * @return the client configuration
+     */
+    public ClientConfiguration getClientConfiguration() {
+    	return clientConfiguration;
+    }
+    
+    /**
+     * Sets the client configuration of the queries created from now on, e.g.
+     * a short call timeout for user facing queries and a long one for batch
+     * jobs, each from its own factory.
+     * 
+     * @param clientConfiguration the new client configuration
+     */
+    public void setClientConfiguration(ClientConfiguration clientConfiguration) {
+    	this.clientConfiguration = clientConfiguration;
     }
     
     /**
@@ -58,7 +302,7 @@ public class GoogleMapsQueryFactory {
      * @return the geocoding query
      */
     public GeocodingQuery newGeocodingQuery() {
-    	return new GeocodingQueryImpl(applicationKey);
+    	return configure(new GeocodingQueryImpl(applicationKey));
     }
     
     /**
@@ -67,7 +311,7 @@ public class GoogleMapsQueryFactory {
      * @return the directions query
      */
     public DirectionsQuery newDirectionsQuery() {
-    	return new DirectionsQueryImpl(applicationKey);
+    	return configure(new DirectionsQueryImpl(applicationKey));
     }
     
     /**
@@ -76,7 +320,7 @@ public class GoogleMapsQueryFactory {
      * @return the distance matrix query
      */
     public DistanceMatrixQuery newDistanceMatrixQuery() {
-    	return new DistanceMatrixQueryImpl(applicationKey);
+    	return configure(new DistanceMatrixQueryImpl(applicationKey));
     }
     
     /**
@@ -85,7 +329,7 @@ public class GoogleMapsQueryFactory {
      * @return the elevation query
      */
     public ElevationQuery newElevationQuery() {
-    	return new ElevationQueryImpl(applicationKey);
+    	return configure(new ElevationQueryImpl(applicationKey));
     }
     
     /**
@@ -94,6 +338,38 @@ public class GoogleMapsQueryFactory {
      * @return the places query
      */
     public PlacesQuery newPlacesQuery() {
-    	return new PlacesQueryImpl(applicationKey);
+    	return configure(new PlacesQueryImpl(applicationKey));
+    }
+    
+    /**
+     * New client, that runs query specs of any vertical with the settings
+     * of this factory. A client is meant to be shared: it configures one
+     * query per vertical, when it first runs a spec of the vertical, and
+     * all the specs of the vertical are run through it.
+     * 
+     * @return the google maps client
+     */
+    public GoogleMapsClient newClient() {
+    	return new GoogleMapsClient(this, applicationKey);
+    }
+    
+    /**
+     * Applies the factory wide settings to a new query.
+     * 
+     * @param query the query
+     * 
+     * @return the query
+     */
+    <Q extends GoogleMapsApiGateway> Q configure(Q query) {
+    	query.setTransport(transport);
+    	query.setExecutor(executor);
+    	query.setRequestCoalescer(coalescer);
+    	query.setResponseCache(cache);
+    	query.setRetryPolicy(retryPolicy);
+    	query.setRateLimiter(rateLimiter);
+    	query.setCircuitBreakerRegistry(circuitBreakerRegistry);
+    	query.setHedgingPolicy(hedgingPolicy);
+    	query.setClientConfiguration(clientConfiguration);
+    	return query;
     }
 }
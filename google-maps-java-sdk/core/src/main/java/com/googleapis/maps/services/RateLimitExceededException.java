@@ -0,0 +1,38 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services;
+
+/**
+ * The Class RateLimitExceededException.
+ *
+ * Thrown when a request would have to wait longer than allowed for the
+ * client side rate limiter. The request was not sent.
+ */
+public class RateLimitExceededException extends GoogleMapsException {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = -3152487650943146185L;
+
+	/**
+	 * Instantiates a new rate limit exceeded exception.
+	 * 
+	 * @param message the message
+	 */
+	public RateLimitExceededException(String message) {
+		super(message);
+	}
+}
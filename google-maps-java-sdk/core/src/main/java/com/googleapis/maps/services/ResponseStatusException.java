@@ -0,0 +1,51 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services;
+
+/**
+ * The Class ResponseStatusException.
+ *
+ * Thrown when the HTTP status code of a response is not a success.
+ */
+public class ResponseStatusException extends GoogleMapsException {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 4675330861452381907L;
+
+	/** The status code. */
+	private final int statusCode;
+
+	/**
+	 * Instantiates a new response status exception.
+	 * 
+	 * @param statusCode the status code
+	 * @param message the message
+	 */
+	public ResponseStatusException(int statusCode, String message) {
+		super(message);
+		this.statusCode = statusCode;
+	}
+
+	/**
+	 * Gets the status code.
+	 * 
+	 * @return the status code
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.cache;
+
+/**
+ * The Class FrequencySketch.
+ *
+ * A count-min sketch of 4 bit counters estimating how often a key has been
+ * seen recently. Counters are halved every sample period so that the
+ * estimate follows the current popularity. Not thread safe, the cache
+ * guards it with its own lock.
+ */
+class FrequencySketch {
+
+	/** The Constant SEEDS, one per row. */
+	private static final int[] SEEDS = { 0x97cb3127, 0xb9a7ce35, 0x5ac1c8a3, 0x2a1f3d07 };
+
+	/** The Constant MAX_COUNT. */
+	private static final int MAX_COUNT = 15;
+
+	/** The counters, one row of width counters per seed. */
+	private final byte[] table;
+
+	/** The mask, width minus one. */
+	private final int mask;
+
+	/** The number of additions between two agings. */
+	private final int sampleSize;
+
+	/** The additions since the last aging. */
+	private int additions;
+
+	/**
+	 * Instantiates a new frequency sketch.
+	 *
+	 * @param expectedEntries the expected number of entries
+	 */
+	FrequencySketch(int expectedEntries) {
+		int width = Integer.highestOneBit(Math.max(64, Math.min(expectedEntries, 1 << 20)) - 1) << 1;
+		this.table = new byte[width * SEEDS.length];
+		this.mask = width - 1;
+		this.sampleSize = 10 * width;
+	}
+
+	/**
+	 * Gets the estimated frequency of the key.
+	 *
+	 * @param hash the hash of the key
+	 *
+	 * @return the frequency, between 0 and 15
+	 */
+	int frequency(int hash) {
+		int frequency = MAX_COUNT;
+		for (int row = 0; row < SEEDS.length; row++) {
+			frequency = Math.min(frequency, table[slot(hash, row)]);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Records an occurrence of the key.
+	 *
+	 * @param hash the hash of the key
+	 */
+	void increment(int hash) {
+		boolean added = false;
+		for (int row = 0; row < SEEDS.length; row++) {
+			int slot = slot(hash, row);
+			if (table[slot] < MAX_COUNT) {
+				table[slot]++;
+				added = true;
+			}
+		}
+		if (added && ++additions >= sampleSize) {
+			age();
+		}
+	}
+
+	/**
+	 * Halves all the counters.
+	 */
+	private void age() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] >>= 1;
+		}
+		additions >>= 1;
+	}
+
+	/**
+	 * Gets the slot of the key in a row.
+	 *
+	 * @param hash the hash
+	 * @param row the row
+	 *
+	 * @return the slot
+	 */
+	private int slot(int hash, int row) {
+		int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+		h ^= h >>> 16;
+		return (row * (mask + 1)) + (h & mask);
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.circuitbreaker;
+
+/**
+ * The Class CircuitBreakerEvent.
+ *
+ * A state transition of the circuit breaker of an endpoint.
+ */
+public class CircuitBreakerEvent {
+
+	/** The endpoint. */
+	private final String endpoint;
+
+	/** The from state. */
+	private final CircuitBreaker.State fromState;
+
+	/** The to state. */
+	private final CircuitBreaker.State toState;
+
+	/** The failure rate. */
+	private final double failureRate;
+
+	/** The slow call rate. */
+	private final double slowCallRate;
+
+	/** The timestamp. */
+	private final long timestamp;
+
+	/**
+	 * Instantiates a new circuit breaker event.
+	 *
+	 * @param endpoint the endpoint
+	 * @param fromState the from state
+	 * @param toState the to state
+	 * @param failureRate the failure rate
+	 * @param slowCallRate the slow call rate
+	 */
+	public CircuitBreakerEvent(String endpoint, CircuitBreaker.State fromState, CircuitBreaker.State toState,
+			double failureRate, double slowCallRate) {
+		this.endpoint = endpoint;
+		this.fromState = fromState;
+		this.toState = toState;
+		this.failureRate = failureRate;
+		this.slowCallRate = slowCallRate;
+		this.timestamp = System.currentTimeMillis();
+	}
+
+	/**
+	 * Gets the endpoint.
+	 *
+	 * @return the endpoint
+	 */
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * Gets the from state.
+	 *
+	 * @return the from state
+	 */
+	public CircuitBreaker.State getFromState() {
+		return fromState;
+	}
+
+	/**
+	 * Gets the to state.
+	 *
+	 * @return the to state
+	 */
+	public CircuitBreaker.State getToState() {
+		return toState;
+	}
+
+	/**
+	 * Gets the percentage of failed calls that led to the transition.
+	 *
+	 * @return the failure rate
+	 */
+	public double getFailureRate() {
+		return failureRate;
+	}
+
+	/**
+	 * Gets the percentage of slow calls that led to the transition.
+	 *
+	 * @return the slow call rate
+	 */
+	public double getSlowCallRate() {
+		return slowCallRate;
+	}
+
+	/**
+	 * Gets the time of the transition in millis.
+	 *
+	 * @return the timestamp
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Circuit of " + endpoint + " " + fromState + " -> " + toState + " (failure rate " + failureRate
+				+ "%, slow call rate " + slowCallRate + "%)";
+	}
+}
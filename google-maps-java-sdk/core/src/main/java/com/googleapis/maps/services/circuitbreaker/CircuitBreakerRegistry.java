@@ -0,0 +1,198 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.circuitbreaker;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.googleapis.maps.services.constant.ApplicationConstants;
+
+/**
+ * The Class CircuitBreakerRegistry.
+ *
+ * Holds a circuit breaker per endpoint, i.e. per url of
+ * {@link com.googleapis.maps.services.constant.GoogleMapsApiUrls} without
+ * its query string, so that a degraded endpoint does not hold up the calls
+ * to the others. The breakers are created on first use with the settings of
+ * the registry, and their state transitions are passed on to the listeners
+ * of the registry.
+ */
+public class CircuitBreakerRegistry {
+
+	/** The Constant LOG. */
+	private static final Logger LOG = Logger.getLogger(CircuitBreakerRegistry.class.getCanonicalName());
+
+	/** The breakers by endpoint. */
+	private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<String, CircuitBreaker>();
+
+	/** The listeners. */
+	private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<CircuitBreakerListener>();
+
+	/** The listener passing the events of the breakers on to the listeners of the registry. */
+	private final CircuitBreakerListener dispatcher = new CircuitBreakerListener() {
+		@Override
+		public void onStateTransition(CircuitBreakerEvent event) {
+			for (CircuitBreakerListener listener : listeners) {
+				try {
+					listener.onStateTransition(event);
+				} catch (RuntimeException e) {
+					LOG.log(Level.WARNING, "A circuit breaker listener failed.", e);
+				}
+			}
+		}
+	};
+
+	/** The window size. */
+	private final int windowSize;
+
+	/** The minimum calls. */
+	private final int minimumCalls;
+
+	/** The failure rate threshold. */
+	private final double failureRateThreshold;
+
+	/** The slow call rate threshold. */
+	private final double slowCallRateThreshold;
+
+	/** The slow call duration. */
+	private final long slowCallDuration;
+
+	/** The open duration. */
+	private final long openDuration;
+
+	/** The half open calls. */
+	private final int halfOpenCalls;
+
+	/**
+	 * Instantiates a new circuit breaker registry with the settings of the
+	 * application constants.
+	 */
+	public CircuitBreakerRegistry() {
+		this(ApplicationConstants.CIRCUIT_BREAKER_WINDOW_SIZE, ApplicationConstants.CIRCUIT_BREAKER_MINIMUM_CALLS,
+				ApplicationConstants.CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD,
+				ApplicationConstants.CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD,
+				ApplicationConstants.CIRCUIT_BREAKER_SLOW_CALL_DURATION, ApplicationConstants.CIRCUIT_BREAKER_OPEN_DURATION,
+				ApplicationConstants.CIRCUIT_BREAKER_HALF_OPEN_CALLS);
+	}
+
+	/**
+	 * Instantiates a new circuit breaker registry.
+	 *
+	 * @param windowSize the number of calls in the sliding window
+	 * @param minimumCalls the calls needed in the window before the rates are considered
+	 * @param failureRateThreshold the failure rate in percent at which a circuit opens
+	 * @param slowCallRateThreshold the slow call rate in percent at which a circuit opens
+	 * @param slowCallDuration the duration in millis above which a call is slow
+	 * @param openDuration the time in millis a circuit stays open before probing
+	 * @param halfOpenCalls the probe calls let through while half open
+	 */
+	public CircuitBreakerRegistry(int windowSize, int minimumCalls, double failureRateThreshold,
+			double slowCallRateThreshold, long slowCallDuration, long openDuration, int halfOpenCalls) {
+		this.windowSize = windowSize;
+		this.minimumCalls = minimumCalls;
+		this.failureRateThreshold = failureRateThreshold;
+		this.slowCallRateThreshold = slowCallRateThreshold;
+		this.slowCallDuration = slowCallDuration;
+		this.openDuration = openDuration;
+		this.halfOpenCalls = halfOpenCalls;
+	}
+
+	/**
+	 * Gets the circuit breaker of the endpoint of an url.
+	 *
+	 * @param url the url
+	 *
+	 * @return the circuit breaker
+	 */
+	public CircuitBreaker getCircuitBreaker(String url) {
+		String endpoint = getEndpoint(url);
+		CircuitBreaker breaker = breakers.get(endpoint);
+		if (breaker == null) {
+			CircuitBreaker created = createCircuitBreaker(endpoint);
+			breaker = breakers.putIfAbsent(endpoint, created);
+			if (breaker == null) {
+				created.addListener(dispatcher);
+				breaker = created;
+			}
+		}
+		return breaker;
+	}
+
+	/**
+	 * Gets the circuit breakers created so far.
+	 *
+	 * @return the circuit breakers
+	 */
+	public Collection<CircuitBreaker> getCircuitBreakers() {
+		return Collections.unmodifiableCollection(breakers.values());
+	}
+
+	/**
+	 * Adds a listener of the state transitions of all the breakers.
+	 *
+	 * @param listener the listener
+	 */
+	public void addListener(CircuitBreakerListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener.
+	 *
+	 * @param listener the listener
+	 */
+	public void removeListener(CircuitBreakerListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Creates the circuit breaker of an endpoint.
+	 *
+	 * @param endpoint the endpoint
+	 *
+	 * @return the circuit breaker
+	 */
+	protected CircuitBreaker createCircuitBreaker(String endpoint) {
+		return new CircuitBreaker(endpoint, windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold,
+				slowCallDuration, openDuration, halfOpenCalls);
+	}
+
+	/**
+	 * Gets the endpoint of an url: the url without its query string, scheme
+	 * and host lower cased.
+	 *
+	 * @param url the url
+	 *
+	 * @return the endpoint
+	 */
+	protected static String getEndpoint(String url) {
+		int query = url.indexOf('?');
+		String base = (query < 0) ? url : url.substring(0, query);
+		int path = base.indexOf('/', base.indexOf("://") + 3);
+		if (path < 0) {
+			return base.toLowerCase(Locale.ENGLISH);
+		}
+		return base.substring(0, path).toLowerCase(Locale.ENGLISH) + base.substring(path);
+	}
+}
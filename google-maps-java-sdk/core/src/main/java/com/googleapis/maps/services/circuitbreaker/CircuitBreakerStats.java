@@ -0,0 +1,113 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.circuitbreaker;
+
+/**
+ * The Class CircuitBreakerStats.
+ *
+ * An immutable snapshot of a circuit breaker.
+ */
+public class CircuitBreakerStats {
+
+	/** The state. */
+	private final CircuitBreaker.State state;
+
+	/** The buffered calls. */
+	private final int bufferedCalls;
+
+	/** The failure rate. */
+	private final double failureRate;
+
+	/** The slow call rate. */
+	private final double slowCallRate;
+
+	/** The not permitted calls. */
+	private final long notPermittedCalls;
+
+	/**
+	 * Instantiates a new circuit breaker stats.
+	 *
+	 * @param state the state
+	 * @param bufferedCalls the buffered calls
+	 * @param failureRate the failure rate
+	 * @param slowCallRate the slow call rate
+	 * @param notPermittedCalls the not permitted calls
+	 */
+	public CircuitBreakerStats(CircuitBreaker.State state, int bufferedCalls, double failureRate, double slowCallRate,
+			long notPermittedCalls) {
+		this.state = state;
+		this.bufferedCalls = bufferedCalls;
+		this.failureRate = failureRate;
+		this.slowCallRate = slowCallRate;
+		this.notPermittedCalls = notPermittedCalls;
+	}
+
+	/**
+	 * Gets the state.
+	 *
+	 * @return the state
+	 */
+	public CircuitBreaker.State getState() {
+		return state;
+	}
+
+	/**
+	 * Gets the number of calls in the sliding window.
+	 *
+	 * @return the buffered calls
+	 */
+	public int getBufferedCalls() {
+		return bufferedCalls;
+	}
+
+	/**
+	 * Gets the percentage of failed calls in the sliding window.
+	 *
+	 * @return the failure rate
+	 */
+	public double getFailureRate() {
+		return failureRate;
+	}
+
+	/**
+	 * Gets the percentage of slow calls in the sliding window.
+	 *
+	 * @return the slow call rate
+	 */
+	public double getSlowCallRate() {
+		return slowCallRate;
+	}
+
+	/**
+	 * Gets the number of calls refused while the circuit was not closed.
+	 *
+	 * @return the not permitted calls
+	 */
+	public long getNotPermittedCalls() {
+		return notPermittedCalls;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CircuitBreakerStats [state=" + state + ", bufferedCalls=" + bufferedCalls
+				+ ", failureRate=" + failureRate + ", slowCallRate=" + slowCallRate
+				+ ", notPermittedCalls=" + notPermittedCalls + "]";
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Inflater;
+
+import com.googleapis.maps.services.constant.ApplicationConstants;
+
+/**
+ * The Class GzipDecoder.
+ *
+ * Decodes gzip responses with inflaters and buffers taken from bounded
+ * pools shared by all the queries. A {@link java.util.zip.GZIPInputStream}
+ * per response allocates a native inflater that is only freed when the
+ * stream is closed or collected, and two buffers on top of it. Here both
+ * go back to their pool when the stream is closed.
+ */
+public class GzipDecoder {
+
+	/** The inflaters, raw deflate as gzip frames it. */
+	private final ResourcePool<Inflater> inflaters;
+
+	/** The buffers. */
+	private final ResourcePool<byte[]> buffers;
+
+	/**
+	 * Instantiates a new gzip decoder with the pool sizes of the
+	 * application constants.
+	 */
+	public GzipDecoder() {
+		this(ApplicationConstants.COMPRESSION_MAXIMUM_INFLATERS, ApplicationConstants.COMPRESSION_MAXIMUM_BUFFERS,
+				ApplicationConstants.COMPRESSION_BUFFER_SIZE);
+	}
+
+	/**
+	 * Instantiates a new gzip decoder.
+	 *
+	 * @param maximumInflaters the maximum number of idle inflaters
+	 * @param maximumBuffers the maximum number of idle buffers
+	 * @param bufferSize the buffer size
+	 */
+	public GzipDecoder(int maximumInflaters, int maximumBuffers, final int bufferSize) {
+		this.inflaters = new ResourcePool<Inflater>(maximumInflaters, () -> new Inflater(true), Inflater::end);
+		this.buffers = new ResourcePool<byte[]>(maximumBuffers, () -> new byte[bufferSize], null);
+	}
+
+	/**
+	 * Gets the shared instance.
+	 *
+	 * @return the shared instance
+	 */
+	public static GzipDecoder getSharedInstance() {
+		return SharedInstanceHolder.INSTANCE;
+	}
+
+	/**
+	 * Wraps a gzip stream into one that decodes it. Closing the returned
+	 * stream gives its inflater and buffer back and closes the gzip stream.
+	 *
+	 * @param in the gzip stream
+	 *
+	 * @return the decoded stream
+	 *
+	 * @throws IOException if the gzip header cannot be read
+	 */
+	public InputStream decode(InputStream in) throws IOException {
+		return new PooledGzipInputStream(in, this);
+	}
+
+	/**
+	 * Gets the inflater pool.
+	 *
+	 * @return the inflater pool
+	 */
+	public ResourcePool<Inflater> getInflaterPool() {
+		return inflaters;
+	}
+
+	/**
+	 * Gets the buffer pool, its buffers may be borrowed for any copy.
+	 *
+	 * @return the buffer pool
+	 */
+	public ResourcePool<byte[]> getBufferPool() {
+		return buffers;
+	}
+
+	/**
+	 * Takes an inflater.
+	 *
+	 * @return the inflater
+	 */
+	Inflater acquireInflater() {
+		return inflaters.acquire();
+	}
+
+	/**
+	 * Gives an inflater back.
+	 *
+	 * @param inflater the inflater
+	 */
+	void releaseInflater(Inflater inflater) {
+		inflater.reset();
+		inflaters.release(inflater);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "GzipDecoder [inflaters=" + inflaters + ", buffers=" + buffers + "]";
+	}
+
+	/**
+	 * The Class SharedInstanceHolder.
+	 */
+	private static class SharedInstanceHolder {
+
+		/** The Constant INSTANCE. */
+		private static final GzipDecoder INSTANCE = new GzipDecoder();
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.hedging;
+
+/**
+ * The Class HedgingStats.
+ *
+ * An immutable snapshot of a hedging policy.
+ */
+public class HedgingStats {
+
+	/** The requests. */
+	private final long requests;
+
+	/** The hedges. */
+	private final long hedges;
+
+	/** The wins. */
+	private final long wins;
+
+	/** The budget rejections. */
+	private final long budgetRejections;
+
+	/** The rate limit rejections. */
+	private final long rateLimitRejections;
+
+	/**
+	 * Instantiates a new hedging stats.
+	 *
+	 * @param requests the requests
+	 * @param hedges the hedges
+	 * @param wins the wins
+	 * @param budgetRejections the budget rejections
+	 * @param rateLimitRejections the rate limit rejections
+	 */
+	public HedgingStats(long requests, long hedges, long wins, long budgetRejections, long rateLimitRejections) {
+		this.requests = requests;
+		this.hedges = hedges;
+		this.wins = wins;
+		this.budgetRejections = budgetRejections;
+		this.rateLimitRejections = rateLimitRejections;
+	}
+
+	/**
+	 * Gets the number of requests that could be hedged.
+	 *
+	 * @return the requests
+	 */
+	public long getRequests() {
+		return requests;
+	}
+
+	/**
+	 * Gets the number of hedges sent.
+	 *
+	 * @return the hedges
+	 */
+	public long getHedges() {
+		return hedges;
+	}
+
+	/**
+	 * Gets the number of hedges answered before the original request.
+	 *
+	 * @return the wins
+	 */
+	public long getWins() {
+		return wins;
+	}
+
+	/**
+	 * Gets the number of hedges not sent because the budget was spent.
+	 *
+	 * @return the budget rejections
+	 */
+	public long getBudgetRejections() {
+		return budgetRejections;
+	}
+
+	/**
+	 * Gets the number of hedges not sent because the rate limiter had no
+	 * permit for them.
+	 *
+	 * @return the rate limit rejections
+	 */
+	public long getRateLimitRejections() {
+		return rateLimitRejections;
+	}
+
+	/**
+	 * Gets the extra load caused by the hedges.
+	 *
+	 * @return the hedges per request
+	 */
+	public double getExtraLoad() {
+		return (requests == 0) ? 0 : (double) hedges / requests;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "HedgingStats [requests=" + requests + ", hedges=" + hedges
+				+ ", wins=" + wins + ", budgetRejections=" + budgetRejections
+				+ ", rateLimitRejections=" + rateLimitRejections + "]";
+	}
+}
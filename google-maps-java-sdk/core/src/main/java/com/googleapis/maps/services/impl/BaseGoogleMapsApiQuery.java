@@ -16,28 +16,30 @@
  */
 package com.googleapis.maps.services.impl;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.net.HttpURLConnection;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 
-import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
-import com.googleapis.maps.schema.AddressComponentType;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.googleapis.maps.schema.GeoLocation;
-import com.googleapis.maps.schema.LocationType;
 import com.googleapis.maps.services.AsyncResponseHandler;
 import com.googleapis.maps.services.GoogleMapsException;
 import com.googleapis.maps.services.GoogleMapsQuery;
@@ -45,8 +47,19 @@ import com.googleapis.maps.services.InvalidRequestException;
 import com.googleapis.maps.services.NotFoundException;
 import com.googleapis.maps.services.OverQueryLimitsException;
 import com.googleapis.maps.services.RequestDeniedException;
+import com.googleapis.maps.services.UnknownErrorException;
 import com.googleapis.maps.services.constant.ApplicationConstants;
 import com.googleapis.maps.services.constant.GoogleMapsApiUrls.GoogleMapsApiUrlBuilder;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls.UrlTemplate;
+import com.googleapis.maps.services.json.FieldProjection;
+import com.googleapis.maps.services.json.GsonRegistry;
+import com.googleapis.maps.services.json.JsonCodec;
+import com.googleapis.maps.services.json.JsonCodecs;
+import com.googleapis.maps.services.reactive.PageSource;
+import com.googleapis.maps.services.reactive.ResultPublisher;
+import com.googleapis.maps.services.spec.GoogleMapsSpec;
+import com.googleapis.maps.services.transport.Deadline;
+import com.googleapis.maps.services.transport.HttpRequest;
 
 /**
  * The Class BaseGoogleMapsApiQuery.
@@ -56,14 +69,40 @@ public abstract class BaseGoogleMapsApiQuery<T> extends GoogleMapsApiGateway imp
 	/** The Constant UTF_8_CHAR_SET. */
 	protected static final Charset UTF_8_CHAR_SET = Charset.forName(ApplicationConstants.CONTENT_ENCODING);
 
+	/** The Constant LIST_RESULT, the coalescing kind of list responses. */
+	protected static final String LIST_RESULT = "list";
+
+	/** The Constant DEFAULT_REQUEST_HEADERS, shared by the queries until one changes its own. */
+	private static final Map<String, String> DEFAULT_REQUEST_HEADERS = Collections.singletonMap("Accept-Encoding", "gzip, deflate");
+
+	/** The result types of the query classes, resolved once from their type argument. */
+	private static final ClassValue<Class<?>> RESULT_TYPES = new ClassValue<Class<?>>() {
+
+		@Override
+		protected Class<?> computeValue(Class<?> type) {
+			for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+				Type superclass = clazz.getGenericSuperclass();
+				if (superclass instanceof ParameterizedType
+						&& ((ParameterizedType) superclass).getRawType() == BaseGoogleMapsApiQuery.class) {
+					Type argument = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+					return (argument instanceof Class<?>) ? (Class<?>) argument : null;
+				}
+			}
+			return null;
+		}
+	};
+
 	/** The api url builder. */
 	protected GoogleMapsApiUrlBuilder apiUrlBuilder;
     
-    /** The parser. */
-    protected final JsonParser parser = new JsonParser();
+    /** The Constant PARSER, it keeps no state between documents so all the queries share it. */
+    protected static final JsonParser PARSER = new JsonParser();
+    
+    /** The fields of the results, null for all. */
+    private FieldProjection projection;
     
-    /** The handlers. */
-    private List<AsyncResponseHandler<List<T>>> handlers = new ArrayList<AsyncResponseHandler<List<T>>>();
+    /** The handlers, an empty list shared by all the queries until one is added. */
+    private volatile List<AsyncResponseHandler<List<T>>> handlers = Collections.emptyList();
 	
 	/**
 	 * Instantiates a new base google maps api query.
@@ -72,10 +111,8 @@ public abstract class BaseGoogleMapsApiQuery<T> extends GoogleMapsApiGateway imp
 	 */
 	public BaseGoogleMapsApiQuery(String applicationId) {
 		super.setApplicationKey(applicationId);
-        requestHeaders = new HashMap<String, String>();
-
         // by default we compress contents
-        requestHeaders.put("Accept-Encoding", "gzip, deflate");
+        setSharedRequestHeaders(DEFAULT_REQUEST_HEADERS);
         this.reset();
 	}
 
@@ -95,43 +132,292 @@ public abstract class BaseGoogleMapsApiQuery<T> extends GoogleMapsApiGateway imp
 	 */
 	@Override
 	public List<T> list() {
-		InputStream jsonContent = null;
+		final FieldProjection projection = this.projection;
         try {
-        	jsonContent = callApiGet(apiUrlBuilder.buildUrl());
-        	JsonElement response = parser.parse(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
-        	if (response.isJsonObject()) {
-        		List<T> responseList = unmarshallList(response.getAsJsonObject());
-        		notifyObservers(responseList);
-    			return responseList;
-        	}
-        	throw new GoogleMapsException("Unknown content found in response:" + response.toString());
+        	List<T> responseList = callApiCached(getResultKind(LIST_RESULT, projection), createApiRequest(), HttpURLConnection.HTTP_OK,
+        			jsonContent -> readList(jsonContent, projection));
+        	notifyObservers(responseList);
+        	return responseList;
+        } catch (GoogleMapsException e) {
+        	throw e;
         } catch (Exception e) {
             throw new GoogleMapsException(e);
-        } finally {
-	        closeStream(jsonContent);
-	    }
+        }
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.GoogleMapsQuery#listAsync()
+	 */
+	@Override
+	public CompletableFuture<List<T>> listAsync() {
+		final FieldProjection projection = this.projection;
+		CompletableFuture<List<T>> future = callApiCachedAsync(getResultKind(LIST_RESULT, projection), createApiRequest(),
+				HttpURLConnection.HTTP_OK, jsonContent -> readList(jsonContent, projection));
+		for (AsyncResponseHandler<List<T>> handler : handlers) {
+			handler.setFuture(future);
+		}
+		future.thenAccept(responseList -> notifyObservers(responseList));
+		return future;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.GoogleMapsQuery#publisher()
+	 */
+	@Override
+	public Flow.Publisher<T> publisher() {
+		final String url = apiUrlBuilder.buildUrl();
+		final FieldProjection projection = this.projection;
+		return new ResultPublisher<T>(() -> new PageSource<T>() {
+
+			/** Whether the list is fetched, it is the only page. */
+			private boolean fetched;
+
+			@Override
+			public CompletableFuture<? extends List<T>> nextPage(List<T> previousPage) {
+				if (fetched) {
+					return null;
+				}
+				fetched = true;
+				return callApiCachedAsync(getResultKind(LIST_RESULT, projection), createRequest(GET_METHOD, url),
+						HttpURLConnection.HTTP_OK, jsonContent -> readList(jsonContent, projection));
+			}
+		});
 	}
 
 	/**
-	 * Unmarshall list.
+	 * Lists the results of a spec. Only the request and the results are
+	 * allocated, the state of the query is neither read nor changed, so any
+	 * number of threads can run their specs through the same query.
 	 * 
-	 * @param response the response
+	 * @param spec the spec
 	 * 
 	 * @return the list< t>
 	 */
-	protected List<T> unmarshallList(JsonObject response) {
-		String status = response.get("status").getAsString();
-		if (!"OK".equals(status) && !"ZERO_RESULTS".equals(status)) {
-			throw createGoogleMapsException(status);
-		}
-		ArrayList<T> list = new ArrayList<T>();
-		JsonArray results = response.get("results").getAsJsonArray();
-		for (JsonElement object : results) {
-			T element = unmarshall(object);
-			list.add(element);
+	public List<T> list(GoogleMapsSpec<T, ?> spec) {
+		final FieldProjection projection = spec.getProjection();
+        try {
+        	return callApiCached(getResultKind(LIST_RESULT, projection), createSpecRequest(spec), HttpURLConnection.HTTP_OK,
+        			jsonContent -> readList(jsonContent, projection));
+        } catch (GoogleMapsException e) {
+        	throw e;
+        } catch (Exception e) {
+            throw new GoogleMapsException(e);
+        }
+	}
+
+	/**
+	 * Lists the results of a spec asynchronously.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the future of the list< t>
+	 */
+	public CompletableFuture<List<T>> listAsync(GoogleMapsSpec<T, ?> spec) {
+		final FieldProjection projection = spec.getProjection();
+		return callApiCachedAsync(getResultKind(LIST_RESULT, projection), createSpecRequest(spec),
+				HttpURLConnection.HTTP_OK, jsonContent -> readList(jsonContent, projection));
+	}
+
+	/**
+	 * Gets the first result of a spec.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the t, null if there is none
+	 */
+	public T singleResult(GoogleMapsSpec<T, ?> spec) {
+		List<T> list = list(spec);
+		return (list == null || list.isEmpty())? null : list.get(0);
+	}
+
+	/**
+	 * Gets the first result of a spec asynchronously.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the future of the t
+	 */
+	public CompletableFuture<T> singleResultAsync(GoogleMapsSpec<T, ?> spec) {
+		return listAsync(spec).thenApply(list -> (list == null || list.isEmpty())? null : list.get(0));
+	}
+
+	/**
+	 * Creates the request for the current state of the query.
+	 * 
+	 * @return the http request
+	 */
+	protected HttpRequest createApiRequest() {
+		return createRequest(GET_METHOD, apiUrlBuilder.buildUrl());
+	}
+
+	/**
+	 * Creates the request of a spec, with the deadline of its own timeout if
+	 * it has one.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the http request
+	 */
+	protected HttpRequest createSpecRequest(GoogleMapsSpec<T, ?> spec) {
+		HttpRequest request = createRequest(GET_METHOD, spec.getUrl());
+		long timeout = spec.getTimeout(TimeUnit.MILLISECONDS);
+		if (timeout > 0) {
+			request.setDeadline(Deadline.after(timeout, TimeUnit.MILLISECONDS));
 		}
+		return request;
+	}
+
+	/**
+	 * Reads the list response. The results are bound one at a time as they
+	 * stream in, so the response is never held as a whole tree.
+	 * 
+	 * @param jsonContent the json content
+	 * 
+	 * @return the list< t>
+	 */
+	protected List<T> readList(InputStream jsonContent) {
+		return readList(jsonContent, projection);
+	}
+
+	/**
+	 * Reads the list response, with the given fields of the results.
+	 * 
+	 * @param jsonContent the json content
+	 * @param projection the fields read of the results, null for all
+	 * 
+	 * @return the list< t>
+	 */
+	protected List<T> readList(InputStream jsonContent, final FieldProjection projection) {
+		final List<T> list = new ArrayList<T>();
+		readResponse(jsonContent, (name, reader) -> {
+			if (!"results".equals(name)) {
+				return false;
+			}
+			readResults(reader, list, projection);
+			return true;
+		});
 		return list;
 	}
+
+	/**
+	 * Reads an array of results into the list.
+	 * 
+	 * @param reader the reader, positioned at the array
+	 * @param list the list
+	 * @param projection the fields read, null for all
+	 * 
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	protected void readResults(JsonReader reader, List<T> list, FieldProjection projection) throws IOException {
+		if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+			reader.skipValue();
+			return;
+		}
+		reader.beginArray();
+		while (reader.hasNext()) {
+			list.add(readResult(reader, projection));
+		}
+		reader.endArray();
+	}
+
+	/**
+	 * Reads the next result, through the generated codec of the result type
+	 * if there is one, else through the tree of the result itself.
+	 * 
+	 * @param reader the reader, positioned at the result
+	 * @param projection the fields read, null for all
+	 * 
+	 * @return the t
+	 * 
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	protected T readResult(JsonReader reader, FieldProjection projection) throws IOException {
+		JsonCodec<T> codec = getResultCodec();
+		if (codec != null) {
+			return codec.read(reader, projection);
+		}
+		return unmarshall((projection == null) ? PARSER.parse(reader) : projection.readElement(reader));
+	}
+
+	/**
+	 * Gets the kind of a result, qualified by the fields read so that
+	 * projected results are cached and shared apart from whole ones.
+	 * 
+	 * @param resultKind the result kind
+	 * 
+	 * @return the result kind
+	 */
+	protected String getResultKind(String resultKind) {
+		return getResultKind(resultKind, projection);
+	}
+
+	/**
+	 * Gets the kind of a result, qualified by the given fields.
+	 * 
+	 * @param resultKind the result kind
+	 * @param projection the fields read, null for all
+	 * 
+	 * @return the result kind
+	 */
+	protected static String getResultKind(String resultKind, FieldProjection projection) {
+		return (projection == null) ? resultKind : resultKind + "(" + projection + ")";
+	}
+
+	/**
+	 * Gets the generated codec of the result type. A query that binds its
+	 * results in {@link #unmarshall(JsonElement)} in its own way returns null.
+	 * 
+	 * @return the result codec, null to bind the results through reflection
+	 */
+	@SuppressWarnings("unchecked")
+	protected JsonCodec<T> getResultCodec() {
+		Class<?> resultType = RESULT_TYPES.get(getClass());
+		return (resultType == null) ? null : (JsonCodec<T>) JsonCodecs.get(resultType);
+	}
+
+	/**
+	 * Reads a response, handing its members to the given reader as they
+	 * stream past. The api writes the status last, so the members are read
+	 * as they come and dropped if the status turns out to be an error.
+	 * 
+	 * @param jsonContent the json content
+	 * @param memberReader the response member reader
+	 */
+	protected void readResponse(InputStream jsonContent, ResponseMemberReader memberReader) {
+		JsonReader reader = new JsonReader(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
+		try {
+			if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+				throw new GoogleMapsException("Unknown content found in response: " + reader.peek() + " instead of an object.");
+			}
+			String status = null;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				if ("status".equals(name)) {
+					status = reader.nextString();
+				} else if ((status != null && !isSuccess(status)) || !memberReader.read(name, reader)) {
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			if (!isSuccess(status)) {
+				throw createGoogleMapsException(status);
+			}
+		} catch (IOException e) {
+			throw new GoogleMapsException(e);
+		}
+	}
+
+	/**
+	 * Checks if a response status is a success.
+	 * 
+	 * @param status the status
+	 * 
+	 * @return true, if is success
+	 */
+	protected static boolean isSuccess(String status) {
+		return "OK".equals(status) || "ZERO_RESULTS".equals(status);
+	}
 	
 	/**
 	 * Unmarshall.
@@ -143,8 +429,7 @@ public abstract class BaseGoogleMapsApiQuery<T> extends GoogleMapsApiGateway imp
 	 */
 	@SuppressWarnings("unchecked")
 	protected <E> E unmarshall(TypeToken<E> typeToken, JsonElement response) {
-		Gson gson = getGsonBuilder().create();
-		return (E) gson.fromJson(response, typeToken.getType());
+		return (E) getGson().fromJson(response, typeToken.getType());
 	}
 
 	/**
@@ -164,6 +449,40 @@ public abstract class BaseGoogleMapsApiQuery<T> extends GoogleMapsApiGateway imp
 		List<T> list = list();
 		return (list == null || list.isEmpty())? null : list.get(0);
 	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.GoogleMapsQuery#singleResultAsync()
+	 */
+	@Override
+	public CompletableFuture<T> singleResultAsync() {
+		return listAsync().thenApply(list -> (list == null || list.isEmpty())? null : list.get(0));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.GoogleMapsQuery#withFields(java.lang.String[])
+	 */
+	@Override
+	public GoogleMapsQuery<T> withFields(String... fields) {
+		if (fields == null || fields.length == 0) {
+			projection = null;
+			return this;
+		}
+		Class<?> resultType = RESULT_TYPES.get(getClass());
+		if (resultType == null) {
+			throw new IllegalStateException("The result type of " + getClass().getName() + " is not known.");
+		}
+		projection = FieldProjection.of(resultType, fields);
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.GoogleMapsQuery#withTimeout(long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public GoogleMapsQuery<T> withTimeout(long timeout, TimeUnit unit) {
+		setCallTimeout(timeout, unit);
+		return this;
+	}
 	
 	/**
 	 * Notify observers.
@@ -180,7 +499,12 @@ public abstract class BaseGoogleMapsApiQuery<T> extends GoogleMapsApiGateway imp
 	 * @see com.google.code.stackexchange.client.query.StackExchangeApiQuery#addResonseHandler(com.google.code.stackexchange.client.AsyncResponseHandler)
 	 */
 	public void addResonseHandler(AsyncResponseHandler<List<T>> handler) {
-		handlers.add(handler);
+		synchronized (this) {
+			if (!(handlers instanceof CopyOnWriteArrayList)) {
+				handlers = new CopyOnWriteArrayList<AsyncResponseHandler<List<T>>>(handlers);
+			}
+			handlers.add(handler);
+		}
 	}
 	
     /* (non-Javadoc)
@@ -196,32 +520,16 @@ public abstract class BaseGoogleMapsApiQuery<T> extends GoogleMapsApiGateway imp
 	 * @return the gson builder
 	 */
 	protected GsonBuilder getGsonBuilder() {
-		GsonBuilder builder = new GsonBuilder();
-		builder.setDateFormat(ApplicationConstants.RFC822DATEFORMAT);
-		builder.setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES);
-		builder.registerTypeAdapter(LocationType.class, new JsonDeserializer<LocationType>() {
-			@Override
-			public LocationType deserialize(JsonElement arg0, Type arg1,
-					JsonDeserializationContext arg2) throws JsonParseException {
-				return LocationType.fromValue(arg0.getAsString());
-			}
-		});
-		builder.registerTypeAdapter(AddressComponentType.class, new JsonDeserializer<AddressComponentType>() {
-			@Override
-			public AddressComponentType deserialize(JsonElement arg0, Type arg1,
-					JsonDeserializationContext arg2) throws JsonParseException {
-				return AddressComponentType.fromValue(arg0.getAsString());
-			}
-		});
-//		builder.registerTypeAdapter(TravelMode.class, new JsonDeserializer<TravelMode>() {
-//			@Override
-//			public TravelMode deserialize(JsonElement arg0, Type arg1,
-//					JsonDeserializationContext arg2) throws JsonParseException {
-//				return TravelMode.fromValue(arg0.getAsString());
-//			}
-//		});
-		
-		return builder;
+		return GsonRegistry.newGsonBuilder();
+	}
+
+	/**
+	 * Gets the gson the results are bound with, shared by all the queries.
+	 * 
+	 * @return the gson
+	 */
+	protected Gson getGson() {
+		return GsonRegistry.getGson();
 	}
     
 	/* (non-Javadoc)
@@ -243,6 +551,18 @@ public abstract class BaseGoogleMapsApiQuery<T> extends GoogleMapsApiGateway imp
 		return new GoogleMapsApiUrlBuilder(urlFormat);
 	}
 	
+	/**
+	 * Creates the api url builder of a url template compiled once per
+	 * query class.
+	 * 
+	 * @param template the url template
+	 * 
+	 * @return the api url builder
+	 */
+	protected GoogleMapsApiUrlBuilder createGoogleSearchApiUrlBuilder(UrlTemplate template) {
+		return new GoogleMapsApiUrlBuilder(template, ApplicationConstants.DEFAULT_API_VERSION);
+	}
+	
 	/**
 	 * To parameter string.
 	 * 
@@ -301,9 +621,29 @@ public abstract class BaseGoogleMapsApiQuery<T> extends GoogleMapsApiGateway imp
 		} else if ("MAX_WAYPOINTS_EXCEEDED".equals(statusCode)) {
 			return new NotFoundException("indicates that too many waypointss were provided in the request The maximum allowed waypoints is 8, plus the origin, and destination.");
 		} else if ("UNKNOWN_ERROR".equals(statusCode)) {
-			return new NotFoundException("indicates a directions request could not be processed due to a server error. The request may succeed if you try again.");
+			return new UnknownErrorException("indicates a directions request could not be processed due to a server error. The request may succeed if you try again.");
 		} else {
 			return null;
 		}
 	}
+
+	/**
+	 * The Interface ResponseMemberReader.
+	 *
+	 * Reads the members of a response from the token stream.
+	 */
+	protected interface ResponseMemberReader {
+
+		/**
+		 * Reads a member of the response other than the status.
+		 * 
+		 * @param name the name of the member
+		 * @param reader the reader, positioned at the value of the member
+		 * 
+		 * @return false, if the member was not read and is to be skipped
+		 * 
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		boolean read(String name, JsonReader reader) throws IOException;
+	}
 }
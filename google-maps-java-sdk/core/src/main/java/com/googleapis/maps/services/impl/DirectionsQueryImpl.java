@@ -16,13 +16,11 @@
  */
 package com.googleapis.maps.services.impl;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.googleapis.maps.schema.DirectionsResult;
 import com.googleapis.maps.schema.GeoLocation;
 import com.googleapis.maps.schema.Language;
@@ -31,7 +29,9 @@ import com.googleapis.maps.schema.TravelMode;
 import com.googleapis.maps.schema.UnitSystem;
 import com.googleapis.maps.services.DirectionsQuery;
 import com.googleapis.maps.services.constant.GoogleMapsApiUrls;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls.UrlTemplate;
 import com.googleapis.maps.services.constant.ParameterNames;
+import com.googleapis.maps.services.json.FieldProjection;
 
 /**
  * The Class DirectionsQueryImpl.
@@ -39,6 +39,9 @@ import com.googleapis.maps.services.constant.ParameterNames;
 public class DirectionsQueryImpl extends BaseGoogleMapsApiQuery<DirectionsResult> implements
 	DirectionsQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleMapsApiUrls.DIRECTIONS_URL);
+	
 	/**
 	 * Instantiates a new directions query impl.
 	 * 
@@ -54,7 +57,7 @@ public class DirectionsQueryImpl extends BaseGoogleMapsApiQuery<DirectionsResult
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleMapsApiUrls.DIRECTIONS_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 	/* (non-Javadoc)
@@ -62,8 +65,7 @@ public class DirectionsQueryImpl extends BaseGoogleMapsApiQuery<DirectionsResult
 	 */
 	@Override
 	protected DirectionsResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, DirectionsResult.class);
+		return getGson().fromJson(object, DirectionsResult.class);
 	}
 
 
@@ -194,19 +196,18 @@ public class DirectionsQueryImpl extends BaseGoogleMapsApiQuery<DirectionsResult
 	}
 	
 	/* (non-Javadoc)
-	 * @see com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery#unmarshallList(com.google.gson.JsonObject)
+	 * @see com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery#readList(java.io.InputStream, com.googleapis.maps.services.json.FieldProjection)
 	 */
-	protected List<DirectionsResult> unmarshallList(JsonObject response) {
-		String status = response.get("status").getAsString();
-		if (!"OK".equals(status) && !"ZERO_RESULTS".equals(status)) {
-			throw createGoogleMapsException(status);
-		}
-		ArrayList<DirectionsResult> list = new ArrayList<DirectionsResult>();
-		JsonArray results = response.get("routes").getAsJsonArray();
-		for (JsonElement object : results) {
-			DirectionsResult element = unmarshall(object);
-			list.add(element);
-		}
+	@Override
+	protected List<DirectionsResult> readList(InputStream jsonContent, final FieldProjection projection) {
+		final List<DirectionsResult> list = new ArrayList<DirectionsResult>();
+		readResponse(jsonContent, (name, reader) -> {
+			if (!"routes".equals(name)) {
+				return false;
+			}
+			readResults(reader, list, projection);
+			return true;
+		});
 		return list;
 	}
 }
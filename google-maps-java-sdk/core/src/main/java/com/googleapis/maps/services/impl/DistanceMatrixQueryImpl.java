@@ -16,14 +16,13 @@
  */
 package com.googleapis.maps.services.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.googleapis.maps.schema.DistanceMatrixResult;
 import com.googleapis.maps.schema.GeoLocation;
 import com.googleapis.maps.schema.Language;
@@ -32,7 +31,10 @@ import com.googleapis.maps.schema.TravelMode;
 import com.googleapis.maps.schema.UnitSystem;
 import com.googleapis.maps.services.DistanceMatrixQuery;
 import com.googleapis.maps.services.constant.GoogleMapsApiUrls;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls.UrlTemplate;
 import com.googleapis.maps.services.constant.ParameterNames;
+import com.googleapis.maps.services.json.FieldProjection;
+import com.googleapis.maps.services.transport.HttpRequest;
 
 /**
  * The Class DistanceMatrixQueryImpl.
@@ -40,6 +42,9 @@ import com.googleapis.maps.services.constant.ParameterNames;
 public class DistanceMatrixQueryImpl extends BaseGoogleMapsApiQuery<DistanceMatrixResult> implements
 	DistanceMatrixQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleMapsApiUrls.DISTANCE_MATRIX_URL);
+	
 	/**
 	 * Instantiates a new distance matrix query impl.
 	 * 
@@ -55,7 +60,7 @@ public class DistanceMatrixQueryImpl extends BaseGoogleMapsApiQuery<DistanceMatr
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleMapsApiUrls.DISTANCE_MATRIX_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 	/* (non-Javadoc)
@@ -185,21 +190,29 @@ public class DistanceMatrixQueryImpl extends BaseGoogleMapsApiQuery<DistanceMatr
 	}
 	
 	/* (non-Javadoc)
-	 * @see com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery#unmarshallList(com.google.gson.JsonObject)
+	 * @see com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery#readList(java.io.InputStream, com.googleapis.maps.services.json.FieldProjection)
 	 */
-	protected List<DistanceMatrixResult> unmarshallList(JsonObject response) {
-		String status = response.get("status").getAsString();
-		if (!"OK".equals(status) && !"ZERO_RESULTS".equals(status)) {
-			throw createGoogleMapsException(status);
-		}
-		List<String> originAddresses = unmarshall(new TypeToken<List<String>>(){}, response.get("origin_addresses"));
-		List<String> destinationAddresses = unmarshall(new TypeToken<List<String>>(){}, response.get("destination_addresses"));
-		
+	@Override
+	protected List<DistanceMatrixResult> readList(InputStream jsonContent, final FieldProjection projection) {
+		final List<String> originAddresses = new ArrayList<String>();
+		final List<String> destinationAddresses = new ArrayList<String>();
+		final List<List<DistanceMatrixResult>> rows = new ArrayList<List<DistanceMatrixResult>>();
+		readResponse(jsonContent, (name, reader) -> {
+			if ("origin_addresses".equals(name)) {
+				readAddresses(reader, originAddresses);
+			} else if ("destination_addresses".equals(name)) {
+				readAddresses(reader, destinationAddresses);
+			} else if ("rows".equals(name)) {
+				readRows(reader, rows, projection);
+			} else {
+				return false;
+			}
+			return true;
+		});
+		// the addresses may come after the rows, match them up once all is read.
 		ArrayList<DistanceMatrixResult> list = new ArrayList<DistanceMatrixResult>();
-		JsonArray results = response.get("rows").getAsJsonArray();
-		for (int i = 0; i < results.size(); i++) {
-			JsonElement object = results.get(i);
-			List<DistanceMatrixResult> elements = unmarshall(new TypeToken<List<DistanceMatrixResult>>(){}, object.getAsJsonObject().get("elements"));
+		for (int i = 0; i < rows.size(); i++) {
+			List<DistanceMatrixResult> elements = rows.get(i);
 			for (int j = 0; j < elements.size(); j++) {
 				DistanceMatrixResult element = elements.get(j);
 				element.setOriginAddress(originAddresses.get(i));
@@ -210,13 +223,91 @@ public class DistanceMatrixQueryImpl extends BaseGoogleMapsApiQuery<DistanceMatr
 		return list;
 	}
 
+	/**
+	 * Reads an array of addresses.
+	 * 
+	 * @param reader the reader
+	 * @param addresses the addresses
+	 * 
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static void readAddresses(JsonReader reader, List<String> addresses) throws IOException {
+		reader.beginArray();
+		while (reader.hasNext()) {
+			addresses.add(reader.nextString());
+		}
+		reader.endArray();
+	}
+
+	/**
+	 * Reads the rows of the matrix, one list of elements per origin.
+	 * 
+	 * @param reader the reader
+	 * @param rows the rows
+	 * @param projection the fields read of the elements, null for all
+	 * 
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void readRows(JsonReader reader, List<List<DistanceMatrixResult>> rows, FieldProjection projection) throws IOException {
+		reader.beginArray();
+		while (reader.hasNext()) {
+			List<DistanceMatrixResult> elements = new ArrayList<DistanceMatrixResult>();
+			reader.beginObject();
+			while (reader.hasNext()) {
+				if ("elements".equals(reader.nextName())) {
+					readResults(reader, elements, projection);
+				} else {
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			rows.add(elements);
+		}
+		reader.endArray();
+	}
+
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.impl.GoogleMapsApiGateway#getRateLimitPermits(com.googleapis.maps.services.transport.HttpRequest)
+	 */
+	@Override
+	protected int getRateLimitPermits(HttpRequest request) {
+		// the quota of the endpoint counts elements, one per origin and destination pair.
+		return Math.max(1, countLocations(request.getUrl(), ParameterNames.ORIGINS)
+				* countLocations(request.getUrl(), ParameterNames.DESTINATIONS));
+	}
+
+	/**
+	 * Counts the locations of a parameter of an url.
+	 * 
+	 * @param url the url
+	 * @param name the name of the parameter
+	 * 
+	 * @return the number of locations
+	 */
+	private static int countLocations(String url, String name) {
+		int start = url.indexOf("?" + name + "=");
+		if (start < 0) {
+			start = url.indexOf("&" + name + "=");
+		}
+		if (start < 0) {
+			return 0;
+		}
+		start += name.length() + 2;
+		int end = url.indexOf('&', start);
+		String value = url.substring(start, (end < 0) ? url.length() : end).toUpperCase();
+		int count = 1;
+		for (int i = value.indexOf("%7C"); i >= 0; i = value.indexOf("%7C", i + 3)) {
+			count++;
+		}
+		return count;
+	}
 
 	/* (non-Javadoc)
 	 * @see com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery#unmarshall(com.google.gson.JsonElement)
 	 */
 	@Override
 	protected DistanceMatrixResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, DistanceMatrixResult.class);
+		return getGson().fromJson(object, DistanceMatrixResult.class);
 	}
 }
@@ -16,12 +16,12 @@
  */
 package com.googleapis.maps.services.impl;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.maps.schema.ElevationResult;
 import com.googleapis.maps.schema.GeoLocation;
 import com.googleapis.maps.services.ElevationQuery;
 import com.googleapis.maps.services.constant.GoogleMapsApiUrls;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls.UrlTemplate;
 import com.googleapis.maps.services.constant.ParameterNames;
 
 /**
@@ -30,6 +30,9 @@ import com.googleapis.maps.services.constant.ParameterNames;
 public class ElevationQueryImpl extends BaseGoogleMapsApiQuery<ElevationResult> implements
 	ElevationQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleMapsApiUrls.ELEVATION_URL);
+	
 	/**
 	 * Instantiates a new elevation query impl.
 	 * 
@@ -45,7 +48,7 @@ public class ElevationQueryImpl extends BaseGoogleMapsApiQuery<ElevationResult>
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleMapsApiUrls.ELEVATION_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 	/* (non-Javadoc)
@@ -53,8 +56,7 @@ public class ElevationQueryImpl extends BaseGoogleMapsApiQuery<ElevationResult>
 	 */
 	@Override
 	protected ElevationResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, ElevationResult.class);
+		return getGson().fromJson(object, ElevationResult.class);
 	}
 
 
@@ -16,7 +16,6 @@
  */
 package com.googleapis.maps.services.impl;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.maps.schema.Bounds;
 import com.googleapis.maps.schema.Region;
@@ -25,6 +24,7 @@ import com.googleapis.maps.schema.GeocodingResult;
 import com.googleapis.maps.schema.Language;
 import com.googleapis.maps.services.GeocodingQuery;
 import com.googleapis.maps.services.constant.GoogleMapsApiUrls;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls.UrlTemplate;
 import com.googleapis.maps.services.constant.ParameterNames;
 
 /**
@@ -33,6 +33,9 @@ import com.googleapis.maps.services.constant.ParameterNames;
 public class GeocodingQueryImpl extends BaseGoogleMapsApiQuery<GeocodingResult> implements
 	GeocodingQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleMapsApiUrls.GEOCODE_URL);
+	
 	/**
 	 * Instantiates a new geocoding query impl.
 	 * 
@@ -48,7 +51,7 @@ public class GeocodingQueryImpl extends BaseGoogleMapsApiQuery<GeocodingResult>
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleMapsApiUrls.GEOCODE_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 	/* (non-Javadoc)
@@ -56,8 +59,7 @@ public class GeocodingQueryImpl extends BaseGoogleMapsApiQuery<GeocodingResult>
 	 */
 	@Override
 	protected GeocodingResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, GeocodingResult.class);
+		return getGson().fromJson(object, GeocodingResult.class);
 	}
 
 
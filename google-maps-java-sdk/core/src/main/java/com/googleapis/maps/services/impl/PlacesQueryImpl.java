@@ -16,17 +16,12 @@
  */
 package com.googleapis.maps.services.impl;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.googleapis.maps.schema.GeoLocation;
 import com.googleapis.maps.schema.PlacesResult;
 import com.googleapis.maps.services.PlacesQuery;
 import com.googleapis.maps.services.constant.GoogleMapsApiUrls;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls.UrlTemplate;
 import com.googleapis.maps.services.constant.ParameterNames;
 
 /**
@@ -35,6 +30,9 @@ import com.googleapis.maps.services.constant.ParameterNames;
 public class PlacesQueryImpl extends BaseGoogleMapsApiQuery<PlacesResult> implements
 	PlacesQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleMapsApiUrls.PLACE_URL);
+	
 	/**
 	 * Instantiates a new places query impl.
 	 * 
@@ -50,7 +48,7 @@ public class PlacesQueryImpl extends BaseGoogleMapsApiQuery<PlacesResult> implem
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleMapsApiUrls.PLACE_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 	/* (non-Javadoc)
@@ -58,8 +56,7 @@ public class PlacesQueryImpl extends BaseGoogleMapsApiQuery<PlacesResult> implem
 	 */
 	@Override
 	protected PlacesResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, PlacesResult.class);
+		return getGson().fromJson(object, PlacesResult.class);
 	}
 
 	/* (non-Javadoc)
@@ -110,22 +107,4 @@ public class PlacesQueryImpl extends BaseGoogleMapsApiQuery<PlacesResult> implem
 		apiUrlBuilder.withParameter(ParameterNames.SENSOR, String.valueOf(sensor));
 		return this;
 	}
-	
-	/* (non-Javadoc)
-	 * @see com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery#unmarshallList(com.google.gson.JsonObject)
-	 */
-	@Override
-	protected List<PlacesResult> unmarshallList(JsonObject response) {
-		String status = response.get("status").getAsString();
-		if (!"OK".equals(status) && !"ZERO_RESULTS".equals(status)) {
-			throw createGoogleMapsException(status);
-		}
-		ArrayList<PlacesResult> list = new ArrayList<PlacesResult>();
-		JsonArray results = response.get("results").getAsJsonArray();
-		for (JsonElement object : results) {
-			PlacesResult element = unmarshall(object);
-			list.add(element);
-		}
-		return list;
-	}
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.json;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The Annotation GenerateCodecs.
+ *
+ * Asks the codec processor of the build for a {@link JsonCodec} per entity,
+ * generated in the package of the annotated type along with a
+ * {@link JsonCodecProvider} named <code>GeneratedJsonCodecs</code>. The
+ * entities the given ones refer to, e.g. through a list, get a codec too.
+ * An entity the processor cannot bind through its accessors gets none and
+ * is left to reflection.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateCodecs {
+
+	/**
+	 * The entities.
+	 *
+	 * @return the classes
+	 */
+	Class<?>[] value();
+
+	/**
+	 * The naming of the json members after the fields.
+	 *
+	 * @return the field naming
+	 */
+	FieldNaming fieldNaming() default FieldNaming.IDENTITY;
+
+	/**
+	 * The Enum FieldNaming, after the gson field naming policies.
+	 */
+	public enum FieldNaming {
+
+		/** The member is named as the field. */
+		IDENTITY,
+
+		/** The member of field someField is named some_field. */
+		LOWER_CASE_WITH_UNDERSCORES
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.json;
+
+import java.time.Instant;
+import java.util.Date;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.googleapis.maps.schema.ValueEnum;
+
+/**
+ * The Class GsonRegistry.
+ *
+ * Holds the Gson instance the queries bind responses with. Gson instances
+ * are thread safe and cache the adapters they build per type, so sharing
+ * one keeps that work from being redone for every result.
+ */
+public final class GsonRegistry {
+
+	/**
+	 * Instantiates a new gson registry.
+	 */
+	private GsonRegistry() {}
+
+	/**
+	 * Gets the shared gson.
+	 *
+	 * @return the gson
+	 */
+	public static Gson getGson() {
+		return GsonHolder.INSTANCE;
+	}
+
+	/**
+	 * Creates a builder with the settings of the shared gson, e.g. to add
+	 * adapters of one's own.
+	 *
+	 * @return the gson builder
+	 */
+	public static GsonBuilder newGsonBuilder() {
+		GsonBuilder builder = new GsonBuilder();
+		builder.registerTypeAdapter(Date.class, Rfc822DateCodec.DATE);
+		builder.registerTypeAdapter(Instant.class, Rfc822DateCodec.INSTANT);
+		builder.setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES);
+		builder.registerTypeHierarchyAdapter(ValueEnum.class, new ValueEnumDeserializer());
+		return builder;
+	}
+
+	/**
+	 * The Class GsonHolder.
+	 */
+	private static class GsonHolder {
+
+		/** The Constant INSTANCE. */
+		private static final Gson INSTANCE = newGsonBuilder().create();
+	}
+}
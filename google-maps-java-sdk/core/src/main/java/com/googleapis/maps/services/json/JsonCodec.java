@@ -0,0 +1,68 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.json;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * The Interface JsonCodec.
+ *
+ * Reads and writes one type from and to a token stream without going
+ * through a tree or reflection. The codecs of the schema entities are
+ * generated at build time, see {@link GenerateCodecs}.
+ */
+public interface JsonCodec<T> {
+
+	/**
+	 * Reads the next value.
+	 *
+	 * @param reader the reader, positioned at the value
+	 *
+	 * @return the t, null for a json null
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public T read(JsonReader reader) throws IOException;
+
+	/**
+	 * Reads the next value, skipping the members the projection leaves out.
+	 * Only the codecs of entities have members to skip.
+	 *
+	 * @param reader the reader, positioned at the value
+	 * @param projection the projection, null for all members
+	 *
+	 * @return the t, null for a json null
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public default T read(JsonReader reader, FieldProjection projection) throws IOException {
+		return read(reader);
+	}
+
+	/**
+	 * Writes a value.
+	 *
+	 * @param writer the writer
+	 * @param value the value, null writes null
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void write(JsonWriter writer, T value) throws IOException;
+}
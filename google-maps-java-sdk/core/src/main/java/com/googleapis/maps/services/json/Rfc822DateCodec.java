@@ -0,0 +1,426 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.json;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.googleapis.maps.services.constant.ApplicationConstants;
+
+/**
+ * The Class Rfc822DateCodec.
+ *
+ * Reads and writes the RFC-822 dates of the responses, e.g.
+ * <code>Mon, 04 Oct 2010 07:51:47 -0700</code>, as {@link Date}s or
+ * {@link Instant}s. The dates are parsed straight from their chars, the
+ * start of the day of the recent date prefixes is cached, and the codecs
+ * are thread safe, unlike the <code>SimpleDateFormat</code> gson shares
+ * between threads. Dates the parser does not recognize, e.g. with a named
+ * time zone, or any date if the date format of the application constants
+ * is not the RFC-822 one, go through a <code>SimpleDateFormat</code> per
+ * thread. The codecs are also the gson adapters of their types.
+ */
+public abstract class Rfc822DateCodec<T> implements JsonCodec<T>, JsonSerializer<T>, JsonDeserializer<T> {
+
+	/** The Constant DATE. */
+	public static final Rfc822DateCodec<Date> DATE = new Rfc822DateCodec<Date>() {
+
+		@Override
+		protected Date fromMillis(long millis) {
+			return new Date(millis);
+		}
+
+		@Override
+		protected long toMillis(Date value) {
+			return value.getTime();
+		}
+	};
+
+	/** The Constant INSTANT. */
+	public static final Rfc822DateCodec<Instant> INSTANT = new Rfc822DateCodec<Instant>() {
+
+		@Override
+		protected Instant fromMillis(long millis) {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		protected long toMillis(Instant value) {
+			return value.toEpochMilli();
+		}
+	};
+
+	/** The Constant RFC822_PATTERN, the date format the parser reads. */
+	static final String RFC822_PATTERN = "EEE', 'dd' 'MMM' 'yyyy' 'HH:mm:ss' 'Z";
+
+	/** The Constant FAST, whether the date format of the application constants is the one the parser reads. */
+	private static final boolean FAST = RFC822_PATTERN.equals(ApplicationConstants.RFC822DATEFORMAT);
+
+	/** The Constant FAILED, what the parser returns for a date it does not recognize. */
+	private static final long FAILED = Long.MIN_VALUE;
+
+	/** The Constant MONTHS, the lower case month names. */
+	private static final String MONTHS = "janfebmaraprmayjunjulaugsepoctnovdec";
+
+	/** The Constant FORMATTER, the formatter of the RFC-822 dates. */
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss Z",
+			Locale.US);
+
+	/** The Constant DATE_FORMAT, the format of the dates the parser does not recognize. */
+	private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = ThreadLocal
+			.withInitial(() -> new SimpleDateFormat(ApplicationConstants.RFC822DATEFORMAT, Locale.US));
+
+	/** The Constant DAYS, the recent date prefixes by hash. Entries are immutable, a lost update only costs a miss. */
+	private static final DayEntry[] DAYS = new DayEntry[64];
+
+	/**
+	 * Converts the milliseconds of a date to the value.
+	 *
+	 * @param millis the milliseconds since the epoch
+	 *
+	 * @return the value
+	 */
+	protected abstract T fromMillis(long millis);
+
+	/**
+	 * Converts a value to the milliseconds of its date.
+	 *
+	 * @param value the value
+	 *
+	 * @return the milliseconds since the epoch
+	 */
+	protected abstract long toMillis(T value);
+
+	/**
+	 * Parses a date.
+	 *
+	 * @param text the text of the date
+	 *
+	 * @return the value
+	 *
+	 * @throws JsonParseException if the date cannot be parsed
+	 */
+	public T parse(CharSequence text) {
+		return fromMillis(parseMillis(text));
+	}
+
+	/**
+	 * Formats a value in the default time zone.
+	 *
+	 * @param value the value
+	 *
+	 * @return the text of the date
+	 */
+	public String format(T value) {
+		long millis = toMillis(value);
+		if (FAST) {
+			return FORMATTER.format(Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()));
+		}
+		return DATE_FORMAT.get().format(new Date(millis));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.json.JsonCodec#read(com.google.gson.stream.JsonReader)
+	 */
+	@Override
+	public T read(JsonReader reader) throws IOException {
+		return JsonCodecs.skipNull(reader) ? null : parse(reader.nextString());
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.json.JsonCodec#write(com.google.gson.stream.JsonWriter, java.lang.Object)
+	 */
+	@Override
+	public void write(JsonWriter writer, T value) throws IOException {
+		writer.value((value == null) ? null : format(value));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.google.gson.JsonDeserializer#deserialize(com.google.gson.JsonElement, java.lang.reflect.Type, com.google.gson.JsonDeserializationContext)
+	 */
+	@Override
+	public T deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+			throws JsonParseException {
+		return json.isJsonNull() ? null : parse(json.getAsString());
+	}
+
+	/* (non-Javadoc)
+	 * @see com.google.gson.JsonSerializer#serialize(java.lang.Object, java.lang.reflect.Type, com.google.gson.JsonSerializationContext)
+	 */
+	@Override
+	public JsonElement serialize(T src, Type typeOfSrc, JsonSerializationContext context) {
+		return (src == null) ? new JsonNull() : new JsonPrimitive(format(src));
+	}
+
+	/**
+	 * Parses the milliseconds of a date.
+	 *
+	 * @param text the text of the date
+	 *
+	 * @return the milliseconds since the epoch
+	 *
+	 * @throws JsonParseException if the date cannot be parsed
+	 */
+	static long parseMillis(CharSequence text) {
+		long millis = FAST ? parseRfc822(text) : FAILED;
+		if (millis != FAILED) {
+			return millis;
+		}
+		String value = text.toString();
+		try {
+			return DATE_FORMAT.get().parse(value).getTime();
+		} catch (ParseException e) {
+			throw new JsonParseException("Unparseable date: " + value, e);
+		}
+	}
+
+	/**
+	 * Parses a date of the form <code>[EEE, ]d MMM yyyy HH:mm[:ss] zone</code>
+	 * where the zone is a numeric offset, <code>GMT</code>, <code>UT</code>,
+	 * <code>UTC</code> or <code>Z</code>. The day of the week is not checked
+	 * and the fields roll over like those of a lenient <code>SimpleDateFormat</code>.
+	 *
+	 * @param text the text
+	 *
+	 * @return the milliseconds since the epoch, {@link #FAILED} if the text is of another form
+	 */
+	private static long parseRfc822(CharSequence text) {
+		int end = text.length();
+		int i = 0;
+		if (end > 4 && text.charAt(3) == ',') {
+			i = 4;
+			while (i < end && text.charAt(i) == ' ') {
+				i++;
+			}
+		}
+		// the date prefix runs up to the space before the time.
+		int dateStart = i;
+		int spaces = 0;
+		int hash = 0;
+		for (; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == ' ' && ++spaces == 3) {
+				break;
+			}
+			hash = 31 * hash + c;
+		}
+		if (spaces != 3) {
+			return FAILED;
+		}
+		int dateEnd = i++;
+		int slot = (hash ^ (hash >>> 16)) & (DAYS.length - 1);
+		DayEntry day = DAYS[slot];
+		if (day == null || !day.matches(text, dateStart, dateEnd)) {
+			long dayMillis = parseDay(text, dateStart, dateEnd);
+			if (dayMillis == FAILED) {
+				return FAILED;
+			}
+			day = new DayEntry(text.subSequence(dateStart, dateEnd).toString(), dayMillis);
+			DAYS[slot] = day;
+		}
+
+		int hours = twoDigits(text, i, end);
+		if (hours < 0 || hours > 23 || i + 5 > end || text.charAt(i + 2) != ':') {
+			return FAILED;
+		}
+		int minutes = twoDigits(text, i + 3, end);
+		if (minutes < 0 || minutes > 59) {
+			return FAILED;
+		}
+		i += 5;
+		int seconds = 0;
+		if (i < end && text.charAt(i) == ':') {
+			seconds = twoDigits(text, i + 1, end);
+			if (seconds < 0 || seconds > 60) {
+				return FAILED;
+			}
+			i += 3;
+		}
+		if (i >= end || text.charAt(i++) != ' ') {
+			return FAILED;
+		}
+		long offsetMillis = parseZone(text, i, end);
+		if (offsetMillis == FAILED) {
+			return FAILED;
+		}
+		return day.millis + ((hours * 60L + minutes) * 60L + seconds) * 1000L - offsetMillis;
+	}
+
+	/**
+	 * Parses the date prefix, <code>d MMM yyyy</code>, into the start of its day.
+	 *
+	 * @param text the text
+	 * @param start the start of the prefix
+	 * @param end the end of the prefix
+	 *
+	 * @return the milliseconds since the epoch at the start of the day in UTC, {@link #FAILED} if the prefix is of another form
+	 */
+	private static long parseDay(CharSequence text, int start, int end) {
+		int i = start;
+		int dayOfMonth = 0;
+		for (int digits = 0; i < end && text.charAt(i) != ' '; digits++, i++) {
+			int digit = text.charAt(i) - '0';
+			if (digit < 0 || digit > 9 || digits == 2) {
+				return FAILED;
+			}
+			dayOfMonth = dayOfMonth * 10 + digit;
+		}
+		if (i == start || dayOfMonth == 0 || end - i != 9 || text.charAt(i + 4) != ' ') {
+			return FAILED;
+		}
+		int month = -1;
+		for (int m = 0; m < 12 && month < 0; m++) {
+			if (MONTHS.charAt(3 * m) == Character.toLowerCase(text.charAt(i + 1))
+					&& MONTHS.charAt(3 * m + 1) == Character.toLowerCase(text.charAt(i + 2))
+					&& MONTHS.charAt(3 * m + 2) == Character.toLowerCase(text.charAt(i + 3))) {
+				month = m + 1;
+			}
+		}
+		int century = twoDigits(text, i + 5, end);
+		int year = twoDigits(text, i + 7, end);
+		if (month < 0 || century < 0 || year < 0) {
+			return FAILED;
+		}
+		long epochDay = LocalDate.of(century * 100 + year, month, 1).toEpochDay() + dayOfMonth - 1;
+		return epochDay * 86400000L;
+	}
+
+	/**
+	 * Parses a time zone into its offset from UTC.
+	 *
+	 * @param text the text
+	 * @param start the start of the zone, which runs to the end of the text
+	 * @param end the end of the text
+	 *
+	 * @return the offset in milliseconds, {@link #FAILED} if the zone is of another form
+	 */
+	private static long parseZone(CharSequence text, int start, int end) {
+		int length = end - start;
+		char sign = (length > 0) ? text.charAt(start) : 0;
+		if (length == 5 && (sign == '+' || sign == '-')) {
+			int hours = twoDigits(text, start + 1, end);
+			int minutes = twoDigits(text, start + 3, end);
+			if (hours < 0 || minutes < 0) {
+				return FAILED;
+			}
+			long offset = (hours * 60L + minutes) * 60000L;
+			return (sign == '-') ? -offset : offset;
+		}
+		if ((length == 1 && sign == 'Z') || regionEquals(text, start, end, "GMT") || regionEquals(text, start, end, "UT")
+				|| regionEquals(text, start, end, "UTC")) {
+			return 0;
+		}
+		return FAILED;
+	}
+
+	/**
+	 * Reads two decimal digits.
+	 *
+	 * @param text the text
+	 * @param start the start of the digits
+	 * @param end the end of the text
+	 *
+	 * @return the number, -1 if there are no two digits at the start
+	 */
+	private static int twoDigits(CharSequence text, int start, int end) {
+		if (start + 2 > end) {
+			return -1;
+		}
+		int tens = text.charAt(start) - '0';
+		int units = text.charAt(start + 1) - '0';
+		if (tens < 0 || tens > 9 || units < 0 || units > 9) {
+			return -1;
+		}
+		return tens * 10 + units;
+	}
+
+	/**
+	 * Checks whether a region of the text is a given string.
+	 *
+	 * @param text the text
+	 * @param start the start of the region
+	 * @param end the end of the region
+	 * @param value the string
+	 *
+	 * @return true, if the region is the string
+	 */
+	private static boolean regionEquals(CharSequence text, int start, int end, String value) {
+		if (end - start != value.length()) {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (text.charAt(start + i) != value.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The Class DayEntry, a date prefix and the start of its day.
+	 */
+	private static final class DayEntry {
+
+		/** The prefix. */
+		private final String prefix;
+
+		/** The milliseconds since the epoch at the start of the day in UTC. */
+		private final long millis;
+
+		/**
+		 * Instantiates a new day entry.
+		 *
+		 * @param prefix the prefix
+		 * @param millis the millis
+		 */
+		private DayEntry(String prefix, long millis) {
+			this.prefix = prefix;
+			this.millis = millis;
+		}
+
+		/**
+		 * Checks whether the entry is the one of a date prefix.
+		 *
+		 * @param text the text
+		 * @param start the start of the prefix
+		 * @param end the end of the prefix
+		 *
+		 * @return true, if successful
+		 */
+		private boolean matches(CharSequence text, int start, int end) {
+			return regionEquals(text, start, end, prefix);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.ratelimit;
+
+/**
+ * The Class RateLimiterStats.
+ *
+ * An immutable snapshot of a rate limiter.
+ */
+public class RateLimiterStats {
+
+	/** The acquired. */
+	private final long acquired;
+
+	/** The delayed. */
+	private final long delayed;
+
+	/** The rejected. */
+	private final long rejected;
+
+	/** The over limit. */
+	private final long overLimit;
+
+	/** The rate. */
+	private final double rate;
+
+	/**
+	 * Instantiates a new rate limiter stats.
+	 *
+	 * @param acquired the acquired
+	 * @param delayed the delayed
+	 * @param rejected the rejected
+	 * @param overLimit the over limit
+	 * @param rate the rate
+	 */
+	public RateLimiterStats(long acquired, long delayed, long rejected, long overLimit, double rate) {
+		this.acquired = acquired;
+		this.delayed = delayed;
+		this.rejected = rejected;
+		this.overLimit = overLimit;
+		this.rate = rate;
+	}
+
+	/**
+	 * Gets the number of requests let through.
+	 *
+	 * @return the acquired
+	 */
+	public long getAcquired() {
+		return acquired;
+	}
+
+	/**
+	 * Gets the number of requests that had to wait for their permits.
+	 *
+	 * @return the delayed
+	 */
+	public long getDelayed() {
+		return delayed;
+	}
+
+	/**
+	 * Gets the number of requests refused because their permits were too far
+	 * off.
+	 *
+	 * @return the rejected
+	 */
+	public long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Gets the number of times the server reported the quota as exceeded.
+	 *
+	 * @return the over limit
+	 */
+	public long getOverLimit() {
+		return overLimit;
+	}
+
+	/**
+	 * Gets the current overall rate.
+	 *
+	 * @return the requests per second, 0 if there is no overall limit
+	 */
+	public double getRate() {
+		return rate;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "RateLimiterStats [acquired=" + acquired + ", delayed=" + delayed
+				+ ", rejected=" + rejected + ", overLimit=" + overLimit
+				+ ", rate=" + rate + "]";
+	}
+}
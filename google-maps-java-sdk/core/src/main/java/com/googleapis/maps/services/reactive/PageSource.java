@@ -0,0 +1,39 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.reactive;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The Interface PageSource.
+ *
+ * The pages of results a publisher emits, fetched one at a time. Each
+ * subscription walks a source of its own, and asks for the next page only
+ * once the one before it is read, so a source needs no synchronization.
+ */
+public interface PageSource<T> {
+
+	/**
+	 * Fetches the next page. Cancelling the future aborts the fetch.
+	 *
+	 * @param previousPage the page read before, null for the first one
+	 *
+	 * @return the future of the next page, null if there are no more
+	 */
+	public CompletableFuture<? extends List<T>> nextPage(List<T> previousPage);
+}
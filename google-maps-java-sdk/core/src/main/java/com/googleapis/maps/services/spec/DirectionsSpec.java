@@ -0,0 +1,207 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.maps.schema.DirectionsResult;
+import com.googleapis.maps.schema.GeoLocation;
+import com.googleapis.maps.schema.Language;
+import com.googleapis.maps.schema.RouteType;
+import com.googleapis.maps.schema.TravelMode;
+import com.googleapis.maps.schema.UnitSystem;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls;
+import com.googleapis.maps.services.constant.ParameterNames;
+import com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery;
+import com.googleapis.maps.services.impl.DirectionsQueryImpl;
+import com.googleapis.maps.services.json.FieldProjection;
+
+/**
+ * The Class DirectionsSpec.
+ * 
+ * The immutable spec of a directions query.
+ */
+public final class DirectionsSpec extends GoogleMapsSpec<DirectionsResult, DirectionsSpec> {
+
+	/**
+	 * Instantiates a new directions spec.
+	 */
+	public DirectionsSpec() {
+		super(GoogleMapsApiUrls.DIRECTIONS_URL, DirectionsResult.class);
+	}
+
+	/**
+	 * Instantiates a new directions spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private DirectionsSpec(DirectionsSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With origin.
+	 * 
+	 * @param origin the origin
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withOrigin(String origin) {
+		return withParameter(ParameterNames.ORIGIN, origin);
+	}
+
+	/**
+	 * With origin.
+	 * 
+	 * @param origin the origin
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withOrigin(GeoLocation origin) {
+		return withParameter(ParameterNames.ORIGIN, toParameterString(origin));
+	}
+
+	/**
+	 * With destination.
+	 * 
+	 * @param destination the destination
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withDestination(String destination) {
+		return withParameter(ParameterNames.DESTINATION, destination);
+	}
+
+	/**
+	 * With destination.
+	 * 
+	 * @param destination the destination
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withDestination(GeoLocation destination) {
+		return withParameter(ParameterNames.DESTINATION, toParameterString(destination));
+	}
+
+	/**
+	 * With mode.
+	 * 
+	 * @param mode the mode
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withMode(TravelMode mode) {
+		return withParameter(ParameterNames.MODE, mode);
+	}
+
+	/**
+	 * With waypoints.
+	 * 
+	 * @param waypoints the waypoints
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withWaypoints(String... waypoints) {
+		return withParameter(ParameterNames.WAYPOINTS, toParameterString(waypoints));
+	}
+
+	/**
+	 * With waypoints.
+	 * 
+	 * @param waypoints the waypoints
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withWaypoints(GeoLocation... waypoints) {
+		return withParameter(ParameterNames.WAYPOINTS, toParameterString(waypoints));
+	}
+
+	/**
+	 * With alternatives.
+	 * 
+	 * @param alternatives the alternatives
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withAlternatives(boolean alternatives) {
+		return withParameter(ParameterNames.ALTERNATIVES, String.valueOf(alternatives));
+	}
+
+	/**
+	 * With avoid.
+	 * 
+	 * @param avoid the avoid
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withAvoid(RouteType avoid) {
+		return withParameter(ParameterNames.AVOID, avoid);
+	}
+
+	/**
+	 * With units.
+	 * 
+	 * @param units the units
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withUnits(UnitSystem units) {
+		return withParameter(ParameterNames.UNITS, units);
+	}
+
+	/**
+	 * With language.
+	 * 
+	 * @param language the language
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withLanguage(Language language) {
+		return withParameter(ParameterNames.LANGUAGE, language);
+	}
+
+	/**
+	 * With sensor.
+	 * 
+	 * @param sensor the sensor
+	 * 
+	 * @return the directions spec
+	 */
+	public DirectionsSpec withSensor(boolean sensor) {
+		return withParameter(ParameterNames.SENSOR, String.valueOf(sensor));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.spec.GoogleMapsSpec#newSpec(java.util.SortedMap, com.googleapis.maps.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected DirectionsSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new DirectionsSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.spec.GoogleMapsSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleMapsApiQuery<DirectionsResult> createQuery(String applicationKey) {
+		return new DirectionsQueryImpl(applicationKey);
+	}
+}
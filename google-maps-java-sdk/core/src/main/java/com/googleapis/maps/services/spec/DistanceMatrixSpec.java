@@ -0,0 +1,207 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.maps.schema.DistanceMatrixResult;
+import com.googleapis.maps.schema.GeoLocation;
+import com.googleapis.maps.schema.Language;
+import com.googleapis.maps.schema.RouteType;
+import com.googleapis.maps.schema.TravelMode;
+import com.googleapis.maps.schema.UnitSystem;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls;
+import com.googleapis.maps.services.constant.ParameterNames;
+import com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery;
+import com.googleapis.maps.services.impl.DistanceMatrixQueryImpl;
+import com.googleapis.maps.services.json.FieldProjection;
+
+/**
+ * The Class DistanceMatrixSpec.
+ * 
+ * The immutable spec of a distance matrix query.
+ */
+public final class DistanceMatrixSpec extends GoogleMapsSpec<DistanceMatrixResult, DistanceMatrixSpec> {
+
+	/**
+	 * Instantiates a new distance matrix spec.
+	 */
+	public DistanceMatrixSpec() {
+		super(GoogleMapsApiUrls.DISTANCE_MATRIX_URL, DistanceMatrixResult.class);
+	}
+
+	/**
+	 * Instantiates a new distance matrix spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private DistanceMatrixSpec(DistanceMatrixSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With origins.
+	 * 
+	 * @param origins the origins
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withOrigins(String... origins) {
+		return withParameter(ParameterNames.ORIGINS, toParameterString(origins));
+	}
+
+	/**
+	 * With origins.
+	 * 
+	 * @param origins the origins
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withOrigins(GeoLocation... origins) {
+		return withParameter(ParameterNames.ORIGINS, toParameterString(origins));
+	}
+
+	/**
+	 * With destinations.
+	 * 
+	 * @param destinations the destinations
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withDestinations(String... destinations) {
+		return withParameter(ParameterNames.DESTINATIONS, toParameterString(destinations));
+	}
+
+	/**
+	 * With destinations.
+	 * 
+	 * @param destinations the destinations
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withDestinations(GeoLocation... destinations) {
+		return withParameter(ParameterNames.DESTINATIONS, toParameterString(destinations));
+	}
+
+	/**
+	 * With mode.
+	 * 
+	 * @param mode the mode
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withMode(TravelMode mode) {
+		return withParameter(ParameterNames.MODE, mode);
+	}
+
+	/**
+	 * With waypoints.
+	 * 
+	 * @param waypoints the waypoints
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withWaypoints(String... waypoints) {
+		return withParameter(ParameterNames.WAYPOINTS, toParameterString(waypoints));
+	}
+
+	/**
+	 * With waypoints.
+	 * 
+	 * @param waypoints the waypoints
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withWaypoints(GeoLocation... waypoints) {
+		return withParameter(ParameterNames.WAYPOINTS, toParameterString(waypoints));
+	}
+
+	/**
+	 * With alternatives.
+	 * 
+	 * @param alternatives the alternatives
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withAlternatives(boolean alternatives) {
+		return withParameter(ParameterNames.ALTERNATIVES, String.valueOf(alternatives));
+	}
+
+	/**
+	 * With avoid.
+	 * 
+	 * @param avoid the avoid
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withAvoid(RouteType avoid) {
+		return withParameter(ParameterNames.AVOID, avoid);
+	}
+
+	/**
+	 * With units.
+	 * 
+	 * @param units the units
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withUnits(UnitSystem units) {
+		return withParameter(ParameterNames.UNITS, units);
+	}
+
+	/**
+	 * With language.
+	 * 
+	 * @param language the language
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withLanguage(Language language) {
+		return withParameter(ParameterNames.LANGUAGE, language);
+	}
+
+	/**
+	 * With sensor.
+	 * 
+	 * @param sensor the sensor
+	 * 
+	 * @return the distance matrix spec
+	 */
+	public DistanceMatrixSpec withSensor(boolean sensor) {
+		return withParameter(ParameterNames.SENSOR, String.valueOf(sensor));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.spec.GoogleMapsSpec#newSpec(java.util.SortedMap, com.googleapis.maps.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected DistanceMatrixSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new DistanceMatrixSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.spec.GoogleMapsSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleMapsApiQuery<DistanceMatrixResult> createQuery(String applicationKey) {
+		return new DistanceMatrixQueryImpl(applicationKey);
+	}
+}
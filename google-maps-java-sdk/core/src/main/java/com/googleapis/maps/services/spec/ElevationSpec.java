@@ -0,0 +1,115 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.maps.schema.ElevationResult;
+import com.googleapis.maps.schema.GeoLocation;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls;
+import com.googleapis.maps.services.constant.ParameterNames;
+import com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery;
+import com.googleapis.maps.services.impl.ElevationQueryImpl;
+import com.googleapis.maps.services.json.FieldProjection;
+
+/**
+ * The Class ElevationSpec.
+ * 
+ * The immutable spec of a elevation query.
+ */
+public final class ElevationSpec extends GoogleMapsSpec<ElevationResult, ElevationSpec> {
+
+	/**
+	 * Instantiates a new elevation spec.
+	 */
+	public ElevationSpec() {
+		super(GoogleMapsApiUrls.ELEVATION_URL, ElevationResult.class);
+	}
+
+	/**
+	 * Instantiates a new elevation spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private ElevationSpec(ElevationSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With locations.
+	 * 
+	 * @param locations the locations
+	 * 
+	 * @return the elevation spec
+	 */
+	public ElevationSpec withLocations(GeoLocation... locations) {
+		return withParameter(ParameterNames.LOCATIONS, toParameterString(locations));
+	}
+
+	/**
+	 * With path.
+	 * 
+	 * @param path the path
+	 * 
+	 * @return the elevation spec
+	 */
+	public ElevationSpec withPath(GeoLocation... path) {
+		return withParameter(ParameterNames.PATH, toParameterString(path));
+	}
+
+	/**
+	 * With samples.
+	 * 
+	 * @param samples the samples
+	 * 
+	 * @return the elevation spec
+	 */
+	public ElevationSpec withSamples(int samples) {
+		return withParameter(ParameterNames.SAMPLES, String.valueOf(samples));
+	}
+
+	/**
+	 * With sensor.
+	 * 
+	 * @param sensor the sensor
+	 * 
+	 * @return the elevation spec
+	 */
+	public ElevationSpec withSensor(boolean sensor) {
+		return withParameter(ParameterNames.SENSOR, String.valueOf(sensor));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.spec.GoogleMapsSpec#newSpec(java.util.SortedMap, com.googleapis.maps.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected ElevationSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new ElevationSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.spec.GoogleMapsSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleMapsApiQuery<ElevationResult> createQuery(String applicationKey) {
+		return new ElevationQueryImpl(applicationKey);
+	}
+}
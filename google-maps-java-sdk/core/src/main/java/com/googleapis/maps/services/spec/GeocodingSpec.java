@@ -0,0 +1,140 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.maps.schema.Bounds;
+import com.googleapis.maps.schema.GeoLocation;
+import com.googleapis.maps.schema.GeocodingResult;
+import com.googleapis.maps.schema.Language;
+import com.googleapis.maps.schema.Region;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls;
+import com.googleapis.maps.services.constant.ParameterNames;
+import com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery;
+import com.googleapis.maps.services.impl.GeocodingQueryImpl;
+import com.googleapis.maps.services.json.FieldProjection;
+
+/**
+ * The Class GeocodingSpec.
+ * 
+ * The immutable spec of a geocoding query.
+ */
+public final class GeocodingSpec extends GoogleMapsSpec<GeocodingResult, GeocodingSpec> {
+
+	/**
+	 * Instantiates a new geocoding spec.
+	 */
+	public GeocodingSpec() {
+		super(GoogleMapsApiUrls.GEOCODE_URL, GeocodingResult.class);
+	}
+
+	/**
+	 * Instantiates a new geocoding spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private GeocodingSpec(GeocodingSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With address.
+	 * 
+	 * @param address the address
+	 * 
+	 * @return the geocoding spec
+	 */
+	public GeocodingSpec withAddress(String address) {
+		return withParameter(ParameterNames.ADDRESS, address);
+	}
+
+	/**
+	 * With address.
+	 * 
+	 * @param address the address
+	 * 
+	 * @return the geocoding spec
+	 */
+	public GeocodingSpec withAddress(GeoLocation address) {
+		return withParameter(ParameterNames.LATLNG, toParameterString(address));
+	}
+
+	/**
+	 * With bounds.
+	 * 
+	 * @param bounds the bounds
+	 * 
+	 * @return the geocoding spec
+	 */
+	public GeocodingSpec withBounds(Bounds bounds) {
+		return withParameter(ParameterNames.BOUNDS, toParameterString(bounds.getSouthwest(), bounds.getNortheast()));
+	}
+
+	/**
+	 * With region.
+	 * 
+	 * @param region the region
+	 * 
+	 * @return the geocoding spec
+	 */
+	public GeocodingSpec withRegion(Region region) {
+		return withParameter(ParameterNames.REGION, region);
+	}
+
+	/**
+	 * With language.
+	 * 
+	 * @param language the language
+	 * 
+	 * @return the geocoding spec
+	 */
+	public GeocodingSpec withLanguage(Language language) {
+		return withParameter(ParameterNames.LANGUAGE, language);
+	}
+
+	/**
+	 * With sensor.
+	 * 
+	 * @param sensor the sensor
+	 * 
+	 * @return the geocoding spec
+	 */
+	public GeocodingSpec withSensor(boolean sensor) {
+		return withParameter(ParameterNames.SENSOR, String.valueOf(sensor));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.spec.GoogleMapsSpec#newSpec(java.util.SortedMap, com.googleapis.maps.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected GeocodingSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new GeocodingSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.spec.GoogleMapsSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleMapsApiQuery<GeocodingResult> createQuery(String applicationKey) {
+		return new GeocodingQueryImpl(applicationKey);
+	}
+}
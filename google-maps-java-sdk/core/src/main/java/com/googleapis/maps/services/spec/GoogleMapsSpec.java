@@ -0,0 +1,360 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.spec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.googleapis.maps.schema.GeoLocation;
+import com.googleapis.maps.schema.ValueEnum;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls.GoogleMapsApiUrlBuilder;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls.UrlTemplate;
+import com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery;
+import com.googleapis.maps.services.json.FieldProjection;
+
+/**
+ * The Class GoogleMapsSpec.
+ * 
+ * An immutable specification of a query: its parameters, the fields read of
+ * its results and its timeout. The with methods derive a new spec and leave
+ * this one as it is, so a spec can be shared by any number of threads and
+ * run over and over. The url and the canonical key of a spec are computed
+ * once, when it is derived.
+ */
+public abstract class GoogleMapsSpec<T, S extends GoogleMapsSpec<T, S>> {
+
+	/** The url format. */
+	private final String urlFormat;
+
+	/** The result type. */
+	private final Class<T> resultType;
+
+	/** The raw values of the parameters, by name. */
+	private final SortedMap<String, List<String>> parameters;
+
+	/** The fields of the listed results, null for all. */
+	private final FieldProjection projection;
+
+	/** The timeout in milliseconds, 0 for the one of the client. */
+	private final long timeout;
+
+	/** The url, with the parameters in the order of their names. */
+	private final String url;
+
+	/** The canonical key, the url and the fields read. */
+	private final String key;
+
+	/**
+	 * Instantiates a new spec with no parameters.
+	 * 
+	 * @param urlFormat the url format
+	 * @param resultType the result type
+	 */
+	protected GoogleMapsSpec(String urlFormat, Class<T> resultType) {
+		this(urlFormat, resultType, new TreeMap<String, List<String>>(), null, null, 0);
+	}
+
+	/**
+	 * Instantiates a new spec derived from another one. The url of the
+	 * other spec is reused if the parameters are its own.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters, owned by the new spec from now on
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	protected GoogleMapsSpec(GoogleMapsSpec<T, S> spec, SortedMap<String, List<String>> parameters,
+			FieldProjection projection, long timeout) {
+		this(spec.urlFormat, spec.resultType, parameters, (parameters == spec.parameters) ? spec.url : null,
+				projection, timeout);
+	}
+
+	/**
+	 * Instantiates a new spec.
+	 * 
+	 * @param urlFormat the url format
+	 * @param resultType the result type
+	 * @param parameters the parameters
+	 * @param url the url of the parameters, null to build it
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private GoogleMapsSpec(String urlFormat, Class<T> resultType, SortedMap<String, List<String>> parameters,
+			String url, FieldProjection projection, long timeout) {
+		this.urlFormat = urlFormat;
+		this.resultType = resultType;
+		this.parameters = (url == null) ? Collections.unmodifiableSortedMap(parameters) : parameters;
+		this.projection = projection;
+		this.timeout = timeout;
+		this.url = (url == null) ? buildUrl(urlFormat, parameters) : url;
+		this.key = (projection == null) ? this.url : this.url + " fields=" + projection;
+	}
+
+	/**
+	 * Derives a spec of the same vertical.
+	 * 
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 * 
+	 * @return the spec
+	 */
+	protected abstract S newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout);
+
+	/**
+	 * Creates the query the specs of the vertical are run through. The
+	 * client creates it once and shares it between all the specs.
+	 * 
+	 * @param applicationKey the application key
+	 * 
+	 * @return the query
+	 */
+	public abstract BaseGoogleMapsApiQuery<T> createQuery(String applicationKey);
+
+	/**
+	 * With the timeout of the whole call, retries included.
+	 * 
+	 * @param timeout the timeout, 0 for the one of the client
+	 * @param unit the unit
+	 * 
+	 * @return the spec
+	 */
+	public S withTimeout(long timeout, TimeUnit unit) {
+		if (timeout < 0) {
+			throw new IllegalArgumentException("The timeout must not be negative: " + timeout);
+		}
+		return newSpec(parameters, projection, unit.toMillis(timeout));
+	}
+
+	/**
+	 * With the fields read of the listed results.
+	 * 
+	 * @param fields the names of the fields, dotted for the fields of members. none for all
+	 * 
+	 * @return the spec
+	 */
+	public S withFields(String... fields) {
+		FieldProjection projection = (fields == null || fields.length == 0) ? null : FieldProjection.of(resultType, fields);
+		return newSpec(parameters, projection, timeout);
+	}
+
+	/**
+	 * Derives a spec with one more value of a parameter.
+	 * 
+	 * @param name the name
+	 * @param value the value, nothing is added if it is empty
+	 * 
+	 * @return the spec
+	 */
+	protected S withParameter(String name, String value) {
+		if (value == null || value.length() == 0) {
+			return self();
+		}
+		SortedMap<String, List<String>> parameters = new TreeMap<String, List<String>>(this.parameters);
+		List<String> values = parameters.get(name);
+		List<String> newValues = new ArrayList<String>((values == null) ? 1 : values.size() + 1);
+		if (values != null) {
+			newValues.addAll(values);
+		}
+		newValues.add(value);
+		parameters.put(name, Collections.unmodifiableList(newValues));
+		return newSpec(parameters, projection, timeout);
+	}
+
+	/**
+	 * Derives a spec with one more value of a parameter.
+	 * 
+	 * @param name the name
+	 * @param value the value
+	 * 
+	 * @return the spec
+	 */
+	protected S withParameter(String name, ValueEnum value) {
+		return withParameter(name, value.value());
+	}
+
+	/**
+	 * Gets the url format.
+	 * 
+	 * @return the url format
+	 */
+	public String getUrlFormat() {
+		return urlFormat;
+	}
+
+	/**
+	 * Gets the result type.
+	 * 
+	 * @return the result type
+	 */
+	public Class<T> getResultType() {
+		return resultType;
+	}
+
+	/**
+	 * Gets the raw values of the parameters, by name.
+	 * 
+	 * @return the unmodifiable parameters
+	 */
+	public SortedMap<String, List<String>> getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Gets the fields read of the listed results.
+	 * 
+	 * @return the projection, null for all
+	 */
+	public FieldProjection getProjection() {
+		return projection;
+	}
+
+	/**
+	 * Gets the timeout.
+	 * 
+	 * @param unit the unit
+	 * 
+	 * @return the timeout, 0 for the one of the client
+	 */
+	public long getTimeout(TimeUnit unit) {
+		return unit.convert(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Gets the url, with the parameters in the order of their names.
+	 * 
+	 * @return the url
+	 */
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * Gets the canonical key: two specs with the same key make the same
+	 * request and read the same fields of its results.
+	 * 
+	 * @return the key
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return key.hashCode();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		return key.equals(((GoogleMapsSpec<?, ?>) obj).key);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return key;
+	}
+
+	/**
+	 * Gets this spec as the type of the vertical.
+	 * 
+	 * @return the spec
+	 */
+	@SuppressWarnings("unchecked")
+	protected S self() {
+		return (S) this;
+	}
+
+	/**
+	 * Gets the parameter value of locations, separated by pipes.
+	 * 
+	 * @param locations the locations
+	 * 
+	 * @return the parameter value
+	 */
+	protected static String toParameterString(GeoLocation... locations) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < locations.length; i++) {
+			builder.append(locations[i].getLat());
+			builder.append(",");
+			builder.append(locations[i].getLng());
+			if (i < locations.length - 1) {
+				builder.append("|");
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Gets the parameter value of locations, separated by pipes.
+	 * 
+	 * @param locations the locations
+	 * 
+	 * @return the parameter value
+	 */
+	protected static String toParameterString(String... locations) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < locations.length; i++) {
+			builder.append(locations[i]);
+			if (i < locations.length - 1) {
+				builder.append("|");
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Builds the url of the parameters, in the order of their names.
+	 * 
+	 * @param urlFormat the url format
+	 * @param parameters the parameters
+	 * 
+	 * @return the url
+	 */
+	private static String buildUrl(String urlFormat, SortedMap<String, List<String>> parameters) {
+		Map<String, Collection<String>> encodedParameters = new LinkedHashMap<String, Collection<String>>(parameters.size() * 2);
+		for (Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+			List<String> encodedValues = new ArrayList<String>(parameter.getValue().size());
+			for (String value : parameter.getValue()) {
+				encodedValues.add(GoogleMapsApiUrlBuilder.encodeUrl(value));
+			}
+			encodedParameters.put(parameter.getKey(), encodedValues);
+		}
+		return UrlTemplate.compile(urlFormat).expand(encodedParameters);
+	}
+}
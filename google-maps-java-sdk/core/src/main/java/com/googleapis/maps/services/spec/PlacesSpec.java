@@ -0,0 +1,115 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.maps.schema.GeoLocation;
+import com.googleapis.maps.schema.PlacesResult;
+import com.googleapis.maps.services.constant.GoogleMapsApiUrls;
+import com.googleapis.maps.services.constant.ParameterNames;
+import com.googleapis.maps.services.impl.BaseGoogleMapsApiQuery;
+import com.googleapis.maps.services.impl.PlacesQueryImpl;
+import com.googleapis.maps.services.json.FieldProjection;
+
+/**
+ * The Class PlacesSpec.
+ * 
+ * The immutable spec of a places query.
+ */
+public final class PlacesSpec extends GoogleMapsSpec<PlacesResult, PlacesSpec> {
+
+	/**
+	 * Instantiates a new places spec.
+	 */
+	public PlacesSpec() {
+		super(GoogleMapsApiUrls.PLACE_URL, PlacesResult.class);
+	}
+
+	/**
+	 * Instantiates a new places spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private PlacesSpec(PlacesSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With location.
+	 * 
+	 * @param location the location
+	 * 
+	 * @return the places spec
+	 */
+	public PlacesSpec withLocation(GeoLocation location) {
+		return withParameter(ParameterNames.LOCATION, toParameterString(location));
+	}
+
+	/**
+	 * With radius.
+	 * 
+	 * @param radius the radius
+	 * 
+	 * @return the places spec
+	 */
+	public PlacesSpec withRadius(double radius) {
+		return withParameter(ParameterNames.RADIUS, String.valueOf(radius));
+	}
+
+	/**
+	 * With client.
+	 * 
+	 * @param client the client
+	 * 
+	 * @return the places spec
+	 */
+	public PlacesSpec withClient(String client) {
+		return withParameter(ParameterNames.CLIENT, client);
+	}
+
+	/**
+	 * With sensor.
+	 * 
+	 * @param sensor the sensor
+	 * 
+	 * @return the places spec
+	 */
+	public PlacesSpec withSensor(boolean sensor) {
+		return withParameter(ParameterNames.SENSOR, String.valueOf(sensor));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.spec.GoogleMapsSpec#newSpec(java.util.SortedMap, com.googleapis.maps.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected PlacesSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new PlacesSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.maps.services.spec.GoogleMapsSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleMapsApiQuery<PlacesResult> createQuery(String applicationKey) {
+		return new PlacesQueryImpl(applicationKey);
+	}
+}
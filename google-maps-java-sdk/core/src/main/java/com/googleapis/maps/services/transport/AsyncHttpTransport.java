@@ -0,0 +1,38 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.transport;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The Interface AsyncHttpTransport.
+ *
+ * A transport that can execute requests without blocking the calling thread.
+ */
+public interface AsyncHttpTransport extends HttpTransport {
+
+	/**
+	 * Executes the request asynchronously. The returned future completes once
+	 * the whole response has been received, so reading its content never
+	 * blocks. Cancelling the future aborts the exchange.
+	 *
+	 * @param request the request
+	 *
+	 * @return the future http response
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(HttpRequest request);
+}
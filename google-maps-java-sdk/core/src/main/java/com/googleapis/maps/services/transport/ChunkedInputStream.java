@@ -0,0 +1,138 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The Class ChunkedInputStream.
+ *
+ * Decodes a <code>Transfer-Encoding: chunked</code> body. It never reads past
+ * the last chunk so the connection stays usable for the next response.
+ */
+class ChunkedInputStream extends InputStream {
+
+	/** The in. */
+	private final InputStream in;
+
+	/** The bytes left in the current chunk. */
+	private int chunkRemaining;
+
+	/** The eof. */
+	private boolean eof;
+
+	/** The first chunk. */
+	private boolean firstChunk = true;
+
+	/**
+	 * Instantiates a new chunked input stream.
+	 *
+	 * @param in the in
+	 */
+	ChunkedInputStream(InputStream in) {
+		this.in = in;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#read()
+	 */
+	@Override
+	public int read() throws IOException {
+		if (!ensureChunk()) {
+			return -1;
+		}
+		int b = in.read();
+		if (b == -1) {
+			throw new EOFException("Premature end of chunked body.");
+		}
+		chunkRemaining--;
+		return b;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#read(byte[], int, int)
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!ensureChunk()) {
+			return -1;
+		}
+		int read = in.read(b, off, Math.min(len, chunkRemaining));
+		if (read == -1) {
+			throw new EOFException("Premature end of chunked body.");
+		}
+		chunkRemaining -= read;
+		return read;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#available()
+	 */
+	@Override
+	public int available() throws IOException {
+		return eof ? 0 : Math.min(in.available(), chunkRemaining);
+	}
+
+	/**
+	 * Moves to the next chunk if the current one is exhausted.
+	 *
+	 * @return true, if there is more data
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private boolean ensureChunk() throws IOException {
+		if (eof) {
+			return false;
+		}
+		if (chunkRemaining > 0) {
+			return true;
+		}
+		if (!firstChunk) {
+			// CRLF terminating the previous chunk.
+			HttpHeaders.readLine(in);
+		}
+		firstChunk = false;
+		String line = HttpHeaders.readLine(in);
+		if (line == null) {
+			throw new EOFException("Premature end of chunked body.");
+		}
+		int extension = line.indexOf(';');
+		if (extension >= 0) {
+			line = line.substring(0, extension);
+		}
+		try {
+			chunkRemaining = Integer.parseInt(line.trim(), 16);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid chunk size: " + line);
+		}
+		if (chunkRemaining == 0) {
+			// skip the trailers.
+			String trailer;
+			do {
+				trailer = HttpHeaders.readLine(in);
+			} while (trailer != null && trailer.length() > 0);
+			eof = true;
+			return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.transport;
+
+import java.util.concurrent.TimeUnit;
+
+import com.googleapis.maps.services.constant.ApplicationConstants;
+
+/**
+ * The Class ClientConfiguration.
+ *
+ * The timeouts of the calls made by the queries of a factory. The connect
+ * and read timeouts bound a single exchange, the call timeout sets the
+ * deadline of a whole call, retries, hedges and parsing included.
+ */
+public class ClientConfiguration {
+
+	/** The connect timeout in millis, -1 for none. */
+	private final int connectTimeout;
+
+	/** The read timeout in millis, -1 for none. */
+	private final int readTimeout;
+
+	/** The call timeout in millis, -1 for none. */
+	private final long callTimeout;
+
+	/** The Constant DEFAULT, the configuration is immutable so all the queries share it. */
+	private static final ClientConfiguration DEFAULT = new ClientConfiguration();
+
+	/**
+	 * Instantiates a new client configuration with the timeouts of the
+	 * application constants.
+	 */
+	public ClientConfiguration() {
+		this(ApplicationConstants.CONNECT_TIMEOUT, ApplicationConstants.READ_TIMEOUT,
+				ApplicationConstants.CALL_TIMEOUT);
+	}
+
+	/**
+	 * Instantiates a new client configuration.
+	 *
+	 * @param connectTimeout the connect timeout in millis, -1 for none
+	 * @param readTimeout the read timeout in millis, -1 for none
+	 * @param callTimeout the call timeout in millis, -1 for none
+	 */
+	public ClientConfiguration(int connectTimeout, int readTimeout, long callTimeout) {
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+		this.callTimeout = callTimeout;
+	}
+
+	/**
+	 * Gets the configuration with the timeouts of the application constants.
+	 *
+	 * @return the default client configuration
+	 */
+	public static ClientConfiguration getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Gets the connect timeout.
+	 *
+	 * @return the connect timeout in millis, -1 for none
+	 */
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Gets the read timeout.
+	 *
+	 * @return the read timeout in millis, -1 for none
+	 */
+	public int getReadTimeout() {
+		return readTimeout;
+	}
+
+	/**
+	 * Gets the call timeout.
+	 *
+	 * @return the call timeout in millis, -1 for none
+	 */
+	public long getCallTimeout() {
+		return callTimeout;
+	}
+
+	/**
+	 * Creates the deadline of a call starting now.
+	 *
+	 * @return the deadline, null if calls have no timeout
+	 */
+	public Deadline newDeadline() {
+		return (callTimeout > 0) ? Deadline.after(callTimeout, TimeUnit.MILLISECONDS) : null;
+	}
+
+	/**
+	 * Copies the configuration with another call timeout.
+	 *
+	 * @param callTimeout the call timeout
+	 * @param unit the unit
+	 *
+	 * @return the client configuration
+	 */
+	public ClientConfiguration withCallTimeout(long callTimeout, TimeUnit unit) {
+		return new ClientConfiguration(connectTimeout, readTimeout, unit.toMillis(callTimeout));
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ClientConfiguration [connectTimeout=" + connectTimeout + ", readTimeout=" + readTimeout
+				+ ", callTimeout=" + callTimeout + "]";
+	}
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * The Class HttpConnection.
+ *
+ * A single persistent HTTP/1.1 connection owned by a {@link HttpConnectionPool}.
+ * A connection is only ever used by the thread that leased it, so its
+ * buffers are unsynchronized; the JDK buffered streams lock on every read,
+ * which pins a virtual thread to its carrier while it blocks on the socket.
+ */
+class HttpConnection {
+
+	/** The Constant BUFFER_SIZE. */
+	private static final int BUFFER_SIZE = 8192;
+
+	/** The route. */
+	private final String route;
+
+	/** The socket. */
+	private final Socket socket;
+
+	/** The input. */
+	private final SocketInput input;
+
+	/** The output. */
+	private final SocketOutput output;
+
+	/** The last used time in millis. */
+	private long lastUsed;
+
+	/** The number of requests served. */
+	private int requests;
+
+	/**
+	 * Instantiates a new http connection.
+	 *
+	 * @param route the route
+	 * @param socket the socket
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private HttpConnection(String route, Socket socket) throws IOException {
+		this.route = route;
+		this.socket = socket;
+		this.input = new SocketInput(socket.getInputStream());
+		this.output = new SocketOutput(socket.getOutputStream());
+		this.lastUsed = System.currentTimeMillis();
+	}
+
+	/**
+	 * Opens a new connection to the given host.
+	 *
+	 * @param route the route
+	 * @param host the host
+	 * @param port the port
+	 * @param secure whether to use TLS
+	 * @param connectTimeout the connect timeout, -1 for none
+	 *
+	 * @return the http connection
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	static HttpConnection open(String route, String host, int port, boolean secure, int connectTimeout) throws IOException {
+		Socket socket = new Socket();
+		try {
+			socket.setTcpNoDelay(true);
+			socket.setKeepAlive(true);
+			socket.connect(new InetSocketAddress(host, port), Math.max(connectTimeout, 0));
+			if (secure) {
+				SSLSocket sslSocket = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault()).createSocket(socket, host, port, true);
+				SSLParameters parameters = sslSocket.getSSLParameters();
+				parameters.setEndpointIdentificationAlgorithm("HTTPS");
+				sslSocket.setSSLParameters(parameters);
+				sslSocket.startHandshake();
+				socket = sslSocket;
+			}
+			return new HttpConnection(route, socket);
+		} catch (IOException e) {
+			closeQuietly(socket);
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the route.
+	 *
+	 * @return the route
+	 */
+	String getRoute() {
+		return route;
+	}
+
+	/**
+	 * Gets the input.
+	 *
+	 * @return the input
+	 */
+	InputStream getInput() {
+		return input;
+	}
+
+	/**
+	 * Gets the output.
+	 *
+	 * @return the output
+	 */
+	OutputStream getOutput() {
+		return output;
+	}
+
+	/**
+	 * Sets the read timeout.
+	 *
+	 * @param readTimeout the new read timeout, -1 for none
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	void setReadTimeout(int readTimeout) throws IOException {
+		socket.setSoTimeout(Math.max(readTimeout, 0));
+	}
+
+	/**
+	 * Gets the last used time.
+	 *
+	 * @return the last used time
+	 */
+	long getLastUsed() {
+		return lastUsed;
+	}
+
+	/**
+	 * Marks the connection as used now.
+	 */
+	void touch() {
+		lastUsed = System.currentTimeMillis();
+		requests++;
+	}
+
+	/**
+	 * Checks if the connection has already served a request.
+	 *
+	 * @return true, if is reused
+	 */
+	boolean isReused() {
+		return requests > 0;
+	}
+
+	/**
+	 * Checks if the connection was closed by the peer while it sat idle in
+	 * the pool. Unsolicited data is found without blocking, an end of stream
+	 * costs a one millisecond read attempt.
+	 *
+	 * @return true, if is stale
+	 */
+	boolean isStale() {
+		if (socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+			return true;
+		}
+		try {
+			if (input.available() > 0) {
+				// unsolicited data, it is out of sync.
+				return true;
+			}
+			int timeout = socket.getSoTimeout();
+			try {
+				socket.setSoTimeout(1);
+				// either end of stream or unsolicited data, it is out of sync.
+				return input.fill() != 0;
+			} finally {
+				socket.setSoTimeout(timeout);
+			}
+		} catch (SocketTimeoutException e) {
+			return false;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Closes the connection.
+	 */
+	void close() {
+		closeQuietly(socket);
+	}
+
+	/**
+	 * Close quietly.
+	 *
+	 * @param socket the socket
+	 */
+	private static void closeQuietly(Socket socket) {
+		try {
+			socket.close();
+		} catch (IOException e) {
+			// ignore, we are discarding it anyway.
+		}
+	}
+
+	/**
+	 * The Class SocketInput.
+	 */
+	private static class SocketInput extends InputStream {
+
+		/** The in. */
+		private final InputStream in;
+
+		/** The buffer. */
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+
+		/** The position. */
+		private int position;
+
+		/** The limit. */
+		private int limit;
+
+		/**
+		 * Instantiates a new socket input.
+		 *
+		 * @param in the in
+		 */
+		SocketInput(InputStream in) {
+			this.in = in;
+		}
+
+		/**
+		 * Refills the buffer if it is empty.
+		 *
+		 * @return the number of buffered bytes, -1 at end of stream
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		int fill() throws IOException {
+			if (position < limit) {
+				return limit - position;
+			}
+			int read = in.read(buffer, 0, buffer.length);
+			position = 0;
+			limit = Math.max(read, 0);
+			return read;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.InputStream#read()
+		 */
+		@Override
+		public int read() throws IOException {
+			if (fill() <= 0) {
+				return -1;
+			}
+			return buffer[position++] & 0xff;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.InputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (position >= limit && len >= buffer.length) {
+				// large reads bypass the buffer.
+				return in.read(b, off, len);
+			}
+			if (fill() <= 0) {
+				return -1;
+			}
+			int count = Math.min(len, limit - position);
+			System.arraycopy(buffer, position, b, off, count);
+			position += count;
+			return count;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.InputStream#available()
+		 */
+		@Override
+		public int available() throws IOException {
+			return (limit - position) + in.available();
+		}
+	}
+
+	/**
+	 * The Class SocketOutput.
+	 */
+	private static class SocketOutput extends OutputStream {
+
+		/** The out. */
+		private final OutputStream out;
+
+		/** The buffer. */
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+
+		/** The count. */
+		private int count;
+
+		/**
+		 * Instantiates a new socket output.
+		 *
+		 * @param out the out
+		 */
+		SocketOutput(OutputStream out) {
+			this.out = out;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.OutputStream#write(int)
+		 */
+		@Override
+		public void write(int b) throws IOException {
+			if (count == buffer.length) {
+				flushBuffer();
+			}
+			buffer[count++] = (byte) b;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.OutputStream#write(byte[], int, int)
+		 */
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (len >= buffer.length) {
+				flushBuffer();
+				out.write(b, off, len);
+				return;
+			}
+			if (len > buffer.length - count) {
+				flushBuffer();
+			}
+			System.arraycopy(b, off, buffer, count, len);
+			count += len;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.OutputStream#flush()
+		 */
+		@Override
+		public void flush() throws IOException {
+			flushBuffer();
+			out.flush();
+		}
+
+		/**
+		 * Writes out the buffered bytes.
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		private void flushBuffer() throws IOException {
+			if (count > 0) {
+				out.write(buffer, 0, count);
+				count = 0;
+			}
+		}
+	}
+}
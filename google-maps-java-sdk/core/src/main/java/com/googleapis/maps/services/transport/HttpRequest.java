@@ -0,0 +1,307 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Class HttpRequest.
+ */
+public class HttpRequest {
+
+	/** The method. */
+	private String method;
+
+	/** The url. */
+	private String url;
+
+	/** The headers. */
+	private Map<String, String> headers = new LinkedHashMap<String, String>();
+
+	/** The body. */
+	private byte[] body;
+
+	/** The connect timeout, -1 for none. */
+	private int connectTimeout = -1;
+
+	/** The read timeout, -1 for none. */
+	private int readTimeout = -1;
+
+	/** The deadline of the call, null for none. */
+	private Deadline deadline;
+
+	/** The handle the transport uses to abort the exchange in progress. */
+	private Closeable abortHandle;
+
+	/** The aborted. */
+	private boolean aborted;
+
+	/**
+	 * Instantiates a new http request.
+	 *
+	 * @param method the method
+	 * @param url the url
+	 */
+	public HttpRequest(String method, String url) {
+		this.method = method;
+		this.url = url;
+	}
+
+	/**
+	 * Creates a copy of the request that can be executed on its own, e.g. as
+	 * a hedge. The abort state is not copied, the deadline is shared.
+	 *
+	 * @return the http request
+	 */
+	public HttpRequest duplicate() {
+		HttpRequest duplicate = new HttpRequest(method, url);
+		duplicate.addHeaders(headers);
+		duplicate.setBody(body);
+		duplicate.setConnectTimeout(connectTimeout);
+		duplicate.setReadTimeout(readTimeout);
+		duplicate.setDeadline(deadline);
+		return duplicate;
+	}
+
+	/**
+	 * Gets the method.
+	 *
+	 * @return the method
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * Gets the url.
+	 *
+	 * @return the url
+	 */
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * Sets the url.
+	 *
+	 * @param url the new url
+	 */
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+	/**
+	 * Gets the headers.
+	 *
+	 * @return the headers
+	 */
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Adds the header.
+	 *
+	 * @param name the name
+	 * @param value the value
+	 */
+	public void addHeader(String name, String value) {
+		headers.put(name, value);
+	}
+
+	/**
+	 * Adds the headers.
+	 *
+	 * @param headers the headers
+	 */
+	public void addHeaders(Map<String, String> headers) {
+		if (headers != null) {
+			this.headers.putAll(headers);
+		}
+	}
+
+	/**
+	 * Gets the body.
+	 *
+	 * @return the body
+	 */
+	public byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * Sets the body.
+	 *
+	 * @param body the new body
+	 */
+	public void setBody(byte[] body) {
+		this.body = body;
+	}
+
+	/**
+	 * Gets the connect timeout, bounded by the time left before the
+	 * deadline.
+	 *
+	 * @return the connect timeout
+	 */
+	public int getConnectTimeout() {
+		return bound(connectTimeout);
+	}
+
+	/**
+	 * Gets the connect timeout as it is set, not bounded by the deadline.
+	 *
+	 * @return the connect timeout
+	 */
+	int getConfiguredConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Sets the connect timeout.
+	 *
+	 * @param connectTimeout the new connect timeout
+	 */
+	public void setConnectTimeout(int connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	/**
+	 * Gets the read timeout, bounded by the time left before the deadline.
+	 *
+	 * @return the read timeout
+	 */
+	public int getReadTimeout() {
+		return bound(readTimeout);
+	}
+
+	/**
+	 * Sets the read timeout.
+	 *
+	 * @param readTimeout the new read timeout
+	 */
+	public void setReadTimeout(int readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+
+	/**
+	 * Gets the deadline.
+	 *
+	 * @return the deadline, null for none
+	 */
+	public Deadline getDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * Sets the deadline.
+	 *
+	 * @param deadline the new deadline, null for none
+	 */
+	public void setDeadline(Deadline deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Bounds a timeout by the time left before the deadline, so that every
+	 * phase of the exchange takes from what the previous ones left.
+	 *
+	 * @param timeout the timeout in millis, 0 or less for none
+	 *
+	 * @return the bounded timeout
+	 */
+	private int bound(int timeout) {
+		if (deadline == null) {
+			return timeout;
+		}
+		// a zero timeout waits forever, wait at least a millisecond instead.
+		long remaining = Math.max(deadline.timeRemaining(TimeUnit.MILLISECONDS), 1);
+		return (timeout > 0 && timeout < remaining) ? timeout : (int) Math.min(remaining, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Aborts the request. The transport closes the underlying connection, so
+	 * a thread blocked on it fails with an {@link IOException}.
+	 */
+	public void abort() {
+		Closeable handle;
+		synchronized (this) {
+			aborted = true;
+			handle = abortHandle;
+			abortHandle = null;
+		}
+		// closing may block on a TLS close_notify, keep it out of the monitor.
+		if (handle != null) {
+			closeQuietly(handle);
+		}
+	}
+
+	/**
+	 * Checks if the request has been aborted.
+	 *
+	 * @return true, if is aborted
+	 */
+	public synchronized boolean isAborted() {
+		return aborted;
+	}
+
+	/**
+	 * Sets the handle that aborts the exchange in progress. Called by the
+	 * transport once it holds a connection for this request.
+	 *
+	 * @param abortHandle the abort handle
+	 *
+	 * @throws IOException if the request has already been aborted
+	 */
+	public void setAbortHandle(Closeable abortHandle) throws IOException {
+		synchronized (this) {
+			if (!aborted) {
+				this.abortHandle = abortHandle;
+				return;
+			}
+		}
+		closeQuietly(abortHandle);
+		throw new IOException("Request has been aborted: " + this);
+	}
+
+	/**
+	 * Detaches the abort handle once the exchange is over.
+	 *
+	 * @return false, if the request was aborted meanwhile
+	 */
+	public synchronized boolean clearAbortHandle() {
+		abortHandle = null;
+		return !aborted;
+	}
+
+	/**
+	 * Close quietly.
+	 *
+	 * @param closeable the closeable
+	 */
+	private static void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			// ignore, the exchange is being abandoned.
+		}
+	}
+}
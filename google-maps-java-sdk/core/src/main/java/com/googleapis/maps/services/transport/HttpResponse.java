@@ -0,0 +1,56 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.transport;
+
+import java.io.InputStream;
+
+/**
+ * The Interface HttpResponse.
+ */
+public interface HttpResponse {
+
+	/**
+	 * Gets the status code.
+	 *
+	 * @return the status code
+	 */
+	public int getStatusCode();
+
+	/**
+	 * Gets the header, header names are case insensitive.
+	 *
+	 * @param name the name
+	 *
+	 * @return the header or null if absent
+	 */
+	public String getHeader(String name);
+
+	/**
+	 * Gets the content encoding.
+	 *
+	 * @return the content encoding
+	 */
+	public String getContentEncoding();
+
+	/**
+	 * Gets the raw (still encoded) content. For error responses this is the
+	 * error body. Closing the stream releases the connection.
+	 *
+	 * @return the content, never null
+	 */
+	public InputStream getContent();
+}
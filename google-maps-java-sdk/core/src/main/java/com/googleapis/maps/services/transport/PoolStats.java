@@ -0,0 +1,157 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.transport;
+
+/**
+ * The Class PoolStats.
+ *
+ * An immutable snapshot of a connection pool.
+ */
+public class PoolStats {
+
+	/** The leased. */
+	private final int leased;
+
+	/** The available. */
+	private final int available;
+
+	/** The pending. */
+	private final int pending;
+
+	/** The max. */
+	private final int max;
+
+	/** The created. */
+	private final long created;
+
+	/** The reused. */
+	private final long reused;
+
+	/** The evicted. */
+	private final long evicted;
+
+	/** The discarded. */
+	private final long discarded;
+
+	/**
+	 * Instantiates a new pool stats.
+	 *
+	 * @param leased the leased
+	 * @param available the available
+	 * @param pending the pending
+	 * @param max the max
+	 * @param created the created
+	 * @param reused the reused
+	 * @param evicted the evicted
+	 * @param discarded the discarded
+	 */
+	public PoolStats(int leased, int available, int pending, int max,
+			long created, long reused, long evicted, long discarded) {
+		this.leased = leased;
+		this.available = available;
+		this.pending = pending;
+		this.max = max;
+		this.created = created;
+		this.reused = reused;
+		this.evicted = evicted;
+		this.discarded = discarded;
+	}
+
+	/**
+	 * Gets the number of connections currently in use.
+	 *
+	 * @return the leased
+	 */
+	public int getLeased() {
+		return leased;
+	}
+
+	/**
+	 * Gets the number of idle connections ready for reuse.
+	 *
+	 * @return the available
+	 */
+	public int getAvailable() {
+		return available;
+	}
+
+	/**
+	 * Gets the number of callers waiting for a connection.
+	 *
+	 * @return the pending
+	 */
+	public int getPending() {
+		return pending;
+	}
+
+	/**
+	 * Gets the maximum number of connections.
+	 *
+	 * @return the max
+	 */
+	public int getMax() {
+		return max;
+	}
+
+	/**
+	 * Gets the number of connections opened so far.
+	 *
+	 * @return the created
+	 */
+	public long getCreated() {
+		return created;
+	}
+
+	/**
+	 * Gets the number of leases served by an existing connection.
+	 *
+	 * @return the reused
+	 */
+	public long getReused() {
+		return reused;
+	}
+
+	/**
+	 * Gets the number of connections closed for being idle too long.
+	 *
+	 * @return the evicted
+	 */
+	public long getEvicted() {
+		return evicted;
+	}
+
+	/**
+	 * Gets the number of connections closed because they were stale or not
+	 * reusable.
+	 *
+	 * @return the discarded
+	 */
+	public long getDiscarded() {
+		return discarded;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "PoolStats [leased=" + leased + ", available=" + available
+				+ ", pending=" + pending + ", max=" + max + ", created="
+				+ created + ", reused=" + reused + ", evicted=" + evicted
+				+ ", discarded=" + discarded + "]";
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.cache;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.maps.schema.DistanceMatrixResult;
+import com.googleapis.maps.services.GoogleMapsQueryFactory;
+import com.googleapis.maps.services.search.BaseGoogleMapsClientTest;
+import com.googleapis.maps.services.search.StubGoogleMapsServer;
+import com.googleapis.maps.services.transport.HttpConnectionPool;
+import com.googleapis.maps.services.transport.PooledHttpTransport;
+
+/**
+ * The Class DiskResponseCacheTest.
+ */
+public class DiskResponseCacheTest extends BaseGoogleMapsClientTest {
+
+	/** The server. */
+	private StubGoogleMapsServer server;
+
+	/** The directory. */
+	private File directory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleMapsServer().start();
+		directory = Files.createTempDirectory("google-maps-disk-cache").toFile();
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		server.stop();
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	/**
+	 * Test cache survives restart.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCacheSurvivesRestart() throws Exception {
+		List<DistanceMatrixResult> first = listWithFreshFactory();
+		List<DistanceMatrixResult> second = listWithFreshFactory();
+		assertEquals("Only the first query should reach the server.", 1, server.getRequestCount());
+		assertEquals(first.size(), second.size());
+		assertEquals(first.get(1).getOriginAddress(), second.get(1).getOriginAddress());
+		assertEquals(first.get(1).getDistance().getValue(), second.get(1).getDistance().getValue(), 0);
+	}
+
+	/**
+	 * Test expiry and compaction.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testExpiryAndCompaction() throws Exception {
+		DiskResponseCache cache = new DiskResponseCache(directory, 4096, 0);
+		try {
+			// incompressible, so that each record fills most of a segment.
+			byte[] payload = new byte[3000];
+			new Random(42).nextBytes(payload);
+			cache.put("short", payload, 50);
+			for (int i = 0; i < 20; i++) {
+				cache.put("long", payload, 60000);
+			}
+			assertNotNull(cache.get("short"));
+			Thread.sleep(100);
+			assertNull("Expired entry should not be served.", cache.get("short"));
+
+			long before = cache.getStats().getDiskSize();
+			cache.compact();
+			DiskCacheStats stats = cache.getStats();
+			assertEquals(1, stats.getExpirationCount());
+			assertEquals(1, stats.getEntryCount());
+			assertTrue("Dead segments should be reclaimed.", stats.getCompactionCount() > 0);
+			assertTrue("Disk usage should shrink.", stats.getDiskSize() < before);
+			assertEquals(payload.length, cache.get("long").getContent().length);
+		} finally {
+			cache.close();
+		}
+
+		// the index is rebuilt from the segments if it is lost.
+		assertTrue(new File(directory, "index.dat").delete());
+		cache = new DiskResponseCache(directory, 4096, 0);
+		try {
+			assertNotNull("Entry should be recovered from the segments.", cache.get("long"));
+			assertNull(cache.get("short"));
+		} finally {
+			cache.close();
+		}
+	}
+
+	/**
+	 * Queries the stub server through a new factory backed by the disk cache,
+	 * as a freshly started application would.
+	 *
+	 * @return the list
+	 *
+	 * @throws Exception the exception
+	 */
+	private List<DistanceMatrixResult> listWithFreshFactory() throws Exception {
+		GoogleMapsQueryFactory factory = GoogleMapsQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		DiskResponseCache diskCache = new DiskResponseCache(directory);
+		try {
+			ResponseCache cache = new ResponseCache();
+			cache.setDiskCache(diskCache);
+			factory.setResponseCache(cache);
+			return factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle")
+					.withDestinations("San Francisco").list();
+		} finally {
+			diskCache.close();
+			factory.getTransport().shutdown();
+		}
+	}
+}
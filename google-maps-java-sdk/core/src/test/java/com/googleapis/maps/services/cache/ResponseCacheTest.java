@@ -0,0 +1,177 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.cache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.maps.schema.DistanceMatrixResult;
+import com.googleapis.maps.services.GoogleMapsQueryFactory;
+import com.googleapis.maps.services.search.BaseGoogleMapsClientTest;
+import com.googleapis.maps.services.search.StubGoogleMapsServer;
+import com.googleapis.maps.services.transport.HttpConnectionPool;
+import com.googleapis.maps.services.transport.HttpRequest;
+import com.googleapis.maps.services.transport.PooledHttpTransport;
+
+/**
+ * The Class ResponseCacheTest.
+ */
+public class ResponseCacheTest extends BaseGoogleMapsClientTest {
+
+	/** The server. */
+	private StubGoogleMapsServer server;
+
+	/** The factory. */
+	private GoogleMapsQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleMapsServer().start();
+		factory = GoogleMapsQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		factory.setResponseCache(new ResponseCache());
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test repeated query is served from cache.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testRepeatedQueryIsServedFromCache() throws Exception {
+		List<DistanceMatrixResult> first = factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle")
+				.withDestinations("San Francisco").list();
+		List<DistanceMatrixResult> second = factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle")
+				.withDestinations("San Francisco").list();
+		List<DistanceMatrixResult> async = factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle")
+				.withDestinations("San Francisco").listAsync().get(5, TimeUnit.SECONDS);
+		assertSame("Cached result should be returned.", first, second);
+		assertSame("Cached result should be returned asynchronously.", first, async);
+		assertEquals("Only the first query should reach the server.", 1, server.getRequestCount());
+
+		CacheStats stats = factory.getResponseCache().getStats();
+		assertEquals("Hits should be counted.", 2, stats.getHitCount());
+		assertEquals("Misses should be counted.", 1, stats.getMissCount());
+		assertEquals("Load should be counted.", 1, stats.getLoadCount());
+		assertTrue("Load time should be measured.", stats.getTotalLoadTime() > 0);
+		assertTrue("Entry should be weighted by its payload.", stats.getWeightedSize() > 500);
+	}
+
+	/**
+	 * Test a cached list cannot be changed by the caller.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCachedListIsReadOnly() throws Exception {
+		List<DistanceMatrixResult> first = factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle")
+				.withDestinations("San Francisco").list();
+		int size = first.size();
+		DistanceMatrixResult result = first.get(0);
+		try {
+			first.remove(0);
+			fail("Cached list should be read-only.");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			first.clear();
+			fail("Cached list should be read-only.");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+
+		List<DistanceMatrixResult> second = factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle")
+				.withDestinations("San Francisco").list();
+		assertEquals("Next hit should be unchanged.", size, second.size());
+		assertSame("Next hit should be unchanged.", result, second.get(0));
+		assertEquals("Only the first query should reach the server.", 1, server.getRequestCount());
+	}
+
+	/**
+	 * Test endpoint time to live.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testEndpointTimeToLive() throws Exception {
+		ResponseCache cache = new ResponseCache(1024, 1000);
+		cache.setTimeToLive("distancematrix/json", 5, TimeUnit.MINUTES);
+		cache.setTimeToLive("geocode/json", 3, TimeUnit.DAYS);
+		assertEquals(TimeUnit.MINUTES.toMillis(5), cache.getTimeToLive("http://maps.googleapis.com/maps/api/distancematrix/json?origins=a"));
+		assertEquals(TimeUnit.DAYS.toMillis(3), cache.getTimeToLive("https://maps.googleapis.com/maps/api/geocode/json?address=a"));
+		assertEquals(1000, cache.getTimeToLive("https://maps.googleapis.com/maps/api/directions/json?origin=a"));
+
+		cache.setTimeToLive("directions/json", 0, TimeUnit.MILLISECONDS);
+		assertFalse("Zero time to live should disable caching.", cache.put("key", "value", 10, 0));
+	}
+
+	/**
+	 * Test canonical key.
+	 */
+	@Test
+	public void testCanonicalKey() {
+		HttpRequest first = new HttpRequest("GET", "HTTPS://Maps.GoogleApis.com/maps/api/geocode/json?sensor=false&address=Seattle");
+		HttpRequest second = new HttpRequest("GET", "https://maps.googleapis.com/maps/api/geocode/json?address=Seattle&sensor=false");
+		HttpRequest other = new HttpRequest("GET", "https://maps.googleapis.com/maps/api/geocode/json?address=Vancouver&sensor=false");
+		assertEquals(ResponseCache.canonicalKey("list", first), ResponseCache.canonicalKey("list", second));
+		assertFalse(ResponseCache.canonicalKey("list", first).equals(ResponseCache.canonicalKey("list", other)));
+		assertFalse(ResponseCache.canonicalKey("list", first).equals(ResponseCache.canonicalKey("single", first)));
+	}
+
+	/**
+	 * Test one off entries do not evict popular ones.
+	 */
+	@Test
+	public void testOneOffEntriesDoNotEvictPopularOnes() {
+		ResponseCache cache = new ResponseCache(100, 60000);
+		for (int i = 0; i < 3; i++) {
+			assertNull(cache.getIfPresent("hot"));
+		}
+		assertTrue(cache.put("hot", "hot", 60, 60000));
+		for (int i = 0; i < 10; i++) {
+			String key = "cold" + i;
+			assertNull(cache.getIfPresent(key));
+			cache.put(key, key, 60, 60000);
+		}
+		assertEquals("Popular entry should survive a scan.", "hot", cache.getIfPresent("hot"));
+		assertEquals("One-off entries should be rejected.", 10, cache.getStats().getRejectionCount());
+
+		for (int i = 0; i < 5; i++) {
+			cache.getIfPresent("warm");
+		}
+		assertTrue("More popular entry should be admitted.", cache.put("warm", "warm", 60, 60000));
+		assertNull("Least recently used entry should be evicted.", cache.getIfPresent("hot"));
+		assertEquals(1, cache.getStats().getEvictionCount());
+	}
+}
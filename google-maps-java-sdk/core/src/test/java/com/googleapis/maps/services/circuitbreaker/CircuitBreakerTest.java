@@ -0,0 +1,175 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.circuitbreaker;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.maps.schema.DistanceMatrixResult;
+import com.googleapis.maps.services.CircuitBreakerOpenException;
+import com.googleapis.maps.services.DistanceMatrixQuery;
+import com.googleapis.maps.services.GoogleMapsException;
+import com.googleapis.maps.services.GoogleMapsQueryFactory;
+import com.googleapis.maps.services.cache.ResponseCache;
+import com.googleapis.maps.services.search.BaseGoogleMapsClientTest;
+import com.googleapis.maps.services.search.StubGoogleMapsServer;
+import com.googleapis.maps.services.transport.HttpConnectionPool;
+import com.googleapis.maps.services.transport.PooledHttpTransport;
+
+/**
+ * The Class CircuitBreakerTest.
+ */
+public class CircuitBreakerTest extends BaseGoogleMapsClientTest {
+
+	/** The server. */
+	private StubGoogleMapsServer server;
+
+	/** The factory. */
+	private GoogleMapsQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleMapsServer().start();
+		factory = GoogleMapsQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		factory.setRetryPolicy(null);
+		factory.setCircuitBreakerRegistry(new CircuitBreakerRegistry(10, 2, 50, 100, 10000, 60000, 1));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test state transitions.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testStateTransitions() throws Exception {
+		final List<CircuitBreakerEvent> events = new CopyOnWriteArrayList<CircuitBreakerEvent>();
+		CircuitBreaker breaker = new CircuitBreaker("distancematrix/json", 10, 4, 50, 75, 100, 500, 2);
+		breaker.addListener(new CircuitBreakerListener() {
+			@Override
+			public void onStateTransition(CircuitBreakerEvent event) {
+				events.add(event);
+			}
+		});
+		breaker.onSuccess(1, TimeUnit.MILLISECONDS);
+		breaker.onError(1, TimeUnit.MILLISECONDS);
+		breaker.onSuccess(1, TimeUnit.MILLISECONDS);
+		assertEquals("Too few calls to judge.", CircuitBreaker.State.CLOSED, breaker.getState());
+		breaker.onError(1, TimeUnit.MILLISECONDS);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquirePermission());
+
+		Thread.sleep(600);
+		assertTrue("First probe should be let through.", breaker.tryAcquirePermission());
+		assertTrue("Second probe should be let through.", breaker.tryAcquirePermission());
+		assertFalse("Only two probes are allowed.", breaker.tryAcquirePermission());
+		breaker.onSuccess(1, TimeUnit.MILLISECONDS);
+		breaker.onSuccess(1, TimeUnit.MILLISECONDS);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		for (int i = 0; i < 4; i++) {
+			breaker.onSuccess(200, TimeUnit.MILLISECONDS);
+		}
+		assertEquals("Slow calls should open the circuit.", CircuitBreaker.State.OPEN, breaker.getState());
+		assertEquals(100.0, events.get(3).getSlowCallRate());
+
+		assertEquals(4, events.size());
+		assertEquals(CircuitBreaker.State.OPEN, events.get(0).getToState());
+		assertEquals(50.0, events.get(0).getFailureRate());
+		assertEquals(CircuitBreaker.State.HALF_OPEN, events.get(1).getToState());
+		assertEquals(CircuitBreaker.State.CLOSED, events.get(2).getToState());
+		assertEquals(2, breaker.getStats().getNotPermittedCalls());
+	}
+
+	/**
+	 * Test open circuit fails fast and falls back to the cache.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testOpenCircuitFailsFastAndFallsBackToCache() throws Exception {
+		factory.setResponseCache(new ResponseCache(1024 * 1024, 50));
+		List<DistanceMatrixResult> fresh = newQuery().list();
+		Thread.sleep(100);
+
+		server.failNext(1, 503);
+		try {
+			newQuery().list();
+			fail("Server error should fail.");
+		} catch (GoogleMapsException e) {
+			assertFalse("Only an open circuit falls back to the cache.", isCircuitOpen(e));
+		}
+		CircuitBreaker breaker = factory.getCircuitBreakerRegistry().getCircuitBreakers().iterator().next();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+		assertSame("Stale result should be served.", fresh, newQuery().list());
+		assertSame("Stale result should be served asynchronously.", fresh, newQuery().listAsync().get(5, TimeUnit.SECONDS));
+		assertEquals(2, factory.getResponseCache().getStats().getStaleHitCount());
+
+		long start = System.nanoTime();
+		try {
+			factory.newDistanceMatrixQuery().withOrigins("Portland").withDestinations("San Francisco").list();
+			fail("Open circuit should fail the request.");
+		} catch (GoogleMapsException e) {
+			assertTrue(isCircuitOpen(e));
+		}
+		assertTrue("Open circuit should fail fast.", System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+		assertEquals("Nothing should reach the server while open.", 2, server.getRequestCount());
+	}
+
+	/**
+	 * Creates the query the tests repeat.
+	 *
+	 * @return the distance matrix query
+	 */
+	private DistanceMatrixQuery newQuery() {
+		return factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle").withDestinations("San Francisco");
+	}
+
+	/**
+	 * Checks if a failure is caused by an open circuit.
+	 *
+	 * @param error the error
+	 *
+	 * @return true, if is circuit open
+	 */
+	private static boolean isCircuitOpen(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof CircuitBreakerOpenException) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
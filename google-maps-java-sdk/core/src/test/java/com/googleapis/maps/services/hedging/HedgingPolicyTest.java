@@ -0,0 +1,165 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.hedging;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.maps.schema.DistanceMatrixResult;
+import com.googleapis.maps.services.DistanceMatrixQuery;
+import com.googleapis.maps.services.GoogleMapsQueryFactory;
+import com.googleapis.maps.services.circuitbreaker.CircuitBreaker;
+import com.googleapis.maps.services.circuitbreaker.CircuitBreakerRegistry;
+import com.googleapis.maps.services.retry.RetryBudget;
+import com.googleapis.maps.services.search.BaseGoogleMapsClientTest;
+import com.googleapis.maps.services.search.StubGoogleMapsServer;
+import com.googleapis.maps.services.transport.HttpConnectionPool;
+import com.googleapis.maps.services.transport.PooledHttpTransport;
+
+/**
+ * The Class HedgingPolicyTest.
+ */
+public class HedgingPolicyTest extends BaseGoogleMapsClientTest {
+
+	/** The server. */
+	private StubGoogleMapsServer server;
+
+	/** The factory. */
+	private GoogleMapsQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleMapsServer().start();
+		factory = GoogleMapsQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		factory.setHedgingPolicy(new HedgingPolicy(95, 500, 500, new RetryBudget(0.1, 1)));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test hedge wins over slow response.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testHedgeWinsOverSlowResponse() throws Exception {
+		server.stallNext(1, 5000);
+		long start = System.nanoTime();
+		List<DistanceMatrixResult> results = newQuery("Vancouver BC").list();
+		assertFalse(results.isEmpty());
+		assertTrue("Hedge should answer before the stalled request.",
+				System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+		assertEquals(2, server.getRequestCount());
+
+		server.stallNext(1, 5000);
+		start = System.nanoTime();
+		newQuery("Seattle").listAsync().get(10, TimeUnit.SECONDS);
+		assertTrue("Spent budget should not hedge.", System.nanoTime() - start > TimeUnit.SECONDS.toNanos(4));
+
+		HedgingStats stats = factory.getHedgingPolicy().getStats();
+		assertEquals(2, stats.getRequests());
+		assertEquals(1, stats.getHedges());
+		assertEquals(1, stats.getWins());
+		assertEquals(1, stats.getBudgetRejections());
+	}
+
+	/**
+	 * Test the hedge goes through the circuit breaker.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testHedgeGoesThroughCircuitBreaker() throws Exception {
+		CircuitBreakerRegistry registry = new CircuitBreakerRegistry();
+		factory.setCircuitBreakerRegistry(registry);
+		server.stallNext(1, 5000);
+		assertFalse(newQuery("Vancouver BC").list().isEmpty());
+		assertEquals(2, server.getRequestCount());
+		assertEquals("The hedge should use the circuit breaker of the call.", 1, registry.getCircuitBreakers().size());
+		CircuitBreaker breaker = registry.getCircuitBreakers().iterator().next();
+		assertEquals("The hedge should be recorded with the call.", 2, breaker.getStats().getBufferedCalls());
+
+		factory.setHedgingPolicy(new HedgingPolicy(95, 500, 500, new RetryBudget(0.1, 1)));
+		server.stallNext(1, 1500);
+		CompletableFuture<List<DistanceMatrixResult>> future = newQuery("Seattle").listAsync();
+		long deadline = System.currentTimeMillis() + 400;
+		while (server.getRequestCount() < 3 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals("The call should be sent.", 3, server.getRequestCount());
+		breaker.open();
+		assertFalse(future.get(10, TimeUnit.SECONDS).isEmpty());
+		assertEquals("Open circuit should not let the hedge through.", 3, server.getRequestCount());
+		assertEquals(1, breaker.getStats().getNotPermittedCalls());
+		assertEquals(0, factory.getHedgingPolicy().getStats().getHedges());
+	}
+
+	/**
+	 * Test latency percentile.
+	 */
+	@Test
+	public void testLatencyPercentile() {
+		LatencyTracker tracker = new LatencyTracker();
+		String url = "https://maps.googleapis.com/maps/api/geocode/json?address=";
+		for (int i = 1; i < LatencyTracker.MINIMUM_SAMPLES; i++) {
+			tracker.record(url + i, i, TimeUnit.MILLISECONDS);
+		}
+		assertEquals("Too few samples.", -1, tracker.getPercentile(url, 95, TimeUnit.MILLISECONDS));
+		for (int i = LatencyTracker.MINIMUM_SAMPLES; i <= 100; i++) {
+			tracker.record(url + i, i, TimeUnit.MILLISECONDS);
+		}
+		long p95 = tracker.getPercentile(url, 95, TimeUnit.MILLISECONDS);
+		assertTrue("Percentile should be within a bucket: " + p95, p95 >= 95 && p95 <= 95 * 1.125);
+		assertEquals(-1, tracker.getPercentile("https://maps.googleapis.com/maps/api/directions/json", 95,
+				TimeUnit.MILLISECONDS));
+
+		HedgingPolicy policy = new HedgingPolicy(50, 10, 30, new RetryBudget(0.1, 1));
+		assertEquals("Maximum delay until the latency is known.", TimeUnit.MILLISECONDS.toNanos(30), policy.getDelay(url));
+		for (int i = 0; i < LatencyTracker.MINIMUM_SAMPLES; i++) {
+			policy.recordLatency(url, TimeUnit.MILLISECONDS.toNanos(20));
+		}
+		long delay = TimeUnit.NANOSECONDS.toMillis(policy.getDelay(url));
+		assertTrue("Delay should follow the latency: " + delay, delay >= 20 && delay < 23);
+	}
+
+	/**
+	 * Creates a query from an origin to the destination the tests share.
+	 *
+	 * @param origin the origin
+	 *
+	 * @return the distance matrix query
+	 */
+	private DistanceMatrixQuery newQuery(String origin) {
+		return factory.newDistanceMatrixQuery().withOrigins(origin).withDestinations("San Francisco");
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.impl;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Test;
+
+import com.googleapis.maps.services.GoogleMapsException;
+import com.googleapis.maps.services.OverQueryLimitsException;
+import com.googleapis.maps.services.RequestDeniedException;
+import com.googleapis.maps.services.ResponseStatusException;
+import com.googleapis.maps.services.search.BaseGoogleMapsClientTest;
+import com.googleapis.maps.services.transport.HttpRequest;
+
+/**
+ * The Class GoogleMapsApiGatewayTest.
+ */
+public class GoogleMapsApiGatewayTest extends BaseGoogleMapsClientTest {
+
+	/** The Constant DISTANCE_MATRIX_URL. */
+	private static final String DISTANCE_MATRIX_URL = "http://maps.googleapis.com/maps/api/distancematrix/json";
+
+	/**
+	 * Test over limit classification.
+	 */
+	@Test
+	public void testOverLimitClassification() {
+		DistanceMatrixQueryImpl query = new DistanceMatrixQueryImpl("test");
+		OverQueryLimitsException overLimit = new OverQueryLimitsException("indicates that you are over your quota.");
+		assertTrue("Over query limit status should be over limit.", query.isOverLimit(overLimit));
+		assertTrue("Wrapped failures should be unwrapped.",
+				query.isOverLimit(new CompletionException(new GoogleMapsException(overLimit))));
+		assertTrue("Too many requests should be over limit.",
+				query.isOverLimit(new ResponseStatusException(429, "too many requests")));
+		assertFalse(query.isOverLimit(new ResponseStatusException(503, "backend error")));
+		assertFalse(query.isOverLimit(new RequestDeniedException("denied")));
+		assertFalse(query.isOverLimit(new GoogleMapsException(new IOException("reset"))));
+	}
+
+	/**
+	 * Test distance matrix permits count the elements.
+	 */
+	@Test
+	public void testDistanceMatrixPermits() {
+		DistanceMatrixQueryImpl query = new DistanceMatrixQueryImpl("test");
+		query.withOrigins("Vancouver BC", "Seattle").withDestinations("San Francisco", "Victoria BC", "Portland");
+		assertEquals("Pipes should be encoded by the url builder.", 6,
+				query.getRateLimitPermits(query.createApiRequest()));
+		assertEquals("Encoded pipes may be lower case.", 4,
+				query.getRateLimitPermits(new HttpRequest("GET", DISTANCE_MATRIX_URL
+						+ "?origins=Vancouver%7cSeattle&destinations=San+Francisco%7CPortland&sensor=false")));
+		assertEquals("Single origin and destination should cost one permit.", 1,
+				query.getRateLimitPermits(new HttpRequest("GET", DISTANCE_MATRIX_URL
+						+ "?origins=Vancouver&destinations=Seattle")));
+		assertEquals("Parameter names should match whole.", 2,
+				query.getRateLimitPermits(new HttpRequest("GET", DISTANCE_MATRIX_URL
+						+ "?xorigins=A%7CB%7CC&origins=Vancouver%7CSeattle&destinations=Portland")));
+		assertEquals("Requests without locations should cost one permit.", 1,
+				query.getRateLimitPermits(new HttpRequest("GET", DISTANCE_MATRIX_URL + "?sensor=false")));
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.json;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.gson.stream.JsonReader;
+import com.googleapis.maps.schema.DistanceMatrixResult;
+import com.googleapis.maps.schema.GeocodingResult;
+import com.googleapis.maps.services.GoogleMapsQueryFactory;
+import com.googleapis.maps.services.search.BaseGoogleMapsClientTest;
+import com.googleapis.maps.services.search.StubGoogleMapsServer;
+import com.googleapis.maps.services.transport.HttpConnectionPool;
+import com.googleapis.maps.services.transport.PooledHttpTransport;
+
+/**
+ * The Class FieldProjectionTest.
+ */
+public class FieldProjectionTest extends BaseGoogleMapsClientTest {
+
+	/** The Constant GEOCODING_RESULT. */
+	private static final String GEOCODING_RESULT = "{\"types\": [\"locality\"], \"formatted_address\": \"Seattle, WA, USA\","
+			+ " \"address_components\": [{\"long_name\": \"Washington\", \"short_name\": \"WA\", \"types\": [\"political\"]}],"
+			+ " \"geometry\": {\"location\": {\"lat\": 47.6062095, \"lng\": -122.3320708}, \"location_type\": \"APPROXIMATE\","
+			+ " \"viewport\": {\"southwest\": {\"lat\": 47.4955511, \"lng\": -122.4359085}}}}";
+
+	/**
+	 * Test the generated codecs and the trees read the projected members only.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testProjectedRead() throws Exception {
+		FieldProjection projection = FieldProjection.of(GeocodingResult.class, "formattedAddress", "geometry.location",
+				"addressComponents.shortName");
+		assertEquals("address_components(short_name),formatted_address,geometry(location)", projection.toString());
+
+		GeocodingResult generated = JsonCodecs.get(GeocodingResult.class).read(
+				new JsonReader(new StringReader(GEOCODING_RESULT)), projection);
+		GeocodingResult reflected = GsonRegistry.getGson().fromJson(
+				projection.readElement(new JsonReader(new StringReader(GEOCODING_RESULT))), GeocodingResult.class);
+		for (GeocodingResult result : new GeocodingResult[] { generated, reflected }) {
+			assertEquals("Seattle, WA, USA", result.getFormattedAddress());
+			assertNull(result.getTypes());
+			assertEquals("WA", result.getAddressComponents().get(0).getShortName());
+			assertNull(result.getAddressComponents().get(0).getLongName());
+			assertNull(result.getAddressComponents().get(0).getTypes());
+			assertEquals(47.6062095, result.getGeometry().getLocation().getLat(), 0);
+			assertNull(result.getGeometry().getLocationType());
+			assertNull(result.getGeometry().getViewport());
+		}
+	}
+
+	/**
+	 * Test a query reads the projected members of the distance matrix only.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testProjectedQuery() throws Exception {
+		StubGoogleMapsServer server = new StubGoogleMapsServer().start();
+		GoogleMapsQueryFactory factory = GoogleMapsQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		try {
+			List<DistanceMatrixResult> results = factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle")
+					.withDestinations("San Francisco").withFields("duration").list();
+			assertEquals(2, results.size());
+			assertEquals(43200, results.get(1).getDuration().getValue(), 0);
+			assertNull("Distance should be skipped.", results.get(1).getDistance());
+			assertNull("Status should be skipped.", results.get(1).getStatus());
+		} finally {
+			factory.getTransport().shutdown();
+			server.stop();
+		}
+	}
+
+	/**
+	 * Test the fields are checked against the schema class.
+	 */
+	@Test
+	public void testUnknownFields() {
+		assertEquals("geometry", FieldProjection.of(GeocodingResult.class, "geometry.location", "geometry").toString());
+		for (String field : new String[] { "placeId", "geometry.width", "formattedAddress.host", "serialVersionUID" }) {
+			try {
+				FieldProjection.of(GeocodingResult.class, field);
+				fail("Field " + field + " is not one of the geocoding results.");
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains(field));
+			}
+		}
+	}
+}
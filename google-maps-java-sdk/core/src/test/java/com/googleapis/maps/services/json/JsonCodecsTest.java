@@ -0,0 +1,92 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.json;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.googleapis.maps.schema.AddressComponentType;
+import com.googleapis.maps.schema.GeocodingResult;
+import com.googleapis.maps.schema.LocationType;
+import com.googleapis.maps.services.search.BaseGoogleMapsClientTest;
+
+/**
+ * The Class JsonCodecsTest.
+ */
+public class JsonCodecsTest extends BaseGoogleMapsClientTest {
+
+	/** The Constant GEOCODING_RESULT. */
+	private static final String GEOCODING_RESULT = "{\"types\": [\"locality\", \"political\"],"
+			+ " \"formatted_address\": \"Seattle, WA, USA\", \"unknown\": {\"a\": [1, 2]}, \"partial_match\": null,"
+			+ " \"address_components\": [{\"long_name\": \"Seattle\", \"short_name\": \"Seattle\","
+			+ " \"types\": [\"locality\", \"political\"]}, {\"long_name\": \"Washington\", \"short_name\": \"WA\","
+			+ " \"types\": [\"administrative_area_level_1\", \"political\"]}],"
+			+ " \"geometry\": {\"location\": {\"lat\": 47.6062095, \"lng\": -122.3320708}, \"location_type\": \"APPROXIMATE\","
+			+ " \"viewport\": {\"southwest\": {\"lat\": 47.4955511, \"lng\": -122.4359085},"
+			+ " \"northeast\": {\"lat\": 47.734145, \"lng\": -122.2359032}}}}";
+
+	/**
+	 * Test the generated codecs bind nested entities as gson does.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testGeneratedCodecMatchesGson() throws Exception {
+		JsonCodec<GeocodingResult> codec = JsonCodecs.get(GeocodingResult.class);
+		assertNotNull("No codec was generated for the geocoding results.", codec);
+		GeocodingResult generated = codec.read(new JsonReader(new StringReader(GEOCODING_RESULT)));
+		GeocodingResult reflected = GsonRegistry.getGson().fromJson(new JsonParser().parse(GEOCODING_RESULT),
+				GeocodingResult.class);
+		assertEquals(reflected.getFormattedAddress(), generated.getFormattedAddress());
+		assertEquals(reflected.getTypes(), generated.getTypes());
+		assertEquals(2, generated.getAddressComponents().size());
+		assertEquals(reflected.getAddressComponents().get(1).getShortName(),
+				generated.getAddressComponents().get(1).getShortName());
+		assertEquals(AddressComponentType.ADMINISTRATIVE_AREA_LEVEL_1,
+				generated.getAddressComponents().get(1).getTypes().get(0));
+		assertEquals(reflected.getGeometry().getLocation().getLat(), generated.getGeometry().getLocation().getLat(), 0);
+		assertEquals(LocationType.APPROXIMATE, generated.getGeometry().getLocationType());
+		assertEquals(reflected.getGeometry().getViewport().getNortheast().getLng(),
+				generated.getGeometry().getViewport().getNortheast().getLng(), 0);
+	}
+
+	/**
+	 * Test what a codec writes reads back the same.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testRoundTrip() throws Exception {
+		String json = "{\"formatted_address\": \"Say \\\"hi\\\"\\n\", \"types\": [\"street_address\"],"
+				+ " \"geometry\": {\"location\": {\"lat\": \"37.423021\", \"lng\": -122.083739}, \"location_type\": \"ROOFTOP\"}}";
+		JsonCodec<GeocodingResult> codec = JsonCodecs.get(GeocodingResult.class);
+		GeocodingResult result = codec.read(new JsonReader(new StringReader(json)));
+		StringWriter written = new StringWriter();
+		codec.write(new JsonWriter(written), result);
+		GeocodingResult read = codec.read(new JsonReader(new StringReader(written.toString())));
+		assertEquals("Say \"hi\"\n", read.getFormattedAddress());
+		assertEquals(AddressComponentType.STREET_ADDRESS, read.getTypes().get(0));
+		assertEquals(37.423021, read.getGeometry().getLocation().getLat(), 0);
+		assertEquals(LocationType.ROOFTOP, read.getGeometry().getLocationType());
+		assertEquals(written.toString(), new JsonParser().parse(written.toString()).toString());
+	}
+}
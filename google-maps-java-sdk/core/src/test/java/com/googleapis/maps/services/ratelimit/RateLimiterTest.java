@@ -0,0 +1,182 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.googleapis.maps.services.GoogleMapsQueryFactory;
+import com.googleapis.maps.services.OverQueryLimitsException;
+import com.googleapis.maps.services.retry.RetryBudget;
+import com.googleapis.maps.services.retry.RetryPolicy;
+import com.googleapis.maps.services.search.BaseGoogleMapsClientTest;
+import com.googleapis.maps.services.search.StubGoogleMapsServer;
+import com.googleapis.maps.services.transport.HttpConnectionPool;
+import com.googleapis.maps.services.transport.PooledHttpTransport;
+
+/**
+ * The Class RateLimiterTest.
+ */
+public class RateLimiterTest extends BaseGoogleMapsClientTest {
+
+	/** The Constant GEOCODE_URL. */
+	private static final String GEOCODE_URL = "https://maps.googleapis.com/maps/api/geocode/json?address=Seattle&sensor=false";
+
+	/** The Constant MATRIX_URL. */
+	private static final String MATRIX_URL = "http://maps.googleapis.com/maps/api/distancematrix/json?origins=a&destinations=b";
+
+	/** The time in nanos seen by the limiters, moved by the tests. */
+	private final AtomicLong now = new AtomicLong();
+
+	/**
+	 * Moves the time of the limiters forward.
+	 *
+	 * @param millis the millis
+	 */
+	private void advance(long millis) {
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+
+	/**
+	 * Test burst then throttle.
+	 */
+	@Test
+	public void testBurstThenThrottle() {
+		RateLimiter limiter = new RateLimiter(10, 5, now::get);
+		for (int i = 0; i < 5; i++) {
+			assertTrue("Burst should go through.", limiter.tryAcquire(GEOCODE_URL, 1));
+		}
+		assertFalse("Request past the burst should wait.", limiter.tryAcquire(GEOCODE_URL, 1));
+		assertEquals("Request should wait for the next permit.", TimeUnit.MILLISECONDS.toNanos(100),
+				limiter.reserve(GEOCODE_URL, 1, 1, TimeUnit.SECONDS));
+		assertEquals(-1, limiter.reserve(GEOCODE_URL, 1, 10, TimeUnit.MILLISECONDS));
+		advance(200);
+		assertTrue("Permit should be due after its interval.", limiter.tryAcquire(GEOCODE_URL, 1));
+		assertFalse(limiter.tryAcquire(GEOCODE_URL, 1));
+		advance(1000);
+		for (int i = 0; i < 5; i++) {
+			assertTrue("Idle time should refill the burst.", limiter.tryAcquire(GEOCODE_URL, 1));
+		}
+		assertFalse(limiter.tryAcquire(GEOCODE_URL, 1));
+		assertEquals(4, limiter.getStats().getRejected());
+		assertEquals(1, limiter.getStats().getDelayed());
+
+		limiter = new RateLimiter(0, 1, now::get);
+		limiter.setLimit("distancematrix/json", 10, 100);
+		assertTrue("Elements up to the burst should go through.", limiter.tryAcquire(MATRIX_URL, 100));
+		assertFalse(limiter.tryAcquire(MATRIX_URL, 1));
+		assertTrue("Other endpoints should not be limited.", limiter.tryAcquire(GEOCODE_URL, 1));
+		advance(100);
+		assertTrue("Element should be due after its interval.", limiter.tryAcquire(MATRIX_URL, 1));
+		assertEquals(1, limiter.getStats().getRejected());
+	}
+
+	/**
+	 * Test over limit replies halve the rate at most once a second.
+	 */
+	@Test
+	public void testSlowDownOncePerSecond() {
+		RateLimiter limiter = new RateLimiter(100, 10, now::get);
+		limiter.onOverLimit(GEOCODE_URL);
+		assertEquals("Over limit reply should halve the rate.", 50.0, limiter.getRate(), 0.01);
+		advance(500);
+		limiter.onOverLimit(GEOCODE_URL);
+		assertEquals("Replies within a second should count once.", 50.0, limiter.getRate(), 0.01);
+		advance(500);
+		limiter.onOverLimit(GEOCODE_URL);
+		assertEquals(25.0, limiter.getRate(), 0.01);
+		for (int i = 0; i < 10; i++) {
+			advance(1000);
+			limiter.onOverLimit(GEOCODE_URL);
+		}
+		assertEquals("Rate should not drop below a sixteenth.", 6.25, limiter.getRate(), 0.01);
+		assertEquals(13, limiter.getStats().getOverLimit());
+	}
+
+	/**
+	 * Test rate adapts to over limit.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testRateAdaptsToOverLimit() throws Exception {
+		StubGoogleMapsServer server = new StubGoogleMapsServer().start();
+		GoogleMapsQueryFactory factory = GoogleMapsQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		try {
+			RateLimiter limiter = new RateLimiter(100, 10, now::get);
+			factory.setRateLimiter(limiter);
+			factory.setRetryPolicy(new RetryPolicy(3, 1, 10, new RetryBudget(0.1, 10)));
+			server.failNext(1, 429);
+			factory.newDistanceMatrixQuery().withOrigins("Vancouver BC").withDestinations("Seattle").list();
+			// halved, then raised a notch by the successful retry.
+			assertEquals("Over limit reply should halve the rate.", 52.0, limiter.getRate(), 0.5);
+			assertEquals(1, limiter.getStats().getOverLimit());
+			assertEquals(2, limiter.getStats().getAcquired());
+
+			for (int i = 0; i < 5; i++) {
+				factory.newDistanceMatrixQuery().withOrigins("Vancouver BC").withDestinations("Seattle " + i).listAsync()
+						.get(5, TimeUnit.SECONDS);
+			}
+			assertTrue("Successes should restore the rate.", limiter.getRate() > 61);
+		} finally {
+			factory.getTransport().shutdown();
+			server.stop();
+		}
+	}
+
+	/**
+	 * Test over query limit replies slow the rate down.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testOverQueryLimitSlowsDown() throws Exception {
+		StubGoogleMapsServer server = new StubGoogleMapsServer().start();
+		GoogleMapsQueryFactory factory = GoogleMapsQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		try {
+			RateLimiter limiter = new RateLimiter(100, 10, now::get);
+			factory.setRateLimiter(limiter);
+			factory.setRetryPolicy(new RetryPolicy(3, 1, 10, new RetryBudget(0.1, 10)));
+			server.setResponse("OverQueryLimitResponse.json");
+			try {
+				factory.newDistanceMatrixQuery().withOrigins("Vancouver BC").withDestinations("Seattle").list();
+				fail("Over query limit status should fail.");
+			} catch (OverQueryLimitsException e) {
+				// expected
+			}
+			assertEquals("Every attempt should be reported.", 3, limiter.getStats().getOverLimit());
+			assertEquals("Replies within a second should cut the rate once.", 50.0, limiter.getRate(), 0.01);
+
+			advance(1000);
+			try {
+				factory.newDistanceMatrixQuery().withOrigins("Vancouver BC").withDestinations("Seattle").list();
+				fail("Over query limit status should fail.");
+			} catch (OverQueryLimitsException e) {
+				// expected
+			}
+			assertEquals(6, limiter.getStats().getOverLimit());
+			assertEquals(25.0, limiter.getRate(), 0.01);
+		} finally {
+			factory.getTransport().shutdown();
+			server.stop();
+		}
+	}
+}
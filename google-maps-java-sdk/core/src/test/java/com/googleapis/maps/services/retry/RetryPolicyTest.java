@@ -0,0 +1,171 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.retry;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.maps.schema.DistanceMatrixResult;
+import com.googleapis.maps.services.GoogleMapsException;
+import com.googleapis.maps.services.GoogleMapsQueryFactory;
+import com.googleapis.maps.services.InvalidRequestException;
+import com.googleapis.maps.services.OverQueryLimitsException;
+import com.googleapis.maps.services.RequestDeniedException;
+import com.googleapis.maps.services.ResponseStatusException;
+import com.googleapis.maps.services.UnknownErrorException;
+import com.googleapis.maps.services.search.BaseGoogleMapsClientTest;
+import com.googleapis.maps.services.search.StubGoogleMapsServer;
+import com.googleapis.maps.services.transport.HttpConnectionPool;
+import com.googleapis.maps.services.transport.PooledHttpTransport;
+
+/**
+ * The Class RetryPolicyTest.
+ */
+public class RetryPolicyTest extends BaseGoogleMapsClientTest {
+
+	/** The server. */
+	private StubGoogleMapsServer server;
+
+	/** The factory. */
+	private GoogleMapsQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleMapsServer().start();
+		factory = GoogleMapsQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		factory.setRetryPolicy(new RetryPolicy(3, 1, 10, new RetryBudget(0.1, 10)));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test transient failures are retried.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testTransientFailuresAreRetried() throws Exception {
+		server.failNext(2, 503);
+		List<DistanceMatrixResult> results = factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle")
+				.withDestinations("San Francisco").list();
+		assertEquals(2, results.size());
+		assertEquals("Both failures should be retried.", 3, server.getRequestCount());
+
+		server.failNext(1, 429);
+		results = factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle")
+				.withDestinations("San Francisco").listAsync().get(5, TimeUnit.SECONDS);
+		assertEquals(2, results.size());
+		assertEquals("Asynchronous calls should be retried too.", 5, server.getRequestCount());
+
+		RetryStats stats = factory.getRetryPolicy().getStats();
+		assertEquals(2, stats.getRequests());
+		assertEquals(3, stats.getRetries());
+	}
+
+	/**
+	 * Test client errors are not retried.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testClientErrorsAreNotRetried() throws Exception {
+		server.failNext(3, 404);
+		try {
+			factory.newDistanceMatrixQuery().withOrigins("Vancouver BC").withDestinations("San Francisco").list();
+			fail("Missing resource should fail.");
+		} catch (ResponseStatusException e) {
+			assertEquals(404, e.getStatusCode());
+		}
+		assertEquals("Missing resource should not be retried.", 1, server.getRequestCount());
+	}
+
+	/**
+	 * Test over query limit status is retried.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testOverQueryLimitIsRetried() throws Exception {
+		server.setResponse("OverQueryLimitResponse.json");
+		try {
+			factory.newDistanceMatrixQuery().withOrigins("Vancouver BC").withDestinations("San Francisco").list();
+			fail("Over query limit status should fail.");
+		} catch (OverQueryLimitsException e) {
+			// expected
+		}
+		assertEquals("Over query limit status should be retried.", 3, server.getRequestCount());
+		assertEquals(2, factory.getRetryPolicy().getStats().getRetries());
+	}
+
+	/**
+	 * Test the failures that are retried.
+	 */
+	@Test
+	public void testRetryableFailures() {
+		RetryPolicy policy = factory.getRetryPolicy();
+		assertTrue(policy.isRetryable(new GoogleMapsException(new IOException("reset"))));
+		assertTrue(policy.isRetryable(new ResponseStatusException(500, "backend error")));
+		assertTrue(policy.isRetryable(new ResponseStatusException(429, "too many requests")));
+		assertTrue("Over query limit status should be retried.",
+				policy.isRetryable(new OverQueryLimitsException("indicates that you are over your quota.")));
+		assertTrue("Unknown error status should be retried.",
+				policy.isRetryable(new CompletionException(new UnknownErrorException("server error"))));
+		assertFalse(policy.isRetryable(new ResponseStatusException(403, "forbidden")));
+		assertFalse(policy.isRetryable(new RequestDeniedException("denied")));
+		assertFalse(policy.isRetryable(new InvalidRequestException("missing address")));
+		assertFalse("Cancelled calls should not be retried.",
+				policy.isRetryable(new CancellationException()));
+	}
+
+	/**
+	 * Test budget caps retries.
+	 */
+	@Test
+	public void testBudgetCapsRetries() {
+		RetryPolicy policy = new RetryPolicy(5, 10, 1000, new RetryBudget(0.1, 2));
+		IOException failure = new IOException("reset");
+		assertTrue(policy.nextDelay(failure, 1, 0) >= 10);
+		assertTrue(policy.nextDelay(failure, 1, 0) >= 10);
+		assertEquals("Reserve should be spent.", -1, policy.nextDelay(failure, 1, 0));
+		for (int i = 0; i < 10; i++) {
+			policy.recordRequest();
+		}
+		long delay = policy.nextDelay(failure, 2, 100);
+		assertTrue("Ten requests should earn one retry.", delay >= 10 && delay <= 300);
+		assertEquals(-1, policy.nextDelay(failure, 1, 0));
+		assertEquals("Last attempt should not be retried.", -1, policy.nextDelay(failure, 5, 0));
+		assertEquals(2, policy.getStats().getBudgetRejections());
+	}
+}
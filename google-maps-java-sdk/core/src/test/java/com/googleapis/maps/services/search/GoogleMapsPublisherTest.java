@@ -0,0 +1,182 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.search;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.maps.schema.DistanceMatrixResult;
+import com.googleapis.maps.services.DistanceMatrixQuery;
+import com.googleapis.maps.services.GoogleMapsQueryFactory;
+import com.googleapis.maps.services.ResponseStatusException;
+import com.googleapis.maps.services.transport.HttpConnectionPool;
+import com.googleapis.maps.services.transport.PooledHttpTransport;
+
+/**
+ * The Class GoogleMapsPublisherTest.
+ */
+public class GoogleMapsPublisherTest extends BaseGoogleMapsClientTest {
+
+	/** The server. */
+	private StubGoogleMapsServer server;
+
+	/** The factory. */
+	private GoogleMapsQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleMapsServer().start();
+		factory = GoogleMapsQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test the list is only fetched once a result is asked for.
+	 */
+	@Test
+	public void testPublisherHonoursDemand() {
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		newQuery().publisher().subscribe(subscriber);
+		assertEquals("Nothing should be fetched before a request.", 0, server.getRequestCount());
+		subscriber.subscription.request(1);
+		waitFor(() -> subscriber.results.size() == 1);
+		assertEquals("The list should be fetched once asked for.", 1, server.getRequestCount());
+		assertFalse("The publisher should not complete early.", subscriber.completed);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		waitFor(() -> subscriber.completed);
+		assertEquals("Every result should be emitted.", 2, subscriber.results.size());
+		assertEquals("Seattle, WA, USA", subscriber.results.get(1).getOriginAddress());
+		assertEquals("The list should be fetched once.", 1, server.getRequestCount());
+		assertNull("The publisher should not fail.", subscriber.error);
+	}
+
+	/**
+	 * Test a failed fetch is signalled to the subscriber.
+	 */
+	@Test
+	public void testFailureIsSignalled() {
+		server.failNext(1, 404);
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		newQuery().publisher().subscribe(subscriber);
+		subscriber.subscription.request(10);
+		waitFor(() -> subscriber.error != null);
+		assertTrue("The failure should be passed on: " + subscriber.error,
+				subscriber.error instanceof ResponseStatusException);
+		assertTrue("Nothing should be emitted.", subscriber.results.isEmpty());
+		assertFalse("The publisher should not complete after a failure.", subscriber.completed);
+	}
+
+	/**
+	 * Test cancelling the subscription stops the page in flight.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCancelStopsPublisher() throws Exception {
+		server.setDelay(300);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		newQuery().publisher().subscribe(subscriber);
+		subscriber.subscription.request(10);
+		subscriber.subscription.cancel();
+		Thread.sleep(500);
+		assertTrue("Nothing should be emitted after cancel.", subscriber.results.isEmpty());
+		assertFalse("The publisher should not complete after cancel.", subscriber.completed);
+		assertNull("The publisher should not fail after cancel.", subscriber.error);
+		assertTrue("No page should be fetched after cancel.", server.getRequestCount() <= 1);
+	}
+
+	/**
+	 * Creates the query the tests publish.
+	 *
+	 * @return the distance matrix query
+	 */
+	private DistanceMatrixQuery newQuery() {
+		return factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle").withDestinations("San Francisco");
+	}
+
+	/**
+	 * Waits for a condition.
+	 *
+	 * @param condition the condition
+	 */
+	private static void waitFor(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) {
+				fail("Timed out waiting for the publisher.");
+			}
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * The Class RecordingSubscriber.
+	 */
+	private static class RecordingSubscriber implements Flow.Subscriber<DistanceMatrixResult> {
+
+		/** The results. */
+		private final List<DistanceMatrixResult> results = new CopyOnWriteArrayList<DistanceMatrixResult>();
+
+		/** The subscription. */
+		private volatile Flow.Subscription subscription;
+
+		/** The completed. */
+		private volatile boolean completed;
+
+		/** The error. */
+		private volatile Throwable error;
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(DistanceMatrixResult item) {
+			results.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.maps.schema.DistanceMatrixResult;
+import com.googleapis.maps.schema.TravelMode;
+import com.googleapis.maps.services.GoogleMapsClient;
+import com.googleapis.maps.services.GoogleMapsQueryFactory;
+import com.googleapis.maps.services.spec.DistanceMatrixSpec;
+import com.googleapis.maps.services.transport.HttpConnectionPool;
+import com.googleapis.maps.services.transport.PooledHttpTransport;
+
+/**
+ * The Class GoogleMapsSpecTest.
+ */
+public class GoogleMapsSpecTest extends BaseGoogleMapsClientTest {
+
+	/** The server. */
+	private StubGoogleMapsServer server;
+
+	/** The factory. */
+	private GoogleMapsQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleMapsServer().start();
+		factory = GoogleMapsQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test deriving a spec leaves it unchanged.
+	 */
+	@Test
+	public void testDerivingLeavesSpecUnchanged() {
+		DistanceMatrixSpec seattle = new DistanceMatrixSpec().withOrigins("Seattle").withDestinations("San Francisco");
+		String url = seattle.getUrl();
+		DistanceMatrixSpec walking = seattle.withMode(TravelMode.WALKING).withOrigins("Vancouver BC");
+		assertEquals("Base spec should keep its url.", url, seattle.getUrl());
+		assertEquals("Base spec should keep its origins.", 1, seattle.getParameters().get("origins").size());
+		assertNull("Base spec should keep its mode.", seattle.getParameters().get("mode"));
+		assertEquals("Derived spec should add the origin.", 2, walking.getParameters().get("origins").size());
+		assertEquals("walking", walking.getParameters().get("mode").get(0));
+		assertFalse("Derived spec should have its own key.", seattle.getKey().equals(walking.getKey()));
+		try {
+			seattle.getParameters().put("mode", null);
+			fail("Parameters should not be modifiable.");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			walking.getParameters().get("origins").clear();
+			fail("Parameter values should not be modifiable.");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test the key does not depend on the order the spec was built in.
+	 */
+	@Test
+	public void testKeyIsCanonical() {
+		DistanceMatrixSpec first = new DistanceMatrixSpec().withOrigins("Seattle").withDestinations("San Francisco")
+				.withMode(TravelMode.DRIVING);
+		DistanceMatrixSpec second = new DistanceMatrixSpec().withMode(TravelMode.DRIVING)
+				.withDestinations("San Francisco").withOrigins("Seattle");
+		assertEquals("Same parameters should make the same url.", first.getUrl(), second.getUrl());
+		assertEquals("Same parameters should make equal specs.", first, second);
+		assertEquals("Timeout should not change the key.", first.getKey(), first.withTimeout(1, TimeUnit.SECONDS).getKey());
+		assertFalse("Fields should change the key.", first.getKey().equals(first.withFields("duration").getKey()));
+	}
+
+	/**
+	 * Test one spec runs concurrently through a shared client.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testSharedSpecRunsConcurrently() throws Exception {
+		final GoogleMapsClient client = factory.newClient();
+		final DistanceMatrixSpec spec = new DistanceMatrixSpec().withOrigins("Vancouver BC", "Seattle")
+				.withDestinations("San Francisco").withFields("duration");
+		ExecutorService threads = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<DistanceMatrixResult>>> results = new ArrayList<Future<List<DistanceMatrixResult>>>();
+			for (int i = 0; i < 8; i++) {
+				results.add(threads.submit(new Callable<List<DistanceMatrixResult>>() {
+					@Override
+					public List<DistanceMatrixResult> call() throws Exception {
+						return client.list(spec);
+					}
+				}));
+			}
+			for (Future<List<DistanceMatrixResult>> result : results) {
+				List<DistanceMatrixResult> list = result.get(5, TimeUnit.SECONDS);
+				assertEquals("Each run should get all the results.", 2, list.size());
+				assertNotNull("Projected field should be read.", list.get(0).getDuration());
+				assertNull("Other fields should be skipped.", list.get(0).getDistance());
+			}
+		} finally {
+			threads.shutdown();
+		}
+		assertEquals("Async runs should share the client too.", 2,
+				client.listAsync(spec.withMode(TravelMode.WALKING)).get(5, TimeUnit.SECONDS).size());
+	}
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.search;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+
+import com.googleapis.maps.services.transport.AsyncHttpTransport;
+import com.googleapis.maps.services.transport.HttpRequest;
+import com.googleapis.maps.services.transport.HttpResponse;
+import com.googleapis.maps.services.transport.HttpTransport;
+
+/**
+ * The Class StubGoogleMapsServer.
+ *
+ * A local server that answers every request with a canned maps response,
+ * so that the client can be exercised without network access. It speaks
+ * HTTP/1.1 and cleartext HTTP/2 (h2c) on the same port.
+ */
+public class StubGoogleMapsServer {
+
+	/** The Constant API_HOST. */
+	public static final String API_HOST = "maps.googleapis.com";
+
+	/** The Constant DEFAULT_RESPONSE. */
+	public static final String DEFAULT_RESPONSE = "DistanceMatrixResponse.json";
+
+	/** The server. */
+	private final Server server;
+
+	/** The connector. */
+	private final ServerConnector connector;
+
+	/** The request count. */
+	private final AtomicInteger requestCount = new AtomicInteger();
+
+	/** The protocols seen. */
+	private final Set<String> protocols = Collections.synchronizedSet(new HashSet<String>());
+
+	/** The client ports seen, one per connection. */
+	private final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+
+	/** The response body. */
+	private volatile byte[] responseBody;
+
+	/** The gzip. */
+	private volatile boolean gzip;
+
+	/** The response delay in millis. */
+	private volatile long delay;
+
+	/** The number of requests still to fail. */
+	private final AtomicInteger failures = new AtomicInteger();
+
+	/** The status code of the failures. */
+	private volatile int failureStatus;
+
+	/** The number of requests still to stall. */
+	private final AtomicInteger stalls = new AtomicInteger();
+
+	/** The stall delay in millis. */
+	private volatile long stallDelay;
+
+	/**
+	 * Instantiates a new stub server on an ephemeral port.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public StubGoogleMapsServer() throws IOException {
+		this.responseBody = loadResource(DEFAULT_RESPONSE);
+		this.server = new Server();
+		HttpConfiguration configuration = new HttpConfiguration();
+		this.connector = new ServerConnector(server, new HttpConnectionFactory(configuration),
+				new HTTP2CServerConnectionFactory(configuration));
+		connector.setHost("127.0.0.1");
+		connector.setPort(0);
+		server.addConnector(connector);
+		server.setHandler(new AbstractHandler() {
+			@Override
+			public void handle(String target, Request baseRequest, HttpServletRequest request,
+					HttpServletResponse response) throws IOException {
+				baseRequest.setHandled(true);
+				respond(request, response);
+			}
+		});
+	}
+
+	/**
+	 * Starts the server.
+	 *
+	 * @return the stub server
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public StubGoogleMapsServer start() throws IOException {
+		try {
+			server.start();
+		} catch (Exception e) {
+			throw new IOException("Could not start stub server.", e);
+		}
+		return this;
+	}
+
+	/**
+	 * Stops the server.
+	 */
+	public void stop() {
+		try {
+			server.stop();
+		} catch (Exception e) {
+			// ignore, the test is over.
+		}
+	}
+
+	/**
+	 * Gets the base url.
+	 *
+	 * @return the base url
+	 */
+	public String getBaseUrl() {
+		return "http://127.0.0.1:" + connector.getLocalPort();
+	}
+
+	/**
+	 * Gets the number of requests served.
+	 *
+	 * @return the request count
+	 */
+	public int getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * Gets the protocols the requests were made with.
+	 *
+	 * @return the protocols, e.g. HTTP/1.1 or HTTP/2.0
+	 */
+	public Set<String> getProtocols() {
+		return new HashSet<String>(protocols);
+	}
+
+	/**
+	 * Gets the number of client connections seen.
+	 *
+	 * @return the connection count
+	 */
+	public int getConnectionCount() {
+		return clientPorts.size();
+	}
+
+	/**
+	 * Sets the response resource.
+	 *
+	 * @param resource the resource name relative to this class
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void setResponse(String resource) throws IOException {
+		this.responseBody = loadResource(resource);
+	}
+
+	/**
+	 * Sets whether to gzip the response when the client accepts it.
+	 *
+	 * @param gzip the gzip
+	 */
+	public void setGzip(boolean gzip) {
+		this.gzip = gzip;
+	}
+
+	/**
+	 * Sets the response delay.
+	 *
+	 * @param delay the delay in millis
+	 */
+	public void setDelay(long delay) {
+		this.delay = delay;
+	}
+
+	/**
+	 * Makes the next requests fail.
+	 *
+	 * @param count the number of requests to fail
+	 * @param statusCode the status code to answer them with
+	 */
+	public void failNext(int count, int statusCode) {
+		this.failureStatus = statusCode;
+		this.failures.set(count);
+	}
+
+	/**
+	 * Makes the next requests slow, on top of the response delay.
+	 *
+	 * @param count the number of requests to stall
+	 * @param delay the delay in millis
+	 */
+	public void stallNext(int count, long delay) {
+		this.stallDelay = delay;
+		this.stalls.set(count);
+	}
+
+	/**
+	 * Creates a transport that sends api requests to this server.
+	 *
+	 * @param delegate the delegate
+	 *
+	 * @return the http transport
+	 */
+	public HttpTransport redirect(final HttpTransport delegate) {
+		if (delegate instanceof AsyncHttpTransport) {
+			return redirect((AsyncHttpTransport) delegate);
+		}
+		return new HttpTransport() {
+			@Override
+			public HttpResponse execute(HttpRequest request) throws IOException {
+				return delegate.execute(rewrite(request));
+			}
+
+			@Override
+			public void shutdown() {
+				delegate.shutdown();
+			}
+		};
+	}
+
+	/**
+	 * Creates an asynchronous transport that sends api requests to this server.
+	 *
+	 * @param delegate the delegate
+	 *
+	 * @return the async http transport
+	 */
+	public AsyncHttpTransport redirect(final AsyncHttpTransport delegate) {
+		return new AsyncHttpTransport() {
+			@Override
+			public HttpResponse execute(HttpRequest request) throws IOException {
+				return delegate.execute(rewrite(request));
+			}
+
+			@Override
+			public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+				return delegate.executeAsync(rewrite(request));
+			}
+
+			@Override
+			public void shutdown() {
+				delegate.shutdown();
+			}
+		};
+	}
+
+	/**
+	 * Points the request at this server, the api urls use both http and
+	 * https.
+	 *
+	 * @param request the request
+	 *
+	 * @return the http request
+	 */
+	private HttpRequest rewrite(HttpRequest request) {
+		String url = request.getUrl();
+		int host = url.indexOf("://" + API_HOST);
+		if (host >= 0) {
+			request.setUrl(getBaseUrl() + url.substring(host + API_HOST.length() + 3));
+		}
+		return request;
+	}
+
+	/**
+	 * Writes the canned response.
+	 *
+	 * @param request the request
+	 * @param response the response
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void respond(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		requestCount.incrementAndGet();
+		protocols.add(request.getProtocol());
+		clientPorts.add(request.getRemotePort());
+		drain(request.getInputStream(), null);
+		long wait = delay;
+		if (stalls.getAndUpdate(count -> Math.max(count - 1, 0)) > 0) {
+			wait += stallDelay;
+		}
+		if (wait > 0) {
+			try {
+				Thread.sleep(wait);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		if (failures.getAndUpdate(count -> Math.max(count - 1, 0)) > 0) {
+			response.sendError(failureStatus);
+			return;
+		}
+		byte[] body = responseBody;
+		String acceptEncoding = request.getHeader("Accept-Encoding");
+		if (gzip && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			GZIPOutputStream out = new GZIPOutputStream(bytes);
+			out.write(body);
+			out.close();
+			body = bytes.toByteArray();
+			response.setHeader("Content-Encoding", "gzip");
+		}
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType("application/json; charset=UTF-8");
+		response.setContentLength(body.length);
+		OutputStream out = response.getOutputStream();
+		out.write(body);
+		out.close();
+	}
+
+	/**
+	 * Load resource.
+	 *
+	 * @param resource the resource
+	 *
+	 * @return the byte[]
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static byte[] loadResource(String resource) throws IOException {
+		InputStream in = StubGoogleMapsServer.class.getResourceAsStream(resource);
+		if (in == null) {
+			throw new IOException("Missing test resource " + resource);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			drain(in, out);
+		} finally {
+			in.close();
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Drain.
+	 *
+	 * @param in the in
+	 * @param out the out, may be null
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static void drain(InputStream in, OutputStream out) throws IOException {
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			if (out != null) {
+				out.write(buffer, 0, read);
+			}
+		}
+	}
+}
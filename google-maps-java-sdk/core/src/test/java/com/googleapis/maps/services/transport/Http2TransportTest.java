@@ -0,0 +1,162 @@
+/*
+ * Copyright 2010-2011 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.maps.services.transport;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.maps.schema.DistanceMatrixResult;
+import com.googleapis.maps.services.GoogleMapsQueryFactory;
+import com.googleapis.maps.services.search.BaseGoogleMapsClientTest;
+import com.googleapis.maps.services.search.StubGoogleMapsServer;
+
+/**
+ * The Class Http2TransportTest.
+ */
+public class Http2TransportTest extends BaseGoogleMapsClientTest {
+
+	/** The Constant CONCURRENT_REQUESTS. */
+	private static final int CONCURRENT_REQUESTS = 50;
+
+	/** The server. */
+	private StubGoogleMapsServer server;
+
+	/** The transport. */
+	private Http2Transport transport;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleMapsServer().start();
+		transport = new Http2Transport();
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		transport.shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test multiplexed requests.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testMultiplexedRequests() throws Exception {
+		// the first request upgrades the cleartext connection to h2c.
+		HttpResponse first = transport.execute(new HttpRequest("GET", server.getBaseUrl() + "/maps/api/distancematrix/json"));
+		assertEquals("Status should be OK.", 200, first.getStatusCode());
+		first.getContent().close();
+
+		server.setDelay(200);
+		List<CompletableFuture<HttpResponse>> futures = new ArrayList<CompletableFuture<HttpResponse>>();
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+			futures.add(transport.executeAsync(new HttpRequest("GET", server.getBaseUrl() + "/maps/api/distancematrix/json?origins=" + i)));
+		}
+		for (CompletableFuture<HttpResponse> future : futures) {
+			HttpResponse response = future.get(10, TimeUnit.SECONDS);
+			assertEquals("Status should be OK.", 200, response.getStatusCode());
+			assertTrue("Body should be complete.", response.getContent().available() > 0);
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		assertTrue("Requests should run concurrently, took " + elapsed + "ms.", elapsed < CONCURRENT_REQUESTS * 200 / 2);
+		assertTrue("Requests should use HTTP/2.", server.getProtocols().contains("HTTP/2.0"));
+		assertEquals("Requests should share one connection.", 1, server.getConnectionCount());
+	}
+
+	/**
+	 * Test cancel.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCancel() throws Exception {
+		server.setDelay(5000);
+		CompletableFuture<HttpResponse> future = transport.executeAsync(new HttpRequest("GET", server.getBaseUrl() + "/maps/api/distancematrix/json"));
+		assertTrue("Pending request should be cancellable.", future.cancel(true));
+		assertTrue("Future should be cancelled.", future.isCancelled());
+	}
+
+	/**
+	 * Test each connect timeout gets its own client.
+	 */
+	@Test
+	public void testClientPerConnectTimeout() {
+		HttpRequest request = new HttpRequest("GET", server.getBaseUrl() + "/maps/api/distancematrix/json");
+		request.setConnectTimeout(1234);
+		HttpClient client = transport.getClient(request);
+		assertEquals("Client should take the connect timeout of the request.", Duration.ofMillis(1234),
+				client.connectTimeout().get());
+		HttpRequest other = new HttpRequest("GET", server.getBaseUrl() + "/maps/api/distancematrix/json");
+		other.setConnectTimeout(1234);
+		other.setDeadline(Deadline.after(100, TimeUnit.MILLISECONDS));
+		assertSame("Requests with the same connect timeout should share a client.", client, transport.getClient(other));
+		other.setConnectTimeout(-1);
+		assertFalse("Client should have no connect timeout.", transport.getClient(other).connectTimeout().isPresent());
+	}
+
+	/**
+	 * Test the deadline bounds the exchange.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testDeadline() throws Exception {
+		server.setDelay(3000);
+		HttpRequest request = new HttpRequest("GET", server.getBaseUrl() + "/maps/api/distancematrix/json");
+		request.setReadTimeout(10000);
+		request.setDeadline(Deadline.after(200, TimeUnit.MILLISECONDS));
+		long start = System.currentTimeMillis();
+		try {
+			transport.execute(request);
+			fail("Request should time out at the deadline.");
+		} catch (HttpTimeoutException e) {
+			// expected
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		assertTrue("Request should give up at the deadline, took " + elapsed + "ms.", elapsed < 2000);
+	}
+
+	/**
+	 * Test distance matrix through http2 transport.
+	 */
+	@Test
+	public void testDistanceMatrixThroughHttp2Transport() {
+		server.setGzip(true);
+		GoogleMapsQueryFactory factory = GoogleMapsQueryFactory.newInstance("test", server.redirect(transport));
+		List<DistanceMatrixResult> result = factory.newDistanceMatrixQuery().withOrigins("Vancouver BC", "Seattle")
+				.withDestinations("San Francisco").list();
+		assertEquals("All elements should be parsed.", 2, result.size());
+		assertEquals("Addresses should be matched up.", "Seattle, WA, USA", result.get(1).getOriginAddress());
+	}
+}
@@ -25,6 +25,15 @@ import java.util.logging.Logger;
  */
 public abstract class SchemaEntity implements Serializable {
 
-	/** The logger. */
-    protected final Logger logger = Logger.getLogger(getClass().getCanonicalName());
+	/** The loggers of the entity classes, looked up once per class. */
+	private static final ClassValue<Logger> LOGGERS = new ClassValue<Logger>() {
+
+		@Override
+		protected Logger computeValue(Class<?> type) {
+			return Logger.getLogger(type.getCanonicalName());
+		}
+	};
+
+	/** The logger, shared by the entities of the class. */
+    protected final transient Logger logger = LOGGERS.get(getClass());
 }
@@ -0,0 +1,763 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.codegen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * The Class SchemaCodecProcessor.
+ *
+ * Generates the json codecs asked for by the <code>GenerateCodecs</code>
+ * annotation of the core module. A codec binds the members of an entity
+ * through its accessors, in a switch on the member name, so that reading a
+ * response needs neither a tree nor reflection. An entity is bound field by
+ * field as gson binds it: static, transient and final fields are left out
+ * and a member without a field is skipped. The fields must be of a type the
+ * runtime has a codec for: primitives and their wrappers, strings, dates,
+ * enums, lists and other entities, which get a codec of their own. An entity
+ * with any other field gets no codec, it is left to gson.
+ */
+@SupportedAnnotationTypes(SchemaCodecProcessor.ANNOTATION)
+public class SchemaCodecProcessor extends AbstractProcessor {
+
+	/** The Constant ANNOTATION. */
+	static final String ANNOTATION = "com.googleapis.ajax.services.json.GenerateCodecs";
+
+	/** The Constant READER, the token reader of the runtime. */
+	private static final String READER = "JsonStreamReader";
+
+	/** The Constant WRITER, the token writer of the runtime. */
+	private static final String WRITER = "JsonStreamWriter";
+
+	/** The Constant POOL_STRINGS, whether the strings are read through the pool of the reader. */
+	private static final boolean POOL_STRINGS = true;
+
+	/** The Constant PROVIDER_NAME. */
+	private static final String PROVIDER_NAME = "GeneratedJsonCodecs";
+
+	/** The Constant WRAPPER_CODECS, from wrapper type to the runtime codec. */
+	private static final Map<String, String> WRAPPER_CODECS = new HashMap<String, String>();
+
+	static {
+		WRAPPER_CODECS.put("java.lang.Integer", "INTEGER");
+		WRAPPER_CODECS.put("java.lang.Long", "LONG");
+		WRAPPER_CODECS.put("java.lang.Double", "DOUBLE");
+		WRAPPER_CODECS.put("java.lang.Float", "FLOAT");
+		WRAPPER_CODECS.put("java.lang.Boolean", "BOOLEAN");
+		WRAPPER_CODECS.put("java.lang.String", "STRING");
+		WRAPPER_CODECS.put("java.util.Date", "DATE");
+		WRAPPER_CODECS.put("java.time.Instant", "INSTANT");
+	}
+
+	/* (non-Javadoc)
+	 * @see javax.annotation.processing.AbstractProcessor#getSupportedSourceVersion()
+	 */
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/* (non-Javadoc)
+	 * @see javax.annotation.processing.AbstractProcessor#process(java.util.Set, javax.annotation.processing.RoundEnvironment)
+	 */
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				try {
+					generate((TypeElement) element, getAnnotationMirror(element, annotation));
+				} catch (IOException e) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+							"Could not generate the json codecs: " + e, element);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Generates the codecs asked for by an annotated type.
+	 *
+	 * @param annotated the annotated type
+	 * @param annotation the annotation
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void generate(TypeElement annotated, AnnotationMirror annotation) throws IOException {
+		String packageName = processingEnv.getElementUtils().getPackageOf(annotated).getQualifiedName().toString();
+		boolean underscores = false;
+		List<TypeElement> roots = new ArrayList<TypeElement>();
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation
+				.getElementValues().entrySet()) {
+			String name = entry.getKey().getSimpleName().toString();
+			if ("value".equals(name)) {
+				for (Object value : (List<?>) entry.getValue().getValue()) {
+					TypeMirror type = (TypeMirror) ((AnnotationValue) value).getValue();
+					roots.add((TypeElement) ((DeclaredType) type).asElement());
+				}
+			} else if ("fieldNaming".equals(name)) {
+				underscores = "LOWER_CASE_WITH_UNDERSCORES".equals(((VariableElement) entry.getValue().getValue())
+						.getSimpleName().toString());
+			}
+		}
+		Map<String, Entity> entities = resolveEntities(roots, underscores);
+		for (Entity entity : entities.values()) {
+			if (entity.unsupported == null) {
+				writeCodec(packageName, entity, entities, annotated);
+			} else {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+						"No json codec for " + entity.type + ", it is bound through reflection: " + entity.unsupported,
+						annotated);
+			}
+		}
+		writeProvider(packageName, entities, annotated);
+	}
+
+	/**
+	 * Resolves the entities reachable from the roots, and which of them can
+	 * have a codec.
+	 *
+	 * @param roots the roots
+	 * @param underscores whether the members are named with underscores
+	 *
+	 * @return the entities by qualified name
+	 */
+	private Map<String, Entity> resolveEntities(List<TypeElement> roots, boolean underscores) {
+		Map<String, Entity> entities = new LinkedHashMap<String, Entity>();
+		Set<String> codecNames = new HashSet<String>();
+		Deque<TypeElement> queue = new ArrayDeque<TypeElement>(roots);
+		while (!queue.isEmpty()) {
+			TypeElement type = queue.poll();
+			String name = type.getQualifiedName().toString();
+			if (entities.containsKey(name)) {
+				continue;
+			}
+			Entity entity = new Entity(type, type.getSimpleName() + "Codec");
+			entities.put(name, entity);
+			if (!codecNames.add(entity.codecName)) {
+				entity.unsupported = "another entity is named " + type.getSimpleName();
+			} else if (!isEntity(type)) {
+				entity.unsupported = "it is not a public concrete class with a public no-arg constructor";
+			} else {
+				resolveProperties(entity, underscores, queue);
+			}
+		}
+		// an entity is left to gson along with the entities that refer to it.
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (Entity entity : entities.values()) {
+				if (entity.unsupported != null) {
+					continue;
+				}
+				for (Property property : entity.properties) {
+					Value value = (property.value.kind == ValueKind.LIST) ? property.value.element : property.value;
+					if (value.kind == ValueKind.ENTITY) {
+						Entity referred = entities.get(qualifiedName(value.type));
+						if (referred.unsupported != null) {
+							entity.unsupported = "it refers to " + referred.type;
+							changed = true;
+							break;
+						}
+					}
+				}
+			}
+		}
+		return entities;
+	}
+
+	/**
+	 * Resolves the properties of an entity, from the fields of the topmost
+	 * class down.
+	 *
+	 * @param entity the entity
+	 * @param underscores whether the members are named with underscores
+	 * @param queue the queue of the entities to resolve
+	 */
+	private void resolveProperties(Entity entity, boolean underscores, Deque<TypeElement> queue) {
+		List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+		for (TypeElement type = entity.type; type != null
+				&& !"java.lang.Object".equals(type.getQualifiedName().toString()); type = superclassOf(type)) {
+			hierarchy.add(0, type);
+		}
+		List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(
+				entity.type));
+		Set<String> jsonNames = new HashSet<String>();
+		for (TypeElement type : hierarchy) {
+			for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+				Set<Modifier> modifiers = field.getModifiers();
+				if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+						|| modifiers.contains(Modifier.FINAL)) {
+					continue;
+				}
+				String fieldName = field.getSimpleName().toString();
+				Value value = resolveValue(field.asType(), queue);
+				if (value == null) {
+					entity.unsupported = "field " + fieldName + " is of type " + field.asType();
+					return;
+				}
+				String accessor = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+				ExecutableElement setter = findMethod(methods, "set" + accessor, field.asType());
+				ExecutableElement getter = findMethod(methods, "get" + accessor, null);
+				if (getter == null && value.kind == ValueKind.BOOLEAN) {
+					getter = findMethod(methods, "is" + accessor, null);
+				}
+				if (setter == null || getter == null
+						|| !processingEnv.getTypeUtils().isSameType(getter.getReturnType(), field.asType())) {
+					entity.unsupported = "field " + fieldName + " has no public accessors";
+					return;
+				}
+				String jsonName = underscores ? toLowerCaseWithUnderscores(fieldName) : fieldName;
+				if (!jsonNames.add(jsonName)) {
+					entity.unsupported = "more than one field is named " + jsonName;
+					return;
+				}
+				entity.properties.add(new Property(jsonName, setter.getSimpleName().toString(),
+						getter.getSimpleName().toString(), value));
+			}
+		}
+	}
+
+	/**
+	 * Resolves the value of a field type, queueing the entities it refers to.
+	 *
+	 * @param type the type
+	 * @param queue the queue of the entities to resolve
+	 *
+	 * @return the value, null if the type has no codec
+	 */
+	private Value resolveValue(TypeMirror type, Deque<TypeElement> queue) {
+		switch (type.getKind()) {
+		case INT:
+			return new Value(ValueKind.INT, type, null);
+		case LONG:
+			return new Value(ValueKind.LONG, type, null);
+		case DOUBLE:
+			return new Value(ValueKind.DOUBLE, type, null);
+		case FLOAT:
+			return new Value(ValueKind.FLOAT, type, null);
+		case BOOLEAN:
+			return new Value(ValueKind.BOOLEAN, type, null);
+		case DECLARED:
+			break;
+		default:
+			return null;
+		}
+		DeclaredType declared = (DeclaredType) type;
+		TypeElement element = (TypeElement) declared.asElement();
+		String name = element.getQualifiedName().toString();
+		if (WRAPPER_CODECS.containsKey(name)) {
+			return new Value(ValueKind.RUNTIME, type, null);
+		}
+		if (element.getKind() == ElementKind.ENUM) {
+			return new Value(ValueKind.ENUM, type, null);
+		}
+		if ("java.util.List".equals(name)) {
+			if (declared.getTypeArguments().size() != 1) {
+				return null;
+			}
+			Value elementValue = resolveValue(declared.getTypeArguments().get(0), queue);
+			return (elementValue == null || elementValue.kind == ValueKind.LIST || elementValue.isPrimitive()) ? null
+					: new Value(ValueKind.LIST, type, elementValue);
+		}
+		if (element.getKind() == ElementKind.CLASS && !name.startsWith("java.")) {
+			queue.add(element);
+			return new Value(ValueKind.ENTITY, type, null);
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if a type can be created and filled by a codec.
+	 *
+	 * @param type the type
+	 *
+	 * @return true, if is entity
+	 */
+	private boolean isEntity(TypeElement type) {
+		if (type.getKind() != ElementKind.CLASS || !type.getModifiers().contains(Modifier.PUBLIC)
+				|| type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()
+				|| (type.getNestingKind() != NestingKind.TOP_LEVEL && !type.getModifiers().contains(Modifier.STATIC))) {
+			return false;
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds a public instance method.
+	 *
+	 * @param methods the methods
+	 * @param name the name
+	 * @param parameterType the type of its only parameter, null for none
+	 *
+	 * @return the method, null if there is none
+	 */
+	private ExecutableElement findMethod(List<ExecutableElement> methods, String name, TypeMirror parameterType) {
+		for (ExecutableElement method : methods) {
+			if (!method.getSimpleName().contentEquals(name) || !method.getModifiers().contains(Modifier.PUBLIC)
+					|| method.getModifiers().contains(Modifier.STATIC)) {
+				continue;
+			}
+			List<? extends VariableElement> parameters = method.getParameters();
+			if (parameterType == null ? parameters.isEmpty() : (parameters.size() == 1 && processingEnv
+					.getTypeUtils().isSameType(parameters.get(0).asType(), parameterType))) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the codec of an entity.
+	 *
+	 * @param packageName the package name
+	 * @param entity the entity
+	 * @param entities the entities
+	 * @param origin the origin
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void writeCodec(String packageName, Entity entity, Map<String, Entity> entities, Element origin)
+			throws IOException {
+		String typeName = entity.type.getQualifiedName().toString();
+		Map<String, String> enumCodecs = new LinkedHashMap<String, String>();
+		for (Property property : entity.properties) {
+			Value value = (property.value.kind == ValueKind.LIST) ? property.value.element : property.value;
+			if (value.kind == ValueKind.ENUM && !enumCodecs.containsKey(qualifiedName(value.type))) {
+				String field = toLowerCaseWithUnderscores(simpleName(value.type)).toUpperCase(Locale.US) + "_CODEC";
+				while (enumCodecs.containsValue(field)) {
+					field = "_" + field;
+				}
+				enumCodecs.put(qualifiedName(value.type), field);
+			}
+		}
+		StringBuilder out = new StringBuilder();
+		out.append("package ").append(packageName).append(";\n\n");
+		out.append("import java.io.IOException;\n\n");
+		out.append("import javax.annotation.processing.Generated;\n\n");
+		out.append("/**\n * The codec of {@link ").append(typeName).append("}.\n */\n");
+		out.append("@Generated(\"").append(getClass().getName()).append("\")\n");
+		out.append("final class ").append(entity.codecName).append(" implements JsonCodec<").append(typeName)
+				.append("> {\n\n");
+		out.append("\tstatic final ").append(entity.codecName).append(" INSTANCE = new ").append(entity.codecName)
+				.append("();\n\n");
+		for (Map.Entry<String, String> enumCodec : enumCodecs.entrySet()) {
+			out.append("\tprivate static final JsonCodec<").append(enumCodec.getKey()).append("> ")
+					.append(enumCodec.getValue()).append(" = JsonCodecs.enumCodec(").append(enumCodec.getKey())
+					.append(".class);\n\n");
+		}
+		out.append("\tprivate ").append(entity.codecName).append("() {}\n\n");
+
+		out.append("\t@Override\n\tpublic ").append(typeName).append(" read(").append(READER)
+				.append(" reader) throws IOException {\n");
+		out.append("\t\treturn read(reader, null);\n\t}\n\n");
+		out.append("\t@Override\n\tpublic ").append(typeName).append(" read(").append(READER)
+				.append(" reader, FieldProjection projection) throws IOException {\n");
+		out.append("\t\tif (JsonCodecs.skipNull(reader)) {\n\t\t\treturn null;\n\t\t}\n");
+		out.append("\t\t").append(typeName).append(" value = new ").append(typeName).append("();\n");
+		out.append("\t\treader.beginObject();\n");
+		out.append("\t\twhile (reader.hasNext()) {\n");
+		out.append("\t\t\tString name = reader.nextName();\n");
+		out.append("\t\t\tif (projection != null && !projection.includes(name)) {\n");
+		out.append("\t\t\t\treader.skipValue();\n\t\t\t\tcontinue;\n\t\t\t}\n");
+		out.append("\t\t\tif (JsonCodecs.skipNull(reader)) {\n\t\t\t\tcontinue;\n\t\t\t}\n");
+		out.append("\t\t\tswitch (name) {\n");
+		for (Property property : entity.properties) {
+			out.append("\t\t\tcase \"").append(property.jsonName).append("\":\n");
+			out.append("\t\t\t\tvalue.").append(property.setter).append("(")
+					.append(readExpression(property.value, enumCodecs, entities)).append(");\n");
+			out.append("\t\t\t\tbreak;\n");
+		}
+		out.append("\t\t\tdefault:\n\t\t\t\treader.skipValue();\n\t\t\t\tbreak;\n");
+		out.append("\t\t\t}\n\t\t}\n");
+		out.append("\t\treader.endObject();\n");
+		out.append("\t\treturn value;\n\t}\n\n");
+
+		out.append("\t@Override\n\tpublic void write(").append(WRITER).append(" writer, ").append(typeName)
+				.append(" value) throws IOException {\n");
+		out.append("\t\tif (value == null) {\n\t\t\twriter.nullValue();\n\t\t\treturn;\n\t\t}\n");
+		out.append("\t\twriter.beginObject();\n");
+		for (Property property : entity.properties) {
+			String getter = "value." + property.getter + "()";
+			if (property.value.isPrimitive()) {
+				out.append("\t\twriter.name(\"").append(property.jsonName).append("\").value(").append(getter)
+						.append(");\n");
+				continue;
+			}
+			out.append("\t\tif (").append(getter).append(" != null) {\n");
+			out.append("\t\t\twriter.name(\"").append(property.jsonName).append("\");\n");
+			if (property.value.kind == ValueKind.LIST) {
+				out.append("\t\t\tJsonCodecs.writeList(writer, ").append(getter).append(", ")
+						.append(codecExpression(property.value.element, enumCodecs, entities)).append(");\n");
+			} else {
+				out.append("\t\t\t").append(codecExpression(property.value, enumCodecs, entities))
+						.append(".write(writer, ").append(getter).append(");\n");
+			}
+			out.append("\t\t}\n");
+		}
+		out.append("\t\twriter.endObject();\n\t}\n}\n");
+		writeSource(packageName + "." + entity.codecName, out, origin, entity.type);
+	}
+
+	/**
+	 * Writes the provider of the codecs.
+	 *
+	 * @param packageName the package name
+	 * @param entities the entities
+	 * @param origin the origin
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void writeProvider(String packageName, Map<String, Entity> entities, Element origin) throws IOException {
+		StringBuilder out = new StringBuilder();
+		out.append("package ").append(packageName).append(";\n\n");
+		out.append("import java.util.HashMap;\nimport java.util.Map;\n\n");
+		out.append("import javax.annotation.processing.Generated;\n\n");
+		out.append("/**\n * The codecs generated for the schema entities.\n */\n");
+		out.append("@Generated(\"").append(getClass().getName()).append("\")\n");
+		out.append("public final class ").append(PROVIDER_NAME).append(" implements JsonCodecProvider {\n\n");
+		out.append("\tprivate static final Map<Class<?>, JsonCodec<?>> CODECS = new HashMap<Class<?>, JsonCodec<?>>();\n\n");
+		out.append("\tstatic {\n");
+		for (Entity entity : entities.values()) {
+			if (entity.unsupported == null) {
+				out.append("\t\tCODECS.put(").append(entity.type.getQualifiedName()).append(".class, ")
+						.append(entity.codecName).append(".INSTANCE);\n");
+			}
+		}
+		out.append("\t}\n\n");
+		out.append("\t@SuppressWarnings(\"unchecked\")\n\t@Override\n");
+		out.append("\tpublic <T> JsonCodec<T> getCodec(Class<T> type) {\n");
+		out.append("\t\treturn (JsonCodec<T>) CODECS.get(type);\n\t}\n}\n");
+		writeSource(packageName + "." + PROVIDER_NAME, out, origin);
+	}
+
+	/**
+	 * Gets the expression that reads a value.
+	 *
+	 * @param value the value
+	 * @param enumCodecs the enum codec fields
+	 * @param entities the entities
+	 *
+	 * @return the expression
+	 */
+	private String readExpression(Value value, Map<String, String> enumCodecs, Map<String, Entity> entities) {
+		switch (value.kind) {
+		case INT:
+			return "JsonCodecs.readInt(reader)";
+		case LONG:
+			return "JsonCodecs.readLong(reader)";
+		case DOUBLE:
+			return "JsonCodecs.readDouble(reader)";
+		case FLOAT:
+			return "JsonCodecs.readFloat(reader)";
+		case BOOLEAN:
+			return "JsonCodecs.readBoolean(reader)";
+		case LIST:
+			return "JsonCodecs.readList(reader, " + codecExpression(value.element, enumCodecs, entities)
+					+ ((value.element.kind == ValueKind.ENTITY) ? ", FieldProjection.member(projection, name))" : ")");
+		case ENTITY:
+			return codecExpression(value, enumCodecs, entities) + ".read(reader, FieldProjection.member(projection, name))";
+		case RUNTIME:
+			if (POOL_STRINGS && "java.lang.String".equals(qualifiedName(value.type))) {
+				return "JsonCodecs.readString(reader, name)";
+			}
+			return codecExpression(value, enumCodecs, entities) + ".read(reader)";
+		default:
+			return codecExpression(value, enumCodecs, entities) + ".read(reader)";
+		}
+	}
+
+	/**
+	 * Gets the expression of the codec of a value.
+	 *
+	 * @param value the value
+	 * @param enumCodecs the enum codec fields
+	 * @param entities the entities
+	 *
+	 * @return the expression
+	 */
+	private String codecExpression(Value value, Map<String, String> enumCodecs, Map<String, Entity> entities) {
+		switch (value.kind) {
+		case RUNTIME:
+			return "JsonCodecs." + WRAPPER_CODECS.get(qualifiedName(value.type));
+		case ENUM:
+			return enumCodecs.get(qualifiedName(value.type));
+		case ENTITY:
+			return entities.get(qualifiedName(value.type)).codecName + ".INSTANCE";
+		default:
+			throw new IllegalArgumentException("No codec for " + value.type);
+		}
+	}
+
+	/**
+	 * Writes a source file.
+	 *
+	 * @param name the qualified name
+	 * @param source the source
+	 * @param origins the elements it originates from
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void writeSource(String name, CharSequence source, Element... origins) throws IOException {
+		Writer writer = processingEnv.getFiler().createSourceFile(name, origins).openWriter();
+		try {
+			writer.append(source);
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Gets the annotation mirror of the annotation on an element.
+	 *
+	 * @param element the element
+	 * @param annotation the annotation
+	 *
+	 * @return the annotation mirror
+	 */
+	private AnnotationMirror getAnnotationMirror(Element element, TypeElement annotation) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			if (mirror.getAnnotationType().asElement().equals(annotation)) {
+				return mirror;
+			}
+		}
+		throw new IllegalStateException(element + " is not annotated with " + annotation);
+	}
+
+	/**
+	 * Gets the superclass of a type.
+	 *
+	 * @param type the type
+	 *
+	 * @return the superclass, null if there is none
+	 */
+	private TypeElement superclassOf(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		return (superclass.getKind() == TypeKind.DECLARED) ? (TypeElement) ((DeclaredType) superclass).asElement()
+				: null;
+	}
+
+	/**
+	 * Gets the qualified name of a declared type.
+	 *
+	 * @param type the type
+	 *
+	 * @return the string
+	 */
+	private static String qualifiedName(TypeMirror type) {
+		return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+	}
+
+	/**
+	 * Gets the simple name of a declared type.
+	 *
+	 * @param type the type
+	 *
+	 * @return the string
+	 */
+	private static String simpleName(TypeMirror type) {
+		return ((DeclaredType) type).asElement().getSimpleName().toString();
+	}
+
+	/**
+	 * Names a field as the gson policy of the same name does: an
+	 * underscore before each upper case letter but the first, then all in
+	 * lower case.
+	 *
+	 * @param name the name
+	 *
+	 * @return the string
+	 */
+	static String toLowerCaseWithUnderscores(String name) {
+		StringBuilder builder = new StringBuilder(name.length() + 4);
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (Character.isUpperCase(c) && builder.length() != 0) {
+				builder.append('_');
+			}
+			builder.append(c);
+		}
+		return builder.toString().toLowerCase(Locale.US);
+	}
+
+	/**
+	 * The Enum ValueKind.
+	 */
+	private enum ValueKind {
+
+		/** The int. */
+		INT,
+
+		/** The long. */
+		LONG,
+
+		/** The double. */
+		DOUBLE,
+
+		/** The float. */
+		FLOAT,
+
+		/** The boolean. */
+		BOOLEAN,
+
+		/** A wrapper, string or date, read by a codec of the runtime. */
+		RUNTIME,
+
+		/** The enum. */
+		ENUM,
+
+		/** The list. */
+		LIST,
+
+		/** The entity. */
+		ENTITY
+	}
+
+	/**
+	 * The Class Value.
+	 */
+	private static class Value {
+
+		/** The kind. */
+		private final ValueKind kind;
+
+		/** The type. */
+		private final TypeMirror type;
+
+		/** The element of a list. */
+		private final Value element;
+
+		/**
+		 * Instantiates a new value.
+		 *
+		 * @param kind the kind
+		 * @param type the type
+		 * @param element the element of a list
+		 */
+		private Value(ValueKind kind, TypeMirror type, Value element) {
+			this.kind = kind;
+			this.type = type;
+			this.element = element;
+		}
+
+		/**
+		 * Checks if the value is primitive.
+		 *
+		 * @return true, if is primitive
+		 */
+		private boolean isPrimitive() {
+			return type.getKind().isPrimitive();
+		}
+	}
+
+	/**
+	 * The Class Property.
+	 */
+	private static class Property {
+
+		/** The json name. */
+		private final String jsonName;
+
+		/** The setter. */
+		private final String setter;
+
+		/** The getter. */
+		private final String getter;
+
+		/** The value. */
+		private final Value value;
+
+		/**
+		 * Instantiates a new property.
+		 *
+		 * @param jsonName the json name
+		 * @param setter the setter
+		 * @param getter the getter
+		 * @param value the value
+		 */
+		private Property(String jsonName, String setter, String getter, Value value) {
+			this.jsonName = jsonName;
+			this.setter = setter;
+			this.getter = getter;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * The Class Entity.
+	 */
+	private static class Entity {
+
+		/** The type. */
+		private final TypeElement type;
+
+		/** The codec name. */
+		private final String codecName;
+
+		/** The properties. */
+		private final List<Property> properties = new ArrayList<Property>();
+
+		/** Why the entity has no codec, null if it has one. */
+		private String unsupported;
+
+		/**
+		 * Instantiates a new entity.
+		 *
+		 * @param type the type
+		 * @param codecName the codec name
+		 */
+		private Entity(TypeElement type, String codecName) {
+			this.type = type;
+			this.codecName = codecName;
+		}
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services;
+
+/**
+ * The Class CircuitBreakerOpenException.
+ *
+ * Thrown when the circuit breaker of an endpoint is open because too many
+ * of its recent calls failed or were slow. The request was not sent.
+ */
+public class CircuitBreakerOpenException extends GoogleSearchException {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 4417215378862317093L;
+
+	/**
+	 * Instantiates a new circuit breaker open exception.
+	 * 
+	 * @param message the message
+	 */
+	public CircuitBreakerOpenException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.spec.GoogleSearchSpec;
+
+/**
+ * The Class GoogleSearchClient.
+ * 
+ * Runs query specs with the settings of the factory it was created by. The
+ * client keeps one query per vertical and never changes it, so the specs of
+ * all the threads run through the same queries and each call only allocates
+ * its own request and results.
+ */
+public class GoogleSearchClient {
+	
+	/** The factory the queries are configured by. */
+	private final GoogleSearchQueryFactory factory;
+	
+	/** The application key. */
+	private final String applicationKey;
+	
+	/** The queries the specs are run through, by spec class. */
+	private final ConcurrentMap<Class<?>, BaseGoogleSearchApiQuery<?>> queries = new ConcurrentHashMap<Class<?>, BaseGoogleSearchApiQuery<?>>();
+	
+	/**
+	 * Instantiates a new google search client.
+	 * 
+	 * @param factory the factory
+	 * @param applicationKey the application key
+	 */
+	GoogleSearchClient(GoogleSearchQueryFactory factory, String applicationKey) {
+		this.factory = factory;
+		this.applicationKey = applicationKey;
+	}
+	
+	/**
+	 * Lists the results of a spec.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the paged list< t>
+	 */
+	public <T> PagedList<T> list(GoogleSearchSpec<T, ?> spec) {
+		return getQuery(spec).list(spec);
+	}
+	
+	/**
+	 * Lists the results of a spec asynchronously.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the future of the paged list< t>
+	 */
+	public <T> CompletableFuture<PagedList<T>> listAsync(GoogleSearchSpec<T, ?> spec) {
+		return getQuery(spec).listAsync(spec);
+	}
+	
+	/**
+	 * Gets the single result of a spec.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the t
+	 */
+	public <T> T singleResult(GoogleSearchSpec<T, ?> spec) {
+		return getQuery(spec).singleResult(spec);
+	}
+	
+	/**
+	 * Gets the single result of a spec asynchronously.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the future of the t
+	 */
+	public <T> CompletableFuture<T> singleResultAsync(GoogleSearchSpec<T, ?> spec) {
+		return getQuery(spec).singleResultAsync(spec);
+	}
+	
+	/**
+	 * Gets the query of the vertical of a spec, configuring it the first
+	 * time.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the query
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> BaseGoogleSearchApiQuery<T> getQuery(GoogleSearchSpec<T, ?> spec) {
+		BaseGoogleSearchApiQuery<?> query = queries.get(spec.getClass());
+		if (query == null) {
+			query = queries.computeIfAbsent(spec.getClass(), type -> factory.configure(spec.createQuery(applicationKey)));
+		}
+		return (BaseGoogleSearchApiQuery<T>) query;
+	}
+}
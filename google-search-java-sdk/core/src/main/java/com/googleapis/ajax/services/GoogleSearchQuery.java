@@ -17,9 +17,14 @@
 package com.googleapis.ajax.services;
 
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import com.googleapis.ajax.common.PagedList;
 import com.googleapis.ajax.services.enumeration.ResultSetSize;
+import com.googleapis.ajax.services.paging.MergedPagedList;
 
 
 
@@ -100,6 +105,31 @@ public interface GoogleSearchQuery<T> extends GoogleSearchAuthenticationClient {
 	 */
 	public GoogleSearchQuery<T> withRelatedSite(String site);
 	
+	/**
+	 * With timeout. Each call gets the timeout from the moment it is made
+	 * until its result is parsed, retries and hedges included, and fails
+	 * with a {@link DeadlineExceededException} once it is over.
+	 * 
+	 * @param timeout the timeout, 0 for none
+	 * @param unit the unit
+	 * 
+	 * @return the google search query< t>
+	 */
+	public GoogleSearchQuery<T> withTimeout(long timeout, TimeUnit unit);
+	
+	/**
+	 * With fields. Only the given fields of the listed results are read, the
+	 * members of the others are skipped as the response streams past. A
+	 * nested field is named by its path, e.g. <code>image.url</code>.
+	 * 
+	 * @param fields the fields of the result type, none to read them all
+	 * 
+	 * @return the google search query< t>
+	 * 
+	 * @throws IllegalArgumentException if a field is not one of the result type
+	 */
+	public GoogleSearchQuery<T> withFields(String... fields);
+	
 	/**
 	 * Single result.
 	 * 
@@ -114,6 +144,110 @@ public interface GoogleSearchQuery<T> extends GoogleSearchAuthenticationClient {
 	 */
 	public PagedList<T> list();
 	
+	/**
+	 * Single result, fetched without blocking the calling thread. Cancelling
+	 * the future aborts the underlying connection.
+	 * 
+	 * @return the future t
+	 */
+	public CompletableFuture<T> singleResultAsync();
+
+	/**
+	 * List, fetched without blocking the calling thread. The response
+	 * handlers are given the returned future and called once it completes.
+	 * Cancelling the future aborts the underlying connection.
+	 * 
+	 * @return the future paged list< t>
+	 */
+	public CompletableFuture<PagedList<T>> listAsync();
+
+	/**
+	 * List all the pages of the cursor, one after the other, fetching the
+	 * page after the one being read in the background. Each iteration
+	 * starts from the state of the query when this is called.
+	 * 
+	 * @return the iterable t
+	 */
+	public Iterable<T> listAll();
+
+	/**
+	 * List all the pages of the cursor, one after the other. The results of
+	 * a page are handed out as soon as it is read while the given number of
+	 * pages after it are fetched in the background, the pages past them are
+	 * only requested once they are reached.
+	 * 
+	 * @param prefetchPages the pages fetched ahead of the one being read, 0 to fetch each when it is reached
+	 * 
+	 * @return the iterable t
+	 */
+	public Iterable<T> listAll(int prefetchPages);
+
+	/**
+	 * Stream of the results of all the pages of the cursor, fetching the page
+	 * after the one being read in the background. Closing the stream cancels
+	 * the pages still in flight.
+	 * 
+	 * @return the stream t
+	 */
+	public Stream<T> stream();
+
+	/**
+	 * Stream of the results of all the pages of the cursor, as
+	 * {@link #listAll(int)}. A stream that stops early, e.g. with a limit,
+	 * does not fetch the pages it does not reach. Closing the stream cancels
+	 * the pages still in flight.
+	 * 
+	 * @param prefetchPages the pages fetched ahead of the one being read, 0 to fetch each when it is reached
+	 * 
+	 * @return the stream t
+	 */
+	public Stream<T> stream(int prefetchPages);
+
+	/**
+	 * List the results of all the pages of the cursor at once. The pages
+	 * after the first are fetched concurrently and merged in cursor order.
+	 * 
+	 * @return the merged paged list< t>
+	 */
+	public MergedPagedList<T> listAllPages();
+
+	/**
+	 * List the results of all the pages of the cursor at once. Once the
+	 * first page is read the pages after it are fetched concurrently, at
+	 * most the given number at a time, and merged in cursor order. A page
+	 * that fails is left out of the list and its error is kept in
+	 * {@link MergedPagedList#getFailures()}, the results of the others are
+	 * still returned. Only a failure of the first page fails the call.
+	 * 
+	 * @param parallelism the most pages fetched at once
+	 * 
+	 * @return the merged paged list< t>
+	 */
+	public MergedPagedList<T> listAllPages(int parallelism);
+
+	/**
+	 * List the results of all the pages of the cursor at once, as
+	 * {@link #listAllPages(int)} without blocking the calling thread.
+	 * Cancelling the future cancels the pages in flight.
+	 * 
+	 * @param parallelism the most pages fetched at once
+	 * 
+	 * @return the future merged paged list< t>
+	 */
+	public CompletableFuture<MergedPagedList<T>> listAllPagesAsync(int parallelism);
+
+	/**
+	 * Publisher of the results of all the pages of the cursor, one result at
+	 * a time as the subscriber asks for them. A page is only fetched once the
+	 * results before it are emitted and more are asked for, so at most one
+	 * page is held for a slow subscriber. Cancelling the subscription aborts
+	 * the page in flight. Each subscriber starts from the state of the query
+	 * when this is called.
+	 * 
+	 * @return the publisher t
+	 */
+	public Flow.Publisher<T> publisher();
+	
 	/**
 	 * Adds the resonse handler.
 	 * 
@@ -16,10 +16,18 @@
  */
 package com.googleapis.ajax.services;
 
+import java.util.concurrent.Executor;
+
+import com.googleapis.ajax.services.cache.ResponseCache;
+import com.googleapis.ajax.services.circuitbreaker.CircuitBreakerRegistry;
+import com.googleapis.ajax.services.coalescing.RequestCoalescer;
+import com.googleapis.ajax.services.enumeration.ExecutionMode;
+import com.googleapis.ajax.services.hedging.HedgingPolicy;
 import com.googleapis.ajax.services.impl.BlogSearchQueryImpl;
 import com.googleapis.ajax.services.impl.BookSearchQueryImpl;
 import com.googleapis.ajax.services.impl.DetectLanguageQueryImpl;
 import com.googleapis.ajax.services.impl.FindFeedQueryImpl;
+import com.googleapis.ajax.services.impl.GoogleSearchApiGateway;
 import com.googleapis.ajax.services.impl.ImageSearchQueryImpl;
 import com.googleapis.ajax.services.impl.LoadFeedQueryImpl;
 import com.googleapis.ajax.services.impl.LocalSearchQueryImpl;
@@ -30,6 +38,13 @@ import com.googleapis.ajax.services.impl.TranslateLanguageQueryImpl;
 import com.googleapis.ajax.services.impl.TransliterateLanguageQueryImpl;
 import com.googleapis.ajax.services.impl.VideoSearchQueryImpl;
 import com.googleapis.ajax.services.impl.WebSearchQueryImpl;
+import com.googleapis.ajax.services.json.StringPool;
+import com.googleapis.ajax.services.ratelimit.RateLimiter;
+import com.googleapis.ajax.services.retry.RetryPolicy;
+import com.googleapis.ajax.services.transport.ClientConfiguration;
+import com.googleapis.ajax.services.transport.Http2Transport;
+import com.googleapis.ajax.services.transport.HttpTransport;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
 
 
 
@@ -40,14 +55,46 @@ public class GoogleSearchQueryFactory {
 
     /** The application key. */
     private String applicationKey;
+    
+    /** The transport shared by the queries. */
+    private HttpTransport transport;
+    
+    /** The executor of the asynchronous calls, null for the default one. */
+    private Executor executor;
+    
+    /** The coalescer shared by the queries, null for none. */
+    private RequestCoalescer coalescer = new RequestCoalescer();
+    
+    /** The response cache shared by the queries, null for none. */
+    private ResponseCache cache;
+    
+    /** The retry policy shared by the queries, null for none. */
+    private RetryPolicy retryPolicy = new RetryPolicy();
+    
+    /** The rate limiter shared by the queries, null for none. */
+    private RateLimiter rateLimiter;
+    
+    /** The circuit breakers shared by the queries, null for none. */
+    private CircuitBreakerRegistry circuitBreakerRegistry = new CircuitBreakerRegistry();
+    
+    /** The hedging policy shared by the queries, null for none. */
+    private HedgingPolicy hedgingPolicy;
+    
+    /** The timeouts of the calls of the queries. */
+    private ClientConfiguration clientConfiguration = ClientConfiguration.getDefault();
+    
+    /** The pool of the repeated strings of the results, null for none. */
+    private StringPool stringPool = StringPool.getDefault();
 
     /**
      * Instantiates a new google search query factory.
      * 
      * @param applicationKey the application key
+     * @param transport the transport
      */
-	private GoogleSearchQueryFactory(String applicationKey) {
+	private GoogleSearchQueryFactory(String applicationKey, HttpTransport transport) {
         this.applicationKey = applicationKey;
+        this.transport = transport;
     }
 	
     /**
@@ -58,7 +105,228 @@ public class GoogleSearchQueryFactory {
      * @return the google search query factory
      */
     public static GoogleSearchQueryFactory newInstance(String applicationKey) {
-        return new GoogleSearchQueryFactory(applicationKey);
+        return new GoogleSearchQueryFactory(applicationKey, PooledHttpTransport.getSharedInstance());
+    }
+    
+    /**
+     * New instance whose queries share the non blocking HTTP/2 transport, a
+     * few multiplexed connections serve any number of concurrent queries.
+     * 
+     * @param applicationKey the application key
+     * 
+     * @return the google search query factory
+     */
+    public static GoogleSearchQueryFactory newAsyncInstance(String applicationKey) {
+        return new GoogleSearchQueryFactory(applicationKey, Http2Transport.getSharedInstance());
+    }
+    
+    /**
+     * New instance.
+     * 
+     * @param applicationKey the application key
+     * @param transport the transport used by all the queries of this factory
+     * 
+     * @return the google search query factory
+     */
+    public static GoogleSearchQueryFactory newInstance(String applicationKey, HttpTransport transport) {
+        return new GoogleSearchQueryFactory(applicationKey, transport);
+    }
+    
+    /**
+     * Gets the transport.
+     * 
+     * @return the transport
+     */
+    public HttpTransport getTransport() {
+    	return transport;
+    }
+    
+    /**
+     * Gets the executor of the asynchronous calls.
+     * 
+     * @return the executor, null for the default one
+     */
+    public Executor getExecutor() {
+    	return executor;
+    }
+    
+    /**
+     * Sets the executor used by the asynchronous calls of the queries created
+     * from now on.
+     * 
+     * @param executor the new executor, null for the default one
+     */
+    public void setExecutor(Executor executor) {
+    	this.executor = executor;
+    }
+    
+    /**
+     * Sets the execution mode of the asynchronous calls of the queries created
+     * from now on, replacing any executor set before. In virtual thread mode
+     * every call gets its own virtual thread, which parks instead of holding
+     * a platform thread while it waits on the network.
+     * 
+     * @param mode the new execution mode
+     */
+    public void setExecutionMode(ExecutionMode mode) {
+    	this.executor = GoogleSearchApiGateway.getDefaultExecutor(mode);
+    }
+    
+    /**
+     * Gets the request coalescer. Identical queries in flight at the same
+     * time share one call and one parsed result, its stats tell how many
+     * calls were saved.
+     * 
+     * @return the request coalescer, null if requests are not coalesced
+     */
+    public RequestCoalescer getRequestCoalescer() {
+    	return coalescer;
+    }
+    
+    /**
+     * Sets the request coalescer of the queries created from now on.
+     * 
+     * @param coalescer the new request coalescer, null not to coalesce requests
+     */
+    public void setRequestCoalescer(RequestCoalescer coalescer) {
+    	this.coalescer = coalescer;
+    }
+    
+    /**
+     * Gets the response cache.
+     * 
+     * @return the response cache, null if responses are not cached
+     */
+    public ResponseCache getResponseCache() {
+    	return cache;
+    }
+    
+    /**
+     * Sets the response cache of the queries created from now on, e.g.
+     * <code>new ResponseCache()</code> for the sizes and times to live of
+     * the application constants.
+     * 
+     * @param cache the new response cache, null not to cache responses
+     */
+    public void setResponseCache(ResponseCache cache) {
+    	this.cache = cache;
+    }
+    
+    /**
+     * Gets the retry policy. All the queries of the factory draw their
+     * retries from its budget, its stats tell how many were made.
+     * 
+     * @return the retry policy, null if failed calls are not retried
+     */
+    public RetryPolicy getRetryPolicy() {
+    	return retryPolicy;
+    }
+    
+    /**
+     * Sets the retry policy of the queries created from now on.
+     * 
+     * @param retryPolicy the new retry policy, null not to retry failed calls
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+    	this.retryPolicy = retryPolicy;
+    }
+    
+    /**
+     * Gets the rate limiter. By default there is none.
+     * 
+     * @return the rate limiter, null if calls are not rate limited
+     */
+    public RateLimiter getRateLimiter() {
+    	return rateLimiter;
+    }
+    
+    /**
+     * Sets the rate limiter of the queries created from now on, e.g.
+     * <code>RateLimiter.forApplicationKey(applicationKey)</code> to share
+     * the quota of the key with the other factories that use it.
+     * 
+     * @param rateLimiter the new rate limiter, null not to rate limit calls
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+    	this.rateLimiter = rateLimiter;
+    }
+    
+    /**
+     * Gets the circuit breakers of the endpoints, shared by the queries of
+     * this factory.
+     * 
+     * @return the circuit breaker registry, null if calls are not guarded
+     */
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+    	return circuitBreakerRegistry;
+    }
+    
+    /**
+     * Sets the circuit breakers of the queries created from now on, a
+     * registry may be shared by several factories.
+     * 
+     * @param circuitBreakerRegistry the new circuit breaker registry, null not to guard calls
+     */
+    public void setCircuitBreakerRegistry(CircuitBreakerRegistry circuitBreakerRegistry) {
+    	this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+    
+    /**
+     * Gets the hedging policy. Requests are not hedged unless one is set.
+     * 
+     * @return the hedging policy, null if requests are not hedged
+     */
+    public HedgingPolicy getHedgingPolicy() {
+    	return hedgingPolicy;
+    }
+    
+    /**
+     * Sets the hedging policy of the queries created from now on.
+     * 
+     * @param hedgingPolicy the new hedging policy, null not to hedge requests
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+    	this.hedgingPolicy = hedgingPolicy;
+    }
+    
+    /**
+     * Gets the pool of the repeated strings of the results, the one of the
+     * application constants unless another is set.
+     * 
+     * @return the string pool, null if strings are not pooled
+     */
+    public StringPool getStringPool() {
+    	return stringPool;
+    }
+    
+    /**
+     * Sets the pool of the repeated strings of the results of the queries
+     * created from now on.
+     * 
+     * @param stringPool the new string pool, null not to pool strings
+     */
+    public void setStringPool(StringPool stringPool) {
+    	this.stringPool = stringPool;
+    }
+    
+    /**
+     * Gets the client configuration, the timeouts of the calls.
+     * 
+     * @return the client configuration
+     */
+    public ClientConfiguration getClientConfiguration() {
+    	return clientConfiguration;
+    }
+    
+    /**
+     * Sets the client configuration of the queries created from now on, e.g.
+     * a short call timeout for user facing queries and a long one for batch
+     * jobs, each from its own factory.
+     * 
+     * @param clientConfiguration the new client configuration
+     */
+    public void setClientConfiguration(ClientConfiguration clientConfiguration) {
+    	this.clientConfiguration = clientConfiguration;
     }
     
     /**
@@ -67,7 +335,7 @@ public class GoogleSearchQueryFactory {
      * @return the blog search query
      */
     public BlogSearchQuery newBlogSearchQuery() {
-    	return new BlogSearchQueryImpl(applicationKey);
+    	return configure(new BlogSearchQueryImpl(applicationKey));
     }
     
     /**
@@ -76,7 +344,7 @@ public class GoogleSearchQueryFactory {
      * @return the book search query
      */
     public BookSearchQuery newBookSearchQuery() {
-    	return new BookSearchQueryImpl(applicationKey);
+    	return configure(new BookSearchQueryImpl(applicationKey));
     }
     
     /**
@@ -85,7 +353,7 @@ public class GoogleSearchQueryFactory {
      * @return the image search query
      */
     public ImageSearchQuery newImageSearchQuery() {
-    	return new ImageSearchQueryImpl(applicationKey);
+    	return configure(new ImageSearchQueryImpl(applicationKey));
     }
     
     /**
@@ -94,7 +362,7 @@ public class GoogleSearchQueryFactory {
      * @return the local search query
      */
     public LocalSearchQuery newLocalSearchQuery() {
-    	return new LocalSearchQueryImpl(applicationKey);
+    	return configure(new LocalSearchQueryImpl(applicationKey));
     }
 
     /**
@@ -103,7 +371,7 @@ public class GoogleSearchQueryFactory {
      * @return the news search query
      */
     public NewsSearchQuery newNewsSearchQuery() {
-    	return new NewsSearchQueryImpl(applicationKey);
+    	return configure(new NewsSearchQueryImpl(applicationKey));
     }
     
     /**
@@ -112,7 +380,7 @@ public class GoogleSearchQueryFactory {
      * @return the patent search query
      */
     public PatentSearchQuery newPatentSearchQuery() {
-    	return new PatentSearchQueryImpl(applicationKey);
+    	return configure(new PatentSearchQueryImpl(applicationKey));
     }
     
     /**
@@ -121,7 +389,7 @@ public class GoogleSearchQueryFactory {
      * @return the video search query
      */
     public VideoSearchQuery newVideoSearchQuery() {
-    	return new VideoSearchQueryImpl(applicationKey);
+    	return configure(new VideoSearchQueryImpl(applicationKey));
     }
     
     /**
@@ -130,7 +398,7 @@ public class GoogleSearchQueryFactory {
      * @return the web search query
      */
     public WebSearchQuery newWebSearchQuery() {
-    	return new WebSearchQueryImpl(applicationKey);
+    	return configure(new WebSearchQueryImpl(applicationKey));
     }
     
     /**
@@ -139,7 +407,7 @@ public class GoogleSearchQueryFactory {
      * @return the translate language query
      */
     public TranslateLanguageQuery newTranslateLanguageQuery() {
-    	return new TranslateLanguageQueryImpl(applicationKey);
+    	return configure(new TranslateLanguageQueryImpl(applicationKey));
     }
 
     /**
@@ -148,7 +416,7 @@ public class GoogleSearchQueryFactory {
      * @return the transliterate language query
      */
     public TransliterateLanguageQuery newTransliterateLanguageQuery() {
-    	return new TransliterateLanguageQueryImpl(applicationKey);
+    	return configure(new TransliterateLanguageQueryImpl(applicationKey));
     }
     
     /**
@@ -157,16 +425,49 @@ public class GoogleSearchQueryFactory {
      * @return the detect language query
      */
     public DetectLanguageQuery newDetectLanguageQuery() {
-    	return new DetectLanguageQueryImpl(applicationKey);
+    	return configure(new DetectLanguageQueryImpl(applicationKey));
     }
     
     public LoadFeedQuery newLoadFeedQuery() {
-    	return new LoadFeedQueryImpl(applicationKey);
+    	return configure(new LoadFeedQueryImpl(applicationKey));
     }
     public FindFeedQuery newFindFeedQuery() {
-    	return new FindFeedQueryImpl(applicationKey);
+    	return configure(new FindFeedQueryImpl(applicationKey));
     }
     public LookupFeedQuery newLookupFeedQuery() {
-    	return new LookupFeedQueryImpl(applicationKey);
+    	return configure(new LookupFeedQueryImpl(applicationKey));
+    }
+    
+    /**
+     * New client, that runs query specs of any vertical with the settings
+     * of this factory. A client is meant to be shared: it configures one
+     * query per vertical, when it first runs a spec of the vertical, and
+     * all the specs of the vertical are run through it.
+     * 
+     * @return the google search client
+     */
+    public GoogleSearchClient newClient() {
+    	return new GoogleSearchClient(this, applicationKey);
+    }
+    
+    /**
+     * Applies the factory wide settings to a new query.
+     * 
+     * @param query the query
+     * 
+     * @return the query
+     */
+    <Q extends GoogleSearchApiGateway> Q configure(Q query) {
+    	query.setTransport(transport);
+    	query.setExecutor(executor);
+    	query.setRequestCoalescer(coalescer);
+    	query.setResponseCache(cache);
+    	query.setRetryPolicy(retryPolicy);
+    	query.setRateLimiter(rateLimiter);
+    	query.setCircuitBreakerRegistry(circuitBreakerRegistry);
+    	query.setHedgingPolicy(hedgingPolicy);
+    	query.setClientConfiguration(clientConfiguration);
+    	query.setStringPool(stringPool);
+    	return query;
     }
 }
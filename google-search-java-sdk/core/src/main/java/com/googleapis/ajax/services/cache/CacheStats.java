@@ -0,0 +1,222 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.cache;
+
+/**
+ * The Class CacheStats.
+ *
+ * An immutable snapshot of a response cache.
+ */
+public class CacheStats {
+
+	/** The hit count. */
+	private final long hitCount;
+
+	/** The miss count. */
+	private final long missCount;
+
+	/** The stale hit count. */
+	private final long staleHitCount;
+
+	/** The load count. */
+	private final long loadCount;
+
+	/** The load failure count. */
+	private final long loadFailureCount;
+
+	/** The total load time in nanos. */
+	private final long totalLoadTime;
+
+	/** The eviction count. */
+	private final long evictionCount;
+
+	/** The expiration count. */
+	private final long expirationCount;
+
+	/** The rejection count. */
+	private final long rejectionCount;
+
+	/** The entry count. */
+	private final int entryCount;
+
+	/** The weighted size. */
+	private final long weightedSize;
+
+	/**
+	 * Instantiates a new cache stats.
+	 *
+	 * @param hitCount the hit count
+	 * @param missCount the miss count
+	 * @param staleHitCount the stale hit count
+	 * @param loadCount the load count
+	 * @param loadFailureCount the load failure count
+	 * @param totalLoadTime the total load time in nanos
+	 * @param evictionCount the eviction count
+	 * @param expirationCount the expiration count
+	 * @param rejectionCount the rejection count
+	 * @param entryCount the entry count
+	 * @param weightedSize the weighted size
+	 */
+	public CacheStats(long hitCount, long missCount, long staleHitCount, long loadCount, long loadFailureCount,
+			long totalLoadTime, long evictionCount, long expirationCount, long rejectionCount, int entryCount, long weightedSize) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.staleHitCount = staleHitCount;
+		this.loadCount = loadCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTime = totalLoadTime;
+		this.evictionCount = evictionCount;
+		this.expirationCount = expirationCount;
+		this.rejectionCount = rejectionCount;
+		this.entryCount = entryCount;
+		this.weightedSize = weightedSize;
+	}
+
+	/**
+	 * Gets the number of lookups that found a live entry.
+	 *
+	 * @return the hit count
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Gets the number of lookups that found nothing or an expired entry.
+	 *
+	 * @return the miss count
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Gets the number of expired entries served because a fresh response
+	 * could not be had.
+	 *
+	 * @return the stale hit count
+	 */
+	public long getStaleHitCount() {
+		return staleHitCount;
+	}
+
+	/**
+	 * Gets the hit rate.
+	 *
+	 * @return the hit rate, between 0 and 1
+	 */
+	public double getHitRate() {
+		long requests = hitCount + missCount;
+		return (requests == 0) ? 0 : (double) hitCount / requests;
+	}
+
+	/**
+	 * Gets the number of responses loaded after a miss.
+	 *
+	 * @return the load count
+	 */
+	public long getLoadCount() {
+		return loadCount;
+	}
+
+	/**
+	 * Gets the number of loads that failed.
+	 *
+	 * @return the load failure count
+	 */
+	public long getLoadFailureCount() {
+		return loadFailureCount;
+	}
+
+	/**
+	 * Gets the time spent loading, successful or not.
+	 *
+	 * @return the total load time in nanos
+	 */
+	public long getTotalLoadTime() {
+		return totalLoadTime;
+	}
+
+	/**
+	 * Gets the average time spent per load.
+	 *
+	 * @return the average load penalty in nanos
+	 */
+	public double getAverageLoadPenalty() {
+		long loads = loadCount + loadFailureCount;
+		return (loads == 0) ? 0 : (double) totalLoadTime / loads;
+	}
+
+	/**
+	 * Gets the number of entries evicted to make room for others.
+	 *
+	 * @return the eviction count
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Gets the number of entries dropped because their time to live passed.
+	 *
+	 * @return the expiration count
+	 */
+	public long getExpirationCount() {
+		return expirationCount;
+	}
+
+	/**
+	 * Gets the number of responses not admitted because they were less
+	 * popular than the entries they would have evicted.
+	 *
+	 * @return the rejection count
+	 */
+	public long getRejectionCount() {
+		return rejectionCount;
+	}
+
+	/**
+	 * Gets the number of entries.
+	 *
+	 * @return the entry count
+	 */
+	public int getEntryCount() {
+		return entryCount;
+	}
+
+	/**
+	 * Gets the total payload size of the entries.
+	 *
+	 * @return the weighted size in bytes
+	 */
+	public long getWeightedSize() {
+		return weightedSize;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CacheStats [hitCount=" + hitCount + ", missCount=" + missCount
+				+ ", staleHitCount=" + staleHitCount + ", loadCount=" + loadCount
+				+ ", loadFailureCount=" + loadFailureCount
+				+ ", totalLoadTime=" + totalLoadTime + ", evictionCount=" + evictionCount
+				+ ", expirationCount=" + expirationCount + ", rejectionCount=" + rejectionCount
+				+ ", entryCount=" + entryCount + ", weightedSize=" + weightedSize + "]";
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.cache;
+
+/**
+ * The Class DiskCacheStats.
+ *
+ * An immutable snapshot of a disk response cache.
+ */
+public class DiskCacheStats {
+
+	/** The hit count. */
+	private final long hitCount;
+
+	/** The miss count. */
+	private final long missCount;
+
+	/** The write count. */
+	private final long writeCount;
+
+	/** The expiration count. */
+	private final long expirationCount;
+
+	/** The compaction count. */
+	private final long compactionCount;
+
+	/** The entry count. */
+	private final int entryCount;
+
+	/** The segment count. */
+	private final int segmentCount;
+
+	/** The disk size. */
+	private final long diskSize;
+
+	/**
+	 * Instantiates a new disk cache stats.
+	 *
+	 * @param hitCount the hit count
+	 * @param missCount the miss count
+	 * @param writeCount the write count
+	 * @param expirationCount the expiration count
+	 * @param compactionCount the compaction count
+	 * @param entryCount the entry count
+	 * @param segmentCount the segment count
+	 * @param diskSize the disk size
+	 */
+	public DiskCacheStats(long hitCount, long missCount, long writeCount, long expirationCount,
+			long compactionCount, int entryCount, int segmentCount, long diskSize) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.writeCount = writeCount;
+		this.expirationCount = expirationCount;
+		this.compactionCount = compactionCount;
+		this.entryCount = entryCount;
+		this.segmentCount = segmentCount;
+		this.diskSize = diskSize;
+	}
+
+	/**
+	 * Gets the number of lookups that found a live record.
+	 *
+	 * @return the hit count
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Gets the number of lookups that found nothing usable.
+	 *
+	 * @return the miss count
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Gets the number of records appended.
+	 *
+	 * @return the write count
+	 */
+	public long getWriteCount() {
+		return writeCount;
+	}
+
+	/**
+	 * Gets the number of entries dropped because their time to live passed.
+	 *
+	 * @return the expiration count
+	 */
+	public long getExpirationCount() {
+		return expirationCount;
+	}
+
+	/**
+	 * Gets the number of segments compacted or deleted.
+	 *
+	 * @return the compaction count
+	 */
+	public long getCompactionCount() {
+		return compactionCount;
+	}
+
+	/**
+	 * Gets the number of entries in the index.
+	 *
+	 * @return the entry count
+	 */
+	public int getEntryCount() {
+		return entryCount;
+	}
+
+	/**
+	 * Gets the number of segment files.
+	 *
+	 * @return the segment count
+	 */
+	public int getSegmentCount() {
+		return segmentCount;
+	}
+
+	/**
+	 * Gets the total size of the segment files.
+	 *
+	 * @return the disk size in bytes
+	 */
+	public long getDiskSize() {
+		return diskSize;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "DiskCacheStats [hitCount=" + hitCount + ", missCount=" + missCount
+				+ ", writeCount=" + writeCount + ", expirationCount=" + expirationCount
+				+ ", compactionCount=" + compactionCount + ", entryCount=" + entryCount
+				+ ", segmentCount=" + segmentCount + ", diskSize=" + diskSize + "]";
+	}
+}
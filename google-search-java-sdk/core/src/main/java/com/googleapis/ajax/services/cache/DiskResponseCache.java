@@ -0,0 +1,840 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The Class DiskResponseCache.
+ *
+ * A second tier under the {@link ResponseCache} that keeps the response
+ * payloads on local disk, so that a restarted VM starts warm. Payloads are
+ * deflated and appended to segment files; a memory mapped hash index points
+ * each key at its latest record, so a lookup is one probe and one read.
+ * Segments are sealed once full. A background task drops the expired
+ * entries and rewrites the sealed segments that are mostly dead.
+ */
+public class DiskResponseCache implements Closeable {
+
+	/** The Constant LOG. */
+	private static final Logger LOG = Logger.getLogger(DiskResponseCache.class.getCanonicalName());
+
+	/** The Constant INDEX_FILE. */
+	private static final String INDEX_FILE = "index.dat";
+
+	/** The Constant SEGMENT_PREFIX. */
+	private static final String SEGMENT_PREFIX = "segment-";
+
+	/** The Constant SEGMENT_SUFFIX. */
+	private static final String SEGMENT_SUFFIX = ".dat";
+
+	/** The Constant RECORD_MAGIC. */
+	private static final int RECORD_MAGIC = 0x52435244;
+
+	/** The Constant RECORD_HEADER_SIZE: magic, key length, expiry, raw length, compressed length. */
+	private static final int RECORD_HEADER_SIZE = 24;
+
+	/** The Constant MAX_KEY_LENGTH. */
+	private static final int MAX_KEY_LENGTH = 64 * 1024;
+
+	/** The Constant DEFAULT_SEGMENT_SIZE. */
+	public static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	/** The Constant DEFAULT_COMPACTION_INTERVAL in millis. */
+	public static final long DEFAULT_COMPACTION_INTERVAL = 10 * 60 * 1000;
+
+	/** The Constant INITIAL_INDEX_CAPACITY. */
+	private static final int INITIAL_INDEX_CAPACITY = 4096;
+
+	/** The Constant COMPACTION_THRESHOLD, the live share under which a segment is rewritten. */
+	private static final double COMPACTION_THRESHOLD = 0.5;
+
+	/** The directory. */
+	private final File directory;
+
+	/** The max segment size. */
+	private final long maxSegmentSize;
+
+	/** Readers share the lock, appends and compaction hold it exclusively. */
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** The segments by id. */
+	private final TreeMap<Integer, Segment> segments = new TreeMap<Integer, Segment>();
+
+	/** The segment appended to. */
+	private Segment active;
+
+	/** The index. */
+	private MappedIndex index;
+
+	/** The compactor, null if compaction only runs on demand. */
+	private final ScheduledExecutorService compactor;
+
+	/** The closed. */
+	private boolean closed;
+
+	/** The hits. */
+	private final LongAdder hits = new LongAdder();
+
+	/** The misses. */
+	private final LongAdder misses = new LongAdder();
+
+	/** The writes. */
+	private final LongAdder writes = new LongAdder();
+
+	/** The expirations. */
+	private final LongAdder expirations = new LongAdder();
+
+	/** The compactions. */
+	private final LongAdder compactions = new LongAdder();
+
+	/**
+	 * Instantiates a new disk response cache with the default segment size
+	 * and compaction interval.
+	 *
+	 * @param directory the directory, created if needed
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public DiskResponseCache(File directory) throws IOException {
+		this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_COMPACTION_INTERVAL);
+	}
+
+	/**
+	 * Instantiates a new disk response cache. The records already in the
+	 * directory are served right away; the index is rebuilt from the
+	 * segments if it is missing or damaged.
+	 *
+	 * @param directory the directory, created if needed
+	 * @param maxSegmentSize the size at which a segment is sealed
+	 * @param compactionInterval the compaction interval in millis, 0 to only compact on demand
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public DiskResponseCache(File directory, long maxSegmentSize, long compactionInterval) throws IOException {
+		this.directory = directory;
+		this.maxSegmentSize = Math.min(maxSegmentSize, Integer.MAX_VALUE);
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create cache directory " + directory);
+		}
+		open();
+		if (compactionInterval > 0) {
+			compactor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "google-search-disk-cache-compactor");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			compactor.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					compact();
+				}
+			}, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+		} else {
+			compactor = null;
+		}
+	}
+
+	/**
+	 * Gets the payload of a key.
+	 *
+	 * @param key the key
+	 *
+	 * @return the payload, null if absent or expired
+	 */
+	public Payload get(String key) {
+		long hash = hash(key);
+		lock.readLock().lock();
+		try {
+			if (!closed) {
+				int slot = index.find(hash);
+				if (slot >= 0 && index.expiresAt(slot) > System.currentTimeMillis()) {
+					Segment segment = segments.get(index.segmentAt(slot));
+					Record record = (segment == null) ? null : segment.read(index.offsetAt(slot));
+					if (record != null && record.key.equals(key)) {
+						hits.increment();
+						return new Payload(inflate(record.data, record.rawLength), record.expiresAt);
+					}
+				}
+			}
+		} catch (IOException e) {
+			LOG.log(Level.WARNING, "An error occurred while reading the disk cache.", e);
+		} finally {
+			lock.readLock().unlock();
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Stores the payload of a key.
+	 *
+	 * @param key the key
+	 * @param content the payload
+	 * @param timeToLive the time to live in millis
+	 */
+	public void put(String key, byte[] content, long timeToLive) {
+		if (timeToLive <= 0) {
+			return;
+		}
+		Record record = new Record(key, System.currentTimeMillis() + timeToLive, content.length, deflate(content));
+		lock.writeLock().lock();
+		try {
+			if (!closed) {
+				append(record);
+				writes.increment();
+			}
+		} catch (IOException e) {
+			LOG.log(Level.WARNING, "An error occurred while writing the disk cache.", e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Discards the payload of a key.
+	 *
+	 * @param key the key
+	 */
+	public void invalidate(String key) {
+		lock.writeLock().lock();
+		try {
+			if (!closed) {
+				int slot = index.find(hash(key));
+				if (slot >= 0) {
+					index.remove(slot);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Drops the expired entries and rewrites the sealed segments that are
+	 * mostly dead. Runs in the background, one segment at a time so that
+	 * readers are only held up briefly.
+	 */
+	public void compact() {
+		List<Integer> sealed = new ArrayList<Integer>();
+		lock.writeLock().lock();
+		try {
+			if (closed) {
+				return;
+			}
+			long now = System.currentTimeMillis();
+			for (int slot = 0; slot < index.getCapacity(); slot++) {
+				if (index.isLive(slot) && index.expiresAt(slot) <= now) {
+					index.remove(slot);
+					expirations.increment();
+				}
+			}
+			sealed.addAll(segments.headMap(active.id).keySet());
+		} finally {
+			lock.writeLock().unlock();
+		}
+		for (Integer id : sealed) {
+			lock.writeLock().lock();
+			try {
+				Segment segment = segments.get(id);
+				if (!closed && segment != null) {
+					compact(segment);
+				}
+			} catch (IOException e) {
+				LOG.log(Level.WARNING, "An error occurred while compacting the disk cache.", e);
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+		lock.writeLock().lock();
+		try {
+			if (!closed) {
+				index.force();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the stats.
+	 *
+	 * @return the stats
+	 */
+	public DiskCacheStats getStats() {
+		lock.readLock().lock();
+		try {
+			long size = 0;
+			for (Segment segment : segments.values()) {
+				size += segment.size;
+			}
+			return new DiskCacheStats(hits.sum(), misses.sum(), writes.sum(), expirations.sum(), compactions.sum(),
+					closed ? 0 : index.getLive(), segments.size(), size);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Flushes the index and closes the files.
+	 */
+	@Override
+	public void close() {
+		if (compactor != null) {
+			compactor.shutdownNow();
+		}
+		lock.writeLock().lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			index.force();
+			index.close();
+			for (Segment segment : segments.values()) {
+				segment.close();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Opens the segments and the index, recovering from an interrupted write.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void open() throws IOException {
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				String name = file.getName();
+				if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+					try {
+						int id = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+						segments.put(id, new Segment(id, file));
+					} catch (NumberFormatException e) {
+						// not one of ours.
+					}
+				}
+			}
+		}
+		if (segments.isEmpty()) {
+			active = newSegment(1);
+		} else {
+			active = segments.lastEntry().getValue();
+			// drop a record torn by a crash so that appends follow a valid one.
+			long end = active.scan(null);
+			if (end < active.size) {
+				active.truncate(end);
+			}
+		}
+		index = MappedIndex.open(new File(directory, INDEX_FILE));
+		if (index == null) {
+			rebuildIndex();
+		}
+	}
+
+	/**
+	 * Rebuilds the index from the records of all the segments, the latest
+	 * record of a key wins.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void rebuildIndex() throws IOException {
+		final List<long[]> entries = new ArrayList<long[]>();
+		for (final Segment segment : segments.values()) {
+			segment.scan(new RecordVisitor() {
+				@Override
+				public void visit(Record record, int offset) {
+					entries.add(new long[] { hash(record.key), segment.id, offset, record.expiresAt });
+				}
+			});
+		}
+		long now = System.currentTimeMillis();
+		MappedIndex rebuilt = MappedIndex.create(new File(directory, INDEX_FILE), Math.max(INITIAL_INDEX_CAPACITY, entries.size() * 2));
+		for (long[] entry : entries) {
+			if (entry[3] > now) {
+				rebuilt.put(entry[0], (int) entry[1], (int) entry[2], entry[3]);
+			}
+		}
+		index = rebuilt;
+	}
+
+	/**
+	 * Rebuilds the index without its removed slots, doubling its capacity if
+	 * it is more than half full.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void resizeIndex() throws IOException {
+		int capacity = (index.getLive() * 2 > index.getCapacity()) ? index.getCapacity() * 2 : index.getCapacity();
+		File file = new File(directory, INDEX_FILE);
+		File temp = new File(directory, INDEX_FILE + ".tmp");
+		MappedIndex resized = MappedIndex.create(temp, capacity);
+		for (int slot = 0; slot < index.getCapacity(); slot++) {
+			if (index.isLive(slot)) {
+				resized.put(index.hashAt(slot), index.segmentAt(slot), index.offsetAt(slot), index.expiresAt(slot));
+			}
+		}
+		resized.force();
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		index.close();
+		index = resized;
+	}
+
+	/**
+	 * Appends a record to the active segment and points the index at it,
+	 * must be called with the write lock held.
+	 *
+	 * @param record the record
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void append(Record record) throws IOException {
+		ByteBuffer encoded = record.encode();
+		if (active.size > 0 && active.size + encoded.remaining() > maxSegmentSize) {
+			active = newSegment(active.id + 1);
+		}
+		int offset = active.append(encoded);
+		long hash = hash(record.key);
+		if (!index.put(hash, active.id, offset, record.expiresAt)) {
+			resizeIndex();
+			index.put(hash, active.id, offset, record.expiresAt);
+		}
+	}
+
+	/**
+	 * Rewrites the live records of a sealed segment to the active one and
+	 * deletes it, unless most of it is still live. Must be called with the
+	 * write lock held.
+	 *
+	 * @param segment the segment
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void compact(final Segment segment) throws IOException {
+		final List<Record> live = new ArrayList<Record>();
+		final long[] liveSize = new long[1];
+		segment.scan(new RecordVisitor() {
+			@Override
+			public void visit(Record record, int offset) {
+				int slot = index.find(hash(record.key));
+				if (slot >= 0 && index.segmentAt(slot) == segment.id && index.offsetAt(slot) == offset) {
+					live.add(record);
+					liveSize[0] += record.length();
+				}
+			}
+		});
+		if (liveSize[0] >= segment.size * COMPACTION_THRESHOLD) {
+			return;
+		}
+		for (Record record : live) {
+			append(record);
+		}
+		segments.remove(segment.id);
+		segment.close();
+		if (!segment.file.delete()) {
+			LOG.warning("Could not delete compacted segment " + segment.file);
+		}
+		compactions.increment();
+	}
+
+	/**
+	 * Creates a new segment.
+	 *
+	 * @param id the id
+	 *
+	 * @return the segment
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private Segment newSegment(int id) throws IOException {
+		Segment segment = new Segment(id, new File(directory, String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)));
+		segments.put(id, segment);
+		return segment;
+	}
+
+	/**
+	 * Gets the 64 bit FNV-1a hash of a key, never zero.
+	 *
+	 * @param key the key
+	 *
+	 * @return the hash
+	 */
+	static long hash(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return (hash == 0) ? 1 : hash;
+	}
+
+	/**
+	 * Deflates a payload.
+	 *
+	 * @param content the content
+	 *
+	 * @return the compressed content
+	 */
+	private static byte[] deflate(byte[] content) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+		try {
+			deflater.setInput(content);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Inflates a payload.
+	 *
+	 * @param data the compressed content
+	 * @param length the length of the content
+	 *
+	 * @return the content
+	 *
+	 * @throws IOException if the data is corrupt
+	 */
+	private static byte[] inflate(byte[] data, int length) throws IOException {
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(data);
+			byte[] content = new byte[length];
+			int read = 0;
+			while (read < length && !inflater.finished()) {
+				int inflated = inflater.inflate(content, read, length - read);
+				if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				read += inflated;
+			}
+			if (read != length) {
+				throw new IOException("Corrupt disk cache record.");
+			}
+			return content;
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt disk cache record.", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * The Class Payload.
+	 */
+	public static class Payload {
+
+		/** The content. */
+		private final byte[] content;
+
+		/** The expiry time in millis. */
+		private final long expiresAt;
+
+		/**
+		 * Instantiates a new payload.
+		 *
+		 * @param content the content
+		 * @param expiresAt the expires at
+		 */
+		Payload(byte[] content, long expiresAt) {
+			this.content = content;
+			this.expiresAt = expiresAt;
+		}
+
+		/**
+		 * Gets the content.
+		 *
+		 * @return the content
+		 */
+		public byte[] getContent() {
+			return content;
+		}
+
+		/**
+		 * Gets the expiry time.
+		 *
+		 * @return the expiry time in millis
+		 */
+		public long getExpiresAt() {
+			return expiresAt;
+		}
+	}
+
+	/**
+	 * The Class Record.
+	 */
+	private static class Record {
+
+		/** The key. */
+		private final String key;
+
+		/** The expiry time in millis. */
+		private final long expiresAt;
+
+		/** The raw length. */
+		private final int rawLength;
+
+		/** The compressed data. */
+		private final byte[] data;
+
+		/**
+		 * Instantiates a new record.
+		 *
+		 * @param key the key
+		 * @param expiresAt the expires at
+		 * @param rawLength the raw length
+		 * @param data the data
+		 */
+		Record(String key, long expiresAt, int rawLength, byte[] data) {
+			this.key = key;
+			this.expiresAt = expiresAt;
+			this.rawLength = rawLength;
+			this.data = data;
+		}
+
+		/**
+		 * Gets the encoded length.
+		 *
+		 * @return the length
+		 */
+		int length() {
+			return RECORD_HEADER_SIZE + key.getBytes(StandardCharsets.UTF_8).length + data.length + 4;
+		}
+
+		/**
+		 * Encodes the record: header, key, data and the CRC of key and data.
+		 *
+		 * @return the byte buffer
+		 */
+		ByteBuffer encode() {
+			byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+			ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyBytes.length + data.length + 4);
+			buffer.putInt(RECORD_MAGIC).putInt(keyBytes.length).putLong(expiresAt).putInt(rawLength).putInt(data.length);
+			buffer.put(keyBytes).put(data);
+			CRC32 crc = new CRC32();
+			crc.update(keyBytes);
+			crc.update(data);
+			buffer.putInt((int) crc.getValue());
+			buffer.flip();
+			return buffer;
+		}
+	}
+
+	/**
+	 * The Interface RecordVisitor.
+	 */
+	private interface RecordVisitor {
+
+		/**
+		 * Visits a valid record.
+		 *
+		 * @param record the record
+		 * @param offset the offset
+		 */
+		void visit(Record record, int offset);
+	}
+
+	/**
+	 * The Class Segment.
+	 */
+	private static class Segment {
+
+		/** The id. */
+		private final int id;
+
+		/** The file. */
+		private final File file;
+
+		/** The channel, positional reads are safe to run concurrently. */
+		private final FileChannel channel;
+
+		/** The size. */
+		private volatile long size;
+
+		/**
+		 * Instantiates a new segment.
+		 *
+		 * @param id the id
+		 * @param file the file
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		@SuppressWarnings("resource")
+		Segment(int id, File file) throws IOException {
+			this.id = id;
+			this.file = file;
+			this.channel = new RandomAccessFile(file, "rw").getChannel();
+			this.size = channel.size();
+		}
+
+		/**
+		 * Appends an encoded record.
+		 *
+		 * @param record the record
+		 *
+		 * @return the offset of the record
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		int append(ByteBuffer record) throws IOException {
+			long offset = size;
+			long position = offset;
+			while (record.hasRemaining()) {
+				position += channel.write(record, position);
+			}
+			size = position;
+			return (int) offset;
+		}
+
+		/**
+		 * Reads the record at an offset.
+		 *
+		 * @param offset the offset
+		 *
+		 * @return the record, null if there is no valid record there
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		Record read(long offset) throws IOException {
+			if (offset + RECORD_HEADER_SIZE > size) {
+				return null;
+			}
+			ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+			readFully(header, offset);
+			header.flip();
+			int magic = header.getInt();
+			int keyLength = header.getInt();
+			long expiresAt = header.getLong();
+			int rawLength = header.getInt();
+			int dataLength = header.getInt();
+			if (magic != RECORD_MAGIC || keyLength < 0 || keyLength > MAX_KEY_LENGTH || rawLength < 0 || dataLength < 0
+					|| offset + RECORD_HEADER_SIZE + keyLength + dataLength + 4 > size) {
+				return null;
+			}
+			ByteBuffer body = ByteBuffer.allocate(keyLength + dataLength + 4);
+			readFully(body, offset + RECORD_HEADER_SIZE);
+			byte[] bytes = body.array();
+			CRC32 crc = new CRC32();
+			crc.update(bytes, 0, keyLength + dataLength);
+			body.position(keyLength + dataLength);
+			if (body.getInt() != (int) crc.getValue()) {
+				return null;
+			}
+			byte[] data = new byte[dataLength];
+			System.arraycopy(bytes, keyLength, data, 0, dataLength);
+			return new Record(new String(bytes, 0, keyLength, StandardCharsets.UTF_8), expiresAt, rawLength, data);
+		}
+
+		/**
+		 * Visits the valid records from the start of the segment.
+		 *
+		 * @param visitor the visitor, may be null
+		 *
+		 * @return the end of the last valid record
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		long scan(RecordVisitor visitor) throws IOException {
+			long offset = 0;
+			Record record;
+			while ((record = read(offset)) != null) {
+				if (visitor != null) {
+					visitor.visit(record, (int) offset);
+				}
+				offset += record.length();
+			}
+			return offset;
+		}
+
+		/**
+		 * Truncates the segment.
+		 *
+		 * @param length the length
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		void truncate(long length) throws IOException {
+			channel.truncate(length);
+			size = length;
+		}
+
+		/**
+		 * Closes the segment.
+		 */
+		void close() {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// ignore, nothing was buffered.
+			}
+		}
+
+		/**
+		 * Reads until the buffer is full.
+		 *
+		 * @param buffer the buffer
+		 * @param position the position
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		private void readFully(ByteBuffer buffer, long position) throws IOException {
+			while (buffer.hasRemaining()) {
+				int read = channel.read(buffer, position + buffer.position());
+				if (read < 0) {
+					throw new IOException("Unexpected end of segment " + file);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The Class MappedIndex.
+ *
+ * An open addressing hash table in a memory mapped file, mapping the 64 bit
+ * hash of a key to the segment and offset of its latest record. Each slot
+ * holds the hash, the segment id, the offset and the expiry time; a zero
+ * hash marks an empty slot and a negative segment id a removed one. Not
+ * thread safe, the disk cache guards it with its own lock.
+ */
+class MappedIndex {
+
+	/** The Constant MAGIC. */
+	private static final int MAGIC = 0x52434958;
+
+	/** The Constant VERSION. */
+	private static final int VERSION = 1;
+
+	/** The Constant HEADER_SIZE. */
+	private static final int HEADER_SIZE = 32;
+
+	/** The Constant SLOT_SIZE. */
+	private static final int SLOT_SIZE = 24;
+
+	/** The Constant REMOVED, the segment id of a removed slot. */
+	private static final int REMOVED = -1;
+
+	/** The file. */
+	private final RandomAccessFile file;
+
+	/** The buffer. */
+	private final MappedByteBuffer buffer;
+
+	/** The capacity, a power of two. */
+	private final int capacity;
+
+	/** The slots holding an entry. */
+	private int live;
+
+	/** The slots holding an entry or a removed marker. */
+	private int used;
+
+	/**
+	 * Instantiates a new mapped index.
+	 *
+	 * @param file the file
+	 * @param capacity the capacity
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private MappedIndex(RandomAccessFile file, int capacity) throws IOException {
+		this.file = file;
+		this.capacity = capacity;
+		this.buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+	}
+
+	/**
+	 * Creates an empty index, replacing the file if it exists.
+	 *
+	 * @param path the path
+	 * @param capacity the capacity, rounded up to a power of two
+	 *
+	 * @return the mapped index
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	static MappedIndex create(File path, int capacity) throws IOException {
+		int slots = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+		RandomAccessFile file = new RandomAccessFile(path, "rw");
+		try {
+			file.setLength(0);
+			file.setLength(HEADER_SIZE + (long) slots * SLOT_SIZE);
+			MappedIndex index = new MappedIndex(file, slots);
+			index.buffer.putInt(0, MAGIC);
+			index.buffer.putInt(4, VERSION);
+			index.buffer.putInt(8, slots);
+			return index;
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens an existing index.
+	 *
+	 * @param path the path
+	 *
+	 * @return the mapped index, null if missing or not a valid index
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	static MappedIndex open(File path) throws IOException {
+		if (!path.isFile() || path.length() < HEADER_SIZE) {
+			return null;
+		}
+		RandomAccessFile file = new RandomAccessFile(path, "rw");
+		try {
+			int magic = file.readInt();
+			int version = file.readInt();
+			int slots = file.readInt();
+			if (magic != MAGIC || version != VERSION || slots <= 0 || Integer.bitCount(slots) != 1
+					|| file.length() != HEADER_SIZE + (long) slots * SLOT_SIZE) {
+				file.close();
+				return null;
+			}
+			MappedIndex index = new MappedIndex(file, slots);
+			for (int slot = 0; slot < slots; slot++) {
+				if (index.hashAt(slot) != 0) {
+					index.used++;
+					if (index.segmentAt(slot) != REMOVED) {
+						index.live++;
+					}
+				}
+			}
+			return index;
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Finds the slot of a key.
+	 *
+	 * @param hash the hash of the key, never zero
+	 *
+	 * @return the slot, -1 if absent
+	 */
+	int find(long hash) {
+		int mask = capacity - 1;
+		for (int slot = (int) (hash ^ (hash >>> 32)) & mask, probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+			long current = hashAt(slot);
+			if (current == 0) {
+				return -1;
+			}
+			if (current == hash && segmentAt(slot) != REMOVED) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Points a key at a record.
+	 *
+	 * @param hash the hash of the key, never zero
+	 * @param segment the segment id
+	 * @param offset the offset of the record
+	 * @param expiresAt the expiry time in millis
+	 *
+	 * @return false, if the index is too full and must be rebuilt first
+	 */
+	boolean put(long hash, int segment, int offset, long expiresAt) {
+		int existing = find(hash);
+		if (existing >= 0) {
+			write(existing, hash, segment, offset, expiresAt);
+			return true;
+		}
+		if (used >= capacity - (capacity >> 2)) {
+			return false;
+		}
+		int mask = capacity - 1;
+		int slot = (int) (hash ^ (hash >>> 32)) & mask;
+		while (hashAt(slot) != 0 && segmentAt(slot) != REMOVED) {
+			slot = (slot + 1) & mask;
+		}
+		if (hashAt(slot) == 0) {
+			used++;
+		}
+		live++;
+		write(slot, hash, segment, offset, expiresAt);
+		return true;
+	}
+
+	/**
+	 * Removes the entry of a slot.
+	 *
+	 * @param slot the slot
+	 */
+	void remove(int slot) {
+		buffer.putInt(position(slot) + 8, REMOVED);
+		live--;
+	}
+
+	/**
+	 * Gets the hash of a slot.
+	 *
+	 * @param slot the slot
+	 *
+	 * @return the hash, zero if empty
+	 */
+	long hashAt(int slot) {
+		return buffer.getLong(position(slot));
+	}
+
+	/**
+	 * Gets the segment id of a slot.
+	 *
+	 * @param slot the slot
+	 *
+	 * @return the segment id, negative if removed
+	 */
+	int segmentAt(int slot) {
+		return buffer.getInt(position(slot) + 8);
+	}
+
+	/**
+	 * Gets the record offset of a slot.
+	 *
+	 * @param slot the slot
+	 *
+	 * @return the offset
+	 */
+	int offsetAt(int slot) {
+		return buffer.getInt(position(slot) + 12);
+	}
+
+	/**
+	 * Gets the expiry time of a slot.
+	 *
+	 * @param slot the slot
+	 *
+	 * @return the expiry time in millis
+	 */
+	long expiresAt(int slot) {
+		return buffer.getLong(position(slot) + 16);
+	}
+
+	/**
+	 * Checks if a slot holds an entry.
+	 *
+	 * @param slot the slot
+	 *
+	 * @return true, if is live
+	 */
+	boolean isLive(int slot) {
+		return hashAt(slot) != 0 && segmentAt(slot) != REMOVED;
+	}
+
+	/**
+	 * Gets the capacity.
+	 *
+	 * @return the capacity
+	 */
+	int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the number of entries.
+	 *
+	 * @return the live
+	 */
+	int getLive() {
+		return live;
+	}
+
+	/**
+	 * Writes the changes through to the file.
+	 */
+	void force() {
+		buffer.force();
+	}
+
+	/**
+	 * Closes the index file, the mapping itself is released by the garbage
+	 * collector.
+	 */
+	void close() {
+		try {
+			file.close();
+		} catch (IOException e) {
+			// ignore, the mapping stays valid.
+		}
+	}
+
+	/**
+	 * Writes a slot.
+	 *
+	 * @param slot the slot
+	 * @param hash the hash
+	 * @param segment the segment
+	 * @param offset the offset
+	 * @param expiresAt the expires at
+	 */
+	private void write(int slot, long hash, int segment, int offset, long expiresAt) {
+		int position = position(slot);
+		buffer.putInt(position + 8, segment);
+		buffer.putInt(position + 12, offset);
+		buffer.putLong(position + 16, expiresAt);
+		buffer.putLong(position, hash);
+	}
+
+	/**
+	 * Gets the byte position of a slot.
+	 *
+	 * @param slot the slot
+	 *
+	 * @return the position
+	 */
+	private static int position(int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+}
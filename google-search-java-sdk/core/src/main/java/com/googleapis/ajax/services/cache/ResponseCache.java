@@ -0,0 +1,478 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.googleapis.ajax.services.constant.ApplicationConstants;
+import com.googleapis.ajax.services.transport.HttpRequest;
+
+/**
+ * The Class ResponseCache.
+ *
+ * An in memory cache of parsed responses bounded by the total size of the
+ * payloads they were parsed from. Each endpoint has its own time to live.
+ * When the cache is full a new response is only admitted if it has been
+ * asked for more often recently than the least recently used entries it
+ * would evict, so a burst of one-off queries does not flush the popular
+ * ones. Cached results are shared by all the callers and must be treated
+ * as read only. An optional {@link DiskResponseCache} keeps the payloads
+ * across restarts, the gateway consults it on a miss. Expired results are
+ * kept until they are replaced or evicted, so that they can still be
+ * served while the endpoint is unavailable.
+ */
+public class ResponseCache {
+
+	/** The Constant AVERAGE_PAYLOAD_SIZE, used to size the frequency sketch. */
+	private static final int AVERAGE_PAYLOAD_SIZE = 4096;
+
+	/** The maximum weight. */
+	private final long maximumWeight;
+
+	/** The default time to live in millis. */
+	private volatile long defaultTimeToLive;
+
+	/** The time to live in millis by endpoint. */
+	private final Map<String, Long> timeToLive = new ConcurrentHashMap<String, Long>();
+
+	/** The lock guarding the entries and the sketch. */
+	private final Lock lock = new ReentrantLock();
+
+	/** The entries, least recently used first. */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+	/** The frequency sketch. */
+	private final FrequencySketch sketch;
+
+	/** The weighted size. */
+	private long weightedSize;
+
+	/** The hits. */
+	private final LongAdder hits = new LongAdder();
+
+	/** The misses. */
+	private final LongAdder misses = new LongAdder();
+
+	/** The loads. */
+	private final LongAdder loads = new LongAdder();
+
+	/** The load failures. */
+	private final LongAdder loadFailures = new LongAdder();
+
+	/** The load time. */
+	private final LongAdder loadTime = new LongAdder();
+
+	/** The stale hits. */
+	private final LongAdder staleHits = new LongAdder();
+
+	/** The evictions. */
+	private final LongAdder evictions = new LongAdder();
+
+	/** The expirations. */
+	private final LongAdder expirations = new LongAdder();
+
+	/** The rejections. */
+	private final LongAdder rejections = new LongAdder();
+
+	/** The disk cache, null if none. */
+	private volatile DiskResponseCache diskCache;
+
+	/**
+	 * Instantiates a new response cache with the size and times to live of
+	 * the application constants.
+	 */
+	public ResponseCache() {
+		this(ApplicationConstants.CACHE_MAXIMUM_WEIGHT, ApplicationConstants.CACHE_TIME_TO_LIVE);
+		for (Map.Entry<String, String> entry : ApplicationConstants.CACHE_ENDPOINT_TIME_TO_LIVE.entrySet()) {
+			setTimeToLive(entry.getKey(), Long.parseLong(entry.getValue()), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Instantiates a new response cache.
+	 *
+	 * @param maximumWeight the maximum total payload size in bytes
+	 * @param defaultTimeToLive the time to live in millis of the endpoints without one of their own
+	 */
+	public ResponseCache(long maximumWeight, long defaultTimeToLive) {
+		this.maximumWeight = maximumWeight;
+		this.defaultTimeToLive = defaultTimeToLive;
+		this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, maximumWeight / AVERAGE_PAYLOAD_SIZE));
+	}
+
+	/**
+	 * Sets the time to live of an endpoint.
+	 *
+	 * @param endpoint the trailing part of the endpoint path, e.g. search/news
+	 * @param duration the duration, 0 not to cache the endpoint
+	 * @param unit the unit
+	 */
+	public void setTimeToLive(String endpoint, long duration, TimeUnit unit) {
+		timeToLive.put(endpoint.startsWith("/") ? endpoint : "/" + endpoint, unit.toMillis(duration));
+	}
+
+	/**
+	 * Sets the time to live of the endpoints without one of their own.
+	 *
+	 * @param duration the duration, 0 not to cache them
+	 * @param unit the unit
+	 */
+	public void setDefaultTimeToLive(long duration, TimeUnit unit) {
+		this.defaultTimeToLive = unit.toMillis(duration);
+	}
+
+	/**
+	 * Gets the disk cache.
+	 *
+	 * @return the disk cache, null if none
+	 */
+	public DiskResponseCache getDiskCache() {
+		return diskCache;
+	}
+
+	/**
+	 * Sets the disk cache backing this cache.
+	 *
+	 * @param diskCache the new disk cache, null for none
+	 */
+	public void setDiskCache(DiskResponseCache diskCache) {
+		this.diskCache = diskCache;
+	}
+
+	/**
+	 * Gets the time to live of the responses of an url, the longest matching
+	 * endpoint wins.
+	 *
+	 * @param url the url
+	 *
+	 * @return the time to live in millis
+	 */
+	public long getTimeToLive(String url) {
+		String path = getPath(url);
+		String match = null;
+		for (String endpoint : timeToLive.keySet()) {
+			if (path.endsWith(endpoint) && (match == null || endpoint.length() > match.length())) {
+				match = endpoint;
+			}
+		}
+		return (match == null) ? defaultTimeToLive : timeToLive.get(match);
+	}
+
+	/**
+	 * Gets the cached result.
+	 *
+	 * @param key the key
+	 *
+	 * @return the result, null if absent or expired
+	 */
+	public Object getIfPresent(String key) {
+		lock.lock();
+		try {
+			sketch.increment(key.hashCode());
+			Entry entry = entries.get(key);
+			if (entry != null && !entry.isExpired(System.currentTimeMillis())) {
+				hits.increment();
+				return entry.value;
+			}
+		} finally {
+			lock.unlock();
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Gets the cached result even if it has expired, for when a fresh one
+	 * cannot be had, e.g. while the circuit of the endpoint is open.
+	 *
+	 * @param key the key
+	 *
+	 * @return the result, null if absent
+	 */
+	public Object getStale(String key) {
+		lock.lock();
+		try {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				staleHits.increment();
+				return entry.value;
+			}
+			return null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Caches a result, subject to admission.
+	 *
+	 * @param key the key
+	 * @param value the value
+	 * @param weight the size in bytes of the payload it was parsed from
+	 * @param timeToLive the time to live in millis
+	 *
+	 * @return true, if the result was admitted
+	 */
+	public boolean put(String key, Object value, int weight, long timeToLive) {
+		if (timeToLive <= 0) {
+			return false;
+		}
+		if (weight > maximumWeight) {
+			rejections.increment();
+			return false;
+		}
+		long now = System.currentTimeMillis();
+		lock.lock();
+		try {
+			Entry previous = entries.remove(key);
+			if (previous != null) {
+				weightedSize -= previous.weight;
+				if (previous.isExpired(now)) {
+					expirations.increment();
+				}
+			}
+			if (weightedSize + weight > maximumWeight && !makeRoom(key.hashCode(), weight, now)) {
+				rejections.increment();
+				return false;
+			}
+			entries.put(key, new Entry(value, weight, now + timeToLive));
+			weightedSize += weight;
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Evicts the entries needed to fit the candidate if it is more popular
+	 * than all of them, must be called with the lock held.
+	 *
+	 * @param hash the hash of the candidate key
+	 * @param weight the weight of the candidate
+	 * @param now the now
+	 *
+	 * @return true, if there is room for the candidate
+	 */
+	private boolean makeRoom(int hash, int weight, long now) {
+		for (Iterator<Entry> iter = entries.values().iterator(); iter.hasNext();) {
+			Entry entry = iter.next();
+			if (entry.isExpired(now)) {
+				iter.remove();
+				weightedSize -= entry.weight;
+				expirations.increment();
+			}
+		}
+		long excess = weightedSize + weight - maximumWeight;
+		if (excess <= 0) {
+			return true;
+		}
+		int frequency = sketch.frequency(hash);
+		List<String> victims = new ArrayList<String>();
+		for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+			if (sketch.frequency(entry.getKey().hashCode()) >= frequency) {
+				return false;
+			}
+			victims.add(entry.getKey());
+			excess -= entry.getValue().weight;
+			if (excess <= 0) {
+				break;
+			}
+		}
+		for (String victim : victims) {
+			weightedSize -= entries.remove(victim).weight;
+			evictions.increment();
+		}
+		return true;
+	}
+
+	/**
+	 * Discards a cached result.
+	 *
+	 * @param key the key
+	 */
+	public void invalidate(String key) {
+		lock.lock();
+		try {
+			Entry entry = entries.remove(key);
+			if (entry != null) {
+				weightedSize -= entry.weight;
+			}
+		} finally {
+			lock.unlock();
+		}
+		DiskResponseCache disk = diskCache;
+		if (disk != null) {
+			disk.invalidate(key);
+		}
+	}
+
+	/**
+	 * Discards all the cached results.
+	 */
+	public void invalidateAll() {
+		lock.lock();
+		try {
+			entries.clear();
+			weightedSize = 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Records a successful load.
+	 *
+	 * @param nanos the load time
+	 */
+	public void recordLoadSuccess(long nanos) {
+		loads.increment();
+		loadTime.add(nanos);
+	}
+
+	/**
+	 * Records a failed load.
+	 *
+	 * @param nanos the load time
+	 */
+	public void recordLoadFailure(long nanos) {
+		loadFailures.increment();
+		loadTime.add(nanos);
+	}
+
+	/**
+	 * Gets the stats.
+	 *
+	 * @return the stats
+	 */
+	public CacheStats getStats() {
+		int entryCount;
+		long weight;
+		lock.lock();
+		try {
+			entryCount = entries.size();
+			weight = weightedSize;
+		} finally {
+			lock.unlock();
+		}
+		return new CacheStats(hits.sum(), misses.sum(), staleHits.sum(), loads.sum(), loadFailures.sum(),
+				loadTime.sum(), evictions.sum(), expirations.sum(), rejections.sum(), entryCount, weight);
+	}
+
+	/**
+	 * Gets the canonical key of a request: the parameters of the query string
+	 * and of a form body are sorted, scheme and host are lower cased.
+	 *
+	 * @param resultKind what is made of the response, e.g. list
+	 * @param request the request
+	 *
+	 * @return the key
+	 */
+	public static String canonicalKey(String resultKind, HttpRequest request) {
+		String url = request.getUrl();
+		int query = url.indexOf('?');
+		String base = (query < 0) ? url : url.substring(0, query);
+		int path = base.indexOf('/', base.indexOf("://") + 3);
+		StringBuilder key = new StringBuilder(url.length() + 32);
+		key.append(resultKind).append(' ').append(request.getMethod()).append(' ');
+		if (path < 0) {
+			key.append(base.toLowerCase(Locale.ENGLISH));
+		} else {
+			key.append(base.substring(0, path).toLowerCase(Locale.ENGLISH)).append(base.substring(path));
+		}
+		List<String> parameters = new ArrayList<String>();
+		if (query >= 0) {
+			parameters.addAll(Arrays.asList(url.substring(query + 1).split("&")));
+		}
+		if (request.getBody() != null) {
+			parameters.addAll(Arrays.asList(new String(request.getBody(), StandardCharsets.ISO_8859_1).split("&")));
+		}
+		parameters.remove("");
+		parameters.sort(null);
+		char separator = '?';
+		for (String parameter : parameters) {
+			key.append(separator).append(parameter);
+			separator = '&';
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Gets the path of an url.
+	 *
+	 * @param url the url
+	 *
+	 * @return the path
+	 */
+	private static String getPath(String url) {
+		int query = url.indexOf('?');
+		String base = (query < 0) ? url : url.substring(0, query);
+		int scheme = base.indexOf("://");
+		int path = base.indexOf('/', (scheme < 0) ? 0 : scheme + 3);
+		return (path < 0) ? "/" : base.substring(path);
+	}
+
+	/**
+	 * The Class Entry.
+	 */
+	private static class Entry {
+
+		/** The value. */
+		private final Object value;
+
+		/** The weight. */
+		private final int weight;
+
+		/** The expiry time in millis. */
+		private final long expiresAt;
+
+		/**
+		 * Instantiates a new entry.
+		 *
+		 * @param value the value
+		 * @param weight the weight
+		 * @param expiresAt the expires at
+		 */
+		Entry(Object value, int weight, long expiresAt) {
+			this.value = value;
+			this.weight = weight;
+			this.expiresAt = expiresAt;
+		}
+
+		/**
+		 * Checks if is expired.
+		 *
+		 * @param now the now
+		 *
+		 * @return true, if is expired
+		 */
+		boolean isExpired(long now) {
+			return now >= expiresAt;
+		}
+	}
+}
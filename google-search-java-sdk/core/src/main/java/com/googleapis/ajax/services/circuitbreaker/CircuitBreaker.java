@@ -0,0 +1,393 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.circuitbreaker;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The Class CircuitBreaker.
+ *
+ * Guards the calls to one endpoint. While closed it keeps the outcomes of
+ * the last calls in a sliding window, and opens once enough of them have
+ * failed or been slow. While open the calls are refused at the cost of a
+ * volatile read, until the open duration has elapsed. A few probe calls are
+ * then let through, half-open, and their outcome decides whether the
+ * circuit closes again or stays open for another round.
+ */
+public class CircuitBreaker {
+
+	/**
+	 * The state of a circuit breaker.
+	 */
+	public enum State {
+
+		/** Calls go through. */
+		CLOSED,
+
+		/** Calls are refused. */
+		OPEN,
+
+		/** A limited number of probe calls go through. */
+		HALF_OPEN
+	}
+
+	/** The Constant LOG. */
+	private static final Logger LOG = Logger.getLogger(CircuitBreaker.class.getCanonicalName());
+
+	/** The Constant FAILED, outcome flag. */
+	private static final byte FAILED = 1;
+
+	/** The Constant SLOW, outcome flag. */
+	private static final byte SLOW = 2;
+
+	/** The endpoint. */
+	private final String endpoint;
+
+	/** The calls needed in the window before the rates are considered. */
+	private final int minimumCalls;
+
+	/** The failure rate threshold in percent. */
+	private final double failureRateThreshold;
+
+	/** The slow call rate threshold in percent. */
+	private final double slowCallRateThreshold;
+
+	/** The duration in nanos above which a call is slow. */
+	private final long slowCallDuration;
+
+	/** The open duration in nanos. */
+	private final long openDuration;
+
+	/** The probe calls let through while half open. */
+	private final int halfOpenCalls;
+
+	/** The listeners. */
+	private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<CircuitBreakerListener>();
+
+	/** The state. */
+	private volatile State state = State.CLOSED;
+
+	/** The time the circuit opened in nanos. */
+	private volatile long openedAt;
+
+	/** The probe calls that may still be let through while half open. */
+	private final AtomicInteger probesLeft = new AtomicInteger();
+
+	/** The calls refused. */
+	private final LongAdder notPermitted = new LongAdder();
+
+	/** The outcomes of the window, a ring guarded by this. */
+	private final byte[] outcomes;
+
+	/** The next slot of the ring. */
+	private int next;
+
+	/** The calls in the window. */
+	private int calls;
+
+	/** The failed calls in the window. */
+	private int failedCalls;
+
+	/** The slow calls in the window. */
+	private int slowCalls;
+
+	/** The probe calls completed while half open. */
+	private int probeCalls;
+
+	/** The failed probe calls. */
+	private int failedProbeCalls;
+
+	/** The slow probe calls. */
+	private int slowProbeCalls;
+
+	/**
+	 * Instantiates a new circuit breaker.
+	 *
+	 * @param endpoint the endpoint
+	 * @param windowSize the number of calls in the sliding window
+	 * @param minimumCalls the calls needed in the window before the rates are considered
+	 * @param failureRateThreshold the failure rate in percent at which the circuit opens
+	 * @param slowCallRateThreshold the slow call rate in percent at which the circuit opens
+	 * @param slowCallDuration the duration in millis above which a call is slow
+	 * @param openDuration the time in millis the circuit stays open before probing
+	 * @param halfOpenCalls the probe calls let through while half open
+	 */
+	public CircuitBreaker(String endpoint, int windowSize, int minimumCalls, double failureRateThreshold,
+			double slowCallRateThreshold, long slowCallDuration, long openDuration, int halfOpenCalls) {
+		if (windowSize < 1 || halfOpenCalls < 1) {
+			throw new IllegalArgumentException("Window size and half open calls must be positive.");
+		}
+		this.endpoint = endpoint;
+		this.outcomes = new byte[windowSize];
+		this.minimumCalls = Math.max(1, Math.min(minimumCalls, windowSize));
+		this.failureRateThreshold = failureRateThreshold;
+		this.slowCallRateThreshold = slowCallRateThreshold;
+		this.slowCallDuration = TimeUnit.MILLISECONDS.toNanos(slowCallDuration);
+		this.openDuration = TimeUnit.MILLISECONDS.toNanos(openDuration);
+		this.halfOpenCalls = halfOpenCalls;
+	}
+
+	/**
+	 * Gets the endpoint.
+	 *
+	 * @return the endpoint
+	 */
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * Gets the state.
+	 *
+	 * @return the state
+	 */
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Adds a listener of the state transitions.
+	 *
+	 * @param listener the listener
+	 */
+	public void addListener(CircuitBreakerListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener.
+	 *
+	 * @param listener the listener
+	 */
+	public void removeListener(CircuitBreakerListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Asks to make a call. When it returns true the outcome of the call must
+	 * be reported with {@link #onSuccess(long, TimeUnit)},
+	 * {@link #onError(long, TimeUnit)} or {@link #release()}.
+	 *
+	 * @return true, if the call may go ahead
+	 */
+	public boolean tryAcquirePermission() {
+		State current = state;
+		if (current == State.CLOSED) {
+			return true;
+		}
+		if (current == State.OPEN) {
+			if (System.nanoTime() - openedAt < openDuration) {
+				notPermitted.increment();
+				return false;
+			}
+			transition(State.OPEN, State.HALF_OPEN, 0, 0);
+			if (state == State.CLOSED) {
+				return true;
+			}
+		}
+		for (;;) {
+			int left = probesLeft.get();
+			if (left <= 0) {
+				notPermitted.increment();
+				return false;
+			}
+			if (probesLeft.compareAndSet(left, left - 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Gives back a permission whose call ended without telling anything
+	 * about the endpoint, e.g. because it was cancelled.
+	 */
+	public void release() {
+		if (state == State.HALF_OPEN) {
+			probesLeft.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Records a successful call.
+	 *
+	 * @param duration the duration of the call
+	 * @param unit the unit
+	 */
+	public void onSuccess(long duration, TimeUnit unit) {
+		record((unit.toNanos(duration) > slowCallDuration) ? SLOW : 0);
+	}
+
+	/**
+	 * Records a failed call.
+	 *
+	 * @param duration the duration of the call
+	 * @param unit the unit
+	 */
+	public void onError(long duration, TimeUnit unit) {
+		record((byte) (FAILED | ((unit.toNanos(duration) > slowCallDuration) ? SLOW : 0)));
+	}
+
+	/**
+	 * Forces the circuit open, e.g. for maintenance of the endpoint.
+	 */
+	public void open() {
+		State current = state;
+		if (current != State.OPEN) {
+			transition(current, State.OPEN, 0, 0);
+		}
+	}
+
+	/**
+	 * Closes the circuit and clears the sliding window.
+	 */
+	public void reset() {
+		State current = state;
+		if (current != State.CLOSED) {
+			transition(current, State.CLOSED, 0, 0);
+		}
+	}
+
+	/**
+	 * Gets the stats.
+	 *
+	 * @return the stats
+	 */
+	public CircuitBreakerStats getStats() {
+		synchronized (this) {
+			return new CircuitBreakerStats(state, calls, rate(failedCalls, calls), rate(slowCalls, calls),
+					notPermitted.sum());
+		}
+	}
+
+	/**
+	 * Records the outcome of a call in the window, or in the probes while
+	 * half open, and opens or closes the circuit as they dictate.
+	 *
+	 * @param outcome the outcome flags
+	 */
+	private void record(byte outcome) {
+		State from;
+		State to;
+		double failureRate;
+		double slowCallRate;
+		synchronized (this) {
+			if (state == State.CLOSED) {
+				if (calls == outcomes.length) {
+					failedCalls -= outcomes[next] & FAILED;
+					slowCalls -= (outcomes[next] & SLOW) >> 1;
+				} else {
+					calls++;
+				}
+				outcomes[next] = outcome;
+				next = (next + 1) % outcomes.length;
+				failedCalls += outcome & FAILED;
+				slowCalls += (outcome & SLOW) >> 1;
+				if (calls < minimumCalls || !isUnhealthy(failedCalls, slowCalls, calls)) {
+					return;
+				}
+				from = State.CLOSED;
+				to = State.OPEN;
+				failureRate = rate(failedCalls, calls);
+				slowCallRate = rate(slowCalls, calls);
+			} else if (state == State.HALF_OPEN) {
+				probeCalls++;
+				failedProbeCalls += outcome & FAILED;
+				slowProbeCalls += (outcome & SLOW) >> 1;
+				if (probeCalls < halfOpenCalls) {
+					return;
+				}
+				from = State.HALF_OPEN;
+				to = isUnhealthy(failedProbeCalls, slowProbeCalls, probeCalls) ? State.OPEN : State.CLOSED;
+				failureRate = rate(failedProbeCalls, probeCalls);
+				slowCallRate = rate(slowProbeCalls, probeCalls);
+			} else {
+				// a call let through before the circuit opened.
+				return;
+			}
+		}
+		transition(from, to, failureRate, slowCallRate);
+	}
+
+	/**
+	 * Moves the circuit from a state to another, unless another thread got
+	 * there first, and notifies the listeners.
+	 *
+	 * @param from the from state
+	 * @param to the to state
+	 * @param failureRate the failure rate that led to the transition
+	 * @param slowCallRate the slow call rate that led to the transition
+	 */
+	private void transition(State from, State to, double failureRate, double slowCallRate) {
+		synchronized (this) {
+			if (state != from) {
+				return;
+			}
+			calls = 0;
+			failedCalls = 0;
+			slowCalls = 0;
+			next = 0;
+			probeCalls = 0;
+			failedProbeCalls = 0;
+			slowProbeCalls = 0;
+			probesLeft.set((to == State.HALF_OPEN) ? halfOpenCalls : 0);
+			if (to == State.OPEN) {
+				openedAt = System.nanoTime();
+			}
+			state = to;
+		}
+		CircuitBreakerEvent event = new CircuitBreakerEvent(endpoint, from, to, failureRate, slowCallRate);
+		LOG.log((to == State.OPEN) ? Level.WARNING : Level.INFO, event.toString());
+		for (CircuitBreakerListener listener : listeners) {
+			try {
+				listener.onStateTransition(event);
+			} catch (RuntimeException e) {
+				LOG.log(Level.WARNING, "A circuit breaker listener failed.", e);
+			}
+		}
+	}
+
+	/**
+	 * Checks if the rates of a set of calls reach a threshold.
+	 *
+	 * @param failed the failed calls
+	 * @param slow the slow calls
+	 * @param total the total calls
+	 *
+	 * @return true, if is unhealthy
+	 */
+	private boolean isUnhealthy(int failed, int slow, int total) {
+		return rate(failed, total) >= failureRateThreshold || rate(slow, total) >= slowCallRateThreshold;
+	}
+
+	/**
+	 * Gets a rate in percent.
+	 *
+	 * @param count the count
+	 * @param total the total
+	 *
+	 * @return the rate
+	 */
+	private static double rate(int count, int total) {
+		return (total == 0) ? 0 : count * 100.0 / total;
+	}
+}
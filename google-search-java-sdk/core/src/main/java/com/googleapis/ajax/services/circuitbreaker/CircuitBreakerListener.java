@@ -0,0 +1,33 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.circuitbreaker;
+
+/**
+ * The Interface CircuitBreakerListener.
+ *
+ * Notified when a circuit breaker changes state. It is called on the thread
+ * whose call caused the change, so it should return quickly.
+ */
+public interface CircuitBreakerListener {
+
+	/**
+	 * Called when a circuit breaker has changed state.
+	 *
+	 * @param event the event
+	 */
+	public void onStateTransition(CircuitBreakerEvent event);
+}
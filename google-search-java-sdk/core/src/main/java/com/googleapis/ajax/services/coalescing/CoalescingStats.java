@@ -0,0 +1,107 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.coalescing;
+
+/**
+ * The Class CoalescingStats.
+ *
+ * An immutable snapshot of a request coalescer.
+ */
+public class CoalescingStats {
+
+	/** The requests. */
+	private final long requests;
+
+	/** The executed. */
+	private final long executed;
+
+	/** The coalesced. */
+	private final long coalesced;
+
+	/** The in flight. */
+	private final int inFlight;
+
+	/**
+	 * Instantiates a new coalescing stats.
+	 *
+	 * @param requests the requests
+	 * @param executed the executed
+	 * @param coalesced the coalesced
+	 * @param inFlight the in flight
+	 */
+	public CoalescingStats(long requests, long executed, long coalesced, int inFlight) {
+		this.requests = requests;
+		this.executed = executed;
+		this.coalesced = coalesced;
+		this.inFlight = inFlight;
+	}
+
+	/**
+	 * Gets the number of requests made.
+	 *
+	 * @return the requests
+	 */
+	public long getRequests() {
+		return requests;
+	}
+
+	/**
+	 * Gets the number of calls actually made.
+	 *
+	 * @return the executed
+	 */
+	public long getExecuted() {
+		return executed;
+	}
+
+	/**
+	 * Gets the number of requests served by a call already in flight.
+	 *
+	 * @return the coalesced
+	 */
+	public long getCoalesced() {
+		return coalesced;
+	}
+
+	/**
+	 * Gets the number of calls currently in flight.
+	 *
+	 * @return the in flight
+	 */
+	public int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * Gets the share of the requests that did not need a call of their own.
+	 *
+	 * @return the coalescing ratio, between 0 and 1
+	 */
+	public double getCoalescingRatio() {
+		return (requests == 0) ? 0 : (double) coalesced / requests;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CoalescingStats [requests=" + requests + ", executed=" + executed
+				+ ", coalesced=" + coalesced + ", inFlight=" + inFlight
+				+ ", coalescingRatio=" + getCoalescingRatio() + "]";
+	}
+}
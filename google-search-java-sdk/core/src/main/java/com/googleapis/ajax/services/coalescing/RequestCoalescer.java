@@ -0,0 +1,224 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.coalescing;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The Class RequestCoalescer.
+ *
+ * Lets concurrent identical requests share one call. The first caller for a
+ * key runs the call, the callers arriving while it is in flight wait for and
+ * get the very same result, or the same failure. Nothing is remembered once
+ * the call completes.
+ */
+public class RequestCoalescer {
+
+	/** The calls in flight by key. */
+	private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<String, Flight>();
+
+	/** The requests. */
+	private final LongAdder requests = new LongAdder();
+
+	/** The coalesced requests. */
+	private final LongAdder coalesced = new LongAdder();
+
+	/**
+	 * Runs the call on the calling thread, or waits for the identical call
+	 * already in flight.
+	 *
+	 * @param key the key identifying identical calls
+	 * @param call the call
+	 *
+	 * @return the result
+	 *
+	 * @throws Exception the failure of the call
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V execute(String key, Callable<V> call) throws Exception {
+		requests.increment();
+		Flight flight = new Flight(key);
+		Flight existing = inFlight.putIfAbsent(key, flight);
+		if (existing != null) {
+			coalesced.increment();
+			return (V) existing.await();
+		}
+		try {
+			V value = call.call();
+			flight.result.complete(value);
+			return value;
+		} catch (Throwable e) {
+			flight.result.completeExceptionally(e);
+			throw rethrow(e);
+		} finally {
+			inFlight.remove(key, flight);
+		}
+	}
+
+	/**
+	 * Starts the call, or joins the identical call already in flight. Each
+	 * caller gets its own future; the shared call is cancelled only once
+	 * every caller waiting for it has cancelled.
+	 *
+	 * @param key the key identifying identical calls
+	 * @param call starts the call
+	 *
+	 * @return the future result
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> CompletableFuture<V> executeAsync(final String key, Supplier<CompletableFuture<V>> call) {
+		requests.increment();
+		final Flight flight = new Flight(key);
+		Flight existing = inFlight.putIfAbsent(key, flight);
+		if (existing != null) {
+			coalesced.increment();
+			return (CompletableFuture<V>) existing.join();
+		}
+		CompletableFuture<V> result = flight.join();
+		CompletableFuture<V> shared;
+		try {
+			shared = call.get();
+		} catch (Throwable e) {
+			inFlight.remove(key, flight);
+			flight.result.completeExceptionally(e);
+			return result;
+		}
+		flight.call = shared;
+		shared.whenComplete((value, error) -> {
+			inFlight.remove(key, flight);
+			if (error != null) {
+				flight.result.completeExceptionally(error);
+			} else {
+				flight.result.complete(value);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Gets the stats.
+	 *
+	 * @return the stats
+	 */
+	public CoalescingStats getStats() {
+		long total = requests.sum();
+		long shared = coalesced.sum();
+		return new CoalescingStats(total, total - shared, shared, inFlight.size());
+	}
+
+	/**
+	 * Rethrows the failure of a call.
+	 *
+	 * @param error the error
+	 *
+	 * @return the exception to throw
+	 */
+	private static Exception rethrow(Throwable error) {
+		if (error instanceof Error) {
+			throw (Error) error;
+		}
+		return (Exception) error;
+	}
+
+	/**
+	 * The Class Flight.
+	 */
+	private class Flight {
+
+		/** The key. */
+		private final String key;
+
+		/** The result shared by all the callers. */
+		private final CompletableFuture<Object> result = new CompletableFuture<Object>();
+
+		/** The asynchronous callers still waiting. */
+		private final AtomicInteger waiters = new AtomicInteger();
+
+		/** The call, null until started or for a synchronous call. */
+		private volatile CompletableFuture<?> call;
+
+		/**
+		 * Instantiates a new flight.
+		 *
+		 * @param key the key
+		 */
+		Flight(String key) {
+			this.key = key;
+		}
+
+		/**
+		 * Waits for the result on the calling thread.
+		 *
+		 * @return the result
+		 *
+		 * @throws Exception the failure of the call
+		 */
+		Object await() throws Exception {
+			waiters.incrementAndGet();
+			try {
+				return result.get();
+			} catch (ExecutionException e) {
+				throw rethrow(e.getCause());
+			} finally {
+				leave();
+			}
+		}
+
+		/**
+		 * Gives an asynchronous caller its own view of the result.
+		 *
+		 * @return the future result
+		 */
+		@SuppressWarnings("rawtypes")
+		CompletableFuture join() {
+			waiters.incrementAndGet();
+			final CompletableFuture<Object> view = new CompletableFuture<Object>();
+			result.whenComplete((value, error) -> {
+				if (error != null) {
+					view.completeExceptionally(error);
+				} else {
+					view.complete(value);
+				}
+			});
+			view.whenComplete((value, error) -> {
+				if (view.isCancelled()) {
+					leave();
+				}
+			});
+			return view;
+		}
+
+		/**
+		 * Called when a caller stops waiting, the last one cancels the call.
+		 */
+		private void leave() {
+			CompletableFuture<?> current = call;
+			if (waiters.decrementAndGet() == 0 && current != null && !result.isDone()) {
+				// late callers start afresh rather than join a cancelled call.
+				inFlight.remove(key, this);
+				current.cancel(true);
+			}
+		}
+	}
+}
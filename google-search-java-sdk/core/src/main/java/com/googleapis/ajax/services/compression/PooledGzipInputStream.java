@@ -0,0 +1,351 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.compression;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The Class PooledGzipInputStream.
+ *
+ * Decodes a gzip stream (RFC 1952), concatenated members included, with an
+ * inflater and an input buffer borrowed from a {@link GzipDecoder} until
+ * the stream is closed. The decoded bytes go straight into the caller's
+ * array, there is no output buffer.
+ */
+class PooledGzipInputStream extends InputStream {
+
+	/** The Constant GZIP_MAGIC. */
+	private static final int GZIP_MAGIC = 0x8b1f;
+
+	/** The Constant DEFLATED. */
+	private static final int DEFLATED = 8;
+
+	/** The Constant FHCRC. */
+	private static final int FHCRC = 2;
+
+	/** The Constant FEXTRA. */
+	private static final int FEXTRA = 4;
+
+	/** The Constant FNAME. */
+	private static final int FNAME = 8;
+
+	/** The Constant FCOMMENT. */
+	private static final int FCOMMENT = 16;
+
+	/** The gzip stream. */
+	private final InputStream in;
+
+	/** The decoder the inflater and buffer are borrowed from. */
+	private final GzipDecoder decoder;
+
+	/** The inflater, null once closed. */
+	private Inflater inflater;
+
+	/** The input buffer, null once closed. */
+	private byte[] buffer;
+
+	/** The position of the next unread input byte in the buffer. */
+	private int position;
+
+	/** The limit of the input in the buffer. */
+	private int limit;
+
+	/** The checksum of the member being decoded. */
+	private final CRC32 crc = new CRC32();
+
+	/** The single byte buffer, created on the first single byte read. */
+	private byte[] single;
+
+	/** The end of stream has been reached. */
+	private boolean eof;
+
+	/**
+	 * Instantiates a new pooled gzip input stream and reads the header of
+	 * the first member.
+	 *
+	 * @param in the in
+	 * @param decoder the decoder
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	PooledGzipInputStream(InputStream in, GzipDecoder decoder) throws IOException {
+		this.in = in;
+		this.decoder = decoder;
+		this.inflater = decoder.acquireInflater();
+		this.buffer = decoder.getBufferPool().acquire();
+		try {
+			if (!readHeader(true)) {
+				throw new EOFException("Empty gzip stream.");
+			}
+		} catch (IOException e) {
+			release();
+			throw e;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#read()
+	 */
+	@Override
+	public int read() throws IOException {
+		if (single == null) {
+			single = new byte[1];
+		}
+		return (read(single, 0, 1) == -1) ? -1 : single[0] & 0xff;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#read(byte[], int, int)
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (eof) {
+			return -1;
+		}
+		if (len == 0) {
+			return 0;
+		}
+		while (true) {
+			int inflated;
+			try {
+				inflated = inflater.inflate(b, off, len);
+			} catch (DataFormatException e) {
+				String message = e.getMessage();
+				throw new ZipException((message == null) ? "Invalid gzip data format." : message);
+			}
+			if (inflated > 0) {
+				crc.update(b, off, inflated);
+				return inflated;
+			}
+			if (inflater.finished()) {
+				readTrailer();
+				if (!readHeader(false)) {
+					eof = true;
+					return -1;
+				}
+			} else if (inflater.needsDictionary()) {
+				throw new ZipException("Gzip member needs a preset dictionary.");
+			} else if (inflater.needsInput()) {
+				if (!fill()) {
+					throw new EOFException("Unexpected end of gzip stream.");
+				}
+				feed();
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#available()
+	 */
+	@Override
+	public int available() throws IOException {
+		ensureOpen();
+		return eof ? 0 : 1;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		if (inflater != null) {
+			release();
+			in.close();
+		}
+	}
+
+	/**
+	 * Reads the header of the next member, if any. Like
+	 * {@link java.util.zip.GZIPInputStream}, trailing bytes that are not a
+	 * member are ignored.
+	 *
+	 * @param first whether it is the first member
+	 *
+	 * @return false, if the stream ended instead
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private boolean readHeader(boolean first) throws IOException {
+		if (position == limit && !fill()) {
+			return false;
+		}
+		if (readShort() != GZIP_MAGIC) {
+			if (first) {
+				throw new ZipException("Not in gzip format.");
+			}
+			return false;
+		}
+		if (readByte() != DEFLATED) {
+			throw new ZipException("Unsupported gzip compression method.");
+		}
+		int flags = readByte();
+		// modification time, extra flags and operating system.
+		skipBytes(6);
+		if ((flags & FEXTRA) != 0) {
+			skipBytes(readShort());
+		}
+		if ((flags & FNAME) != 0) {
+			skipString();
+		}
+		if ((flags & FCOMMENT) != 0) {
+			skipString();
+		}
+		if ((flags & FHCRC) != 0) {
+			skipBytes(2);
+		}
+		inflater.reset();
+		crc.reset();
+		feed();
+		return true;
+	}
+
+	/**
+	 * Reads the trailer of the member just inflated and checks it.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void readTrailer() throws IOException {
+		// the inflater may have been fed past the end of the member.
+		position = limit - inflater.getRemaining();
+		long checksum = readInt();
+		long size = readInt();
+		if (checksum != crc.getValue()) {
+			throw new ZipException("Corrupt gzip trailer, checksum mismatch.");
+		}
+		if (size != (inflater.getBytesWritten() & 0xffffffffL)) {
+			throw new ZipException("Corrupt gzip trailer, size mismatch.");
+		}
+	}
+
+	/**
+	 * Hands the buffered input over to the inflater.
+	 */
+	private void feed() {
+		if (position < limit) {
+			inflater.setInput(buffer, position, limit - position);
+			position = limit;
+		}
+	}
+
+	/**
+	 * Refills the empty buffer.
+	 *
+	 * @return false, at end of stream
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private boolean fill() throws IOException {
+		int read;
+		do {
+			read = in.read(buffer, 0, buffer.length);
+		} while (read == 0);
+		position = 0;
+		limit = Math.max(read, 0);
+		return read > 0;
+	}
+
+	/**
+	 * Reads an unsigned byte.
+	 *
+	 * @return the byte
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private int readByte() throws IOException {
+		if (position == limit && !fill()) {
+			throw new EOFException("Unexpected end of gzip stream.");
+		}
+		return buffer[position++] & 0xff;
+	}
+
+	/**
+	 * Reads an unsigned little endian short.
+	 *
+	 * @return the short
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private int readShort() throws IOException {
+		return readByte() | (readByte() << 8);
+	}
+
+	/**
+	 * Reads an unsigned little endian int.
+	 *
+	 * @return the int
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private long readInt() throws IOException {
+		return readShort() | ((long) readShort() << 16);
+	}
+
+	/**
+	 * Skips bytes.
+	 *
+	 * @param count the count
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void skipBytes(int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			readByte();
+		}
+	}
+
+	/**
+	 * Skips a zero terminated string.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void skipString() throws IOException {
+		while (readByte() != 0) {
+			// skip
+		}
+	}
+
+	/**
+	 * Ensures the stream is open.
+	 *
+	 * @throws IOException if it is closed
+	 */
+	private void ensureOpen() throws IOException {
+		if (inflater == null) {
+			throw new IOException("Stream closed.");
+		}
+	}
+
+	/**
+	 * Gives the inflater and buffer back to the decoder.
+	 */
+	private void release() {
+		decoder.releaseInflater(inflater);
+		decoder.getBufferPool().release(buffer);
+		inflater = null;
+		buffer = null;
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The Class ResourcePool.
+ *
+ * A bounded pool of reusable resources. A resource is created when the pool
+ * is empty and disposed of when it is given back to a full pool, so the
+ * pool never holds more than its capacity however bursty the load.
+ */
+public class ResourcePool<T> {
+
+	/** The idle resources, an array backed queue does not allocate per call. */
+	private final ArrayBlockingQueue<T> idle;
+
+	/** The factory. */
+	private final Supplier<T> factory;
+
+	/** The disposer of the resources the pool has no room for, null for none. */
+	private final Consumer<T> disposer;
+
+	/** The created. */
+	private final LongAdder created = new LongAdder();
+
+	/** The reused. */
+	private final LongAdder reused = new LongAdder();
+
+	/** The discarded. */
+	private final LongAdder discarded = new LongAdder();
+
+	/**
+	 * Instantiates a new resource pool.
+	 *
+	 * @param capacity the maximum number of idle resources
+	 * @param factory creates a resource
+	 * @param disposer disposes of a resource the pool has no room for, null for none
+	 */
+	public ResourcePool(int capacity, Supplier<T> factory, Consumer<T> disposer) {
+		this.idle = new ArrayBlockingQueue<T>(Math.max(capacity, 1));
+		this.factory = factory;
+		this.disposer = disposer;
+	}
+
+	/**
+	 * Takes an idle resource, or creates one.
+	 *
+	 * @return the resource
+	 */
+	public T acquire() {
+		T resource = idle.poll();
+		if (resource == null) {
+			created.increment();
+			return factory.get();
+		}
+		reused.increment();
+		return resource;
+	}
+
+	/**
+	 * Gives a resource back. It must have been reset by the caller and must
+	 * not be used afterwards.
+	 *
+	 * @param resource the resource
+	 */
+	public void release(T resource) {
+		if (!idle.offer(resource)) {
+			discarded.increment();
+			if (disposer != null) {
+				disposer.accept(resource);
+			}
+		}
+	}
+
+	/**
+	 * Gets the idle count.
+	 *
+	 * @return the idle count
+	 */
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	/**
+	 * Gets the number of resources created because the pool was empty.
+	 *
+	 * @return the created count
+	 */
+	public long getCreatedCount() {
+		return created.sum();
+	}
+
+	/**
+	 * Gets the number of resources reused.
+	 *
+	 * @return the reused count
+	 */
+	public long getReusedCount() {
+		return reused.sum();
+	}
+
+	/**
+	 * Gets the number of resources disposed of because the pool was full.
+	 *
+	 * @return the discarded count
+	 */
+	public long getDiscardedCount() {
+		return discarded.sum();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ResourcePool [idle=" + getIdleCount() + ", created=" + getCreatedCount() + ", reused="
+				+ getReusedCount() + ", discarded=" + getDiscardedCount() + "]";
+	}
+}
@@ -17,6 +17,8 @@
 package com.googleapis.ajax.services.constant;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -59,6 +61,126 @@ public final class ApplicationConstants {
     /** The Constant READ_TIMEOUT. */
     public static final int READ_TIMEOUT = getIntProperty("com.googleapis.ajax.services.client.readTimeout");
     
+    /** The Constant CALL_TIMEOUT. */
+    public static final long CALL_TIMEOUT = getLongProperty("com.googleapis.ajax.services.client.callTimeout");
+    
+    /** The Constant MAX_CONNECTIONS_PER_HOST. */
+    public static final int MAX_CONNECTIONS_PER_HOST = getIntProperty("com.googleapis.ajax.services.client.maxConnectionsPerHost");
+    
+    /** The Constant IDLE_CONNECTION_TIMEOUT. */
+    public static final long IDLE_CONNECTION_TIMEOUT = getLongProperty("com.googleapis.ajax.services.client.idleConnectionTimeout");
+    
+    /** The Constant CONNECTION_REQUEST_TIMEOUT. */
+    public static final long CONNECTION_REQUEST_TIMEOUT = getLongProperty("com.googleapis.ajax.services.client.connectionRequestTimeout");
+    
+    /** The Constant EXECUTION_MODE. */
+    public static final String EXECUTION_MODE = getProperty("com.googleapis.ajax.services.client.executionMode");
+    
+    /** The Constant CACHE_MAXIMUM_WEIGHT. */
+    public static final long CACHE_MAXIMUM_WEIGHT = getLongProperty("com.googleapis.ajax.services.client.cache.maximumWeight");
+    
+    /** The Constant CACHE_TIME_TO_LIVE. */
+    public static final long CACHE_TIME_TO_LIVE = getLongProperty("com.googleapis.ajax.services.client.cache.timeToLive");
+    
+    /** The Constant CACHE_ENDPOINT_TIME_TO_LIVE. */
+    public static final Map<String, String> CACHE_ENDPOINT_TIME_TO_LIVE = getProperties("com.googleapis.ajax.services.client.cache.timeToLive.");
+    
+    /** The Constant RETRY_MAXIMUM_ATTEMPTS. */
+    public static final int RETRY_MAXIMUM_ATTEMPTS = getIntProperty("com.googleapis.ajax.services.client.retry.maximumAttempts");
+    
+    /** The Constant RETRY_BASE_DELAY. */
+    public static final long RETRY_BASE_DELAY = getLongProperty("com.googleapis.ajax.services.client.retry.baseDelay");
+    
+    /** The Constant RETRY_MAXIMUM_DELAY. */
+    public static final long RETRY_MAXIMUM_DELAY = getLongProperty("com.googleapis.ajax.services.client.retry.maximumDelay");
+    
+    /** The Constant RETRY_BUDGET_RATIO. */
+    public static final double RETRY_BUDGET_RATIO = getDoubleProperty("com.googleapis.ajax.services.client.retry.budgetRatio");
+    
+    /** The Constant RETRY_BUDGET_RESERVE. */
+    public static final int RETRY_BUDGET_RESERVE = getIntProperty("com.googleapis.ajax.services.client.retry.budgetReserve");
+    
+    /** The Constant RETRY_STATUS_CODES. */
+    public static final String RETRY_STATUS_CODES = getProperty("com.googleapis.ajax.services.client.retry.statusCodes");
+    
+    /** The Constant RATE_LIMIT_PERMITS_PER_SECOND. */
+    public static final double RATE_LIMIT_PERMITS_PER_SECOND = getDoubleProperty("com.googleapis.ajax.services.client.rateLimit.permitsPerSecond");
+    
+    /** The Constant RATE_LIMIT_BURST. */
+    public static final int RATE_LIMIT_BURST = getIntProperty("com.googleapis.ajax.services.client.rateLimit.burst");
+    
+    /** The Constant RATE_LIMIT_ENDPOINT_PERMITS_PER_SECOND. */
+    public static final Map<String, String> RATE_LIMIT_ENDPOINT_PERMITS_PER_SECOND = getProperties("com.googleapis.ajax.services.client.rateLimit.permitsPerSecond.");
+    
+    /** The Constant RATE_LIMIT_ENDPOINT_BURST. */
+    public static final Map<String, String> RATE_LIMIT_ENDPOINT_BURST = getProperties("com.googleapis.ajax.services.client.rateLimit.burst.");
+    
+    /** The Constant RATE_LIMIT_MAXIMUM_WAIT. */
+    public static final long RATE_LIMIT_MAXIMUM_WAIT = getLongProperty("com.googleapis.ajax.services.client.rateLimit.maximumWait");
+    
+    /** The Constant CIRCUIT_BREAKER_WINDOW_SIZE. */
+    public static final int CIRCUIT_BREAKER_WINDOW_SIZE = getIntProperty("com.googleapis.ajax.services.client.circuitBreaker.windowSize");
+    
+    /** The Constant CIRCUIT_BREAKER_MINIMUM_CALLS. */
+    public static final int CIRCUIT_BREAKER_MINIMUM_CALLS = getIntProperty("com.googleapis.ajax.services.client.circuitBreaker.minimumCalls");
+    
+    /** The Constant CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD. */
+    public static final double CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD = getDoubleProperty("com.googleapis.ajax.services.client.circuitBreaker.failureRateThreshold");
+    
+    /** The Constant CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD. */
+    public static final double CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD = getDoubleProperty("com.googleapis.ajax.services.client.circuitBreaker.slowCallRateThreshold");
+    
+    /** The Constant CIRCUIT_BREAKER_SLOW_CALL_DURATION. */
+    public static final long CIRCUIT_BREAKER_SLOW_CALL_DURATION = getLongProperty("com.googleapis.ajax.services.client.circuitBreaker.slowCallDuration");
+    
+    /** The Constant CIRCUIT_BREAKER_OPEN_DURATION. */
+    public static final long CIRCUIT_BREAKER_OPEN_DURATION = getLongProperty("com.googleapis.ajax.services.client.circuitBreaker.openDuration");
+    
+    /** The Constant CIRCUIT_BREAKER_HALF_OPEN_CALLS. */
+    public static final int CIRCUIT_BREAKER_HALF_OPEN_CALLS = getIntProperty("com.googleapis.ajax.services.client.circuitBreaker.halfOpenCalls");
+    
+    /** The Constant HEDGING_PERCENTILE. */
+    public static final double HEDGING_PERCENTILE = getDoubleProperty("com.googleapis.ajax.services.client.hedging.percentile");
+    
+    /** The Constant HEDGING_MINIMUM_DELAY. */
+    public static final long HEDGING_MINIMUM_DELAY = getLongProperty("com.googleapis.ajax.services.client.hedging.minimumDelay");
+    
+    /** The Constant HEDGING_MAXIMUM_DELAY. */
+    public static final long HEDGING_MAXIMUM_DELAY = getLongProperty("com.googleapis.ajax.services.client.hedging.maximumDelay");
+    
+    /** The Constant HEDGING_BUDGET_RATIO. */
+    public static final double HEDGING_BUDGET_RATIO = getDoubleProperty("com.googleapis.ajax.services.client.hedging.budgetRatio");
+    
+    /** The Constant HEDGING_BUDGET_RESERVE. */
+    public static final int HEDGING_BUDGET_RESERVE = getIntProperty("com.googleapis.ajax.services.client.hedging.budgetReserve");
+    
+    /** The Constant COMPRESSION_MAXIMUM_INFLATERS. */
+    public static final int COMPRESSION_MAXIMUM_INFLATERS = getIntProperty("com.googleapis.ajax.services.client.compression.maximumInflaters");
+    
+    /** The Constant COMPRESSION_MAXIMUM_BUFFERS. */
+    public static final int COMPRESSION_MAXIMUM_BUFFERS = getIntProperty("com.googleapis.ajax.services.client.compression.maximumBuffers");
+    
+    /** The Constant COMPRESSION_BUFFER_SIZE. */
+    public static final int COMPRESSION_BUFFER_SIZE = getIntProperty("com.googleapis.ajax.services.client.compression.bufferSize");
+    
+    /** The Constant STRING_POOL_CAPACITY, 0 not to pool strings. */
+    public static final int STRING_POOL_CAPACITY = getIntProperty("com.googleapis.ajax.services.client.stringPool.capacity");
+    
+    /** The Constant STRING_POOL_FIELDS, the json names of the pooled fields. */
+    public static final String STRING_POOL_FIELDS = getProperty("com.googleapis.ajax.services.client.stringPool.fields");
+    
+    /** The Constant VALIDATE_CONNECTION_ON_BORROW. */
+    public static final boolean VALIDATE_CONNECTION_ON_BORROW = getBooleanProperty("com.googleapis.ajax.services.client.validateConnectionOnBorrow");
+    
+    /** The Constant VALIDATE_AFTER_INACTIVITY, the idle millis after which a connection is validated before reuse. */
+    public static final long VALIDATE_AFTER_INACTIVITY = getLongProperty("com.googleapis.ajax.services.client.validateAfterInactivity");
+    
+    /** The Constant PAGING_PREFETCH_PAGES, the pages fetched ahead of the one being read. */
+    public static final int PAGING_PREFETCH_PAGES = getIntProperty("com.googleapis.ajax.services.client.paging.prefetchPages");
+    
+    /** The Constant PAGING_PARALLELISM, the most pages fetched at once when all are listed. */
+    public static final int PAGING_PARALLELISM = getIntProperty("com.googleapis.ajax.services.client.paging.parallelism");
+    
     /**
      * Instantiates a new application constants.
      */
@@ -75,6 +197,23 @@ public final class ApplicationConstants {
         return applicationConstants.getProperty(key);
     }
 
+    /**
+     * Gets the properties starting with a prefix.
+     * 
+     * @param prefix the prefix
+     * 
+     * @return the properties keyed by the rest of their name
+     */
+    public static Map<String, String> getProperties(String prefix) {
+        Map<String, String> properties = new HashMap<String, String>();
+        for (String key : applicationConstants.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                properties.put(key.substring(prefix.length()), applicationConstants.getProperty(key));
+            }
+        }
+        return properties;
+    }
+
     /**
      * Gets the int property.
      * 
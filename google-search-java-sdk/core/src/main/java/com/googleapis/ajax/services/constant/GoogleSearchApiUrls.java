@@ -24,11 +24,12 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -118,9 +119,13 @@ public final class GoogleSearchApiUrls {
     private GoogleSearchApiUrls() {}
 
     /**
-     * The Class GoogleSearchApiUrlBuilder.
+     * The Class UrlTemplate.
+     * 
+     * An api url format parsed once into the literal segments around its
+     * query parameters placeholders. Templates are immutable, the builders
+     * of all the threads share the one of each url format.
      */
-    public static class GoogleSearchApiUrlBuilder {
+    public static final class UrlTemplate {
         
         /** The Constant API_URLS_PLACEHOLDER_START. */
         private static final char API_URLS_PLACEHOLDER_START = '{';
@@ -130,9 +135,118 @@ public final class GoogleSearchApiUrls {
         
         /** The Constant QUERY_PARAMETERS_PLACEHOLDER. */
         private static final String QUERY_PARAMETERS_PLACEHOLDER = "queryParameters";
+        
+        /** The templates compiled so far, by url format. */
+        private static final ConcurrentMap<String, UrlTemplate> TEMPLATES = new ConcurrentHashMap<String, UrlTemplate>();
+        
+        /** The literal segments, the query parameters go between each two. */
+        private final String[] segments;
+        
+        /** The length of the literal segments. */
+        private final int segmentsLength;
+        
+        /**
+         * Instantiates a new url template.
+         * 
+         * @param urlFormat the url format
+         */
+        private UrlTemplate(String urlFormat) {
+        	List<String> segments = new ArrayList<String>(2);
+        	StringBuilder segment = new StringBuilder(urlFormat.length());
+        	int placeHolderStart = -1;
+        	for (int i = 0; i < urlFormat.length(); i++) {
+        		char c = urlFormat.charAt(i);
+        		if (c == API_URLS_PLACEHOLDER_START) {
+        			placeHolderStart = i + 1;
+        		} else if (placeHolderStart >= 0 && c == API_URLS_PLACEHOLDER_END) {
+        			String placeHolder = urlFormat.substring(placeHolderStart, i);
+        			if (QUERY_PARAMETERS_PLACEHOLDER.equals(placeHolder)) {
+        				segments.add(segment.toString());
+        				segment.setLength(0);
+        			} else {
+        				// we did not find a binding for the placeholder.
+        				// keep it as it is.
+        				segment.append(API_URLS_PLACEHOLDER_START).append(placeHolder).append(API_URLS_PLACEHOLDER_END);
+        			}
+        			placeHolderStart = -1;
+        		} else if (placeHolderStart < 0) {
+        			segment.append(c);
+        		}
+        	}
+        	segments.add(segment.toString());
+        	this.segments = segments.toArray(new String[segments.size()]);
+        	int length = 0;
+        	for (String literal : this.segments) {
+        		length += literal.length();
+        	}
+        	this.segmentsLength = length;
+        }
+        
+        /**
+         * Compiles a url format, or gets the template it was compiled into.
+         * 
+         * @param urlFormat the url format
+         * 
+         * @return the url template
+         */
+        public static UrlTemplate compile(String urlFormat) {
+        	UrlTemplate template = TEMPLATES.get(urlFormat);
+        	if (template == null) {
+        		template = new UrlTemplate(urlFormat);
+        		UrlTemplate previous = TEMPLATES.putIfAbsent(urlFormat, template);
+        		if (previous != null) {
+        			template = previous;
+        		}
+        	}
+        	return template;
+        }
+        
+        /**
+         * Expands the template into a url, in one buffer of the exact size.
+         * 
+         * @param parameters the encoded values of the query parameters, by name
+         * 
+         * @return the url
+         */
+        public String expand(Map<String, Collection<String>> parameters) {
+        	int parametersLength = -1;
+        	for (Map.Entry<String, Collection<String>> parameter : parameters.entrySet()) {
+        		for (String value : parameter.getValue()) {
+        			parametersLength += parameter.getKey().length() + value.length() + 2;
+        		}
+        	}
+        	StringBuilder url = new StringBuilder(segmentsLength + (segments.length - 1) * Math.max(parametersLength, 0));
+        	url.append(segments[0]);
+        	for (int i = 1; i < segments.length; i++) {
+        		boolean first = true;
+        		for (Map.Entry<String, Collection<String>> parameter : parameters.entrySet()) {
+        			for (String value : parameter.getValue()) {
+        				if (!first) {
+        					url.append('&');
+        				}
+        				url.append(parameter.getKey()).append('=').append(value);
+        				first = false;
+        			}
+        		}
+        		url.append(segments[i]);
+        	}
+        	return url.toString();
+        }
+    }
+
+    /**
+     * The Class GoogleSearchApiUrlBuilder.
+     */
+    public static class GoogleSearchApiUrlBuilder {
+        
+        /** The Constant MAXIMUM_ENCODED_CONSTANTS, the size of the cache of the encoded constant values. */
+        private static final int MAXIMUM_ENCODED_CONSTANTS = 1024;
+        
+        /** The encoded constant values, e.g. the api version and the enum values. */
+        private static final ConcurrentMap<String, String> ENCODED_CONSTANTS = new ConcurrentHashMap<String, String>();
     	
-    	/** The url format. */
-	    private String urlFormat;
+    	/** The url template. */
+	    private final UrlTemplate template;
 	    
     	/** The parameters map. */
 	    private Map<String, Collection<String>> parametersMap = new HashMap<String, Collection<String>>();
@@ -153,8 +267,32 @@ public final class GoogleSearchApiUrls {
 	     * @param apiVersion the api version
 	     */
 	    public GoogleSearchApiUrlBuilder(String urlFormat, String apiVersion) {
-    		this.urlFormat = urlFormat;
-    		parametersMap.put(ParameterNames.VERSION, Collections.singleton(encodeUrl(apiVersion)));
+	    	this(UrlTemplate.compile(urlFormat), apiVersion);
+    	}
+	    
+    	/**
+	     * Instantiates a new api url builder of a compiled url template.
+	     * 
+	     * @param template the url template
+	     * @param apiVersion the api version
+	     */
+	    public GoogleSearchApiUrlBuilder(UrlTemplate template, String apiVersion) {
+    		this.template = template;
+    		parametersMap.put(ParameterNames.VERSION, Collections.singleton(encodeConstant(apiVersion)));
+    	}
+	    
+    	/**
+	     * Instantiates a new api url builder with a copy of the parameters of
+	     * another.
+	     * 
+	     * @param template the url template
+	     * @param parameters the parameters copied
+	     */
+	    private GoogleSearchApiUrlBuilder(UrlTemplate template, Map<String, Collection<String>> parameters) {
+    		this.template = template;
+    		for (Map.Entry<String, Collection<String>> parameter : parameters.entrySet()) {
+    			parametersMap.put(parameter.getKey(), new ArrayList<String>(parameter.getValue()));
+    		}
     	}
 	    
     	/**
@@ -167,12 +305,7 @@ public final class GoogleSearchApiUrls {
 	     */
 	    public GoogleSearchApiUrlBuilder withParameter(String name, String value) {
 	    	if (value != null && value.length() > 0) {
-	    		Collection<String> values = parametersMap.get(name);
-	    		if (values == null) {
-	    			values = new ArrayList<String>();
-		    		parametersMap.put(name, values);
-	    		}
-	    		values.add(encodeUrl(value));
+	    		withEncodedParameter(name, encodeUrl(value));
 	    	}
     		
     		return this;
@@ -190,9 +323,10 @@ public final class GoogleSearchApiUrls {
 	    	if (suffix != null && suffix.length() > 0) {
 	    		Collection<String> values = parametersMap.get(name);
 	    		if (values != null) {
+	    			String encodedSuffix = encodeUrl(suffix);
 	    			List<String> updatedValues = new ArrayList<String>(values.size());
 	    			for (String value : values) {
-	    				updatedValues.add(encodeUrl(suffix) + value);	    				
+	    				updatedValues.add(encodedSuffix + value);
 	    			}
 		    		parametersMap.put(name, updatedValues);
 	    		}
@@ -231,7 +365,7 @@ public final class GoogleSearchApiUrls {
 	    	Set<String> values = new HashSet<String>(enumSet.size());
 	    	
 	    	for (ValueEnum fieldEnum : enumSet) {
-	    		values.add(encodeUrl(fieldEnum.value()));
+	    		values.add(encodeConstant(fieldEnum.value()));
 	    	}
 	    	
     		parametersMap.put(name, values);
@@ -248,7 +382,10 @@ public final class GoogleSearchApiUrls {
 	     * @return the google search api url builder
 	     */
 	    public GoogleSearchApiUrlBuilder withParameterEnum(String name, ValueEnum value) {
-	    	withParameter(name, value.value());
+	    	String constant = value.value();
+	    	if (constant != null && constant.length() > 0) {
+	    		withEncodedParameter(name, encodeConstant(constant));
+	    	}
     		
     		return this;
     	}
@@ -274,63 +411,76 @@ public final class GoogleSearchApiUrls {
 	     * @return the string
 	     */
 		public String buildUrl() {
-        	StringBuilder urlBuilder = new StringBuilder();
-        	StringBuilder placeHolderBuilder = new StringBuilder();
-        	boolean placeHolderFlag = false;
-        	for (int i = 0; i < urlFormat.length(); i++) {
-        		if (urlFormat.charAt(i) == API_URLS_PLACEHOLDER_START) {
-        			placeHolderBuilder = new StringBuilder();
-        			placeHolderFlag = true;
-        		} else if (placeHolderFlag && urlFormat.charAt(i) == API_URLS_PLACEHOLDER_END) {
-        			String placeHolder = placeHolderBuilder.toString();
-        			if (QUERY_PARAMETERS_PLACEHOLDER.equals(placeHolder)) {
-    			    	StringBuilder builder = new StringBuilder();
-    			    	if (!parametersMap.isEmpty()) {
-    			    		Iterator<String> iter = parametersMap.keySet().iterator();
-    			    		while (iter.hasNext()) {
-    			    			String name = iter.next();
-			    				Collection<String> parameterValues = parametersMap.get(name);
-			    				Iterator<String> iterParam = parameterValues.iterator();
-			    				while (iterParam.hasNext()) {
-    			    				builder.append(name);
-    			    				builder.append("=");
-    			    				builder.append(iterParam.next());
-    			    				if (iterParam.hasNext()) {
-        			    				builder.append("&");
-    			    				}
-			    				}
-    			    			if (iter.hasNext()) {
-    			    				builder.append("&");
-    			    			}
-    			    		}
-    			    	}
-    			    	urlBuilder.append(builder.toString());
-        			} else {
-        				// we did not find a binding for the placeholder.
-        				// append it as it is.
-        				urlBuilder.append(API_URLS_PLACEHOLDER_START);
-        				urlBuilder.append(placeHolder);
-        				urlBuilder.append(API_URLS_PLACEHOLDER_END);
-        			}
-        			placeHolderFlag = false;
-        		} else if (placeHolderFlag) {
-        			placeHolderBuilder.append(urlFormat.charAt(i));
-        		} else {
-        			urlBuilder.append(urlFormat.charAt(i));
-        		}
-        	}
+			return template.expand(parametersMap);
+    	}
+
+    	/**
+	     * Builds the url with a single value of a parameter in place of the
+	     * values it has, the builder itself is not changed.
+	     *
+	     * @param name the name
+	     * @param value the value
+	     *
+	     * @return the string
+	     */
+		public String buildUrl(String name, String value) {
+			Map<String, Collection<String>> parameters = new HashMap<String, Collection<String>>(parametersMap);
+			parameters.put(name, Collections.singleton(encodeUrl(value)));
+			return template.expand(parameters);
+    	}
 
-        	return urlBuilder.toString();
+    	/**
+	     * Copies the builder, the parameters of the copy change apart from
+	     * the ones of this builder.
+	     *
+	     * @return the google search api url builder
+	     */
+		public GoogleSearchApiUrlBuilder copy() {
+			return new GoogleSearchApiUrlBuilder(template, parametersMap);
     	}
+
+    	/**
+	     * Adds the encoded value of a parameter.
+	     * 
+	     * @param name the name
+	     * @param encodedValue the encoded value
+	     */
+	    private void withEncodedParameter(String name, String encodedValue) {
+    		Collection<String> values = parametersMap.get(name);
+    		if (values == null) {
+    			values = new ArrayList<String>();
+	    		parametersMap.put(name, values);
+    		}
+    		values.add(encodedValue);
+	    }
+    	
+        /**
+         * Encodes a value that is used over and over, looking it up in the
+         * cache of the encoded constant values first.
+         * 
+         * @param constant the constant value
+         * 
+         * @return the encoded value
+         */
+        private static String encodeConstant(String constant) {
+        	String encoded = ENCODED_CONSTANTS.get(constant);
+        	if (encoded == null) {
+        		encoded = encodeUrl(constant);
+        		if (ENCODED_CONSTANTS.size() < MAXIMUM_ENCODED_CONSTANTS) {
+        			ENCODED_CONSTANTS.putIfAbsent(constant, encoded);
+        		}
+        	}
+        	return encoded;
+        }
     	
         /**
-         * Encode url.
+         * Encodes the value of a query parameter.
          * 
          * @param original the original
          * 
          * @return the string
          */
-        private static String encodeUrl(String original) {
+        public static String encodeUrl(String original) {
         	try {
     			return URLEncoder.encode(original, ApplicationConstants.CONTENT_ENCODING);
     		} catch (UnsupportedEncodingException e) {
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.enumeration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.googleapis.ajax.common.ValueEnum;
+
+/**
+ * The Enum ExecutionMode.
+ */
+public enum ExecutionMode implements ValueEnum {
+	
+	/** A shared pool of platform daemon threads. */
+	PLATFORM_THREADS("platform"), 
+	
+	/** One virtual thread per call, platform threads on a VM without them. */
+	VIRTUAL_THREADS("virtual");
+	
+    /** The Constant stringToEnum. */
+	private static final Map<String, ExecutionMode> stringToEnum = new HashMap<String, ExecutionMode>();
+
+	static { // Initialize map from constant name to enum constant
+		for (ExecutionMode op : values()) {
+			stringToEnum.put(op.value(), op);
+		}
+	}
+	
+    /** The value. */
+    private final String value;
+    
+    /**
+     * Instantiates a new execution mode.
+     * 
+     * @param value the value
+     */
+    ExecutionMode(String value) {
+        this.value = value;
+    }
+
+	@Override
+	public String value() {
+		return value;
+	}
+	
+	/**
+	 * From value.
+	 * 
+	 * @param value the value
+	 * 
+	 * @return the execution mode
+	 */
+	public static ExecutionMode fromValue(String value) {
+		return stringToEnum.get(value);
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.hedging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.googleapis.ajax.services.constant.ApplicationConstants;
+import com.googleapis.ajax.services.retry.RetryBudget;
+
+/**
+ * The Class HedgingPolicy.
+ *
+ * Decides when a request that has not been answered yet is sent a second
+ * time, so that an occasional slow response does not set the tail
+ * latency. The hedge goes out once the request has been waiting longer
+ * than a percentile of the recent latencies of its endpoint, and the first
+ * of the two to be answered wins. The hedges are drawn from a budget that
+ * caps the extra load to a share of the requests.
+ */
+public class HedgingPolicy {
+
+	/** The percentile of the latency after which a request is hedged. */
+	private final double percentile;
+
+	/** The minimum delay in nanos. */
+	private final long minimumDelay;
+
+	/** The maximum delay in nanos, used until the latency is known. */
+	private final long maximumDelay;
+
+	/** The budget. */
+	private final RetryBudget budget;
+
+	/** The latency tracker. */
+	private final LatencyTracker latencyTracker = new LatencyTracker();
+
+	/** The requests. */
+	private final LongAdder requests = new LongAdder();
+
+	/** The hedges. */
+	private final LongAdder hedges = new LongAdder();
+
+	/** The hedges answered first. */
+	private final LongAdder wins = new LongAdder();
+
+	/** The hedges refused by the budget. */
+	private final LongAdder budgetRejections = new LongAdder();
+
+	/** The hedges refused by the rate limiter. */
+	private final LongAdder rateLimitRejections = new LongAdder();
+
+	/**
+	 * Instantiates a new hedging policy with the settings of the application
+	 * constants.
+	 */
+	public HedgingPolicy() {
+		this(ApplicationConstants.HEDGING_PERCENTILE, ApplicationConstants.HEDGING_MINIMUM_DELAY,
+				ApplicationConstants.HEDGING_MAXIMUM_DELAY, new RetryBudget(ApplicationConstants.HEDGING_BUDGET_RATIO,
+						ApplicationConstants.HEDGING_BUDGET_RESERVE));
+	}
+
+	/**
+	 * Instantiates a new hedging policy.
+	 *
+	 * @param percentile the percentile of the latency after which a request is hedged, e.g. 95
+	 * @param minimumDelay the shortest delay in millis before a hedge
+	 * @param maximumDelay the longest delay in millis before a hedge, also used until the latency is known
+	 * @param budget the budget capping the hedges to a share of the requests
+	 */
+	public HedgingPolicy(double percentile, long minimumDelay, long maximumDelay, RetryBudget budget) {
+		this.percentile = percentile;
+		this.minimumDelay = TimeUnit.MILLISECONDS.toNanos(minimumDelay);
+		this.maximumDelay = TimeUnit.MILLISECONDS.toNanos(Math.max(minimumDelay, maximumDelay));
+		this.budget = budget;
+	}
+
+	/**
+	 * Records a request that may be hedged, crediting the budget.
+	 */
+	public void recordRequest() {
+		requests.increment();
+		budget.recordRequest();
+	}
+
+	/**
+	 * Gets the delay after which a request is hedged.
+	 *
+	 * @param url the url of the request
+	 *
+	 * @return the delay in nanos
+	 */
+	public long getDelay(String url) {
+		long latency = latencyTracker.getPercentile(url, percentile, TimeUnit.NANOSECONDS);
+		if (latency < 0) {
+			return maximumDelay;
+		}
+		return Math.max(minimumDelay, Math.min(maximumDelay, latency));
+	}
+
+	/**
+	 * Records the time a request took to be answered.
+	 *
+	 * @param url the url of the request
+	 * @param nanos the nanos
+	 */
+	public void recordLatency(String url, long nanos) {
+		latencyTracker.record(url, nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Withdraws a hedge from the budget.
+	 *
+	 * @return true, if the hedge may be sent
+	 */
+	public boolean tryAcquire() {
+		if (budget.tryAcquire()) {
+			hedges.increment();
+			return true;
+		}
+		budgetRejections.increment();
+		return false;
+	}
+
+	/**
+	 * Records a hedge that was dropped because the rate limiter had no
+	 * permit for it.
+	 */
+	public void recordRateLimited() {
+		hedges.decrement();
+		rateLimitRejections.increment();
+	}
+
+	/**
+	 * Records a hedge that was dropped because the circuit breaker of the
+	 * endpoint did not let it through.
+	 */
+	public void recordCircuitOpen() {
+		hedges.decrement();
+	}
+
+	/**
+	 * Records a hedge that was answered before the original request.
+	 */
+	public void recordWin() {
+		wins.increment();
+	}
+
+	/**
+	 * Gets the latency tracker.
+	 *
+	 * @return the latency tracker
+	 */
+	public LatencyTracker getLatencyTracker() {
+		return latencyTracker;
+	}
+
+	/**
+	 * Gets the stats.
+	 *
+	 * @return the stats
+	 */
+	public HedgingStats getStats() {
+		return new HedgingStats(requests.sum(), hedges.sum(), wins.sum(), budgetRejections.sum(),
+				rateLimitRejections.sum());
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.hedging;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The Class LatencyTracker.
+ *
+ * Keeps a histogram of the recent latencies of each endpoint, i.e. each url
+ * without its query string. The buckets are logarithmic with eight per
+ * power of two, so a percentile is known to within 12.5%, and recording a
+ * sample costs two atomic increments. The counts are halved every so
+ * often so that the histogram follows the latency as it changes.
+ */
+public class LatencyTracker {
+
+	/** The Constant MINIMUM_SAMPLES, below which no percentile is given. */
+	public static final int MINIMUM_SAMPLES = 20;
+
+	/** The Constant DECAY_INTERVAL, the samples between two halvings. */
+	private static final int DECAY_INTERVAL = 1000;
+
+	/** The Constant SUB_BUCKET_BITS. */
+	private static final int SUB_BUCKET_BITS = 3;
+
+	/** The Constant SUB_BUCKETS. */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/** The Constant BUCKETS, enough for any latency in micros. */
+	private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	/** The histograms by endpoint. */
+	private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+
+	/**
+	 * Records the latency of a call.
+	 *
+	 * @param url the url of the call
+	 * @param latency the latency
+	 * @param unit the unit
+	 */
+	public void record(String url, long latency, TimeUnit unit) {
+		String endpoint = getEndpoint(url);
+		Histogram histogram = histograms.get(endpoint);
+		if (histogram == null) {
+			Histogram created = new Histogram();
+			histogram = histograms.putIfAbsent(endpoint, created);
+			if (histogram == null) {
+				histogram = created;
+			}
+		}
+		histogram.record(unit.toMicros(latency));
+	}
+
+	/**
+	 * Gets a percentile of the recent latencies of the endpoint of an url.
+	 *
+	 * @param url the url
+	 * @param percentile the percentile, e.g. 95
+	 * @param unit the unit of the result
+	 *
+	 * @return the latency, rounded up to its bucket, or -1 if too few calls
+	 * have been recorded
+	 */
+	public long getPercentile(String url, double percentile, TimeUnit unit) {
+		Histogram histogram = histograms.get(getEndpoint(url));
+		if (histogram == null) {
+			return -1;
+		}
+		long micros = histogram.getPercentile(percentile);
+		return (micros < 0) ? -1 : unit.convert(micros, TimeUnit.MICROSECONDS);
+	}
+
+	/**
+	 * Gets the endpoint of an url.
+	 *
+	 * @param url the url
+	 *
+	 * @return the endpoint
+	 */
+	private static String getEndpoint(String url) {
+		int query = url.indexOf('?');
+		return ((query < 0) ? url : url.substring(0, query)).toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * Gets the bucket of a value.
+	 *
+	 * @param value the value
+	 *
+	 * @return the bucket
+	 */
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) Math.max(value, 0);
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int shift = magnitude - SUB_BUCKET_BITS;
+		return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Gets the largest value of a bucket.
+	 *
+	 * @param bucket the bucket
+	 *
+	 * @return the upper bound
+	 */
+	static long upperBoundOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+		long sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+		return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+	}
+
+	/**
+	 * The Class Histogram.
+	 */
+	private static class Histogram {
+
+		/** The counts. */
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+		/** The samples since the last halving. */
+		private final AtomicLong samples = new AtomicLong();
+
+		/** Whether a halving is in progress. */
+		private final AtomicBoolean decaying = new AtomicBoolean();
+
+		/**
+		 * Records a value.
+		 *
+		 * @param micros the micros
+		 */
+		void record(long micros) {
+			counts.incrementAndGet(bucketOf(micros));
+			if (samples.incrementAndGet() % DECAY_INTERVAL == 0 && decaying.compareAndSet(false, true)) {
+				try {
+					// concurrent increments may be halved too, the odd sample lost does not matter.
+					for (int i = 0; i < BUCKETS; i++) {
+						long count = counts.get(i);
+						if (count > 0) {
+							counts.addAndGet(i, -(count - count / 2));
+						}
+					}
+				} finally {
+					decaying.set(false);
+				}
+			}
+		}
+
+		/**
+		 * Gets a percentile.
+		 *
+		 * @param percentile the percentile
+		 *
+		 * @return the micros, -1 if too few samples
+		 */
+		long getPercentile(double percentile) {
+			long total = 0;
+			long[] snapshot = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) {
+				snapshot[i] = counts.get(i);
+				total += snapshot[i];
+			}
+			if (total < MINIMUM_SAMPLES) {
+				return -1;
+			}
+			long rank = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100) / 100));
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += snapshot[i];
+				if (seen >= rank) {
+					return upperBoundOf(i);
+				}
+			}
+			return upperBoundOf(BUCKETS - 1);
+		}
+	}
+}
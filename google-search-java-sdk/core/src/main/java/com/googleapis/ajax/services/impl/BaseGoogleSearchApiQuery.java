@@ -16,40 +16,55 @@
  */
 package com.googleapis.ajax.services.impl;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.net.HttpURLConnection;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonParser;
 import com.googleapis.ajax.common.PagedArrayList;
 import com.googleapis.ajax.common.PagedList;
-import com.googleapis.ajax.schema.GsearchResultClass;
-import com.googleapis.ajax.schema.Language;
-import com.googleapis.ajax.schema.ListingType;
-import com.googleapis.ajax.schema.PatentStatus;
-import com.googleapis.ajax.schema.PhoneNumberType;
-import com.googleapis.ajax.schema.VideoType;
-import com.googleapis.ajax.schema.ViewPortMode;
 import com.googleapis.ajax.services.AsyncResponseHandler;
 import com.googleapis.ajax.services.GoogleSearchException;
 import com.googleapis.ajax.services.GoogleSearchQuery;
+import com.googleapis.ajax.services.ResponseStatusException;
 import com.googleapis.ajax.services.constant.ApplicationConstants;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.GoogleSearchApiUrlBuilder;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.enumeration.ResultSetSize;
+import com.googleapis.ajax.services.json.FieldProjection;
+import com.googleapis.ajax.services.json.GsonRegistry;
+import com.googleapis.ajax.services.json.JsonCodec;
+import com.googleapis.ajax.services.json.JsonCodecs;
+import com.googleapis.ajax.services.json.JsonStreamReader;
+import com.googleapis.ajax.services.json.JsonToken;
+import com.googleapis.ajax.services.paging.MergedPagedList;
+import com.googleapis.ajax.services.paging.PageFanOut;
+import com.googleapis.ajax.services.paging.PageIterator;
+import com.googleapis.ajax.services.reactive.CursorPageSource;
+import com.googleapis.ajax.services.reactive.ResultPublisher;
+import com.googleapis.ajax.services.spec.GoogleSearchSpec;
+import com.googleapis.ajax.services.transport.Deadline;
+import com.googleapis.ajax.services.transport.HttpRequest;
 
 /**
  * The Class BaseGoogleSearchApiQuery.
@@ -58,14 +73,40 @@ public abstract class BaseGoogleSearchApiQuery<T> extends GoogleSearchApiGateway
 	
 	protected static final Charset UTF_8_CHAR_SET = Charset.forName(ApplicationConstants.CONTENT_ENCODING);
 
+	/** The Constant LIST_RESULT, the coalescing kind of list responses. */
+	protected static final String LIST_RESULT = "list";
+
+	/** The Constant DEFAULT_REQUEST_HEADERS, shared by the queries until one changes its own. */
+	private static final Map<String, String> DEFAULT_REQUEST_HEADERS = Collections.singletonMap("Accept-Encoding", "gzip, deflate");
+
+	/** The Constant SINGLE_RESULT, the coalescing kind of single result responses. */
+	protected static final String SINGLE_RESULT = "single";
+
+	/** The result types of the query classes, resolved once from their type argument. */
+	private static final ClassValue<Class<?>> RESULT_TYPES = new ClassValue<Class<?>>() {
+
+		@Override
+		protected Class<?> computeValue(Class<?> type) {
+			for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+				Type superclass = clazz.getGenericSuperclass();
+				if (superclass instanceof ParameterizedType
+						&& ((ParameterizedType) superclass).getRawType() == BaseGoogleSearchApiQuery.class) {
+					Type argument = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+					return (argument instanceof Class<?>) ? (Class<?>) argument : null;
+				}
+			}
+			return null;
+		}
+	};
+
 	/** The api url builder. */
 	protected GoogleSearchApiUrlBuilder apiUrlBuilder;
     
-    /** The parser. */
-    protected final JsonParser parser = new JsonParser();
+    /** The fields of the listed results, null for all. */
+    private FieldProjection projection;
     
-    /** The handlers. */
-    private List<AsyncResponseHandler<PagedList<T>>> handlers = new ArrayList<AsyncResponseHandler<PagedList<T>>>();
+    /** The handlers, an empty list shared by all the queries until one is added. */
+    private volatile List<AsyncResponseHandler<PagedList<T>>> handlers = Collections.emptyList();
 	
 	/**
 	 * Instantiates a new base google search api query.
@@ -74,10 +115,8 @@ public abstract class BaseGoogleSearchApiQuery<T> extends GoogleSearchApiGateway
 	 */
 	public BaseGoogleSearchApiQuery(String applicationId) {
 		super.setApplicationKey(applicationId);
-        requestHeaders = new HashMap<String, String>();
-
         // by default we compress contents
-        requestHeaders.put("Accept-Encoding", "gzip, deflate");
+        setSharedRequestHeaders(DEFAULT_REQUEST_HEADERS);
         this.reset();
 	}
 
@@ -97,51 +136,418 @@ public abstract class BaseGoogleSearchApiQuery<T> extends GoogleSearchApiGateway
 	 */
 	@Override
 	public PagedList<T> list() {
-		InputStream jsonContent = null;
+		final FieldProjection projection = this.projection;
         try {
-        	jsonContent = callApiGet(apiUrlBuilder.buildUrl());
-        	JsonElement response = parser.parse(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
-        	if (response.isJsonObject()) {
-        		PagedList<T> responseList = unmarshallList(response.getAsJsonObject());
-        		notifyObservers(responseList);
-    			return responseList;
-        	}
-        	throw new GoogleSearchException("Unknown content found in response:" + response.toString());
+        	PagedList<T> responseList = callApiCached(getResultKind(LIST_RESULT, projection), createApiRequest(), HttpURLConnection.HTTP_OK,
+        			jsonContent -> readList(jsonContent, projection));
+        	notifyObservers(responseList);
+        	return responseList;
+        } catch (GoogleSearchException e) {
+        	throw e;
         } catch (Exception e) {
             throw new GoogleSearchException(e);
-        } finally {
-	        closeStream(jsonContent);
-	    }
+        }
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#listAsync()
+	 */
+	@Override
+	public CompletableFuture<PagedList<T>> listAsync() {
+		final FieldProjection projection = this.projection;
+		CompletableFuture<PagedList<T>> future = callApiCachedAsync(getResultKind(LIST_RESULT, projection), createApiRequest(),
+				HttpURLConnection.HTTP_OK, jsonContent -> readList(jsonContent, projection));
+		for (AsyncResponseHandler<PagedList<T>> handler : handlers) {
+			handler.setFuture(future);
+		}
+		future.thenAccept(responseList -> notifyObservers(responseList));
+		return future;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#listAll()
+	 */
+	@Override
+	public Iterable<T> listAll() {
+		return listAll(ApplicationConstants.PAGING_PREFETCH_PAGES);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#listAll(int)
+	 */
+	@Override
+	public Iterable<T> listAll(final int prefetchPages) {
+		final GoogleSearchApiUrlBuilder urlBuilder = apiUrlBuilder.copy();
+		final FieldProjection projection = this.projection;
+		return () -> newPageIterator(urlBuilder, projection, prefetchPages);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#stream()
+	 */
+	@Override
+	public Stream<T> stream() {
+		return stream(ApplicationConstants.PAGING_PREFETCH_PAGES);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#stream(int)
+	 */
+	@Override
+	public Stream<T> stream(int prefetchPages) {
+		PageIterator<T> iterator = newPageIterator(apiUrlBuilder.copy(), projection, prefetchPages);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(iterator::close);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#listAllPages()
+	 */
+	@Override
+	public MergedPagedList<T> listAllPages() {
+		return listAllPages(ApplicationConstants.PAGING_PARALLELISM);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#listAllPages(int)
+	 */
+	@Override
+	public MergedPagedList<T> listAllPages(int parallelism) {
+		try {
+			return listAllPagesAsync(parallelism).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof GoogleSearchException) {
+				throw (GoogleSearchException) e.getCause();
+			}
+			throw new GoogleSearchException(e.getCause());
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#listAllPagesAsync(int)
+	 */
+	@Override
+	public CompletableFuture<MergedPagedList<T>> listAllPagesAsync(int parallelism) {
+		final GoogleSearchApiUrlBuilder urlBuilder = apiUrlBuilder.copy();
+		final FieldProjection projection = this.projection;
+		final PageFanOut<T> fanOut = new PageFanOut<T>(
+				start -> listPageAsync(urlBuilder.buildUrl(ParameterNames.START, String.valueOf(start)), projection),
+				parallelism);
+		return fanOut.fetchAll(listPageAsync(urlBuilder.buildUrl(), projection));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#publisher()
+	 */
+	@Override
+	public Flow.Publisher<T> publisher() {
+		final GoogleSearchApiUrlBuilder urlBuilder = apiUrlBuilder.copy();
+		final FieldProjection projection = this.projection;
+		return new ResultPublisher<T>(() -> new CursorPageSource<T>(() -> listPageAsync(urlBuilder.buildUrl(), projection),
+				start -> listPageAsync(urlBuilder.buildUrl(ParameterNames.START, String.valueOf(start)), projection)));
 	}
 
 	/**
-	 * Unmarshall list.
+	 * Creates the iterator over the pages of the cursor of a url, the first
+	 * page at the start of the url and the ones after at the start offsets
+	 * of the cursor.
 	 * 
-	 * @param response the response
+	 * @param urlBuilder the url builder, not changed any more
+	 * @param projection the fields read of the results, null for all
+	 * @param prefetchPages the pages fetched ahead of the one being read
+	 * 
+	 * @return the page iterator
+	 */
+	private PageIterator<T> newPageIterator(final GoogleSearchApiUrlBuilder urlBuilder, final FieldProjection projection, int prefetchPages) {
+		return new PageIterator<T>(() -> listPageAsync(urlBuilder.buildUrl(), projection),
+				start -> listPageAsync(urlBuilder.buildUrl(ParameterNames.START, String.valueOf(start)), projection),
+				prefetchPages);
+	}
+
+	/**
+	 * Lists the results of a page asynchronously.
+	 * 
+	 * @param url the url of the page
+	 * @param projection the fields read of the results, null for all
+	 * 
+	 * @return the future of the paged list< t>
+	 */
+	private CompletableFuture<PagedList<T>> listPageAsync(String url, final FieldProjection projection) {
+		return callApiCachedAsync(getResultKind(LIST_RESULT, projection), createRequest(GET_METHOD, url),
+				HttpURLConnection.HTTP_OK, jsonContent -> readList(jsonContent, projection));
+	}
+
+	/**
+	 * Lists the results of a spec. Only the request and the results are
+	 * allocated, the state of the query is neither read nor changed, so any
+	 * number of threads can run their specs through the same query.
+	 * 
+	 * @param spec the spec
 	 * 
 	 * @return the paged list< t>
 	 */
-	protected PagedList<T> unmarshallList(JsonObject response) {
-		int status = response.get("responseStatus").getAsInt();
-		if (status != 200) {
-			throw new GoogleSearchException(String.valueOf(response.get("responseDetails").getAsString()));
+	public PagedList<T> list(GoogleSearchSpec<T, ?> spec) {
+		final FieldProjection projection = spec.getProjection();
+        try {
+        	return callApiCached(getResultKind(LIST_RESULT, projection), createSpecRequest(spec), HttpURLConnection.HTTP_OK,
+        			jsonContent -> readList(jsonContent, projection));
+        } catch (GoogleSearchException e) {
+        	throw e;
+        } catch (Exception e) {
+            throw new GoogleSearchException(e);
+        }
+	}
+
+	/**
+	 * Lists the results of a spec asynchronously.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the future of the paged list< t>
+	 */
+	public CompletableFuture<PagedList<T>> listAsync(GoogleSearchSpec<T, ?> spec) {
+		final FieldProjection projection = spec.getProjection();
+		return callApiCachedAsync(getResultKind(LIST_RESULT, projection), createSpecRequest(spec),
+				HttpURLConnection.HTTP_OK, jsonContent -> readList(jsonContent, projection));
+	}
+
+	/**
+	 * Gets the single result of a spec.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the t
+	 */
+	public T singleResult(GoogleSearchSpec<T, ?> spec) {
+        try {
+        	return callApiCached(SINGLE_RESULT, createSpecRequest(spec), HttpURLConnection.HTTP_OK,
+        			jsonContent -> readSingleResult(jsonContent));
+        } catch (GoogleSearchException e) {
+        	throw e;
+        } catch (Exception e) {
+            throw new GoogleSearchException(e);
+        }
+	}
+
+	/**
+	 * Gets the single result of a spec asynchronously.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the future of the t
+	 */
+	public CompletableFuture<T> singleResultAsync(GoogleSearchSpec<T, ?> spec) {
+		return callApiCachedAsync(SINGLE_RESULT, createSpecRequest(spec), HttpURLConnection.HTTP_OK,
+				jsonContent -> readSingleResult(jsonContent));
+	}
+
+	/**
+	 * Creates the request for the current state of the query.
+	 * 
+	 * @return the http request
+	 */
+	protected HttpRequest createApiRequest() {
+		return createRequest(GET_METHOD, apiUrlBuilder.buildUrl());
+	}
+
+	/**
+	 * Creates the request of a spec.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the http request
+	 */
+	protected HttpRequest createApiRequest(GoogleSearchSpec<T, ?> spec) {
+		return createRequest(GET_METHOD, spec.getUrl());
+	}
+
+	/**
+	 * Creates the request of a spec, with the deadline of its own timeout if
+	 * it has one.
+	 * 
+	 * @param spec the spec
+	 * 
+	 * @return the http request
+	 */
+	private HttpRequest createSpecRequest(GoogleSearchSpec<T, ?> spec) {
+		HttpRequest request = createApiRequest(spec);
+		long timeout = spec.getTimeout(TimeUnit.MILLISECONDS);
+		if (timeout > 0) {
+			request.setDeadline(Deadline.after(timeout, TimeUnit.MILLISECONDS));
 		}
-		JsonObject data = response.get("responseData").getAsJsonObject();
+		return request;
+	}
+
+	/**
+	 * Reads the list response. The results are bound one at a time as they
+	 * stream in, so the response is never held as a whole tree.
+	 * 
+	 * @param jsonContent the json content
+	 * 
+	 * @return the paged list< t>
+	 */
+	protected PagedList<T> readList(InputStream jsonContent) {
+		return readList(jsonContent, projection);
+	}
+
+	/**
+	 * Reads the list response, with the given fields of the results.
+	 * 
+	 * @param jsonContent the json content
+	 * @param projection the fields read of the results, null for all
+	 * 
+	 * @return the paged list< t>
+	 */
+	protected PagedList<T> readList(InputStream jsonContent, FieldProjection projection) {
+		PagedList<T> list = readResponse(jsonContent, reader -> readResponseData(reader, projection));
+		return (list != null) ? list : new PagedArrayList<T>();
+	}
+
+	/**
+	 * Reads the response data of a list response.
+	 * 
+	 * @param reader the reader, positioned at the response data
+	 * @param projection the fields read of the results, null for all
+	 * 
+	 * @return the paged list< t>
+	 * 
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	protected PagedList<T> readResponseData(JsonStreamReader reader, FieldProjection projection) throws IOException {
 		PagedArrayList<T> list = new PagedArrayList<T>();
-		if (data != null) { 
-			JsonArray results = data.get("results").getAsJsonArray();
-			for (JsonElement object : results) {
-				T element = unmarshall(object);
-				list.add(element);
-			}
-			JsonElement cursor = data.get("cursor");
-			if (cursor != null) {
-				list.setCursor(new Gson().fromJson(cursor, PagedArrayList.Cursor.class));
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String name = reader.nextName();
+			if ("results".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+				reader.beginArray();
+				while (reader.hasNext()) {
+					list.add(readResult(reader, projection));
+				}
+				reader.endArray();
+			} else if ("cursor".equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+				list.setCursor(getGson().fromJson(reader.readElement(), PagedArrayList.Cursor.class));
+			} else {
+				reader.skipValue();
 			}
-		} 
+		}
+		reader.endObject();
 		return list;
 	}
 
+	/**
+	 * Reads the next result, through the generated codec of the result type
+	 * if there is one, else through the tree of the result itself.
+	 * 
+	 * @param reader the reader, positioned at the result
+	 * @param projection the fields read, null for all
+	 * 
+	 * @return the t
+	 * 
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	protected T readResult(JsonStreamReader reader, FieldProjection projection) throws IOException {
+		JsonCodec<T> codec = getResultCodec();
+		if (codec != null) {
+			return codec.read(reader, projection);
+		}
+		return unmarshall((projection == null) ? reader.readElement() : projection.readElement(reader));
+	}
+
+	/**
+	 * Gets the kind of a result, qualified by the fields read so that
+	 * projected results are cached and shared apart from whole ones.
+	 * 
+	 * @param resultKind the result kind
+	 * 
+	 * @return the result kind
+	 */
+	protected String getResultKind(String resultKind) {
+		return getResultKind(resultKind, projection);
+	}
+
+	/**
+	 * Gets the kind of a result, qualified by the given fields.
+	 * 
+	 * @param resultKind the result kind
+	 * @param projection the fields read, null for all
+	 * 
+	 * @return the result kind
+	 */
+	protected static String getResultKind(String resultKind, FieldProjection projection) {
+		return (projection == null) ? resultKind : resultKind + "(" + projection + ")";
+	}
+
+	/**
+	 * Gets the generated codec of the result type. A query that binds its
+	 * results in {@link #unmarshall(JsonElement)} in its own way returns null.
+	 * 
+	 * @return the result codec, null to bind the results through reflection
+	 */
+	@SuppressWarnings("unchecked")
+	protected JsonCodec<T> getResultCodec() {
+		Class<?> resultType = RESULT_TYPES.get(getClass());
+		return (resultType == null) ? null : (JsonCodec<T>) JsonCodecs.get(resultType);
+	}
+
+	/**
+	 * Reads a response, handing its response data to the given reader as
+	 * it streams past.
+	 * 
+	 * @param jsonContent the json content
+	 * @param dataReader the response data reader
+	 * 
+	 * @return what the data reader made of the response data, null if there was none
+	 */
+	protected <R> R readResponse(InputStream jsonContent, ResponseDataReader<R> dataReader) {
+		JsonStreamReader reader = new JsonStreamReader(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
+		reader.setStringPool(stringPool);
+		try {
+			if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+				throw new GoogleSearchException("Unknown content found in response: " + reader.peek() + " instead of an object.");
+			}
+			return readEnvelope(reader, dataReader);
+		} catch (IOException e) {
+			throw new GoogleSearchException(e);
+		}
+	}
+
+	/**
+	 * Reads a response envelope: the response data, details and status.
+	 * The api writes the status last, so the data is read as it comes and
+	 * dropped if the status turns out to be an error.
+	 * 
+	 * @param reader the reader, positioned at the envelope
+	 * @param dataReader the response data reader
+	 * 
+	 * @return what the data reader made of the response data, null if there was none
+	 * 
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	protected <R> R readEnvelope(JsonStreamReader reader, ResponseDataReader<R> dataReader) throws IOException {
+		R data = null;
+		int status = -1;
+		String details = null;
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String name = reader.nextName();
+			if ("responseStatus".equals(name)) {
+				status = reader.nextInt();
+			} else if ("responseDetails".equals(name) && reader.peek() != JsonToken.NULL) {
+				details = reader.nextString();
+			} else if ("responseData".equals(name) && reader.peek() != JsonToken.NULL
+					&& (status == -1 || status == 200)) {
+				data = dataReader.read(reader);
+			} else {
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+		if (status != 200) {
+			throw new ResponseStatusException(status, String.valueOf(details));
+		}
+		return data;
+	}
+
 	/**
 	 * Unmarshall.
 	 * 
@@ -156,27 +562,49 @@ public abstract class BaseGoogleSearchApiQuery<T> extends GoogleSearchApiGateway
 	 */
 	@Override
 	public T singleResult() {
-		InputStream jsonContent = null;
         try {
-        	jsonContent = callApiGet(apiUrlBuilder.buildUrl());
-        	JsonElement response = parser.parse(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
-        	if (response.isJsonObject()) {
-        		JsonObject json = response.getAsJsonObject();
-        		int status = json.get("responseStatus").getAsInt();
-        		if (status != 200) {
-        			throw new GoogleSearchException(json.get("responseDetails").getAsString());
-        		}
-        		JsonElement data = json.get("responseData");
-        		if (data != null) {
-        			return unmarshall(data);
-        		}
-        	}
-        	throw new GoogleSearchException("Unknown content found in response:" + response.toString());
+        	return callApiCached(SINGLE_RESULT, createApiRequest(), HttpURLConnection.HTTP_OK,
+        			jsonContent -> readSingleResult(jsonContent));
+        } catch (GoogleSearchException e) {
+        	throw e;
         } catch (Exception e) {
             throw new GoogleSearchException(e);
-        } finally {
-	        closeStream(jsonContent);
-	    }
+        }
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#singleResultAsync()
+	 */
+	@Override
+	public CompletableFuture<T> singleResultAsync() {
+		return callApiCachedAsync(SINGLE_RESULT, createApiRequest(), HttpURLConnection.HTTP_OK,
+				jsonContent -> readSingleResult(jsonContent));
+	}
+
+	/**
+	 * Reads the single result response.
+	 * 
+	 * @param jsonContent the json content
+	 * 
+	 * @return the t
+	 */
+	protected T readSingleResult(InputStream jsonContent) {
+		T result = readResponse(jsonContent, reader -> unmarshallSingleResult(reader.readElement()));
+		if (result == null) {
+			throw new GoogleSearchException("Unknown content found in response: no response data.");
+		}
+		return result;
+	}
+
+	/**
+	 * Unmarshall the response data of a single result.
+	 * 
+	 * @param data the data
+	 * 
+	 * @return the t
+	 */
+	protected T unmarshallSingleResult(JsonElement data) {
+		return unmarshall(data);
 	}
 	
 	/**
@@ -194,7 +622,12 @@ public abstract class BaseGoogleSearchApiQuery<T> extends GoogleSearchApiGateway
 	 * @see com.google.code.stackexchange.client.query.StackExchangeApiQuery#addResonseHandler(com.google.code.stackexchange.client.AsyncResponseHandler)
 	 */
 	public void addResonseHandler(AsyncResponseHandler<PagedList<T>> handler) {
-		handlers.add(handler);
+		synchronized (this) {
+			if (!(handlers instanceof CopyOnWriteArrayList)) {
+				handlers = new CopyOnWriteArrayList<AsyncResponseHandler<PagedList<T>>>(handlers);
+			}
+			handlers.add(handler);
+		}
 	}
 	
     /* (non-Javadoc)
@@ -210,72 +643,16 @@ public abstract class BaseGoogleSearchApiQuery<T> extends GoogleSearchApiGateway
 	 * @return the gson builder
 	 */
 	protected GsonBuilder getGsonBuilder() {
-		GsonBuilder builder = new GsonBuilder();
-		builder.setDateFormat(ApplicationConstants.RFC822DATEFORMAT);
-		builder.registerTypeAdapter(ListingType.class, new JsonDeserializer<ListingType>() {
-
-			@Override
-			public ListingType deserialize(JsonElement arg0, Type arg1,
-					JsonDeserializationContext arg2) throws JsonParseException {
-				return ListingType.fromValue(arg0.getAsString());
-			}
-			
-		});
-		builder.registerTypeAdapter(PatentStatus.class, new JsonDeserializer<PatentStatus>() {
-
-			@Override
-			public PatentStatus deserialize(JsonElement arg0, Type arg1,
-					JsonDeserializationContext arg2) throws JsonParseException {
-				return PatentStatus.fromValue(arg0.getAsString());
-			}
-			
-		});
-		builder.registerTypeAdapter(VideoType.class, new JsonDeserializer<VideoType>() {
-
-			@Override
-			public VideoType deserialize(JsonElement arg0, Type arg1,
-					JsonDeserializationContext arg2) throws JsonParseException {
-				return VideoType.fromValue(arg0.getAsString());
-			}
-			
-		});
-		builder.registerTypeAdapter(ViewPortMode.class, new JsonDeserializer<ViewPortMode>() {
-
-			@Override
-			public ViewPortMode deserialize(JsonElement arg0, Type arg1,
-					JsonDeserializationContext arg2) throws JsonParseException {
-				return ViewPortMode.fromValue(arg0.getAsString());
-			}
-			
-		});
-		builder.registerTypeAdapter(GsearchResultClass.class, new JsonDeserializer<GsearchResultClass>() {
-
-			@Override
-			public GsearchResultClass deserialize(JsonElement arg0, Type arg1,
-					JsonDeserializationContext arg2) throws JsonParseException {
-				return GsearchResultClass.fromValue(arg0.getAsString());
-			}
-			
-		});
-		builder.registerTypeAdapter(PhoneNumberType.class, new JsonDeserializer<PhoneNumberType>() {
-
-			@Override
-			public PhoneNumberType deserialize(JsonElement arg0, Type arg1,
-					JsonDeserializationContext arg2) throws JsonParseException {
-				return PhoneNumberType.fromValue(arg0.getAsString());
-			}
-			
-		});
-		builder.registerTypeAdapter(Language.class, new JsonDeserializer<Language>() {
-
-			@Override
-			public Language deserialize(JsonElement arg0, Type arg1,
-					JsonDeserializationContext arg2) throws JsonParseException {
-				return Language.fromValue(arg0.getAsString());
-			}
-		});
-		
-		return builder;
+		return GsonRegistry.newGsonBuilder();
+	}
+
+	/**
+	 * Gets the gson the results are bound with, shared by all the queries.
+	 * 
+	 * @return the gson
+	 */
+	protected Gson getGson() {
+		return GsonRegistry.getGson();
 	}
     
 	/* (non-Javadoc)
@@ -296,6 +673,18 @@ public abstract class BaseGoogleSearchApiQuery<T> extends GoogleSearchApiGateway
 	protected GoogleSearchApiUrlBuilder createGoogleSearchApiUrlBuilder(String urlFormat) {
 		return new GoogleSearchApiUrlBuilder(urlFormat);
 	}
+	
+	/**
+	 * Creates the api url builder of a url template compiled once per
+	 * query class.
+	 * 
+	 * @param template the url template
+	 * 
+	 * @return the api url builder
+	 */
+	protected GoogleSearchApiUrlBuilder createGoogleSearchApiUrlBuilder(UrlTemplate template) {
+		return new GoogleSearchApiUrlBuilder(template, ApplicationConstants.DEFAULT_API_VERSION);
+	}
 
 	/* (non-Javadoc)
 	 * @see com.google.code.googlesearch.client.GoogleSearchQuery#withCallback(java.lang.String)
@@ -357,6 +746,32 @@ public abstract class BaseGoogleSearchApiQuery<T> extends GoogleSearchApiGateway
 		return this;
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#withTimeout(long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public GoogleSearchQuery<T> withTimeout(long timeout, TimeUnit unit) {
+		setCallTimeout(timeout, unit);
+		return this;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.GoogleSearchQuery#withFields(java.lang.String[])
+	 */
+	@Override
+	public GoogleSearchQuery<T> withFields(String... fields) {
+		if (fields == null || fields.length == 0) {
+			projection = null;
+			return this;
+		}
+		Class<?> resultType = RESULT_TYPES.get(getClass());
+		if (resultType == null) {
+			throw new IllegalStateException("The result type of " + getClass().getName() + " is not known.");
+		}
+		projection = FieldProjection.of(resultType, fields);
+		return this;
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.google.code.googlesearch.client.GoogleSearchQuery#withStartIndex(int)
 	 */
@@ -365,4 +780,23 @@ public abstract class BaseGoogleSearchApiQuery<T> extends GoogleSearchApiGateway
 		apiUrlBuilder.withParameter(ParameterNames.START, String.valueOf(startIndex));
 		return this;
 	}
+
+	/**
+	 * The Interface ResponseDataReader.
+	 *
+	 * Reads the response data of a response from the token stream.
+	 */
+	protected interface ResponseDataReader<R> {
+
+		/**
+		 * Reads the response data.
+		 * 
+		 * @param reader the reader, positioned at the response data
+		 * 
+		 * @return the r
+		 * 
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		R read(JsonStreamReader reader) throws IOException;
+	}
 }
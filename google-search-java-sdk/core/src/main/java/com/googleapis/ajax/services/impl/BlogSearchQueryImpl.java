@@ -16,11 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.ajax.schema.BlogResult;
 import com.googleapis.ajax.services.BlogSearchQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.enumeration.BlogSortOrder;
 
@@ -30,6 +30,9 @@ import com.googleapis.ajax.services.enumeration.BlogSortOrder;
 public class BlogSearchQueryImpl extends BaseGoogleSearchApiQuery<BlogResult> implements
 		BlogSearchQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.SEARCH_BLOG_URL);
+	
 	/**
 	 * Instantiates a new blog search query impl.
 	 * 
@@ -45,7 +48,7 @@ public class BlogSearchQueryImpl extends BaseGoogleSearchApiQuery<BlogResult> im
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.SEARCH_BLOG_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 
@@ -63,7 +66,6 @@ public class BlogSearchQueryImpl extends BaseGoogleSearchApiQuery<BlogResult> im
 	 */
 	@Override
 	protected BlogResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, BlogResult.class);
+		return getGson().fromJson(object, BlogResult.class);
 	}
 }
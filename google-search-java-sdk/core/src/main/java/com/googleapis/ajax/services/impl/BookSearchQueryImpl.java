@@ -16,11 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.ajax.schema.BookResult;
 import com.googleapis.ajax.services.BookSearchQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.enumeration.BookSearchType;
 
@@ -30,6 +30,9 @@ import com.googleapis.ajax.services.enumeration.BookSearchType;
 public class BookSearchQueryImpl extends BaseGoogleSearchApiQuery<BookResult> implements
 		BookSearchQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.SEARCH_BOOK_URL);
+	
 	/**
 	 * Instantiates a new book search query impl.
 	 * 
@@ -45,7 +48,7 @@ public class BookSearchQueryImpl extends BaseGoogleSearchApiQuery<BookResult> im
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.SEARCH_BOOK_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 
@@ -75,7 +78,6 @@ public class BookSearchQueryImpl extends BaseGoogleSearchApiQuery<BookResult> im
 	 */
 	@Override
 	protected BookResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, BookResult.class);
+		return getGson().fromJson(object, BookResult.class);
 	}
 }
@@ -16,11 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.ajax.schema.DetectLanguageResult;
 import com.googleapis.ajax.services.DetectLanguageQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 
 /**
  * The Class DetectLanguageQueryImpl.
@@ -28,6 +28,9 @@ import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
 public class DetectLanguageQueryImpl extends BaseGoogleSearchApiQuery<DetectLanguageResult> implements
 	DetectLanguageQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.LANGUAGE_DETECT_URL);
+	
 	/**
 	 * Instantiates a new detect language query impl.
 	 * 
@@ -43,7 +46,7 @@ public class DetectLanguageQueryImpl extends BaseGoogleSearchApiQuery<DetectLang
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.LANGUAGE_DETECT_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 	/* (non-Javadoc)
@@ -51,7 +54,6 @@ public class DetectLanguageQueryImpl extends BaseGoogleSearchApiQuery<DetectLang
 	 */
 	@Override
 	protected DetectLanguageResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, DetectLanguageResult.class);
+		return getGson().fromJson(object, DetectLanguageResult.class);
 	}
 }
@@ -16,16 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.googleapis.ajax.schema.FindFeedResult;
 import com.googleapis.ajax.services.FindFeedQuery;
-import com.googleapis.ajax.services.GoogleSearchException;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 
 /**
  * The Class WebSearchQueryImpl.
@@ -33,6 +28,9 @@ import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
 public class FindFeedQueryImpl extends BaseGoogleSearchApiQuery<FindFeedResult> implements
 		FindFeedQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.FEED_FIND_URL);
+	
 	/**
 	 * Instantiates a new web search query impl.
 	 * 
@@ -47,7 +45,7 @@ public class FindFeedQueryImpl extends BaseGoogleSearchApiQuery<FindFeedResult>
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.FEED_FIND_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 
@@ -56,32 +54,7 @@ public class FindFeedQueryImpl extends BaseGoogleSearchApiQuery<FindFeedResult>
 	 */
 	@Override
 	protected FindFeedResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, FindFeedResult.class);
+		return getGson().fromJson(object, FindFeedResult.class);
 	}
 	
-	@Override
-	public FindFeedResult singleResult() {
-		InputStream jsonContent = null;
-        try {
-        	jsonContent = callApiGet(apiUrlBuilder.buildUrl());
-        	JsonElement response = parser.parse(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
-        	if (response.isJsonObject()) {
-        		JsonObject json = response.getAsJsonObject();
-        		int status = json.get("responseStatus").getAsInt();
-        		if (status != 200) {
-        			throw new GoogleSearchException(json.get("responseDetails").getAsString());
-        		}
-        		JsonElement data = json.get("responseData");
-        		if (data != null) {
-        			return unmarshall(data);
-        		}
-        	}
-        	throw new GoogleSearchException("Unknown content found in response:" + response.toString());
-        } catch (Exception e) {
-            throw new GoogleSearchException(e);
-        } finally {
-	        closeStream(jsonContent);
-	    }
-	}
 }
@@ -16,34 +16,82 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.zip.GZIPInputStream;
 
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.common.UnmodifiablePagedList;
+import com.googleapis.ajax.services.CircuitBreakerOpenException;
+import com.googleapis.ajax.services.DeadlineExceededException;
 import com.googleapis.ajax.services.GoogleSearchException;
+import com.googleapis.ajax.services.RateLimitExceededException;
+import com.googleapis.ajax.services.ResponseStatusException;
+import com.googleapis.ajax.services.cache.DiskResponseCache;
+import com.googleapis.ajax.services.cache.ResponseCache;
+import com.googleapis.ajax.services.circuitbreaker.CircuitBreaker;
+import com.googleapis.ajax.services.circuitbreaker.CircuitBreakerRegistry;
+import com.googleapis.ajax.services.coalescing.RequestCoalescer;
+import com.googleapis.ajax.services.compression.GzipDecoder;
+import com.googleapis.ajax.services.compression.ResourcePool;
 import com.googleapis.ajax.services.constant.ApplicationConstants;
+import com.googleapis.ajax.services.enumeration.ExecutionMode;
+import com.googleapis.ajax.services.hedging.HedgingPolicy;
+import com.googleapis.ajax.services.json.StringPool;
+import com.googleapis.ajax.services.ratelimit.RateLimiter;
+import com.googleapis.ajax.services.retry.RetryPolicy;
+import com.googleapis.ajax.services.transport.AsyncHttpTransport;
+import com.googleapis.ajax.services.transport.ClientConfiguration;
+import com.googleapis.ajax.services.transport.Deadline;
+import com.googleapis.ajax.services.transport.HttpRequest;
+import com.googleapis.ajax.services.transport.HttpResponse;
+import com.googleapis.ajax.services.transport.HttpTransport;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
 
 /**
  * The Class GoogleSearchApiGateway.
  */
 public abstract class GoogleSearchApiGateway {
 	
-    /** The LOG. */
-    protected final Logger LOG = Logger.getLogger(getClass().getCanonicalName());
+    /** The loggers of the query classes, looked up once per class. */
+    private static final ClassValue<Logger> LOGGERS = new ClassValue<Logger>() {
+
+		@Override
+		protected Logger computeValue(Class<?> type) {
+			return Logger.getLogger(type.getCanonicalName());
+		}
+	};
+	
+    /** The LOG, shared by the queries of the class. */
+    protected final Logger LOG = LOGGERS.get(getClass());
 	
 	/** The Constant GZIP_ENCODING. */
 	private static final String GZIP_ENCODING = "gzip";
@@ -51,9 +99,27 @@ public abstract class GoogleSearchApiGateway {
 	/** The Constant REFERRER. */
 	private static final String REFERRER = "Referer";
 	
+	/** The Constant CONTENT_TYPE. */
+	private static final String CONTENT_TYPE = "Content-Type";
+	
+	/** The Constant FORM_URL_ENCODED. */
+	private static final String FORM_URL_ENCODED = "application/x-www-form-urlencoded";
+	
+	/** The Constant TOO_MANY_REQUESTS. */
+	private static final int TOO_MANY_REQUESTS = 429;
+	
+	/** The Constant GET_METHOD. */
+	protected static final String GET_METHOD = "GET";
+	
+	/** The Constant POST_METHOD. */
+	protected static final String POST_METHOD = "POST";
+	
 	/** The request headers. */
 	protected Map<String, String> requestHeaders;
 	
+	/** Whether the request headers are shared, and copied before they are changed. */
+	private boolean requestHeadersShared;
+	
 	/** The application key. */
 	protected String applicationKey;
 	
@@ -63,6 +129,241 @@ public abstract class GoogleSearchApiGateway {
 	/** The api version. */
 	protected String apiVersion = ApplicationConstants.DEFAULT_API_VERSION;
 	
+	/** The transport. */
+	protected HttpTransport transport = PooledHttpTransport.getSharedInstance();
+	
+	/** The executor of the asynchronous calls, null for the default one. */
+	protected Executor executor;
+	
+	/** The coalescer shared with the identical queries in flight, null for none. */
+	protected RequestCoalescer coalescer;
+	
+	/** The response cache, null for none. */
+	protected ResponseCache cache;
+	
+	/** The retry policy, null not to retry. */
+	protected RetryPolicy retryPolicy;
+	
+	/** The rate limiter shared by the queries of the application key, null for none. */
+	protected RateLimiter rateLimiter;
+
+	/** The circuit breaker registry. */
+	protected CircuitBreakerRegistry circuitBreakerRegistry;
+
+	/** The hedging policy. */
+	protected HedgingPolicy hedgingPolicy;
+
+	/** The client configuration, the timeouts of the calls. */
+	protected ClientConfiguration clientConfiguration = ClientConfiguration.getDefault();
+
+	/** The pool of the repeated strings of the results, null not to pool them. */
+	protected StringPool stringPool = StringPool.getDefault();
+	
+	/**
+	 * Gets the executor of the asynchronous calls.
+	 * 
+	 * @return the executor
+	 */
+	public Executor getExecutor() {
+		return (executor == null) ? getDefaultExecutor(DefaultExecutorHolder.MODE) : executor;
+	}
+
+	/**
+	 * Gets the shared executor of the given execution mode.
+	 * 
+	 * @param mode the execution mode
+	 * 
+	 * @return the executor
+	 */
+	public static Executor getDefaultExecutor(ExecutionMode mode) {
+		if (mode == ExecutionMode.VIRTUAL_THREADS) {
+			return VirtualExecutorHolder.INSTANCE;
+		}
+		return DefaultExecutorHolder.INSTANCE;
+	}
+
+	/**
+	 * Sets the executor of the asynchronous calls.
+	 * 
+	 * @param executor the new executor, null for the default one
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Gets the request coalescer.
+	 * 
+	 * @return the request coalescer, null if requests are not coalesced
+	 */
+	public RequestCoalescer getRequestCoalescer() {
+		return coalescer;
+	}
+
+	/**
+	 * Sets the request coalescer.
+	 * 
+	 * @param coalescer the new request coalescer, null not to coalesce requests
+	 */
+	public void setRequestCoalescer(RequestCoalescer coalescer) {
+		this.coalescer = coalescer;
+	}
+
+	/**
+	 * Gets the response cache.
+	 * 
+	 * @return the response cache, null if responses are not cached
+	 */
+	public ResponseCache getResponseCache() {
+		return cache;
+	}
+
+	/**
+	 * Sets the response cache.
+	 * 
+	 * @param cache the new response cache, null not to cache responses
+	 */
+	public void setResponseCache(ResponseCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Gets the retry policy.
+	 * 
+	 * @return the retry policy, null if failed calls are not retried
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * Sets the retry policy.
+	 * 
+	 * @param retryPolicy the new retry policy, null not to retry failed calls
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * Gets the rate limiter.
+	 * 
+	 * @return the rate limiter, null if calls are not rate limited
+	 */
+	public RateLimiter getRateLimiter() {
+		return rateLimiter;
+	}
+
+	/**
+	 * Sets the rate limiter.
+	 * 
+	 * @param rateLimiter the new rate limiter, null not to rate limit calls
+	 */
+	public void setRateLimiter(RateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * Gets the circuit breaker registry.
+	 * 
+	 * @return the circuit breaker registry, null if calls are not guarded
+	 */
+	public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+		return circuitBreakerRegistry;
+	}
+
+	/**
+	 * Sets the circuit breaker registry.
+	 * 
+	 * @param circuitBreakerRegistry the new circuit breaker registry, null not to guard calls
+	 */
+	public void setCircuitBreakerRegistry(CircuitBreakerRegistry circuitBreakerRegistry) {
+		this.circuitBreakerRegistry = circuitBreakerRegistry;
+	}
+
+	/**
+	 * Gets the hedging policy.
+	 * 
+	 * @return the hedging policy, null if requests are not hedged
+	 */
+	public HedgingPolicy getHedgingPolicy() {
+		return hedgingPolicy;
+	}
+
+	/**
+	 * Sets the hedging policy.
+	 * 
+	 * @param hedgingPolicy the new hedging policy, null not to hedge requests
+	 */
+	public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+		this.hedgingPolicy = hedgingPolicy;
+	}
+
+	/**
+	 * Gets the pool of the repeated strings of the results.
+	 * 
+	 * @return the string pool
+	 */
+	public StringPool getStringPool() {
+		return stringPool;
+	}
+
+	/**
+	 * Sets the pool of the repeated strings of the results.
+	 * 
+	 * @param stringPool the new string pool, null not to pool strings
+	 */
+	public void setStringPool(StringPool stringPool) {
+		this.stringPool = stringPool;
+	}
+
+	/**
+	 * Gets the client configuration.
+	 * 
+	 * @return the client configuration
+	 */
+	public ClientConfiguration getClientConfiguration() {
+		return clientConfiguration;
+	}
+
+	/**
+	 * Sets the client configuration.
+	 * 
+	 * @param clientConfiguration the new client configuration
+	 */
+	public void setClientConfiguration(ClientConfiguration clientConfiguration) {
+		this.clientConfiguration = clientConfiguration;
+	}
+
+	/**
+	 * Sets the time each call is given, from the moment it is made until
+	 * its result is parsed, overriding the one of the client configuration.
+	 * 
+	 * @param timeout the timeout, 0 for none
+	 * @param unit the unit
+	 */
+	public void setCallTimeout(long timeout, TimeUnit unit) {
+		this.clientConfiguration = clientConfiguration.withCallTimeout(timeout, unit);
+	}
+	
+	/**
+	 * Gets the transport.
+	 * 
+	 * @return the transport
+	 */
+	public HttpTransport getTransport() {
+		return transport;
+	}
+
+	/**
+	 * Sets the transport.
+	 * 
+	 * @param transport the new transport
+	 */
+	public void setTransport(HttpTransport transport) {
+		this.transport = transport;
+	}
+	
 	/**
 	 * Gets the api version.
 	 * 
@@ -88,6 +389,18 @@ public abstract class GoogleSearchApiGateway {
 	 */
 	public void setRequestHeaders(Map<String, String> requestHeaders) {
 	    this.requestHeaders = requestHeaders;
+	    this.requestHeadersShared = false;
+	}
+
+	/**
+	 * Sets request headers shared with other queries, e.g. the defaults.
+	 * They are read as they are and only copied if the query changes them.
+	 * 
+	 * @param requestHeaders the shared request headers
+	 */
+	protected void setSharedRequestHeaders(Map<String, String> requestHeaders) {
+	    this.requestHeaders = requestHeaders;
+	    this.requestHeadersShared = true;
 	}
 
 	/**
@@ -96,7 +409,21 @@ public abstract class GoogleSearchApiGateway {
 	 * @return the request headers
 	 */
 	public Map<String, String> getRequestHeaders() {
-	    return requestHeaders;
+	    return getOwnRequestHeaders();
+	}
+
+	/**
+	 * Gets the request headers of this query alone, copying the shared ones
+	 * the first time.
+	 * 
+	 * @return the request headers
+	 */
+	private Map<String, String> getOwnRequestHeaders() {
+		if (requestHeadersShared) {
+			requestHeaders = new HashMap<String, String>(requestHeaders);
+			requestHeadersShared = false;
+		}
+		return requestHeaders;
 	}
 
 	/**
@@ -106,7 +433,7 @@ public abstract class GoogleSearchApiGateway {
 	 * @param headerValue the header value
 	 */
 	public void addRequestHeader(String headerName, String headerValue) {
-	    requestHeaders.put(headerName, headerValue);
+	    getOwnRequestHeaders().put(headerName, headerValue);
 	}
 
 	/**
@@ -115,7 +442,7 @@ public abstract class GoogleSearchApiGateway {
 	 * @param headerName the header name
 	 */
 	public void removeRequestHeader(String headerName) {
-	    requestHeaders.remove(headerName);
+	    getOwnRequestHeaders().remove(headerName);
 	}
 
 	/**
@@ -142,7 +469,7 @@ public abstract class GoogleSearchApiGateway {
 	 * @param referrer the new referrer
 	 */
 	public void setReferrer(String referrer) {
-		requestHeaders.put(REFERRER, referrer);
+		getOwnRequestHeaders().put(REFERRER, referrer);
 	}
 
 	/**
@@ -212,34 +539,18 @@ public abstract class GoogleSearchApiGateway {
 	 * @return the input stream
 	 */
 	protected InputStream callApiGet(String apiUrl, int expected) {
-	    try {
-	        URL               url     = new URL(apiUrl);
-	        
-	        HttpURLConnection request = (HttpURLConnection) url.openConnection();
-	
-	        if (ApplicationConstants.CONNECT_TIMEOUT > -1) {
-	            request.setConnectTimeout(ApplicationConstants.CONNECT_TIMEOUT);
-	        }
-	
-	        if (ApplicationConstants.READ_TIMEOUT > -1) {
-	            request.setReadTimeout(ApplicationConstants.READ_TIMEOUT);
-	        }
+	    return callApi(createRequest(GET_METHOD, apiUrl), expected);
+	}
 	
-	        for (String headerName : requestHeaders.keySet()) {
-	            request.setRequestProperty(headerName, requestHeaders.get(headerName));
-	        }
-	        
-	        request.connect();
-	        
-	        if (request.getResponseCode() != expected) {
-	            throw new GoogleSearchException(convertStreamToString(request.getErrorStream()));
-	        } else {
-	            return getWrappedInputStream(request.getInputStream(),
-	                                         GZIP_ENCODING.equalsIgnoreCase(request.getContentEncoding()));
-	        }
-	    } catch (IOException e) {
-	        throw new GoogleSearchException(e);
-	    }
+	/**
+	 * Call api get asynchronously.
+	 * 
+	 * @param apiUrl the api url
+	 * 
+	 * @return the future input stream
+	 */
+	protected CompletableFuture<InputStream> callApiGetAsync(String apiUrl) {
+		return callApiAsync(createRequest(GET_METHOD, apiUrl), HttpURLConnection.HTTP_OK);
 	}
 	
 	/**
@@ -269,42 +580,22 @@ public abstract class GoogleSearchApiGateway {
 	 * @return the input stream
 	 */
 	protected InputStream callApiPost(String apiUrl, Map<String, List<String>> parameters, int expected) {
-		try {
-            URL               url     = new URL(apiUrl);
-            HttpURLConnection request = (HttpURLConnection) url.openConnection();
-
-            if (ApplicationConstants.CONNECT_TIMEOUT > -1) {
-                request.setConnectTimeout(ApplicationConstants.CONNECT_TIMEOUT);
-            }
-
-            if (ApplicationConstants.READ_TIMEOUT > -1) {
-                request.setReadTimeout(ApplicationConstants.READ_TIMEOUT);
-            }
-            
-            for (String headerName : requestHeaders.keySet()) {
-                request.setRequestProperty(headerName, requestHeaders.get(headerName));
-            }
-            
-            request.setRequestMethod("POST");
-            request.setDoOutput(true);
-
-            PrintStream out = new PrintStream(new BufferedOutputStream(request.getOutputStream()));
-            
-            out.print(getParametersString(parameters));
-            out.flush();
-            out.close();
-
-            request.connect();
-            
-	        if (request.getResponseCode() != expected) {
-	            throw new GoogleSearchException(convertStreamToString(request.getErrorStream()));
-	        } else {
-	            return getWrappedInputStream(request.getInputStream(),
-	                                         GZIP_ENCODING.equalsIgnoreCase(request.getContentEncoding()));
-	        }
-		} catch (IOException e) {
-	        throw new GoogleSearchException(e);
-		}
+		return callApi(createPostRequest(apiUrl, parameters), expected);
+	}
+	
+	/**
+	 * Creates a form encoded post request.
+	 * 
+	 * @param apiUrl the api url
+	 * @param parameters the parameters
+	 * 
+	 * @return the http request
+	 */
+	protected HttpRequest createPostRequest(String apiUrl, Map<String, List<String>> parameters) {
+		HttpRequest request = createRequest(POST_METHOD, apiUrl);
+		request.addHeader(CONTENT_TYPE, FORM_URL_ENCODED);
+		request.setBody(getBytes(getParametersString(parameters)));
+		return request;
 	}
 	
 	/**
@@ -353,137 +644,1274 @@ public abstract class GoogleSearchApiGateway {
 	 */
 	protected InputStream callApiMethod(String apiUrl, String xmlContent, String contentType,
 			String method, int expected) {
-	    try {
-	        URL               url     = new URL(apiUrl);
-	        HttpURLConnection request = (HttpURLConnection) url.openConnection();
-	
-	        if (ApplicationConstants.CONNECT_TIMEOUT > -1) {
-	            request.setConnectTimeout(ApplicationConstants.CONNECT_TIMEOUT);
-	        }
-	
-	        if (ApplicationConstants.READ_TIMEOUT > -1) {
-	            request.setReadTimeout(ApplicationConstants.READ_TIMEOUT);
-	        }
-	
-	        for (String headerName : requestHeaders.keySet()) {
-	            request.setRequestProperty(headerName, requestHeaders.get(headerName));
-	        }
-	
-	        request.setRequestMethod(method);
-	        request.setDoOutput(true);
-	
-	        if (contentType != null) {
-	            request.setRequestProperty("Content-Type", contentType);
-	        }
-	
-	        if (xmlContent != null) {
-	            PrintStream out = new PrintStream(new BufferedOutputStream(request.getOutputStream()));
-	
-	            out.print(xmlContent);
-	            out.flush();
-	            out.close();
-	        }
-	
-	        request.connect();
-	        
-	        if (request.getResponseCode() != expected) {
-	            throw new GoogleSearchException(convertStreamToString(request.getErrorStream()));
-	        } else {
-	            return getWrappedInputStream(request.getInputStream(),
-	                                         GZIP_ENCODING.equalsIgnoreCase(request.getContentEncoding()));
-	        }
-	    } catch (IOException e) {
-	        throw new GoogleSearchException(e);
-	    }
+		HttpRequest request = createRequest(method, apiUrl);
+		if (contentType != null) {
+			request.addHeader(CONTENT_TYPE, contentType);
+		}
+		if (xmlContent != null) {
+			request.setBody(getBytes(xmlContent));
+		}
+		return callApi(request, expected);
 	}
 
 	/**
-	 * Close stream.
+	 * Creates the request with the configured headers and timeouts. The
+	 * deadline of the call starts now.
 	 * 
-	 * @param is the is
+	 * @param method the method
+	 * @param apiUrl the api url
+	 * 
+	 * @return the http request
 	 */
-	protected void closeStream(InputStream is) {
-	    try {
-	    	if (is != null) {
-		        is.close();
-	    	}
-	    } catch (IOException e) {
-	    	LOG.log(Level.SEVERE, "An error occurred while closing stream.", e);	
-	    }
+	protected HttpRequest createRequest(String method, String apiUrl) {
+		final ClientConfiguration configuration = clientConfiguration;
+		HttpRequest request = new HttpRequest(method, apiUrl);
+		request.setConnectTimeout(configuration.getConnectTimeout());
+		request.setReadTimeout(configuration.getReadTimeout());
+		request.setDeadline(configuration.newDeadline());
+		request.addHeaders(requestHeaders);
+		return request;
 	}
 
 	/**
-	 * Close connection.
+	 * Executes the request on the transport and checks the status code. The
+	 * request is aborted if its deadline passes before the content is
+	 * closed.
 	 * 
-	 * @param connection the connection
+	 * @param request the request
+	 * @param expected the expected
+	 * 
+	 * @return the input stream
 	 */
-	protected void closeConnection(HttpURLConnection connection) {
+	protected InputStream callApi(HttpRequest request, int expected) {
+		ScheduledFuture<?> timer = startDeadline(request);
 	    try {
-	    	if (connection != null) {
-	    		connection.disconnect();
-	    	}
-	    } catch (Exception e) {
-	    	LOG.log(Level.SEVERE, "An error occurred while disconnecting connection.", e);	
+	        return closingTimer(getResponseContent(transport.execute(request), expected), timer);
+	    } catch (IOException e) {
+	    	cancelTimer(timer);
+	        throw checkDeadline(request, new GoogleSearchException(e));
+	    } catch (RuntimeException e) {
+	    	cancelTimer(timer);
+	    	throw checkDeadline(request, e);
 	    }
 	}
 
 	/**
-	 * Gets the wrapped input stream.
-	 * 
-	 * @param is the is
-	 * @param gzip the gzip
+	 * Executes the request without blocking the calling thread. With an
+	 * {@link AsyncHttpTransport} no thread waits for the network, other
+	 * transports are run on the executor. Cancelling the returned future
+	 * aborts the request.
 	 * 
-	 * @return the wrapped input stream
+	 * @param request the request
+	 * @param expected the expected
 	 * 
-	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @return the future input stream
 	 */
-	protected InputStream getWrappedInputStream(InputStream is, boolean gzip)
-			throws IOException {
-			    if (gzip) {
-			        return new BufferedInputStream(new GZIPInputStream(is));
-			    } else {
-			        return new BufferedInputStream(is);
-			    }
+	protected CompletableFuture<InputStream> callApiAsync(final HttpRequest request, final int expected) {
+		CompletableFuture<InputStream> result;
+		if (transport instanceof AsyncHttpTransport) {
+			final ScheduledFuture<?> timer;
+			try {
+				timer = startDeadline(request);
+			} catch (RuntimeException e) {
+				result = new CompletableFuture<InputStream>();
+				result.completeExceptionally(e);
+				return result;
 			}
+			final CompletableFuture<HttpResponse> exchange = ((AsyncHttpTransport) transport).executeAsync(request);
+			result = exchange.handle((response, error) -> {
+				if (error != null) {
+					cancelTimer(timer);
+					throw checkDeadline(request, toGoogleSearchException(error));
+				}
+				try {
+					return closingTimer(getResponseContent(response, expected), timer);
+				} catch (IOException e) {
+					cancelTimer(timer);
+					throw checkDeadline(request, new GoogleSearchException(e));
+				} catch (RuntimeException e) {
+					cancelTimer(timer);
+					throw checkDeadline(request, e);
+				}
+			});
+		} else {
+			result = CompletableFuture.supplyAsync(() -> callApi(request, expected), getExecutor());
+		}
+		final CompletableFuture<InputStream> future = result;
+		future.whenComplete((content, error) -> {
+			if (future.isCancelled()) {
+				request.abort();
+			}
+		});
+		return future;
+	}
 
 	/**
-	 * Read response.
+	 * Executes the request, hedging it as the hedging policy allows. A
+	 * hedged request is executed asynchronously and waited for.
 	 * 
-	 * @param clazz the clazz
-	 * @param is the is
+	 * @param request the request
+	 * @param expected the expected
 	 * 
-	 * @return the t
+	 * @return the input stream
 	 */
-	protected <T> T readResponse(Class<T> clazz, InputStream is) {
-	    try {
-	        return unmarshallObject(clazz, is);
-	    } finally {
-	        closeStream(is);
-	    }
+	protected InputStream callApiHedged(HttpRequest request, int expected) {
+		if (hedgingPolicy == null || !GET_METHOD.equals(request.getMethod())) {
+			return callApi(request, expected);
+		}
+		CompletableFuture<InputStream> future = callApiHedgedAsync(request, expected);
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new GoogleSearchException(e);
+		} catch (ExecutionException e) {
+			throw toGoogleSearchException(e.getCause());
+		}
 	}
-	
-    /**
-	 * Encode url.
+
+	/**
+	 * Executes a GET request without blocking the calling thread and, if it
+	 * has not been answered once the hedging policy says it has waited too
+	 * long, sends a duplicate of it. The first successful response wins and
+	 * the other request is aborted. The hedge needs the permission of the
+	 * circuit breaker of the endpoint and a permit of the rate limiter right
+	 * away, or it is not sent, and its outcome is recorded in the circuit
+	 * breaker as that of any other request.
 	 * 
-	 * @param original
-	 *            the original
+	 * @param request the request
+	 * @param expected the expected
 	 * 
-	 * @return the string
+	 * @return the future input stream
 	 */
-    private static String encodeUrl(String original) {
-    	try {
-			return URLEncoder.encode(original, ApplicationConstants.CONTENT_ENCODING);
-		} catch (UnsupportedEncodingException e) {
-			// should never be here..
-			return original;
+	protected CompletableFuture<InputStream> callApiHedgedAsync(final HttpRequest request, final int expected) {
+		final HedgingPolicy policy = hedgingPolicy;
+		if (policy == null || !GET_METHOD.equals(request.getMethod())) {
+			return callApiAsync(request, expected);
 		}
-    }
-	
-    /**
-     * Unmarshall object.
-     * 
-     * @param clazz the clazz
-     * @param xmlContent the xml content
+		// the transport may rewrite the url of the request, the hedge is guarded as the call was.
+		final String url = request.getUrl();
+		policy.recordRequest();
+		final HedgedExchange exchange = new HedgedExchange(policy, url);
+		exchange.attempt(request, expected, false, null);
+		long delay = policy.getDelay(url);
+		CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, getExecutor()).execute(() -> {
+			if (exchange.isDone() || request.isAborted() || !policy.tryAcquire()) {
+				return;
+			}
+			final CircuitBreaker breaker;
+			try {
+				breaker = acquireCircuit(url);
+			} catch (CircuitBreakerOpenException e) {
+				policy.recordCircuitOpen();
+				return;
+			}
+			final RateLimiter limiter = rateLimiter;
+			if (limiter != null && !limiter.tryAcquire(url, getRateLimitPermits(request))) {
+				releaseCircuit(breaker);
+				policy.recordRateLimited();
+				return;
+			}
+			LOG.log(Level.FINE, "Hedging " + url + " after "
+					+ TimeUnit.NANOSECONDS.toMillis(delay) + " ms.");
+			exchange.attempt(request.duplicate(), expected, true, breaker);
+		});
+		return exchange.getResult();
+	}
+
+	/**
+	 * Executes the request without blocking the calling thread and reads the
+	 * response on the executor. Cancelling the returned future aborts the
+	 * request.
+	 * 
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content, the content is closed afterwards
+	 * 
+	 * @return the future result
+	 */
+	protected <V> CompletableFuture<V> callApiAsync(final HttpRequest request, int expected,
+			final Function<InputStream, V> reader) {
+		final CompletableFuture<InputStream> exchange = callApiHedgedAsync(request, expected);
+		final CompletableFuture<V> result = exchange.thenApplyAsync(content -> {
+			try {
+				return reader.apply(content);
+			} catch (RuntimeException e) {
+				throw checkDeadline(request, e);
+			} finally {
+				closeStream(content);
+			}
+		}, getExecutor());
+		result.whenComplete((value, error) -> {
+			if (result.isCancelled()) {
+				exchange.cancel(true);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Executes the request and reads the response, the content is closed
+	 * afterwards.
+	 * 
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the result
+	 */
+	protected <V> V callApi(HttpRequest request, int expected, Function<InputStream, V> reader) {
+		InputStream content = callApiHedged(request, expected);
+		try {
+			return reader.apply(content);
+		} catch (RuntimeException e) {
+			throw checkDeadline(request, e);
+		} finally {
+			closeStream(content);
+		}
+	}
+
+	/**
+	 * Returns the cached result of the request, or executes it and reads the
+	 * response.
+	 * 
+	 * @param resultKind what the reader makes of the response, e.g. list
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the result
+	 */
+	@SuppressWarnings("unchecked")
+	protected <V> V callApiCached(String resultKind, HttpRequest request, int expected, Function<InputStream, V> reader) {
+		if (cache != null) {
+			Object cached = cache.getIfPresent(ResponseCache.canonicalKey(resultKind, request));
+			if (cached != null) {
+				return (V) cached;
+			}
+		}
+		return callApiCoalesced(resultKind, request, expected, reader);
+	}
+
+	/**
+	 * Asynchronous version of
+	 * {@link #callApiCached(String, HttpRequest, int, Function)}, a cached
+	 * result is returned as a completed future.
+	 * 
+	 * @param resultKind what the reader makes of the response, e.g. list
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the future result
+	 */
+	@SuppressWarnings("unchecked")
+	protected <V> CompletableFuture<V> callApiCachedAsync(String resultKind, HttpRequest request, int expected,
+			Function<InputStream, V> reader) {
+		if (cache != null) {
+			Object cached = cache.getIfPresent(ResponseCache.canonicalKey(resultKind, request));
+			if (cached != null) {
+				return CompletableFuture.completedFuture((V) cached);
+			}
+		}
+		return callApiCoalescedAsync(resultKind, request, expected, reader);
+	}
+
+	/**
+	 * Executes the request and reads the response, unless an identical
+	 * request is already in flight in which case its result is shared. A
+	 * shared list is read-only, so that no caller can change what the others
+	 * get.
+	 * 
+	 * @param resultKind what the reader makes of the response, e.g. list
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the result
+	 */
+	protected <V> V callApiCoalesced(final String resultKind, final HttpRequest request, final int expected,
+			final Function<InputStream, V> reader) {
+		String key = getCoalescingKey(resultKind, request);
+		if (key == null) {
+			return loadResponse(resultKind, request, expected, reader);
+		}
+		try {
+			return coalescer.execute(key, () -> loadResponse(resultKind, request, expected, readOnlyReader(reader)));
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new GoogleSearchException(e);
+		}
+	}
+
+	/**
+	 * Asynchronous version of
+	 * {@link #callApiCoalesced(String, HttpRequest, int, Function)}. The
+	 * shared request is aborted once all the callers have cancelled.
+	 * 
+	 * @param resultKind what the reader makes of the response, e.g. list
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the future result
+	 */
+	protected <V> CompletableFuture<V> callApiCoalescedAsync(final String resultKind, final HttpRequest request,
+			final int expected, final Function<InputStream, V> reader) {
+		String key = getCoalescingKey(resultKind, request);
+		if (key == null) {
+			return loadResponseAsync(resultKind, request, expected, reader);
+		}
+		return coalescer.executeAsync(key, () -> loadResponseAsync(resultKind, request, expected, readOnlyReader(reader)));
+	}
+
+	/**
+	 * Executes the request, reads the response and caches the result. A
+	 * cached list is read-only, every hit returns the same one.
+	 * 
+	 * @param resultKind what the reader makes of the response, e.g. list
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the result
+	 */
+	protected <V> V loadResponse(String resultKind, HttpRequest request, int expected, Function<InputStream, V> reader) {
+		final ResponseCache responseCache = cache;
+		if (responseCache == null) {
+			return callApiWithRetry(request, expected, reader);
+		}
+		long start = System.nanoTime();
+		V stored = loadFromDisk(responseCache, resultKind, request, reader, start);
+		if (stored != null) {
+			return stored;
+		}
+		try {
+			V value = callApiWithRetry(request, expected, cachingReader(responseCache, resultKind, request, reader));
+			responseCache.recordLoadSuccess(System.nanoTime() - start);
+			return value;
+		} catch (RuntimeException e) {
+			responseCache.recordLoadFailure(System.nanoTime() - start);
+			V stale = getStaleResponse(responseCache, resultKind, request, e);
+			if (stale == null) {
+				throw e;
+			}
+			return stale;
+		}
+	}
+
+	/**
+	 * Asynchronous version of
+	 * {@link #loadResponse(String, HttpRequest, int, Function)}.
+	 * 
+	 * @param resultKind what the reader makes of the response, e.g. list
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the future result
+	 */
+	protected <V> CompletableFuture<V> loadResponseAsync(String resultKind, HttpRequest request, int expected,
+			Function<InputStream, V> reader) {
+		final ResponseCache responseCache = cache;
+		if (responseCache == null) {
+			return callApiWithRetryAsync(request, expected, reader);
+		}
+		final long start = System.nanoTime();
+		// a local read, not worth a hop to another thread.
+		V stored = loadFromDisk(responseCache, resultKind, request, reader, start);
+		if (stored != null) {
+			return CompletableFuture.completedFuture(stored);
+		}
+		final CompletableFuture<V> call = callApiWithRetryAsync(request, expected,
+				cachingReader(responseCache, resultKind, request, reader));
+		final CompletableFuture<V> future = new CompletableFuture<V>();
+		future.whenComplete((value, error) -> {
+			if (future.isCancelled()) {
+				call.cancel(true);
+			}
+		});
+		call.whenComplete((value, error) -> {
+			if (error == null) {
+				responseCache.recordLoadSuccess(System.nanoTime() - start);
+				future.complete(value);
+				return;
+			}
+			responseCache.recordLoadFailure(System.nanoTime() - start);
+			V stale = getStaleResponse(responseCache, resultKind, request, error);
+			if (stale == null) {
+				future.completeExceptionally(error);
+			} else {
+				future.complete(stale);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Executes the request and reads the response, retrying the transient
+	 * failures as the retry policy allows. The reader is part of the attempt
+	 * so that an error reported in the body is retried too.
+	 * 
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the result
+	 */
+	protected <V> V callApiWithRetry(HttpRequest request, int expected, Function<InputStream, V> reader) {
+		final RetryPolicy policy = retryPolicy;
+		if (policy == null) {
+			return callApiThrottled(request, expected, reader);
+		}
+		policy.recordRequest();
+		long delay = 0;
+		for (int attempt = 1;; attempt++) {
+			try {
+				return callApiThrottled(request, expected, reader);
+			} catch (RuntimeException e) {
+				delay = request.isAborted() ? -1 : policy.nextDelay(e, attempt, delay);
+				if (delay < 0) {
+					throw e;
+				}
+				if (!hasTimeFor(request, delay)) {
+					throw deadlineExceeded(request, "before the retry", e);
+				}
+				LOG.log(Level.FINE, "Retrying " + request.getUrl() + " in " + delay + " ms.", e);
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Asynchronous version of
+	 * {@link #callApiWithRetry(HttpRequest, int, Function)}, the retries are
+	 * scheduled instead of waited for. Cancelling the returned future aborts
+	 * the attempt in progress and the ones to come.
+	 * 
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the future result
+	 */
+	protected <V> CompletableFuture<V> callApiWithRetryAsync(HttpRequest request, int expected,
+			Function<InputStream, V> reader) {
+		final RetryPolicy policy = retryPolicy;
+		if (policy == null) {
+			return callApiThrottledAsync(request, expected, reader);
+		}
+		policy.recordRequest();
+		CompletableFuture<V> result = new CompletableFuture<V>();
+		attemptAsync(policy, request, expected, reader, result, 1, 0);
+		return result;
+	}
+
+	/**
+	 * Makes an attempt of an asynchronous call and schedules the next one if
+	 * it fails.
+	 * 
+	 * @param policy the policy
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader the reader
+	 * @param result the result of the call
+	 * @param attempt the attempt, starting at 1
+	 * @param delay the delay before this attempt
+	 */
+	private <V> void attemptAsync(final RetryPolicy policy, final HttpRequest request, final int expected,
+			final Function<InputStream, V> reader, final CompletableFuture<V> result, final int attempt, final long delay) {
+		final CompletableFuture<V> call = callApiThrottledAsync(request, expected, reader);
+		result.whenComplete((value, error) -> {
+			if (result.isCancelled()) {
+				call.cancel(true);
+			}
+		});
+		call.whenComplete((value, error) -> {
+			if (error == null) {
+				result.complete(value);
+				return;
+			}
+			long nextDelay = (result.isDone() || request.isAborted()) ? -1 : policy.nextDelay(error, attempt, delay);
+			if (nextDelay < 0) {
+				result.completeExceptionally(toGoogleSearchException(error));
+				return;
+			}
+			if (!hasTimeFor(request, nextDelay)) {
+				result.completeExceptionally(deadlineExceeded(request, "before the retry", toGoogleSearchException(error)));
+				return;
+			}
+			LOG.log(Level.FINE, "Retrying " + request.getUrl() + " in " + nextDelay + " ms.", error);
+			CompletableFuture.delayedExecutor(nextDelay, TimeUnit.MILLISECONDS, getExecutor()).execute(() -> {
+				if (!result.isDone()) {
+					attemptAsync(policy, request, expected, reader, result, attempt + 1, nextDelay);
+				}
+			});
+		});
+	}
+
+	/**
+	 * Executes the request once the circuit breaker of its endpoint and the
+	 * rate limiter let it through, waiting for the latter if need be, and
+	 * reports the outcome back to both. An open circuit fails the request
+	 * before it takes any permit.
+	 * 
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the result
+	 */
+	protected <V> V callApiThrottled(HttpRequest request, int expected, Function<InputStream, V> reader) {
+		final CircuitBreaker breaker = acquireCircuit(request.getUrl());
+		final RateLimiter limiter = rateLimiter;
+		if (limiter == null) {
+			return callApiGuarded(breaker, request, expected, reader);
+		}
+		long wait;
+		try {
+			wait = reservePermits(limiter, request);
+			if (wait > 0) {
+				TimeUnit.NANOSECONDS.sleep(wait);
+			}
+		} catch (InterruptedException e) {
+			releaseCircuit(breaker);
+			Thread.currentThread().interrupt();
+			throw new GoogleSearchException(e);
+		} catch (RuntimeException e) {
+			releaseCircuit(breaker);
+			throw e;
+		}
+		try {
+			V value = callApiGuarded(breaker, request, expected, reader);
+			limiter.onSuccess(request.getUrl());
+			return value;
+		} catch (RuntimeException e) {
+			if (isOverLimit(e)) {
+				limiter.onOverLimit(request.getUrl());
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Asynchronous version of
+	 * {@link #callApiThrottled(HttpRequest, int, Function)}, a request that
+	 * has to wait for the rate limiter is scheduled instead.
+	 * 
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the future result
+	 */
+	protected <V> CompletableFuture<V> callApiThrottledAsync(final HttpRequest request, final int expected,
+			final Function<InputStream, V> reader) {
+		final CompletableFuture<V> future;
+		final CircuitBreaker breaker;
+		try {
+			breaker = acquireCircuit(request.getUrl());
+		} catch (RuntimeException e) {
+			future = new CompletableFuture<V>();
+			future.completeExceptionally(e);
+			return future;
+		}
+		final RateLimiter limiter = rateLimiter;
+		if (limiter == null) {
+			return callApiGuardedAsync(breaker, request, expected, reader);
+		}
+		long wait;
+		try {
+			wait = reservePermits(limiter, request);
+		} catch (RuntimeException e) {
+			releaseCircuit(breaker);
+			future = new CompletableFuture<V>();
+			future.completeExceptionally(e);
+			return future;
+		}
+		if (wait > 0) {
+			future = new CompletableFuture<V>();
+			CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, getExecutor()).execute(() -> {
+				if (future.isDone()) {
+					releaseCircuit(breaker);
+					return;
+				}
+				final CompletableFuture<V> call = callApiGuardedAsync(breaker, request, expected, reader);
+				future.whenComplete((value, error) -> {
+					if (future.isCancelled()) {
+						call.cancel(true);
+					}
+				});
+				call.whenComplete((value, error) -> {
+					if (error == null) {
+						future.complete(value);
+					} else {
+						future.completeExceptionally(error);
+					}
+				});
+			});
+		} else {
+			future = callApiGuardedAsync(breaker, request, expected, reader);
+		}
+		return completeAfter(future, (value, error) -> {
+			if (error == null) {
+				limiter.onSuccess(request.getUrl());
+			} else if (isOverLimit(error)) {
+				limiter.onOverLimit(request.getUrl());
+			}
+		});
+	}
+
+	/**
+	 * Executes the request and records its outcome and duration in the
+	 * circuit breaker of its endpoint.
+	 * 
+	 * @param breaker the circuit breaker that let the request through, null if none
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the result
+	 */
+	private <V> V callApiGuarded(CircuitBreaker breaker, HttpRequest request, int expected,
+			Function<InputStream, V> reader) {
+		if (breaker == null) {
+			return callApi(request, expected, reader);
+		}
+		long start = System.nanoTime();
+		try {
+			V value = callApi(request, expected, reader);
+			breaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return value;
+		} catch (RuntimeException e) {
+			recordOutcome(breaker, request, e, System.nanoTime() - start);
+			throw e;
+		}
+	}
+
+	/**
+	 * Asynchronous version of
+	 * {@link #callApiGuarded(CircuitBreaker, HttpRequest, int, Function)}.
+	 * 
+	 * @param breaker the circuit breaker that let the request through, null if none
+	 * @param request the request
+	 * @param expected the expected
+	 * @param reader reads the response content
+	 * 
+	 * @return the future result
+	 */
+	private <V> CompletableFuture<V> callApiGuardedAsync(final CircuitBreaker breaker, final HttpRequest request,
+			int expected, Function<InputStream, V> reader) {
+		if (breaker == null) {
+			return callApiAsync(request, expected, reader);
+		}
+		final long start = System.nanoTime();
+		return completeAfter(callApiAsync(request, expected, reader),
+				(value, error) -> recordOutcome(breaker, request, error, System.nanoTime() - start));
+	}
+
+	/**
+	 * Runs an action on the outcome of a call before passing it on, so that
+	 * whoever waits for the call sees the effects of the action. Cancelling
+	 * the returned future cancels the call.
+	 * 
+	 * @param call the call
+	 * @param action the action
+	 * 
+	 * @return the future result
+	 */
+	private static <V> CompletableFuture<V> completeAfter(final CompletableFuture<V> call,
+			final BiConsumer<? super V, ? super Throwable> action) {
+		final CompletableFuture<V> result = new CompletableFuture<V>();
+		result.whenComplete((value, error) -> {
+			if (result.isCancelled()) {
+				call.cancel(true);
+			}
+		});
+		call.whenComplete((value, error) -> {
+			try {
+				action.accept(value, error);
+			} finally {
+				if (error == null) {
+					result.complete(value);
+				} else {
+					result.completeExceptionally(error);
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Gets the permission of the circuit breaker of the endpoint of an url.
+	 * 
+	 * @param url the url of the request
+	 * 
+	 * @return the circuit breaker, null if calls are not guarded
+	 * 
+	 * @throws CircuitBreakerOpenException if the circuit is open
+	 */
+	private CircuitBreaker acquireCircuit(String url) {
+		final CircuitBreakerRegistry registry = circuitBreakerRegistry;
+		if (registry == null) {
+			return null;
+		}
+		CircuitBreaker breaker = registry.getCircuitBreaker(url);
+		if (!breaker.tryAcquirePermission()) {
+			throw new CircuitBreakerOpenException("Circuit breaker of " + breaker.getEndpoint() + " is "
+					+ breaker.getState() + ": " + url);
+		}
+		return breaker;
+	}
+
+	/**
+	 * Gives back a permission of a circuit breaker unused.
+	 * 
+	 * @param breaker the breaker, null if none
+	 */
+	private static void releaseCircuit(CircuitBreaker breaker) {
+		if (breaker != null) {
+			breaker.release();
+		}
+	}
+
+	/**
+	 * Records the outcome of a call in the circuit breaker of its endpoint. A
+	 * call that was cancelled tells nothing about the endpoint, and one that
+	 * failed without it being at fault counts as a success.
+	 * 
+	 * @param breaker the breaker
+	 * @param request the request
+	 * @param error the error, null if the call succeeded
+	 * @param nanos the duration of the call
+	 */
+	private void recordOutcome(CircuitBreaker breaker, HttpRequest request, Throwable error, long nanos) {
+		if (error == null) {
+			breaker.onSuccess(nanos, TimeUnit.NANOSECONDS);
+		} else if (request.isAborted() || isCancellation(error)) {
+			breaker.release();
+		} else if (isCircuitFailure(error)) {
+			breaker.onError(nanos, TimeUnit.NANOSECONDS);
+		} else {
+			breaker.onSuccess(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Checks if a failure is the endpoint's fault and counts against its
+	 * circuit breaker: an I/O error or a server error.
+	 * 
+	 * @param error the error
+	 * 
+	 * @return true, if is circuit failure
+	 */
+	protected boolean isCircuitFailure(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof IOException) {
+				return true;
+			}
+			if (cause instanceof ResponseStatusException) {
+				int statusCode = ((ResponseStatusException) cause).getStatusCode();
+				return statusCode >= HttpURLConnection.HTTP_INTERNAL_ERROR
+						|| statusCode == HttpURLConnection.HTTP_CLIENT_TIMEOUT;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if a failure is a cancellation.
+	 * 
+	 * @param error the error
+	 * 
+	 * @return true, if is cancellation
+	 */
+	private static boolean isCancellation(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof CancellationException || cause instanceof InterruptedException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the cached result of a request, even if it has expired, when the
+	 * request failed because the circuit of its endpoint is open.
+	 * 
+	 * @param responseCache the response cache
+	 * @param resultKind the result kind
+	 * @param request the request
+	 * @param error the error
+	 * 
+	 * @return the stale result, null if none
+	 */
+	@SuppressWarnings("unchecked")
+	private <V> V getStaleResponse(ResponseCache responseCache, String resultKind, HttpRequest request,
+			Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof CircuitBreakerOpenException) {
+				V stale = (V) responseCache.getStale(ResponseCache.canonicalKey(resultKind, request));
+				if (stale != null) {
+					LOG.log(Level.FINE, "Serving a stale response, " + cause.getMessage());
+				}
+				return stale;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Takes the permits of a request from the rate limiter.
+	 * 
+	 * @param limiter the limiter
+	 * @param request the request
+	 * 
+	 * @return the nanos to wait before sending the request
+	 */
+	private long reservePermits(RateLimiter limiter, HttpRequest request) {
+		long maximumWait = ApplicationConstants.RATE_LIMIT_MAXIMUM_WAIT;
+		Deadline deadline = request.getDeadline();
+		boolean bounded = deadline != null && deadline.timeRemaining(TimeUnit.MILLISECONDS) < maximumWait;
+		if (bounded) {
+			maximumWait = deadline.timeRemaining(TimeUnit.MILLISECONDS);
+		}
+		long wait = limiter.reserve(request.getUrl(), getRateLimitPermits(request), maximumWait, TimeUnit.MILLISECONDS);
+		if (wait < 0 && bounded) {
+			throw deadlineExceeded(request, "waiting for the rate limiter", null);
+		}
+		if (wait < 0) {
+			throw new RateLimitExceededException("Rate limit of the application key exceeded: " + request.getUrl());
+		}
+		return wait;
+	}
+
+	/**
+	 * Gets the permits a request costs against the rate limit of its
+	 * endpoint.
+	 * 
+	 * @param request the request
+	 * 
+	 * @return the permits
+	 */
+	protected int getRateLimitPermits(HttpRequest request) {
+		return 1;
+	}
+
+	/**
+	 * Checks if a failure means that the quota of the application key is
+	 * exceeded.
+	 * 
+	 * @param error the error
+	 * 
+	 * @return true, if is over limit
+	 */
+	protected boolean isOverLimit(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ResponseStatusException) {
+				return ((ResponseStatusException) cause).getStatusCode() == TOO_MANY_REQUESTS;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the result from the payload kept by the disk cache, if any, and
+	 * promotes it to the memory cache.
+	 * 
+	 * @param responseCache the response cache
+	 * @param resultKind the result kind
+	 * @param request the request
+	 * @param reader the reader
+	 * @param start the start of the load in nanos
+	 * 
+	 * @return the result, null if the disk cache does not have it
+	 */
+	private <V> V loadFromDisk(ResponseCache responseCache, String resultKind, HttpRequest request,
+			Function<InputStream, V> reader, long start) {
+		DiskResponseCache diskCache = responseCache.getDiskCache();
+		if (diskCache == null) {
+			return null;
+		}
+		String key = ResponseCache.canonicalKey(resultKind, request);
+		DiskResponseCache.Payload payload = diskCache.get(key);
+		if (payload == null) {
+			return null;
+		}
+		V value;
+		try {
+			value = readOnly(reader.apply(new ByteArrayInputStream(payload.getContent())));
+		} catch (RuntimeException e) {
+			// written by an incompatible version, fetch it again.
+			diskCache.invalidate(key);
+			return null;
+		}
+		if (value != null) {
+			long timeToLive = Math.min(responseCache.getTimeToLive(request.getUrl()),
+					payload.getExpiresAt() - System.currentTimeMillis());
+			responseCache.put(key, value, payload.getContent().length, timeToLive);
+			responseCache.recordLoadSuccess(System.nanoTime() - start);
+		}
+		return value;
+	}
+
+	/**
+	 * Wraps the reader so that the result it reads is cached, weighted by the
+	 * size of the payload. With a disk cache the payload is buffered so that
+	 * it can be written there too.
+	 * 
+	 * @param responseCache the response cache
+	 * @param resultKind the result kind
+	 * @param request the request
+	 * @param reader the reader
+	 * 
+	 * @return the caching reader
+	 */
+	private <V> Function<InputStream, V> cachingReader(final ResponseCache responseCache, String resultKind,
+			HttpRequest request, final Function<InputStream, V> reader) {
+		final String key = ResponseCache.canonicalKey(resultKind, request);
+		final long timeToLive = responseCache.getTimeToLive(request.getUrl());
+		final DiskResponseCache diskCache = responseCache.getDiskCache();
+		if (diskCache != null) {
+			return content -> {
+				byte[] payload = readFully(content);
+				V value = readOnly(reader.apply(new ByteArrayInputStream(payload)));
+				if (value != null) {
+					responseCache.put(key, value, payload.length, timeToLive);
+					diskCache.put(key, payload, timeToLive);
+				}
+				return value;
+			};
+		}
+		return content -> {
+			CountingInputStream counter = new CountingInputStream(content);
+			V value = readOnly(reader.apply(counter));
+			if (value != null) {
+				responseCache.put(key, value, (int) Math.min(Integer.MAX_VALUE, counter.count), timeToLive);
+			}
+			return value;
+		};
+	}
+
+	/**
+	 * Wraps the reader so that the list it reads is read-only.
+	 * 
+	 * @param reader the reader
+	 * 
+	 * @return the read-only reader
+	 */
+	private static <V> Function<InputStream, V> readOnlyReader(final Function<InputStream, V> reader) {
+		return content -> readOnly(reader.apply(content));
+	}
+
+	/**
+	 * Returns a read-only view of a list result, other results as they are.
+	 * 
+	 * @param value the value
+	 * 
+	 * @return the read-only value
+	 */
+	@SuppressWarnings("unchecked")
+	private static <V> V readOnly(V value) {
+		if (value instanceof PagedList) {
+			return (V) UnmodifiablePagedList.of((PagedList<?>) value);
+		}
+		return value;
+	}
+
+	/**
+	 * Reads a stream to the end.
+	 * 
+	 * @param content the content
+	 * 
+	 * @return the bytes
+	 */
+	private static byte[] readFully(InputStream content) {
+		ResourcePool<byte[]> buffers = GzipDecoder.getSharedInstance().getBufferPool();
+		byte[] buffer = buffers.acquire();
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(buffer.length);
+			int read;
+			while ((read = content.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		} catch (IOException e) {
+			throw new GoogleSearchException(e);
+		} finally {
+			buffers.release(buffer);
+		}
+	}
+
+	/**
+	 * Arms the deadline of a request, if it has one, to abort it once the
+	 * deadline passes.
+	 * 
+	 * @param request the request
+	 * 
+	 * @return the timer, null if the request has no deadline
+	 * 
+	 * @throws DeadlineExceededException if the deadline has already passed
+	 */
+	private static ScheduledFuture<?> startDeadline(final HttpRequest request) {
+		Deadline deadline = request.getDeadline();
+		if (deadline == null) {
+			return null;
+		}
+		if (deadline.isExpired()) {
+			throw deadlineExceeded(request, "before the request was sent", null);
+		}
+		return deadline.whenExpired(() -> request.abort());
+	}
+
+	/**
+	 * Disarms a deadline.
+	 * 
+	 * @param timer the timer, null if none
+	 */
+	private static void cancelTimer(ScheduledFuture<?> timer) {
+		if (timer != null) {
+			timer.cancel(false);
+		}
+	}
+
+	/**
+	 * Wraps the content so that the deadline stays armed while it is read,
+	 * parsing included, and is disarmed once it is closed.
+	 * 
+	 * @param content the content
+	 * @param timer the timer, null if none
+	 * 
+	 * @return the input stream
+	 */
+	private static InputStream closingTimer(InputStream content, final ScheduledFuture<?> timer) {
+		if (timer == null) {
+			return content;
+		}
+		return new FilterInputStream(content) {
+
+			@Override
+			public void close() throws IOException {
+				timer.cancel(false);
+				super.close();
+			}
+		};
+	}
+
+	/**
+	 * Checks if there is time left for a wait before the deadline of a
+	 * request.
+	 * 
+	 * @param request the request
+	 * @param millis the wait in millis
+	 * 
+	 * @return true, if there is
+	 */
+	private static boolean hasTimeFor(HttpRequest request, long millis) {
+		Deadline deadline = request.getDeadline();
+		return deadline == null || deadline.timeRemaining(TimeUnit.MILLISECONDS) > millis;
+	}
+
+	/**
+	 * Replaces the failure of a request by a {@link DeadlineExceededException}
+	 * if its deadline has passed, the failure most likely being the abort.
+	 * 
+	 * @param request the request
+	 * @param error the error
+	 * 
+	 * @return the exception to throw
+	 */
+	private static RuntimeException checkDeadline(HttpRequest request, RuntimeException error) {
+		Deadline deadline = request.getDeadline();
+		if (deadline == null || !deadline.isExpired() || error instanceof DeadlineExceededException) {
+			return error;
+		}
+		return deadlineExceeded(request, null, error);
+	}
+
+	/**
+	 * Creates the exception of a request out of time.
+	 * 
+	 * @param request the request
+	 * @param phase where the time ran out, null for during the exchange
+	 * @param cause the cause, null for none
+	 * 
+	 * @return the deadline exceeded exception
+	 */
+	private static DeadlineExceededException deadlineExceeded(HttpRequest request, String phase, Throwable cause) {
+		StringBuilder message = new StringBuilder("Deadline of ");
+		message.append(request.getDeadline().getTimeout(TimeUnit.MILLISECONDS)).append(" ms exceeded");
+		if (phase != null) {
+			message.append(' ').append(phase);
+		}
+		message.append(": ").append(request.getUrl());
+		return new DeadlineExceededException(message.toString(), cause);
+	}
+
+	/**
+	 * Gets the key identifying the requests that may share a call. Only
+	 * requests fully described by their url are coalesced.
+	 * 
+	 * @param resultKind the result kind
+	 * @param request the request
+	 * 
+	 * @return the coalescing key, null if the request must not be coalesced
+	 */
+	protected String getCoalescingKey(String resultKind, HttpRequest request) {
+		if (coalescer == null || !GET_METHOD.equals(request.getMethod())) {
+			return null;
+		}
+		return resultKind + " " + request.getUrl();
+	}
+
+	/**
+	 * Unwraps the failure of an asynchronous call.
+	 * 
+	 * @param error the error
+	 * 
+	 * @return the google search exception
+	 */
+	protected static GoogleSearchException toGoogleSearchException(Throwable error) {
+		Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+		return (cause instanceof GoogleSearchException) ? (GoogleSearchException) cause : new GoogleSearchException(cause);
+	}
+
+	/**
+	 * Checks the status code and returns the decoded content of the response.
+	 * 
+	 * @param response the response
+	 * @param expected the expected
+	 * 
+	 * @return the input stream
+	 * 
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	protected InputStream getResponseContent(HttpResponse response, int expected) throws IOException {
+        if (response.getStatusCode() != expected) {
+            throw new ResponseStatusException(response.getStatusCode(), convertStreamToString(response.getContent()));
+        }
+        InputStream content = response.getContent();
+        try {
+            return getWrappedInputStream(content, GZIP_ENCODING.equalsIgnoreCase(response.getContentEncoding()));
+        } catch (IOException e) {
+            closeStream(content);
+            throw e;
+        }
+	}
+
+	/**
+	 * Close stream.
+	 * 
+	 * @param is the is
+	 */
+	protected void closeStream(InputStream is) {
+	    try {
+	    	if (is != null) {
+		        is.close();
+	    	}
+	    } catch (IOException e) {
+	    	LOG.log(Level.SEVERE, "An error occurred while closing stream.", e);	
+	    }
+	}
+
+	/**
+	 * Close connection.
+	 * 
+	 * @param connection the connection
+	 */
+	protected void closeConnection(HttpURLConnection connection) {
+	    try {
+	    	if (connection != null) {
+	    		connection.disconnect();
+	    	}
+	    } catch (Exception e) {
+	    	LOG.log(Level.SEVERE, "An error occurred while disconnecting connection.", e);	
+	    }
+	}
+
+	/**
+	 * Gets the wrapped input stream. A gzip stream is decoded with an
+	 * inflater and a buffer of the shared pools, given back when it is
+	 * closed. The readers read in bulk and the transports buffer the
+	 * connection, so the content is not buffered once more.
+	 * 
+	 * @param is the is
+	 * @param gzip the gzip
+	 * 
+	 * @return the wrapped input stream
+	 * 
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	protected InputStream getWrappedInputStream(InputStream is, boolean gzip)
+			throws IOException {
+	    if (gzip) {
+	        return GzipDecoder.getSharedInstance().decode(is);
+	    } else {
+	        return is;
+	    }
+	}
+
+	/**
+	 * Read response.
+	 * 
+	 * @param clazz the clazz
+	 * @param is the is
+	 * 
+	 * @return the t
+	 */
+	protected <T> T readResponse(Class<T> clazz, InputStream is) {
+	    try {
+	        return unmarshallObject(clazz, is);
+	    } finally {
+	        closeStream(is);
+	    }
+	}
+	
+    /**
+     * Gets the bytes of the content in the client encoding.
+     * 
+     * @param content the content
+     * 
+     * @return the bytes
+     */
+    private static byte[] getBytes(String content) {
+    	try {
+			return content.getBytes(ApplicationConstants.CONTENT_ENCODING);
+		} catch (UnsupportedEncodingException e) {
+			// should never be here..
+			return content.getBytes();
+		}
+    }
+	
+    /**
+	 * Encode url.
+	 * 
+	 * @param original
+	 *            the original
+	 * 
+	 * @return the string
+	 */
+    private static String encodeUrl(String original) {
+    	try {
+			return URLEncoder.encode(original, ApplicationConstants.CONTENT_ENCODING);
+		} catch (UnsupportedEncodingException e) {
+			// should never be here..
+			return original;
+		}
+    }
+	
+    /**
+     * Unmarshall object.
+     * 
+     * @param clazz the clazz
+     * @param xmlContent the xml content
      * 
      * @return the t
      */
@@ -497,4 +1925,250 @@ public abstract class GoogleSearchApiGateway {
      * @return the string
      */
     protected abstract String marshallObject(Object element);
+
+	/**
+	 * The Class DefaultExecutorHolder.
+	 */
+	private static class DefaultExecutorHolder {
+
+		/** The Constant MODE, the execution mode of the gateways without an executor. */
+		private static final ExecutionMode MODE = (ExecutionMode.fromValue(ApplicationConstants.EXECUTION_MODE) == null)
+				? ExecutionMode.PLATFORM_THREADS : ExecutionMode.fromValue(ApplicationConstants.EXECUTION_MODE);
+
+		/** The Constant INSTANCE, daemon threads never keep the VM alive. */
+		private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(new ThreadFactory() {
+
+			/** The thread count. */
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "google-search-async-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * The Class VirtualExecutorHolder.
+	 */
+	private static class VirtualExecutorHolder {
+
+		/** The Constant INSTANCE. */
+		private static final ExecutorService INSTANCE = newVirtualThreadExecutor();
+
+		/**
+		 * Creates the virtual thread per task executor, looked up reflectively
+		 * so that the library still runs on a VM without virtual threads.
+		 * 
+		 * @return the executor service
+		 */
+		private static ExecutorService newVirtualThreadExecutor() {
+			try {
+				Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (ExecutorService) factory.invoke(null);
+			} catch (Exception e) {
+				Logger.getLogger(GoogleSearchApiGateway.class.getCanonicalName()).log(Level.WARNING,
+						"Virtual threads are not available, falling back to platform threads.");
+				return DefaultExecutorHolder.INSTANCE;
+			}
+		}
+	}
+
+	/**
+	 * The Class HedgedExchange.
+	 * 
+	 * A request and its hedge racing for the first successful response.
+	 */
+	private class HedgedExchange {
+
+		/** The policy. */
+		private final HedgingPolicy policy;
+
+		/** The url. */
+		private final String url;
+
+		/** The result. */
+		private final CompletableFuture<InputStream> result = new CompletableFuture<InputStream>();
+
+		/** The attempts, guarded by this. */
+		private final List<CompletableFuture<InputStream>> attempts = new ArrayList<CompletableFuture<InputStream>>(2);
+
+		/** The attempts still running, guarded by this. */
+		private int pending;
+
+		/** The first failure, guarded by this. */
+		private Throwable failure;
+
+		/** Whether an attempt has answered, guarded by this. */
+		private boolean answered;
+
+		/**
+		 * Instantiates a new hedged exchange.
+		 * 
+		 * @param policy the policy
+		 * @param url the url
+		 */
+		HedgedExchange(HedgingPolicy policy, String url) {
+			this.policy = policy;
+			this.url = url;
+			result.whenComplete((content, error) -> {
+				if (result.isCancelled()) {
+					cancelAttempts(null);
+				}
+			});
+		}
+
+		/**
+		 * Gets the result.
+		 * 
+		 * @return the result
+		 */
+		CompletableFuture<InputStream> getResult() {
+			return result;
+		}
+
+		/**
+		 * Checks if the race is over.
+		 * 
+		 * @return true, if is done
+		 */
+		boolean isDone() {
+			return result.isDone();
+		}
+
+		/**
+		 * Starts an attempt, unless the race is already over. The original
+		 * request has its outcome recorded by whoever guards the exchange, the
+		 * hedge records its own in the circuit breaker that let it through.
+		 * 
+		 * @param request the request
+		 * @param expected the expected
+		 * @param hedge whether it is the hedge
+		 * @param hedgeBreaker the circuit breaker that let the hedge through, null if none
+		 */
+		void attempt(final HttpRequest request, int expected, final boolean hedge, final CircuitBreaker hedgeBreaker) {
+			final long start = System.nanoTime();
+			final CompletableFuture<InputStream> attempt;
+			synchronized (this) {
+				if (result.isDone()) {
+					releaseCircuit(hedgeBreaker);
+					return;
+				}
+				pending++;
+				attempt = callApiAsync(request, expected);
+				attempts.add(attempt);
+			}
+			attempt.whenComplete((content, error) -> {
+				if (hedgeBreaker != null) {
+					recordOutcome(hedgeBreaker, request, error, System.nanoTime() - start);
+				}
+				if (error == null) {
+					policy.recordLatency(url, System.nanoTime() - start);
+					boolean first;
+					synchronized (this) {
+						first = !answered && !result.isDone();
+						answered = true;
+					}
+					// the win is recorded before the result is handed out, so whoever waits for it sees the win.
+					if (first && hedge) {
+						policy.recordWin();
+					}
+					if (first && result.complete(content)) {
+						cancelAttempts(attempt);
+					} else {
+						closeStream(content);
+					}
+					return;
+				}
+				if (result.isDone() && !result.isCompletedExceptionally()) {
+					// the loser, it took at least that long.
+					policy.recordLatency(url, System.nanoTime() - start);
+					return;
+				}
+				Throwable firstFailure;
+				synchronized (this) {
+					if (failure == null) {
+						failure = error;
+					}
+					if (--pending > 0) {
+						// the other attempt may still succeed.
+						return;
+					}
+					firstFailure = failure;
+				}
+				result.completeExceptionally(firstFailure);
+			});
+		}
+
+		/**
+		 * Cancels the attempts, aborting their requests.
+		 * 
+		 * @param winner the attempt to spare, null for none
+		 */
+		private void cancelAttempts(CompletableFuture<InputStream> winner) {
+			List<CompletableFuture<InputStream>> losers;
+			synchronized (this) {
+				losers = new ArrayList<CompletableFuture<InputStream>>(attempts);
+			}
+			for (CompletableFuture<InputStream> loser : losers) {
+				if (loser != winner) {
+					loser.cancel(true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The Class CountingInputStream.
+	 */
+	private static class CountingInputStream extends FilterInputStream {
+
+		/** The number of bytes read. */
+		private long count;
+
+		/**
+		 * Instantiates a new counting input stream.
+		 * 
+		 * @param in the in
+		 */
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.FilterInputStream#read()
+		 */
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b != -1) {
+				count++;
+			}
+			return b;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.FilterInputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = in.read(b, off, len);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.FilterInputStream#skip(long)
+		 */
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
 }
@@ -16,11 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.ajax.schema.ImageResult;
 import com.googleapis.ajax.services.ImageSearchQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.enumeration.ImageColor;
 import com.googleapis.ajax.services.enumeration.ImageColorization;
@@ -36,6 +36,9 @@ import com.googleapis.ajax.services.enumeration.SafetyLevel;
 public class ImageSearchQueryImpl extends BaseGoogleSearchApiQuery<ImageResult> implements
 		ImageSearchQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.SEARCH_IMAGE_URL);
+	
 	/**
 	 * Instantiates a new image search query impl.
 	 * 
@@ -51,7 +54,7 @@ public class ImageSearchQueryImpl extends BaseGoogleSearchApiQuery<ImageResult>
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.SEARCH_IMAGE_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 
@@ -129,7 +132,6 @@ public class ImageSearchQueryImpl extends BaseGoogleSearchApiQuery<ImageResult>
 	 */
 	@Override
 	protected ImageResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, ImageResult.class);
+		return getGson().fromJson(object, ImageResult.class);
 	}
 }
@@ -16,16 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.googleapis.ajax.schema.LoadFeedResult;
-import com.googleapis.ajax.services.GoogleSearchException;
 import com.googleapis.ajax.services.LoadFeedQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 
 /**
@@ -34,6 +29,9 @@ import com.googleapis.ajax.services.constant.ParameterNames;
 public class LoadFeedQueryImpl extends BaseGoogleSearchApiQuery<LoadFeedResult> implements
 		LoadFeedQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.FEED_LOAD_URL);
+	
 	/**
 	 * Instantiates a new web search query impl.
 	 * 
@@ -48,7 +46,7 @@ public class LoadFeedQueryImpl extends BaseGoogleSearchApiQuery<LoadFeedResult>
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.FEED_LOAD_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 
@@ -69,33 +67,15 @@ public class LoadFeedQueryImpl extends BaseGoogleSearchApiQuery<LoadFeedResult>
 	 */
 	@Override
 	protected LoadFeedResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, LoadFeedResult.class);
+		return getGson().fromJson(object, LoadFeedResult.class);
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery#unmarshallSingleResult(com.google.gson.JsonElement)
+	 */
 	@Override
-	public LoadFeedResult singleResult() {
-		InputStream jsonContent = null;
-        try {
-        	jsonContent = callApiGet(apiUrlBuilder.buildUrl());
-        	JsonElement response = parser.parse(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
-        	if (response.isJsonObject()) {
-        		JsonObject json = response.getAsJsonObject();
-        		int status = json.get("responseStatus").getAsInt();
-        		if (status != 200) {
-        			throw new GoogleSearchException(json.get("responseDetails").getAsString());
-        		}
-        		JsonElement data = json.get("responseData");
-        		if (data != null) {
-        			return unmarshall(data.getAsJsonObject().get("feed"));
-        		}
-        	}
-        	throw new GoogleSearchException("Unknown content found in response:" + response.toString());
-        } catch (Exception e) {
-            throw new GoogleSearchException(e);
-        } finally {
-	        closeStream(jsonContent);
-	    }
+	protected LoadFeedResult unmarshallSingleResult(JsonElement data) {
+		return unmarshall(data.getAsJsonObject().get("feed"));
 	}
 	
 }
@@ -16,11 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.ajax.schema.LocalResult;
 import com.googleapis.ajax.services.LocalSearchQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.enumeration.LocalSearchType;
 
@@ -30,6 +30,9 @@ import com.googleapis.ajax.services.enumeration.LocalSearchType;
 public class LocalSearchQueryImpl extends BaseGoogleSearchApiQuery<LocalResult> implements
 		LocalSearchQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.SEARCH_LOCAL_URL);
+	
 	/**
 	 * Instantiates a new local search query impl.
 	 * 
@@ -45,7 +48,7 @@ public class LocalSearchQueryImpl extends BaseGoogleSearchApiQuery<LocalResult>
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.SEARCH_LOCAL_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 
@@ -83,7 +86,6 @@ public class LocalSearchQueryImpl extends BaseGoogleSearchApiQuery<LocalResult>
 	 */
 	@Override
 	protected LocalResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, LocalResult.class);
+		return getGson().fromJson(object, LocalResult.class);
 	}
 }
@@ -16,11 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.ajax.schema.NewsResult;
 import com.googleapis.ajax.services.NewsSearchQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.enumeration.NewsEdition;
 import com.googleapis.ajax.services.enumeration.NewsSortOrder;
@@ -32,6 +32,9 @@ import com.googleapis.ajax.services.enumeration.NewsTopic;
 public class NewsSearchQueryImpl extends BaseGoogleSearchApiQuery<NewsResult> implements
 		NewsSearchQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.SEARCH_NEWS_URL);
+	
 	/**
 	 * Instantiates a new news search query impl.
 	 * 
@@ -47,7 +50,7 @@ public class NewsSearchQueryImpl extends BaseGoogleSearchApiQuery<NewsResult> im
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.SEARCH_NEWS_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 
@@ -105,7 +108,6 @@ public class NewsSearchQueryImpl extends BaseGoogleSearchApiQuery<NewsResult> im
 	 */
 	@Override
 	protected NewsResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, NewsResult.class);
+		return getGson().fromJson(object, NewsResult.class);
 	}
 }
@@ -16,11 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.ajax.schema.PatentResult;
 import com.googleapis.ajax.services.PatentSearchQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.enumeration.PatentSearchType;
 import com.googleapis.ajax.services.enumeration.PatentSortOrder;
@@ -31,6 +31,9 @@ import com.googleapis.ajax.services.enumeration.PatentSortOrder;
 public class PatentSearchQueryImpl extends BaseGoogleSearchApiQuery<PatentResult> implements
 		PatentSearchQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.SEARCH_PATENT_URL);
+	
 	/**
 	 * Instantiates a new patent search query impl.
 	 * 
@@ -46,7 +49,7 @@ public class PatentSearchQueryImpl extends BaseGoogleSearchApiQuery<PatentResult
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.SEARCH_PATENT_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 
@@ -76,7 +79,6 @@ public class PatentSearchQueryImpl extends BaseGoogleSearchApiQuery<PatentResult
 	 */
 	@Override
 	protected PatentResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, PatentResult.class);
+		return getGson().fromJson(object, PatentResult.class);
 	}
 }
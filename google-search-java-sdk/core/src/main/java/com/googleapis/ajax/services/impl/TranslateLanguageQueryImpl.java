@@ -16,32 +16,37 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.googleapis.ajax.common.PagedArrayList;
 import com.googleapis.ajax.common.PagedList;
 import com.googleapis.ajax.schema.Language;
 import com.googleapis.ajax.schema.TranslateLanguageResult;
-import com.googleapis.ajax.services.GoogleSearchException;
 import com.googleapis.ajax.services.TranslateLanguageQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.enumeration.TranslationFormat;
+import com.googleapis.ajax.services.json.FieldProjection;
+import com.googleapis.ajax.services.json.JsonStreamReader;
+import com.googleapis.ajax.services.json.JsonToken;
+import com.googleapis.ajax.services.spec.GoogleSearchSpec;
+import com.googleapis.ajax.services.transport.HttpRequest;
 
 /**
  * The Class TranslateLanguageQueryImpl.
  */
 public class TranslateLanguageQueryImpl extends BaseGoogleSearchApiQuery<TranslateLanguageResult> implements
 	TranslateLanguageQuery {
+	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.LANGUAGE_TRANSLATE_URL);
+	
 	private Map<String, List<String>> parameters = new HashMap<String, List<String>>(); 
 	
 	/**
@@ -59,7 +64,7 @@ public class TranslateLanguageQueryImpl extends BaseGoogleSearchApiQuery<Transla
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.LANGUAGE_TRANSLATE_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 	/* (non-Javadoc)
@@ -96,79 +101,46 @@ public class TranslateLanguageQueryImpl extends BaseGoogleSearchApiQuery<Transla
 	}
 	
 	
+	
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery#createApiRequest()
+	 */
 	@Override
-	public PagedList<TranslateLanguageResult> list() {
-		InputStream jsonContent = null;
-        try {
-        	jsonContent = callApiPost(apiUrlBuilder.buildUrl(), parameters);
-        	JsonElement response = parser.parse(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
-        	if (response.isJsonObject()) {
-        		PagedList<TranslateLanguageResult> responseList = unmarshallList(response.getAsJsonObject());
-        		notifyObservers(responseList);
-    			return responseList;
-        	}
-        	throw new GoogleSearchException("Unknown content found in response:" + response.toString());
-        } catch (Exception e) {
-            throw new GoogleSearchException(e);
-        } finally {
-	        closeStream(jsonContent);
-	    }
+	protected HttpRequest createApiRequest() {
+		return createPostRequest(apiUrlBuilder.buildUrl(), parameters);
 	}
-	
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery#createApiRequest(com.googleapis.ajax.services.spec.GoogleSearchSpec)
+	 */
 	@Override
-	public TranslateLanguageResult singleResult() {
-		InputStream jsonContent = null;
-        try {
-        	jsonContent = callApiPost(apiUrlBuilder.buildUrl(), parameters);
-        	JsonElement response = parser.parse(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
-        	if (response.isJsonObject()) {
-        		JsonObject json = response.getAsJsonObject();
-        		int status = json.get("responseStatus").getAsInt();
-        		if (status != 200) {
-        			throw new GoogleSearchException(json.get("responseDetails").getAsString());
-        		}
-        		JsonElement data = json.get("responseData");
-        		if (data != null) {
-        			return unmarshall(data);
-        		}
-        	}
-        	throw new GoogleSearchException("Unknown content found in response:" + response.toString());
-        } catch (Exception e) {
-            throw new GoogleSearchException(e);
-        } finally {
-	        closeStream(jsonContent);
-	    }
+	protected HttpRequest createApiRequest(GoogleSearchSpec<TranslateLanguageResult, ?> spec) {
+		// the version goes in the url, the rest of the parameters in the body.
+		Map<String, List<String>> parameters = new HashMap<String, List<String>>(spec.getParameters());
+		parameters.remove(ParameterNames.VERSION);
+		return createPostRequest(createGoogleSearchApiUrlBuilder(spec.getUrlFormat()).buildUrl(), parameters);
 	}
 
-	/**
-	 * Unmarshall list.
-	 * 
-	 * @param response the response
-	 * 
-	 * @return the paged list< t>
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery#readResponseData(com.googleapis.ajax.services.json.JsonStreamReader, com.googleapis.ajax.services.json.FieldProjection)
 	 */
-	protected PagedList<TranslateLanguageResult> unmarshallList(JsonObject response) {
-		int status = response.get("responseStatus").getAsInt();
-		if (status != 200) {
-			throw new GoogleSearchException(String.valueOf(response.get("responseDetails").getAsString()));
-		}
-		JsonArray dataArray = response.get("responseData").getAsJsonArray();
+	@Override
+	protected PagedList<TranslateLanguageResult> readResponseData(JsonStreamReader reader, FieldProjection projection) throws IOException {
 		PagedArrayList<TranslateLanguageResult> list = new PagedArrayList<TranslateLanguageResult>();
-		if (dataArray != null) {
-			for (JsonElement element : dataArray) {
-	        	if (element.isJsonObject()) {
-	        		JsonObject json = element.getAsJsonObject();
-	        		status = json.get("responseStatus").getAsInt();
-	        		if (status != 200) {
-	        			throw new GoogleSearchException(json.get("responseDetails").getAsString());
-	        		}
-	        		JsonElement data = json.get("responseData");
-	        		if (data != null) {
-	        			list.add(unmarshall(data));
-	        		}
-	        	}
+		// one response envelope per translated text.
+		reader.beginArray();
+		while (reader.hasNext()) {
+			if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				TranslateLanguageResult result = readEnvelope(reader, data -> readResult(data, projection));
+				if (result != null) {
+					list.add(result);
+				}
+			} else {
+				reader.skipValue();
 			}
-		} 
+		}
+		reader.endArray();
 		return list;
 	}
 	
@@ -177,8 +149,7 @@ public class TranslateLanguageQueryImpl extends BaseGoogleSearchApiQuery<Transla
 	 */
 	@Override
 	protected TranslateLanguageResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, TranslateLanguageResult.class);
+		return getGson().fromJson(object, TranslateLanguageResult.class);
 	}
 	
 	protected void putParameters(String name, String value) {
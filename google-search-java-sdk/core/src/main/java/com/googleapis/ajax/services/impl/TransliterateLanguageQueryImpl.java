@@ -16,13 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.util.concurrent.CompletableFuture;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.googleapis.ajax.common.PagedArrayList;
 import com.googleapis.ajax.common.PagedList;
 import com.googleapis.ajax.schema.Language;
@@ -30,14 +28,23 @@ import com.googleapis.ajax.schema.TransliterateLanguageResult;
 import com.googleapis.ajax.services.GoogleSearchException;
 import com.googleapis.ajax.services.TransliterateLanguageQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.enumeration.TranslationFormat;
+import com.googleapis.ajax.services.json.FieldProjection;
+import com.googleapis.ajax.services.json.JsonStreamReader;
+import com.googleapis.ajax.services.json.JsonToken;
+import com.googleapis.ajax.services.spec.GoogleSearchSpec;
 
 /**
  * The Class TranslateLanguageQueryImpl.
  */
 public class TransliterateLanguageQueryImpl extends BaseGoogleSearchApiQuery<TransliterateLanguageResult> implements
 	TransliterateLanguageQuery {
+	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.LANGUAGE_TRANSLITERATE_URL);
+	
 //	private Map<String, List<String>> parameters = new HashMap<String, List<String>>(); 
 	
 	/**
@@ -55,7 +62,7 @@ public class TransliterateLanguageQueryImpl extends BaseGoogleSearchApiQuery<Tra
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.LANGUAGE_TRANSLITERATE_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 	/* (non-Javadoc)
@@ -96,13 +103,11 @@ public class TransliterateLanguageQueryImpl extends BaseGoogleSearchApiQuery<Tra
 		InputStream jsonContent = null;
         try {
         	jsonContent = callApiGet(apiUrlBuilder.buildUrl());
-        	JsonElement response = parser.parse(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
-        	if (response.isJsonObject()) {
-        		PagedList<TransliterateLanguageResult> responseList = unmarshallList(response.getAsJsonObject());
-        		notifyObservers(responseList);
-    			return responseList;
-        	}
-        	throw new GoogleSearchException("Unknown content found in response:" + response.toString());
+        	PagedList<TransliterateLanguageResult> responseList = readList(jsonContent);
+        	notifyObservers(responseList);
+        	return responseList;
+        } catch (GoogleSearchException e) {
+        	throw e;
         } catch (Exception e) {
             throw new GoogleSearchException(e);
         } finally {
@@ -115,13 +120,11 @@ public class TransliterateLanguageQueryImpl extends BaseGoogleSearchApiQuery<Tra
 		InputStream jsonContent = null;
         try {
         	jsonContent = callApiGet(apiUrlBuilder.buildUrl());
-        	JsonElement response = parser.parse(new InputStreamReader(jsonContent, UTF_8_CHAR_SET));
-        	if (response.isJsonObject()) {
-        		PagedList<TransliterateLanguageResult> responseList = unmarshallList(response.getAsJsonObject());
-        		notifyObservers(responseList);
-    			return responseList.isEmpty() ? null : responseList.get(0);
-        	}
-        	throw new GoogleSearchException("Unknown content found in response:" + response.toString());
+        	PagedList<TransliterateLanguageResult> responseList = readList(jsonContent);
+        	notifyObservers(responseList);
+        	return responseList.isEmpty() ? null : responseList.get(0);
+        } catch (GoogleSearchException e) {
+        	throw e;
         } catch (Exception e) {
             throw new GoogleSearchException(e);
         } finally {
@@ -129,29 +132,46 @@ public class TransliterateLanguageQueryImpl extends BaseGoogleSearchApiQuery<Tra
 	    }
 	}
 
-	/**
-	 * Unmarshall list.
-	 * 
-	 * @param response the response
-	 * 
-	 * @return the paged list< t>
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery#singleResult(com.googleapis.ajax.services.spec.GoogleSearchSpec)
 	 */
-	protected PagedList<TransliterateLanguageResult> unmarshallList(JsonObject response) {
-		int status = response.get("responseStatus").getAsInt();
-		if (status != 200) {
-			throw new GoogleSearchException(String.valueOf(response.get("responseDetails").getAsString()));
-		}
-		JsonObject data = response.get("responseData").getAsJsonObject();
+	@Override
+	public TransliterateLanguageResult singleResult(GoogleSearchSpec<TransliterateLanguageResult, ?> spec) {
+		PagedList<TransliterateLanguageResult> responseList = list(spec);
+		return responseList.isEmpty() ? null : responseList.get(0);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery#singleResultAsync(com.googleapis.ajax.services.spec.GoogleSearchSpec)
+	 */
+	@Override
+	public CompletableFuture<TransliterateLanguageResult> singleResultAsync(GoogleSearchSpec<TransliterateLanguageResult, ?> spec) {
+		return listAsync(spec).thenApply(responseList -> responseList.isEmpty() ? null : responseList.get(0));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery#readResponseData(com.googleapis.ajax.services.json.JsonStreamReader, com.googleapis.ajax.services.json.FieldProjection)
+	 */
+	@Override
+	protected PagedList<TransliterateLanguageResult> readResponseData(JsonStreamReader reader, FieldProjection projection) throws IOException {
 		PagedArrayList<TransliterateLanguageResult> list = new PagedArrayList<TransliterateLanguageResult>();
-		if (data != null) {
-			JsonArray dataArray = data.get("transliterations").getAsJsonArray();
-			for (JsonElement element : dataArray) {
-	        	if (element.isJsonObject()) {
-	        		JsonObject json = element.getAsJsonObject();
-        			list.add(unmarshall(json));
-	        	}
+		reader.beginObject();
+		while (reader.hasNext()) {
+			if ("transliterations".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+				reader.beginArray();
+				while (reader.hasNext()) {
+					if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+						list.add(readResult(reader, projection));
+					} else {
+						reader.skipValue();
+					}
+				}
+				reader.endArray();
+			} else {
+				reader.skipValue();
 			}
-		} 
+		}
+		reader.endObject();
 		return list;
 	}
 	
@@ -160,8 +180,7 @@ public class TransliterateLanguageQueryImpl extends BaseGoogleSearchApiQuery<Tra
 	 */
 	@Override
 	protected TransliterateLanguageResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, TransliterateLanguageResult.class);
+		return getGson().fromJson(object, TransliterateLanguageResult.class);
 	}
 	
 //	protected void putParameters(String name, String value) {
@@ -16,11 +16,11 @@
  */
 package com.googleapis.ajax.services.impl;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.ajax.schema.VideoResult;
 import com.googleapis.ajax.services.VideoSearchQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.enumeration.VideoSortOrder;
 
@@ -30,6 +30,9 @@ import com.googleapis.ajax.services.enumeration.VideoSortOrder;
 public class VideoSearchQueryImpl extends BaseGoogleSearchApiQuery<VideoResult> implements
 		VideoSearchQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.SEARCH_VIDEO_URL);
+	
 	/**
 	 * Instantiates a new video search query impl.
 	 * 
@@ -44,7 +47,7 @@ public class VideoSearchQueryImpl extends BaseGoogleSearchApiQuery<VideoResult>
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.SEARCH_VIDEO_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 
@@ -62,7 +65,6 @@ public class VideoSearchQueryImpl extends BaseGoogleSearchApiQuery<VideoResult>
 	 */
 	@Override
 	protected VideoResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, VideoResult.class);
+		return getGson().fromJson(object, VideoResult.class);
 	}
 }
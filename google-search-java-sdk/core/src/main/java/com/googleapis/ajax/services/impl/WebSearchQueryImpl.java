@@ -18,11 +18,11 @@ package com.googleapis.ajax.services.impl;
 
 import java.util.Locale;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.googleapis.ajax.schema.WebResult;
 import com.googleapis.ajax.services.WebSearchQuery;
 import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
 import com.googleapis.ajax.services.constant.ParameterNames;
 import com.googleapis.ajax.services.enumeration.DuplicateContentFilter;
 import com.googleapis.ajax.services.enumeration.LanguageFilter;
@@ -34,6 +34,9 @@ import com.googleapis.ajax.services.enumeration.SafetyLevel;
 public class WebSearchQueryImpl extends BaseGoogleSearchApiQuery<WebResult> implements
 		WebSearchQuery {
 	
+	/** The Constant URL_TEMPLATE, compiled once for all the queries. */
+	private static final UrlTemplate URL_TEMPLATE = UrlTemplate.compile(GoogleSearchApiUrls.SEARCH_WEB_URL);
+	
 	/**
 	 * Instantiates a new web search query impl.
 	 * 
@@ -48,7 +51,7 @@ public class WebSearchQueryImpl extends BaseGoogleSearchApiQuery<WebResult> impl
 	 */
 	@Override
 	public void reset() {
-		apiUrlBuilder = createGoogleSearchApiUrlBuilder(GoogleSearchApiUrls.SEARCH_WEB_URL);
+		apiUrlBuilder = createGoogleSearchApiUrlBuilder(URL_TEMPLATE);
 	}
 
 
@@ -116,7 +119,6 @@ public class WebSearchQueryImpl extends BaseGoogleSearchApiQuery<WebResult> impl
 	 */
 	@Override
 	protected WebResult unmarshall(JsonElement object) {
-		Gson gson = getGsonBuilder().create();
-		return gson.fromJson(object, WebResult.class);
+		return getGson().fromJson(object, WebResult.class);
 	}
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * The Class FieldProjection.
+ *
+ * The fields of an entity a query reads, the members of the other fields
+ * are skipped at the token level without being decoded. A nested field is
+ * named by its path, e.g. <code>image.url</code>, and a field named whole
+ * is read with all its members. The fields are checked against the entity
+ * class when the projection is built.
+ */
+public final class FieldProjection {
+
+	/** The members read, by json name, to the projection of their members or null for all of them. */
+	private final Map<String, FieldProjection> members;
+
+	/**
+	 * Instantiates a new field projection.
+	 */
+	private FieldProjection() {
+		this.members = new TreeMap<String, FieldProjection>();
+	}
+
+	/**
+	 * Creates the projection of an entity on some of its fields.
+	 *
+	 * @param type the entity type
+	 * @param fields the field paths, e.g. <code>url</code> or <code>image.url</code>
+	 *
+	 * @return the field projection
+	 *
+	 * @throws IllegalArgumentException if a field is not one of the entity
+	 */
+	public static FieldProjection of(Class<?> type, String... fields) {
+		if (fields == null || fields.length == 0) {
+			throw new IllegalArgumentException("No fields to project " + type.getSimpleName() + " on.");
+		}
+		FieldProjection projection = new FieldProjection();
+		for (String path : fields) {
+			projection.add(type, path, path.split("\\."), 0);
+		}
+		return projection;
+	}
+
+	/**
+	 * Checks if a member is read.
+	 *
+	 * @param name the json name
+	 *
+	 * @return true, if the member is read
+	 */
+	public boolean includes(String name) {
+		return members.containsKey(name);
+	}
+
+	/**
+	 * Gets the projection of the members of a member.
+	 *
+	 * @param projection the projection, null for all members
+	 * @param name the json name of the member
+	 *
+	 * @return the projection of the member, null for all its members
+	 */
+	public static FieldProjection member(FieldProjection projection, String name) {
+		return (projection == null) ? null : projection.members.get(name);
+	}
+
+	/**
+	 * Reads the tree of the next value with the members of the projection
+	 * only, for the entities bound through reflection. An array is read as
+	 * an array of projected values.
+	 *
+	 * @param reader the reader
+	 *
+	 * @return the json element
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonElement readElement(JsonStreamReader reader) throws IOException {
+		switch (reader.peek()) {
+		case BEGIN_OBJECT:
+			JsonObject object = new JsonObject();
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				if (!members.containsKey(name)) {
+					reader.skipValue();
+					continue;
+				}
+				FieldProjection member = members.get(name);
+				object.add(name, (member == null) ? reader.readElement() : member.readElement(reader));
+			}
+			reader.endObject();
+			return object;
+		case BEGIN_ARRAY:
+			JsonArray array = new JsonArray();
+			reader.beginArray();
+			while (reader.hasNext()) {
+				array.add(readElement(reader));
+			}
+			reader.endArray();
+			return array;
+		default:
+			return reader.readElement();
+		}
+	}
+
+	/**
+	 * Adds a field path.
+	 *
+	 * @param type the type the path is resolved against
+	 * @param path the path
+	 * @param names the names of the path
+	 * @param index the index of the name to resolve
+	 */
+	private void add(Class<?> type, String path, String[] names, int index) {
+		Field field = findField(type, names[index]);
+		if (field == null) {
+			throw new IllegalArgumentException("Unknown field " + path + ": " + type.getSimpleName() + " has no field "
+					+ names[index] + ", its fields are " + getFieldNames(type) + ".");
+		}
+		String name = field.getName();
+		if (index == names.length - 1) {
+			members.put(name, null);
+			return;
+		}
+		if (members.containsKey(name) && members.get(name) == null) {
+			return;
+		}
+		Class<?> memberType = getEntityType(field);
+		if (memberType == null) {
+			throw new IllegalArgumentException("Unknown field " + path + ": " + type.getSimpleName() + "." + name
+					+ " has no fields.");
+		}
+		FieldProjection member = members.get(name);
+		if (member == null) {
+			member = new FieldProjection();
+			members.put(name, member);
+		}
+		member.add(memberType, path, names, index + 1);
+	}
+
+	/**
+	 * Finds a field bound from json, in the type or its superclasses.
+	 *
+	 * @param type the type
+	 * @param name the name
+	 *
+	 * @return the field, null if there is none
+	 */
+	private static Field findField(Class<?> type, String name) {
+		for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			for (Field field : clazz.getDeclaredFields()) {
+				if (field.getName().equals(name) && isBound(field)) {
+					return field;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the names of the fields bound from json.
+	 *
+	 * @param type the type
+	 *
+	 * @return the field names
+	 */
+	private static List<String> getFieldNames(Class<?> type) {
+		List<String> names = new ArrayList<String>();
+		for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			for (Field field : clazz.getDeclaredFields()) {
+				if (isBound(field)) {
+					names.add(field.getName());
+				}
+			}
+		}
+		Collections.sort(names);
+		return names;
+	}
+
+	/**
+	 * Checks if a field is bound from json.
+	 *
+	 * @param field the field
+	 *
+	 * @return true, if is bound
+	 */
+	private static boolean isBound(Field field) {
+		return (field.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT | Modifier.FINAL)) == 0;
+	}
+
+	/**
+	 * Gets the entity a field holds, directly or in a list.
+	 *
+	 * @param field the field
+	 *
+	 * @return the entity type, null if the field holds no entity
+	 */
+	private static Class<?> getEntityType(Field field) {
+		Type type = field.getGenericType();
+		if (type instanceof ParameterizedType && List.class == ((ParameterizedType) type).getRawType()) {
+			type = ((ParameterizedType) type).getActualTypeArguments()[0];
+		}
+		if (!(type instanceof Class<?>)) {
+			return null;
+		}
+		Class<?> clazz = (Class<?>) type;
+		if (clazz.isPrimitive() || clazz.isEnum() || clazz.isArray() || clazz.getName().startsWith("java.")) {
+			return null;
+		}
+		return clazz;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (Map.Entry<String, FieldProjection> member : members.entrySet()) {
+			if (builder.length() > 0) {
+				builder.append(',');
+			}
+			builder.append(member.getKey());
+			if (member.getValue() != null) {
+				builder.append('(').append(member.getValue()).append(')');
+			}
+		}
+		return builder.toString();
+	}
+}
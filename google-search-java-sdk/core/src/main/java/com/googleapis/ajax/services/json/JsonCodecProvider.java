@@ -0,0 +1,35 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+/**
+ * The Interface JsonCodecProvider.
+ *
+ * Gives the codecs of a set of types. The build generates one for the
+ * schema entities.
+ */
+public interface JsonCodecProvider {
+
+	/**
+	 * Gets the codec of a type.
+	 *
+	 * @param type the type
+	 *
+	 * @return the codec, null if there is none
+	 */
+	public <T> JsonCodec<T> getCodec(Class<T> type);
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.gson.JsonParseException;
+import com.googleapis.ajax.common.ValueEnum;
+import com.googleapis.ajax.schema.BlogResult;
+import com.googleapis.ajax.schema.BookResult;
+import com.googleapis.ajax.schema.DetectLanguageResult;
+import com.googleapis.ajax.schema.FindFeedResult;
+import com.googleapis.ajax.schema.ImageResult;
+import com.googleapis.ajax.schema.LoadFeedResult;
+import com.googleapis.ajax.schema.LocalResult;
+import com.googleapis.ajax.schema.LookupFeedResult;
+import com.googleapis.ajax.schema.NewsResult;
+import com.googleapis.ajax.schema.PatentResult;
+import com.googleapis.ajax.schema.TranslateLanguageResult;
+import com.googleapis.ajax.schema.TransliterateLanguageResult;
+import com.googleapis.ajax.schema.VideoResult;
+import com.googleapis.ajax.schema.WebResult;
+
+/**
+ * The Class JsonCodecs.
+ *
+ * The entry point to the codecs of the schema entities, generated by the
+ * build from the annotation below, and the codecs of the values they are
+ * made of, which the generated ones call. Without generated codecs, e.g.
+ * when the sources are compiled without the codec processor, {@link #get(Class)}
+ * returns null and the entities are bound through reflection.
+ */
+@GenerateCodecs({ BlogResult.class, BookResult.class, DetectLanguageResult.class, FindFeedResult.class,
+		ImageResult.class, LoadFeedResult.class, LocalResult.class, LookupFeedResult.class, NewsResult.class,
+		PatentResult.class, TranslateLanguageResult.class, TransliterateLanguageResult.class, VideoResult.class,
+		WebResult.class })
+public final class JsonCodecs {
+
+	/** The Constant PROVIDER_CLASS_NAME. */
+	private static final String PROVIDER_CLASS_NAME = JsonCodecs.class.getPackage().getName()
+			+ ".GeneratedJsonCodecs";
+
+	/** The Constant STRING, numbers and booleans are read as written. */
+	public static final JsonCodec<String> STRING = new JsonCodec<String>() {
+
+		@Override
+		public String read(JsonStreamReader reader) throws IOException {
+			switch (reader.peek()) {
+			case NULL:
+				reader.nextNull();
+				return null;
+			case BOOLEAN:
+				return String.valueOf(reader.nextBoolean());
+			default:
+				return reader.nextString();
+			}
+		}
+
+		@Override
+		public void write(JsonStreamWriter writer, String value) throws IOException {
+			writer.value(value);
+		}
+	};
+
+	/** The Constant INTEGER. */
+	public static final JsonCodec<Integer> INTEGER = new JsonCodec<Integer>() {
+
+		@Override
+		public Integer read(JsonStreamReader reader) throws IOException {
+			return skipNull(reader) ? null : readInt(reader);
+		}
+
+		@Override
+		public void write(JsonStreamWriter writer, Integer value) throws IOException {
+			if (value == null) {
+				writer.nullValue();
+			} else {
+				writer.value(value.longValue());
+			}
+		}
+	};
+
+	/** The Constant LONG. */
+	public static final JsonCodec<Long> LONG = new JsonCodec<Long>() {
+
+		@Override
+		public Long read(JsonStreamReader reader) throws IOException {
+			return skipNull(reader) ? null : readLong(reader);
+		}
+
+		@Override
+		public void write(JsonStreamWriter writer, Long value) throws IOException {
+			if (value == null) {
+				writer.nullValue();
+			} else {
+				writer.value(value.longValue());
+			}
+		}
+	};
+
+	/** The Constant DOUBLE. */
+	public static final JsonCodec<Double> DOUBLE = new JsonCodec<Double>() {
+
+		@Override
+		public Double read(JsonStreamReader reader) throws IOException {
+			return skipNull(reader) ? null : readDouble(reader);
+		}
+
+		@Override
+		public void write(JsonStreamWriter writer, Double value) throws IOException {
+			if (value == null) {
+				writer.nullValue();
+			} else {
+				writer.value(value.doubleValue());
+			}
+		}
+	};
+
+	/** The Constant FLOAT. */
+	public static final JsonCodec<Float> FLOAT = new JsonCodec<Float>() {
+
+		@Override
+		public Float read(JsonStreamReader reader) throws IOException {
+			return skipNull(reader) ? null : readFloat(reader);
+		}
+
+		@Override
+		public void write(JsonStreamWriter writer, Float value) throws IOException {
+			if (value == null) {
+				writer.nullValue();
+			} else {
+				writer.value(value.doubleValue());
+			}
+		}
+	};
+
+	/** The Constant BOOLEAN. */
+	public static final JsonCodec<Boolean> BOOLEAN = new JsonCodec<Boolean>() {
+
+		@Override
+		public Boolean read(JsonStreamReader reader) throws IOException {
+			return skipNull(reader) ? null : readBoolean(reader);
+		}
+
+		@Override
+		public void write(JsonStreamWriter writer, Boolean value) throws IOException {
+			if (value == null) {
+				writer.nullValue();
+			} else {
+				writer.value(value.booleanValue());
+			}
+		}
+	};
+
+	/** The Constant DATE, in the format of the gson instances. */
+	public static final JsonCodec<Date> DATE = Rfc822DateCodec.DATE;
+
+	/** The Constant INSTANT, in the format of the gson instances. */
+	public static final JsonCodec<Instant> INSTANT = Rfc822DateCodec.INSTANT;
+
+	/**
+	 * Instantiates a new json codecs.
+	 */
+	private JsonCodecs() {}
+
+	/**
+	 * Gets the generated codec of an entity.
+	 *
+	 * @param type the type
+	 *
+	 * @return the codec, null if the entity has to be bound through reflection
+	 */
+	public static <T> JsonCodec<T> get(Class<T> type) {
+		JsonCodecProvider provider = ProviderHolder.INSTANCE;
+		return (provider == null) ? null : provider.getCodec(type);
+	}
+
+	/**
+	 * Consumes the next value if it is a null.
+	 *
+	 * @param reader the reader
+	 *
+	 * @return true, if the value was null
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static boolean skipNull(JsonStreamReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Reads an int, a fraction is truncated as gson does.
+	 *
+	 * @param reader the reader
+	 *
+	 * @return the int
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static int readInt(JsonStreamReader reader) throws IOException {
+		String value = reader.nextString();
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			return toNumber(value, reader).intValue();
+		}
+	}
+
+	/**
+	 * Reads a long, a fraction is truncated as gson does.
+	 *
+	 * @param reader the reader
+	 *
+	 * @return the long
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static long readLong(JsonStreamReader reader) throws IOException {
+		String value = reader.nextString();
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			return toNumber(value, reader).longValue();
+		}
+	}
+
+	/**
+	 * Reads a double.
+	 *
+	 * @param reader the reader
+	 *
+	 * @return the double
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static double readDouble(JsonStreamReader reader) throws IOException {
+		return reader.nextDouble();
+	}
+
+	/**
+	 * Reads a float.
+	 *
+	 * @param reader the reader
+	 *
+	 * @return the float
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static float readFloat(JsonStreamReader reader) throws IOException {
+		return (float) reader.nextDouble();
+	}
+
+	/**
+	 * Reads a boolean, the api quotes some of them.
+	 *
+	 * @param reader the reader
+	 *
+	 * @return true, if successful
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static boolean readBoolean(JsonStreamReader reader) throws IOException {
+		if (reader.peek() == JsonToken.STRING) {
+			return Boolean.parseBoolean(reader.nextString());
+		}
+		return reader.nextBoolean();
+	}
+
+	/**
+	 * Reads the string value of a member, canonicalized by the pool of the
+	 * reader if the member is one of its fields.
+	 *
+	 * @param reader the reader
+	 * @param member the json name of the member
+	 *
+	 * @return the string, null for a json null
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static String readString(JsonStreamReader reader, String member) throws IOException {
+		String value = STRING.read(reader);
+		StringPool stringPool = reader.getStringPool();
+		return (stringPool == null) ? value : stringPool.canonicalize(member, value);
+	}
+
+	/**
+	 * Reads a list.
+	 *
+	 * @param reader the reader
+	 * @param elementCodec the element codec
+	 *
+	 * @return the list, null for a json null
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static <E> List<E> readList(JsonStreamReader reader, JsonCodec<E> elementCodec) throws IOException {
+		return readList(reader, elementCodec, null);
+	}
+
+	/**
+	 * Reads a list of projected elements.
+	 *
+	 * @param reader the reader
+	 * @param elementCodec the element codec
+	 * @param projection the projection of the elements, null for all their members
+	 *
+	 * @return the list, null for a json null
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static <E> List<E> readList(JsonStreamReader reader, JsonCodec<E> elementCodec, FieldProjection projection)
+			throws IOException {
+		if (skipNull(reader)) {
+			return null;
+		}
+		List<E> list = new ArrayList<E>();
+		reader.beginArray();
+		while (reader.hasNext()) {
+			list.add(elementCodec.read(reader, projection));
+		}
+		reader.endArray();
+		return list;
+	}
+
+	/**
+	 * Writes a list.
+	 *
+	 * @param writer the writer
+	 * @param list the list, null writes null
+	 * @param elementCodec the element codec
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static <E> void writeList(JsonStreamWriter writer, List<E> list, JsonCodec<E> elementCodec)
+			throws IOException {
+		if (list == null) {
+			writer.nullValue();
+			return;
+		}
+		writer.beginArray();
+		for (E element : list) {
+			elementCodec.write(writer, element);
+		}
+		writer.endArray();
+	}
+
+	/**
+	 * Creates the codec of an enum, read from the value of a
+	 * {@link ValueEnum} or the constant name and written as the value or the
+	 * name.
+	 *
+	 * @param type the enum type
+	 *
+	 * @return the codec
+	 */
+	public static <E extends Enum<E>> JsonCodec<E> enumCodec(final Class<E> type) {
+		return new JsonCodec<E>() {
+
+			@Override
+			public E read(JsonStreamReader reader) throws IOException {
+				String value = STRING.read(reader);
+				if (value == null) {
+					return null;
+				}
+				if (ValueEnum.class.isAssignableFrom(type)) {
+					return type.cast(ValueEnumDeserializer.lookup(type, value));
+				}
+				try {
+					return Enum.valueOf(type, value);
+				} catch (IllegalArgumentException e) {
+					return null;
+				}
+			}
+
+			@Override
+			public void write(JsonStreamWriter writer, E value) throws IOException {
+				if (value == null) {
+					writer.nullValue();
+				} else if (value instanceof ValueEnum) {
+					writer.value(((ValueEnum) value).value());
+				} else {
+					writer.value(value.name());
+				}
+			}
+		};
+	}
+
+	/**
+	 * Parses a number that is not a plain integer.
+	 *
+	 * @param value the value
+	 * @param reader the reader
+	 *
+	 * @return the big decimal
+	 */
+	private static BigDecimal toNumber(String value, JsonStreamReader reader) {
+		try {
+			return new BigDecimal(value);
+		} catch (NumberFormatException e) {
+			throw new JsonParseException("Expected a number but was " + value + " " + reader);
+		}
+	}
+
+	/**
+	 * The Class ProviderHolder.
+	 */
+	private static class ProviderHolder {
+
+		/** The Constant INSTANCE, null if the build generated no codecs. */
+		private static final JsonCodecProvider INSTANCE = loadProvider();
+
+		/**
+		 * Loads the generated provider.
+		 *
+		 * @return the json codec provider
+		 */
+		private static JsonCodecProvider loadProvider() {
+			try {
+				return (JsonCodecProvider) Class.forName(PROVIDER_CLASS_NAME).getDeclaredConstructor().newInstance();
+			} catch (ClassNotFoundException e) {
+				Logger.getLogger(JsonCodecs.class.getCanonicalName()).info(
+						"No generated json codecs, the schema entities are bound through reflection.");
+				return null;
+			} catch (ReflectiveOperationException e) {
+				Logger.getLogger(JsonCodecs.class.getCanonicalName()).log(Level.WARNING,
+						"Could not load the generated json codecs.", e);
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,925 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * The Class JsonStreamReader.
+ *
+ * A pull parser that reads a json document one token at a time, so that a
+ * response can be bound as it streams in instead of being parsed into a
+ * tree first. The bundled gson has no streaming api, the methods follow
+ * the ones of its later <code>JsonReader</code>. Strings that are skipped
+ * are never decoded.
+ */
+public class JsonStreamReader implements Closeable {
+
+	/** The Constant EMPTY_DOCUMENT, nothing has been read yet. */
+	private static final int EMPTY_DOCUMENT = 0;
+
+	/** The Constant NONEMPTY_DOCUMENT, the top level value has been read. */
+	private static final int NONEMPTY_DOCUMENT = 1;
+
+	/** The Constant EMPTY_ARRAY. */
+	private static final int EMPTY_ARRAY = 2;
+
+	/** The Constant NONEMPTY_ARRAY. */
+	private static final int NONEMPTY_ARRAY = 3;
+
+	/** The Constant EMPTY_OBJECT. */
+	private static final int EMPTY_OBJECT = 4;
+
+	/** The Constant DANGLING_NAME, a name has been read but not its value. */
+	private static final int DANGLING_NAME = 5;
+
+	/** The Constant NONEMPTY_OBJECT. */
+	private static final int NONEMPTY_OBJECT = 6;
+
+	/** The Constant CLOSED. */
+	private static final int CLOSED = 7;
+
+	/** The in. */
+	private final Reader in;
+
+	/** The buffer. */
+	private final char[] buffer = new char[1024];
+
+	/** The position of the next char in the buffer. */
+	private int pos;
+
+	/** The end of the chars in the buffer. */
+	private int limit;
+
+	/** The number of chars dropped from the buffer, for the error messages. */
+	private long offset;
+
+	/** The scopes of the values being read. */
+	private int[] stack = new int[32];
+
+	/** The stack size. */
+	private int stackSize;
+
+	/** The peeked token, null if the next one has not been peeked yet. */
+	private JsonToken token;
+
+	/** The value of a peeked literal. Names and strings are only read when asked for. */
+	private String literal;
+
+	/** The pool of the repeated strings, null not to pool them. */
+	private StringPool stringPool;
+
+	/** The view of the string chars handed out in place, created on first use. */
+	private BufferView bufferView;
+
+	/**
+	 * Instantiates a new json stream reader.
+	 *
+	 * @param in the reader of the document
+	 */
+	public JsonStreamReader(Reader in) {
+		if (in == null) {
+			throw new NullPointerException("in == null");
+		}
+		this.in = in;
+		stack[stackSize++] = EMPTY_DOCUMENT;
+	}
+
+	/**
+	 * Gets the pool of the repeated strings.
+	 *
+	 * @return the string pool, null if strings are not pooled
+	 */
+	public StringPool getStringPool() {
+		return stringPool;
+	}
+
+	/**
+	 * Sets the pool of the repeated strings, the codecs canonicalize the
+	 * values of its fields.
+	 *
+	 * @param stringPool the new string pool, null not to pool strings
+	 */
+	public void setStringPool(StringPool stringPool) {
+		this.stringPool = stringPool;
+	}
+
+	/**
+	 * Consumes the beginning of an array.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void beginArray() throws IOException {
+		expect(JsonToken.BEGIN_ARRAY);
+	}
+
+	/**
+	 * Consumes the end of an array.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void endArray() throws IOException {
+		expect(JsonToken.END_ARRAY);
+	}
+
+	/**
+	 * Consumes the beginning of an object.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void beginObject() throws IOException {
+		expect(JsonToken.BEGIN_OBJECT);
+	}
+
+	/**
+	 * Consumes the end of an object.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void endObject() throws IOException {
+		expect(JsonToken.END_OBJECT);
+	}
+
+	/**
+	 * Checks if the current array or object has another element.
+	 *
+	 * @return true, if successful
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public boolean hasNext() throws IOException {
+		JsonToken next = peek();
+		return next != JsonToken.END_OBJECT && next != JsonToken.END_ARRAY && next != JsonToken.END_DOCUMENT;
+	}
+
+	/**
+	 * Returns the type of the next token without consuming it.
+	 *
+	 * @return the json token
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonToken peek() throws IOException {
+		if (token != null) {
+			return token;
+		}
+		switch (stack[stackSize - 1]) {
+		case EMPTY_DOCUMENT:
+			stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+			return nextValue();
+		case EMPTY_ARRAY:
+			return nextInArray(true);
+		case NONEMPTY_ARRAY:
+			return nextInArray(false);
+		case EMPTY_OBJECT:
+			return nextInObject(true);
+		case DANGLING_NAME:
+			return objectValue();
+		case NONEMPTY_OBJECT:
+			return nextInObject(false);
+		case NONEMPTY_DOCUMENT:
+			if (nextNonWhitespace(false) != -1) {
+				pos--;
+				throw syntaxError("Expected the end of the document");
+			}
+			return token = JsonToken.END_DOCUMENT;
+		default:
+			throw new IllegalStateException("JsonStreamReader is closed");
+		}
+	}
+
+	/**
+	 * Consumes the name of the next object member.
+	 *
+	 * @return the name
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public String nextName() throws IOException {
+		if (peek() != JsonToken.NAME) {
+			throw unexpected(JsonToken.NAME);
+		}
+		token = null;
+		return nextQuotedValue();
+	}
+
+	/**
+	 * Consumes the next string value, numbers are returned as written.
+	 *
+	 * @return the string
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public String nextString() throws IOException {
+		JsonToken next = peek();
+		if (next == JsonToken.STRING) {
+			token = null;
+			return nextQuotedValue();
+		}
+		if (next == JsonToken.NUMBER) {
+			token = null;
+			return literal;
+		}
+		throw unexpected(JsonToken.STRING);
+	}
+
+	/**
+	 * Consumes the next string value, handing out its chars in place when
+	 * they are buffered whole and have no escapes instead of copying them
+	 * into a string. The chars are only valid until the next call on the
+	 * reader.
+	 *
+	 * @return the chars of the string
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public CharSequence nextStringChars() throws IOException {
+		if (peek() == JsonToken.STRING) {
+			for (int end = pos; end < limit; end++) {
+				char c = buffer[end];
+				if (c == '"') {
+					if (bufferView == null) {
+						bufferView = new BufferView();
+					}
+					bufferView.start = pos;
+					bufferView.end = end;
+					pos = end + 1;
+					token = null;
+					return bufferView;
+				} else if (c == '\\') {
+					break;
+				}
+			}
+		}
+		return nextString();
+	}
+
+	/**
+	 * Consumes the next boolean value.
+	 *
+	 * @return true, if successful
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public boolean nextBoolean() throws IOException {
+		if (peek() != JsonToken.BOOLEAN) {
+			throw unexpected(JsonToken.BOOLEAN);
+		}
+		token = null;
+		return "true".equals(literal);
+	}
+
+	/**
+	 * Consumes the next null value.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void nextNull() throws IOException {
+		if (peek() != JsonToken.NULL) {
+			throw unexpected(JsonToken.NULL);
+		}
+		token = null;
+	}
+
+	/**
+	 * Consumes the next int value, quoted numbers are accepted as the api
+	 * quotes some of them.
+	 *
+	 * @return the int
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public int nextInt() throws IOException {
+		String value = nextNumber();
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw syntaxError("Expected an int but was " + value);
+		}
+	}
+
+	/**
+	 * Consumes the next long value, quoted numbers are accepted.
+	 *
+	 * @return the long
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public long nextLong() throws IOException {
+		String value = nextNumber();
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw syntaxError("Expected a long but was " + value);
+		}
+	}
+
+	/**
+	 * Consumes the next double value, quoted numbers are accepted.
+	 *
+	 * @return the double
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public double nextDouble() throws IOException {
+		String value = nextNumber();
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			throw syntaxError("Expected a double but was " + value);
+		}
+	}
+
+	/**
+	 * Skips the next value, an object or array with all it contains. If
+	 * the next token is a name, its value is skipped along with it.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void skipValue() throws IOException {
+		JsonToken next = peek();
+		if (next == JsonToken.END_ARRAY || next == JsonToken.END_OBJECT || next == JsonToken.END_DOCUMENT) {
+			throw syntaxError("Expected a value but was " + next);
+		}
+		if (next == JsonToken.NAME) {
+			token = null;
+			skipQuotedValue();
+		}
+		int depth = 0;
+		do {
+			next = peek();
+			token = null;
+			switch (next) {
+			case BEGIN_ARRAY:
+			case BEGIN_OBJECT:
+				depth++;
+				break;
+			case END_ARRAY:
+			case END_OBJECT:
+				depth--;
+				break;
+			case NAME:
+			case STRING:
+				skipQuotedValue();
+				break;
+			default:
+				break;
+			}
+		} while (depth != 0);
+	}
+
+	/**
+	 * Reads the next value into a tree. Only the value is materialized, so
+	 * a large document can be bound one element at a time.
+	 *
+	 * @return the json element
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonElement readElement() throws IOException {
+		switch (peek()) {
+		case BEGIN_OBJECT:
+			JsonObject object = new JsonObject();
+			beginObject();
+			while (hasNext()) {
+				String name = nextName();
+				object.add(name, readElement());
+			}
+			endObject();
+			return object;
+		case BEGIN_ARRAY:
+			JsonArray array = new JsonArray();
+			beginArray();
+			while (hasNext()) {
+				array.add(readElement());
+			}
+			endArray();
+			return array;
+		case STRING:
+			return new JsonPrimitive(nextString());
+		case NUMBER:
+			return new JsonPrimitive(toNumber(nextString()));
+		case BOOLEAN:
+			return new JsonPrimitive(Boolean.valueOf(nextBoolean()));
+		case NULL:
+			nextNull();
+			return new JsonNull();
+		default:
+			throw syntaxError("Expected a value but was " + peek());
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		token = null;
+		stackSize = 1;
+		stack[0] = CLOSED;
+		in.close();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " at offset " + (offset + pos);
+	}
+
+	/**
+	 * Consumes the next token, which must be of the given kind.
+	 *
+	 * @param expected the expected token
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void expect(JsonToken expected) throws IOException {
+		if (peek() != expected) {
+			throw unexpected(expected);
+		}
+		token = null;
+	}
+
+	/**
+	 * Consumes the next number, quoted or not.
+	 *
+	 * @return the number as written
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private String nextNumber() throws IOException {
+		JsonToken next = peek();
+		if (next != JsonToken.NUMBER && next != JsonToken.STRING) {
+			throw unexpected(JsonToken.NUMBER);
+		}
+		return nextString();
+	}
+
+	/**
+	 * Peeks the next element of an array.
+	 *
+	 * @param first whether it is the first element
+	 *
+	 * @return the json token
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private JsonToken nextInArray(boolean first) throws IOException {
+		int c = nextNonWhitespace(true);
+		if (c == ']') {
+			stackSize--;
+			return token = JsonToken.END_ARRAY;
+		}
+		if (first) {
+			stack[stackSize - 1] = NONEMPTY_ARRAY;
+			pos--;
+		} else if (c != ',') {
+			pos--;
+			throw syntaxError("Unterminated array");
+		}
+		return nextValue();
+	}
+
+	/**
+	 * Peeks the next member of an object.
+	 *
+	 * @param first whether it is the first member
+	 *
+	 * @return the json token
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private JsonToken nextInObject(boolean first) throws IOException {
+		int c = nextNonWhitespace(true);
+		if (c == '}') {
+			stackSize--;
+			return token = JsonToken.END_OBJECT;
+		}
+		if (!first) {
+			if (c != ',') {
+				pos--;
+				throw syntaxError("Unterminated object");
+			}
+			c = nextNonWhitespace(true);
+		}
+		if (c != '"') {
+			pos--;
+			throw syntaxError("Expected a name");
+		}
+		stack[stackSize - 1] = DANGLING_NAME;
+		return token = JsonToken.NAME;
+	}
+
+	/**
+	 * Peeks the value of an object member.
+	 *
+	 * @return the json token
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private JsonToken objectValue() throws IOException {
+		if (nextNonWhitespace(true) != ':') {
+			pos--;
+			throw syntaxError("Expected ':'");
+		}
+		stack[stackSize - 1] = NONEMPTY_OBJECT;
+		return nextValue();
+	}
+
+	/**
+	 * Peeks the next value. A string is left in the buffer, right after its
+	 * opening quote.
+	 *
+	 * @return the json token
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private JsonToken nextValue() throws IOException {
+		int c = nextNonWhitespace(true);
+		switch (c) {
+		case '{':
+			push(EMPTY_OBJECT);
+			return token = JsonToken.BEGIN_OBJECT;
+		case '[':
+			push(EMPTY_ARRAY);
+			return token = JsonToken.BEGIN_ARRAY;
+		case '"':
+			return token = JsonToken.STRING;
+		default:
+			pos--;
+			literal = nextLiteral();
+			if ("null".equals(literal)) {
+				return token = JsonToken.NULL;
+			}
+			if ("true".equals(literal) || "false".equals(literal)) {
+				return token = JsonToken.BOOLEAN;
+			}
+			char first = literal.charAt(0);
+			if (first == '-' || (first >= '0' && first <= '9')) {
+				return token = JsonToken.NUMBER;
+			}
+			throw syntaxError("Unexpected value " + literal);
+		}
+	}
+
+	/**
+	 * Pushes a scope.
+	 *
+	 * @param scope the scope
+	 */
+	private void push(int scope) {
+		if (stackSize == stack.length) {
+			stack = Arrays.copyOf(stack, stackSize * 2);
+		}
+		stack[stackSize++] = scope;
+	}
+
+	/**
+	 * Reads a string up to its closing quote, the opening one has been
+	 * consumed. Strings that do not cross the buffer and have no escapes are
+	 * copied once.
+	 *
+	 * @return the string
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private String nextQuotedValue() throws IOException {
+		StringBuilder builder = null;
+		while (true) {
+			int start = pos;
+			while (pos < limit) {
+				char c = buffer[pos++];
+				if (c == '"') {
+					if (builder == null) {
+						return new String(buffer, start, pos - start - 1);
+					}
+					builder.append(buffer, start, pos - start - 1);
+					return builder.toString();
+				} else if (c == '\\') {
+					if (builder == null) {
+						builder = new StringBuilder(Math.max(2 * (pos - start), 16));
+					}
+					builder.append(buffer, start, pos - start - 1);
+					builder.append(readEscapeCharacter());
+					start = pos;
+				}
+			}
+			if (builder == null) {
+				builder = new StringBuilder(Math.max(2 * (pos - start), 16));
+			}
+			builder.append(buffer, start, pos - start);
+			if (!fill(1)) {
+				throw syntaxError("Unterminated string");
+			}
+		}
+	}
+
+	/**
+	 * Skips a string up to its closing quote without decoding it.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void skipQuotedValue() throws IOException {
+		while (pos < limit || fill(1)) {
+			char c = buffer[pos++];
+			if (c == '"') {
+				return;
+			} else if (c == '\\') {
+				if (pos == limit && !fill(1)) {
+					break;
+				}
+				// the escaped char cannot close the string, \\u escapes are plain hex digits.
+				pos++;
+			}
+		}
+		throw syntaxError("Unterminated string");
+	}
+
+	/**
+	 * Reads the char of an escape sequence, the backslash has been consumed.
+	 *
+	 * @return the char
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private char readEscapeCharacter() throws IOException {
+		if (pos == limit && !fill(1)) {
+			throw syntaxError("Unterminated escape sequence");
+		}
+		char escaped = buffer[pos++];
+		switch (escaped) {
+		case 'u':
+			if (pos + 4 > limit && !fill(4)) {
+				throw syntaxError("Unterminated escape sequence");
+			}
+			char result = 0;
+			for (int i = pos, end = pos + 4; i < end; i++) {
+				char c = buffer[i];
+				result <<= 4;
+				if (c >= '0' && c <= '9') {
+					result += (c - '0');
+				} else if (c >= 'a' && c <= 'f') {
+					result += (c - 'a' + 10);
+				} else if (c >= 'A' && c <= 'F') {
+					result += (c - 'A' + 10);
+				} else {
+					throw syntaxError("Malformed escape sequence \\u" + new String(buffer, pos, 4));
+				}
+			}
+			pos += 4;
+			return result;
+		case 't':
+			return '\t';
+		case 'b':
+			return '\b';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 'f':
+			return '\f';
+		default:
+			// quote, backslash and slash stand for themselves.
+			return escaped;
+		}
+	}
+
+	/**
+	 * Reads an unquoted literal: a number, true, false or null.
+	 *
+	 * @return the literal
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private String nextLiteral() throws IOException {
+		StringBuilder builder = null;
+		while (true) {
+			int start = pos;
+			while (pos < limit) {
+				if (isDelimiter(buffer[pos])) {
+					return literal(builder, start);
+				}
+				pos++;
+			}
+			if (builder == null) {
+				builder = new StringBuilder();
+			}
+			builder.append(buffer, start, pos - start);
+			if (!fill(1)) {
+				return literal(builder, pos);
+			}
+		}
+	}
+
+	/**
+	 * Completes a literal.
+	 *
+	 * @param builder the chars read before the buffer was refilled, null for none
+	 * @param start the start of the literal in the buffer
+	 *
+	 * @return the literal
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private String literal(StringBuilder builder, int start) throws IOException {
+		String value = (builder == null) ? new String(buffer, start, pos - start)
+				: builder.append(buffer, start, pos - start).toString();
+		if (value.isEmpty()) {
+			throw syntaxError("Expected a value");
+		}
+		return value;
+	}
+
+	/**
+	 * Checks if the char ends a literal.
+	 *
+	 * @param c the c
+	 *
+	 * @return true, if is delimiter
+	 */
+	private static boolean isDelimiter(char c) {
+		switch (c) {
+		case ' ':
+		case '\t':
+		case '\n':
+		case '\r':
+		case ',':
+		case ':':
+		case '[':
+		case ']':
+		case '{':
+		case '}':
+		case '"':
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the next char that is not whitespace, consuming it.
+	 *
+	 * @param throwOnEof whether the end of the input is an error
+	 *
+	 * @return the char, -1 at the end of the input
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private int nextNonWhitespace(boolean throwOnEof) throws IOException {
+		while (pos < limit || fill(1)) {
+			char c = buffer[pos++];
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+				return c;
+			}
+		}
+		if (throwOnEof) {
+			throw new EOFException("End of input at offset " + offset);
+		}
+		return -1;
+	}
+
+	/**
+	 * Fills the buffer, keeping the chars not consumed yet.
+	 *
+	 * @param minimum the minimum number of chars to have in the buffer
+	 *
+	 * @return false, if the input ended first
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private boolean fill(int minimum) throws IOException {
+		offset += pos;
+		if (pos != limit) {
+			limit -= pos;
+			System.arraycopy(buffer, pos, buffer, 0, limit);
+		} else {
+			limit = 0;
+		}
+		pos = 0;
+		int read;
+		while ((read = in.read(buffer, limit, buffer.length - limit)) != -1) {
+			limit += read;
+			if (limit >= minimum) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Converts a number literal the way the gson parser does.
+	 *
+	 * @param value the value
+	 *
+	 * @return the number
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private Number toNumber(String value) throws IOException {
+		try {
+			if (value.indexOf('.') == -1 && value.indexOf('e') == -1 && value.indexOf('E') == -1) {
+				return (value.length() < 19) ? (Number) Long.valueOf(value) : new BigInteger(value);
+			}
+			return new BigDecimal(value);
+		} catch (NumberFormatException e) {
+			throw syntaxError("Malformed number " + value);
+		}
+	}
+
+	/**
+	 * Creates the error of an unexpected token.
+	 *
+	 * @param expected the expected token
+	 *
+	 * @return the json parse exception
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private JsonParseException unexpected(JsonToken expected) throws IOException {
+		return syntaxError("Expected " + expected + " but was " + peek());
+	}
+
+	/**
+	 * Creates a syntax error.
+	 *
+	 * @param message the message
+	 *
+	 * @return the json parse exception
+	 */
+	private JsonParseException syntaxError(String message) {
+		return new JsonParseException(message + " at offset " + (offset + pos));
+	}
+
+	/**
+	 * The Class BufferView, the chars of a string in the buffer.
+	 */
+	private class BufferView implements CharSequence {
+
+		/** The start of the chars in the buffer. */
+		private int start;
+
+		/** The end of the chars in the buffer. */
+		private int end;
+
+		/* (non-Javadoc)
+		 * @see java.lang.CharSequence#length()
+		 */
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.CharSequence#charAt(int)
+		 */
+		@Override
+		public char charAt(int index) {
+			return buffer[start + index];
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.CharSequence#subSequence(int, int)
+		 */
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			return new String(buffer, start + from, to - from);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return new String(buffer, start, end - start);
+		}
+	}
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * The Class JsonStreamWriter.
+ *
+ * Writes a json document one token at a time, the counterpart of the
+ * {@link JsonStreamReader}. The methods follow the ones of the gson
+ * <code>JsonWriter</code>, the output is compact.
+ */
+public class JsonStreamWriter implements Closeable, Flushable {
+
+	/** The Constant EMPTY_DOCUMENT. */
+	private static final int EMPTY_DOCUMENT = 0;
+
+	/** The Constant NONEMPTY_DOCUMENT. */
+	private static final int NONEMPTY_DOCUMENT = 1;
+
+	/** The Constant EMPTY_ARRAY. */
+	private static final int EMPTY_ARRAY = 2;
+
+	/** The Constant NONEMPTY_ARRAY. */
+	private static final int NONEMPTY_ARRAY = 3;
+
+	/** The Constant EMPTY_OBJECT. */
+	private static final int EMPTY_OBJECT = 4;
+
+	/** The Constant DANGLING_NAME. */
+	private static final int DANGLING_NAME = 5;
+
+	/** The Constant NONEMPTY_OBJECT. */
+	private static final int NONEMPTY_OBJECT = 6;
+
+	/** The out. */
+	private final Writer out;
+
+	/** The scopes of the values being written. */
+	private int[] stack = new int[32];
+
+	/** The stack size. */
+	private int stackSize;
+
+	/**
+	 * Instantiates a new json stream writer.
+	 *
+	 * @param out the writer of the document
+	 */
+	public JsonStreamWriter(Writer out) {
+		if (out == null) {
+			throw new NullPointerException("out == null");
+		}
+		this.out = out;
+		stack[stackSize++] = EMPTY_DOCUMENT;
+	}
+
+	/**
+	 * Begins an array.
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonStreamWriter beginArray() throws IOException {
+		beforeValue();
+		push(EMPTY_ARRAY);
+		out.write('[');
+		return this;
+	}
+
+	/**
+	 * Ends the current array.
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonStreamWriter endArray() throws IOException {
+		return close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+	}
+
+	/**
+	 * Begins an object.
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonStreamWriter beginObject() throws IOException {
+		beforeValue();
+		push(EMPTY_OBJECT);
+		out.write('{');
+		return this;
+	}
+
+	/**
+	 * Ends the current object.
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonStreamWriter endObject() throws IOException {
+		return close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+	}
+
+	/**
+	 * Writes the name of the next object member.
+	 *
+	 * @param name the name
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonStreamWriter name(String name) throws IOException {
+		if (name == null) {
+			throw new NullPointerException("name == null");
+		}
+		int scope = stack[stackSize - 1];
+		if (scope == NONEMPTY_OBJECT) {
+			out.write(',');
+		} else if (scope != EMPTY_OBJECT) {
+			throw new IllegalStateException("Nesting problem: a name outside of an object");
+		}
+		stack[stackSize - 1] = DANGLING_NAME;
+		string(name);
+		out.write(':');
+		return this;
+	}
+
+	/**
+	 * Writes a string value.
+	 *
+	 * @param value the value, null writes null
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonStreamWriter value(String value) throws IOException {
+		if (value == null) {
+			return nullValue();
+		}
+		beforeValue();
+		string(value);
+		return this;
+	}
+
+	/**
+	 * Writes a boolean value.
+	 *
+	 * @param value the value
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonStreamWriter value(boolean value) throws IOException {
+		beforeValue();
+		out.write(value ? "true" : "false");
+		return this;
+	}
+
+	/**
+	 * Writes a long value.
+	 *
+	 * @param value the value
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonStreamWriter value(long value) throws IOException {
+		beforeValue();
+		out.write(Long.toString(value));
+		return this;
+	}
+
+	/**
+	 * Writes a double value.
+	 *
+	 * @param value the value, finite
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonStreamWriter value(double value) throws IOException {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+		}
+		beforeValue();
+		out.write(Double.toString(value));
+		return this;
+	}
+
+	/**
+	 * Writes a null value.
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public JsonStreamWriter nullValue() throws IOException {
+		beforeValue();
+		out.write("null");
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Flushable#flush()
+	 */
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		out.close();
+		if (stackSize > 1 || stack[0] != NONEMPTY_DOCUMENT) {
+			throw new IOException("Incomplete document");
+		}
+	}
+
+	/**
+	 * Ends the current array or object.
+	 *
+	 * @param empty the scope of the empty one
+	 * @param nonempty the scope of the nonempty one
+	 * @param bracket the closing bracket
+	 *
+	 * @return the json stream writer
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private JsonStreamWriter close(int empty, int nonempty, char bracket) throws IOException {
+		int scope = stack[stackSize - 1];
+		if (scope != empty && scope != nonempty) {
+			throw new IllegalStateException("Nesting problem: " + bracket + " does not close the current scope");
+		}
+		stackSize--;
+		out.write(bracket);
+		return this;
+	}
+
+	/**
+	 * Updates the scope before a value is written.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void beforeValue() throws IOException {
+		switch (stack[stackSize - 1]) {
+		case EMPTY_DOCUMENT:
+			stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+			break;
+		case EMPTY_ARRAY:
+			stack[stackSize - 1] = NONEMPTY_ARRAY;
+			break;
+		case NONEMPTY_ARRAY:
+			out.write(',');
+			break;
+		case DANGLING_NAME:
+			stack[stackSize - 1] = NONEMPTY_OBJECT;
+			break;
+		case NONEMPTY_DOCUMENT:
+			throw new IllegalStateException("A json document must have only one top level value");
+		default:
+			throw new IllegalStateException("Nesting problem: a value without a name in an object");
+		}
+	}
+
+	/**
+	 * Pushes a scope.
+	 *
+	 * @param scope the scope
+	 */
+	private void push(int scope) {
+		if (stackSize == stack.length) {
+			stack = Arrays.copyOf(stack, stackSize * 2);
+		}
+		stack[stackSize++] = scope;
+	}
+
+	/**
+	 * Writes a quoted string, escaping what json requires.
+	 *
+	 * @param value the value
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void string(String value) throws IOException {
+		out.write('"');
+		int last = 0;
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			String replacement;
+			if (c == '"') {
+				replacement = "\\\"";
+			} else if (c == '\\') {
+				replacement = "\\\\";
+			} else if (c == '\n') {
+				replacement = "\\n";
+			} else if (c == '\r') {
+				replacement = "\\r";
+			} else if (c == '\t') {
+				replacement = "\\t";
+			} else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+				replacement = String.format("\\u%04x", (int) c);
+			} else {
+				continue;
+			}
+			if (last < i) {
+				out.write(value, last, i - last);
+			}
+			out.write(replacement);
+			last = i + 1;
+		}
+		if (last < length) {
+			out.write(value, last, length - last);
+		}
+		out.write('"');
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+/**
+ * The Enum JsonToken.
+ *
+ * The kinds of token a {@link JsonStreamReader} returns, named after the
+ * tokens of the gson streaming api.
+ */
+public enum JsonToken {
+
+	/** The begin array. */
+	BEGIN_ARRAY,
+
+	/** The end array. */
+	END_ARRAY,
+
+	/** The begin object. */
+	BEGIN_OBJECT,
+
+	/** The end object. */
+	END_OBJECT,
+
+	/** The name of an object member. */
+	NAME,
+
+	/** The string. */
+	STRING,
+
+	/** The number. */
+	NUMBER,
+
+	/** The boolean. */
+	BOOLEAN,
+
+	/** The null. */
+	NULL,
+
+	/** The end of the document. */
+	END_DOCUMENT
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.googleapis.ajax.services.constant.ApplicationConstants;
+
+/**
+ * The Class StringPool.
+ *
+ * Canonicalizes the values of low cardinality string fields, e.g. the
+ * publisher of a news result, so that the results of a long crawl share
+ * one instance of each value instead of holding a copy per result. The
+ * pool is a fixed size table of weak references indexed by hash: it never
+ * grows, never blocks, does not keep a value alive and a value that loses
+ * its slot to another one is simply not shared from then on.
+ */
+public class StringPool {
+
+	/** The canonical values, by hash. */
+	private final AtomicReferenceArray<WeakReference<String>> table;
+
+	/** The mask of the table indexes. */
+	private final int mask;
+
+	/** The json names of the pooled fields. */
+	private final Set<String> fields;
+
+	/** The lookups. */
+	private final LongAdder lookups = new LongAdder();
+
+	/** The values replaced by a canonical one. */
+	private final LongAdder deduplicated = new LongAdder();
+
+	/** The estimated bytes of the values replaced. */
+	private final LongAdder bytesSaved = new LongAdder();
+
+	/**
+	 * Instantiates a new string pool.
+	 *
+	 * @param capacity the number of values held, rounded up to a power of two
+	 * @param fields the json names of the pooled fields
+	 */
+	public StringPool(int capacity, Collection<String> fields) {
+		int size = Integer.highestOneBit(Math.max(capacity, 1) - 1) << 1;
+		this.table = new AtomicReferenceArray<WeakReference<String>>(Math.max(size, 1));
+		this.mask = table.length() - 1;
+		this.fields = Collections.unmodifiableSet(new HashSet<String>(fields));
+	}
+
+	/**
+	 * Gets the pool of the application constants, shared by the queries
+	 * unless they are given another.
+	 *
+	 * @return the default pool, null if pooling is disabled
+	 */
+	public static StringPool getDefault() {
+		return DefaultHolder.INSTANCE;
+	}
+
+	/**
+	 * Gets the json names of the pooled fields.
+	 *
+	 * @return the fields
+	 */
+	public Set<String> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Canonicalizes the value of a field if the field is pooled.
+	 *
+	 * @param field the json name of the field
+	 * @param value the value
+	 *
+	 * @return the canonical value, or the value itself
+	 */
+	public String canonicalize(String field, String value) {
+		return (value == null || !fields.contains(field)) ? value : intern(value);
+	}
+
+	/**
+	 * Canonicalizes a value.
+	 *
+	 * @param value the value
+	 *
+	 * @return the canonical value, the value itself if it had none
+	 */
+	public String intern(String value) {
+		lookups.increment();
+		int hash = value.hashCode();
+		int index = (hash ^ (hash >>> 16)) & mask;
+		WeakReference<String> reference = table.get(index);
+		String canonical = (reference == null) ? null : reference.get();
+		if (canonical != null && canonical.equals(value)) {
+			if (canonical != value) {
+				deduplicated.increment();
+				bytesSaved.add(sizeOf(value));
+			}
+			return canonical;
+		}
+		table.lazySet(index, new WeakReference<String>(value));
+		return value;
+	}
+
+	/**
+	 * Gets the number of values looked up.
+	 *
+	 * @return the lookup count
+	 */
+	public long getLookupCount() {
+		return lookups.sum();
+	}
+
+	/**
+	 * Gets the number of values replaced by a canonical one.
+	 *
+	 * @return the deduplicated count
+	 */
+	public long getDeduplicatedCount() {
+		return deduplicated.sum();
+	}
+
+	/**
+	 * Gets the estimated memory saved, the size of the values replaced by a
+	 * canonical one, as long as the results holding them are reachable.
+	 *
+	 * @return the bytes saved
+	 */
+	public long getBytesSaved() {
+		return bytesSaved.sum();
+	}
+
+	/**
+	 * Estimates the heap size of a string on a 64 bit vm with compressed
+	 * oops and compact strings: the string, the array header and the
+	 * contents, each rounded up to 8 bytes.
+	 *
+	 * @param value the value
+	 *
+	 * @return the size
+	 */
+	static long sizeOf(String value) {
+		int length = value.length();
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) > 0xFF) {
+				length = value.length() * 2;
+				break;
+			}
+		}
+		return 24 + ((16 + length + 7) & ~7);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "StringPool [capacity=" + table.length() + ", lookups=" + getLookupCount() + ", deduplicated="
+				+ getDeduplicatedCount() + ", bytesSaved=" + getBytesSaved() + "]";
+	}
+
+	/**
+	 * The Class DefaultHolder.
+	 */
+	private static class DefaultHolder {
+
+		/** The Constant INSTANCE. */
+		private static final StringPool INSTANCE = (ApplicationConstants.STRING_POOL_CAPACITY > 0)
+				? new StringPool(ApplicationConstants.STRING_POOL_CAPACITY,
+						Arrays.asList(ApplicationConstants.STRING_POOL_FIELDS.split("\\s*,\\s*")))
+				: null;
+	}
+}
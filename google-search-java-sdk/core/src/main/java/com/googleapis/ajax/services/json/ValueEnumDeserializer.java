@@ -0,0 +1,79 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.googleapis.ajax.common.ValueEnum;
+
+/**
+ * The Class ValueEnumDeserializer.
+ *
+ * Deserializes any enum that implements {@link ValueEnum} from its value,
+ * falling back on the constant name. The lookup table of an enum is built
+ * the first time it is deserialized, one instance serves every enum.
+ */
+public class ValueEnumDeserializer implements JsonDeserializer<ValueEnum> {
+
+	/** The lookup tables from value to constant, per enum. */
+	private static final ClassValue<Map<String, ValueEnum>> CONSTANTS = new ClassValue<Map<String, ValueEnum>>() {
+
+		@Override
+		protected Map<String, ValueEnum> computeValue(Class<?> type) {
+			Map<String, ValueEnum> constants = new HashMap<String, ValueEnum>();
+			for (Object constant : type.getEnumConstants()) {
+				constants.put(((Enum<?>) constant).name(), (ValueEnum) constant);
+			}
+			// the values win over the names they clash with.
+			for (Object constant : type.getEnumConstants()) {
+				constants.put(((ValueEnum) constant).value(), (ValueEnum) constant);
+			}
+			return Collections.unmodifiableMap(constants);
+		}
+	};
+
+	/**
+	 * Looks up the constant of an enum by value, then by name.
+	 *
+	 * @param type the enum type
+	 * @param value the value or name
+	 *
+	 * @return the constant, null if there is none
+	 */
+	static ValueEnum lookup(Class<?> type, String value) {
+		return CONSTANTS.get(type).get(value);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.google.gson.JsonDeserializer#deserialize(com.google.gson.JsonElement, java.lang.reflect.Type, com.google.gson.JsonDeserializationContext)
+	 */
+	@Override
+	public ValueEnum deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+			throws JsonParseException {
+		if (!(typeOfT instanceof Class<?>) || !((Class<?>) typeOfT).isEnum()) {
+			throw new JsonParseException("Not a value enum: " + typeOfT);
+		}
+		return lookup((Class<?>) typeOfT, json.getAsString());
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.paging;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.common.PagedList.Page;
+
+/**
+ * The Class CursorStarts.
+ *
+ * The start offsets of the pages of a result cursor that are still to be
+ * fetched, in cursor order. Each page read adds the pages of its cursor
+ * after the highest start known, the first one the pages after its own, so
+ * a page listed again by a later cursor is never fetched twice.
+ * 
+ * The starts are not thread safe.
+ */
+public class CursorStarts {
+
+	/** The start offsets known and not yet taken, in cursor order. */
+	private final Deque<Integer> starts = new ArrayDeque<Integer>();
+
+	/** The highest start offset known, -1 before the first page is read. */
+	private int highestStart = -1;
+
+	/**
+	 * Gets the start offsets of the pages of the cursor of the first page
+	 * that come after it, in cursor order.
+	 * 
+	 * @param firstPage the first page
+	 * 
+	 * @return the start offsets
+	 */
+	public static List<Integer> getNextStarts(PagedList<?> firstPage) {
+		CursorStarts starts = new CursorStarts();
+		starts.add(firstPage);
+		return new ArrayList<Integer>(starts.starts);
+	}
+
+	/**
+	 * Adds the start offsets of the pages of the cursor of a page read after
+	 * the ones already known.
+	 * 
+	 * @param list the page read
+	 */
+	public void add(PagedList<?> list) {
+		List<Page> pages = list.getPages();
+		if (pages == null || pages.isEmpty()) {
+			return;
+		}
+		if (highestStart < 0) {
+			int currentPageIndex = list.getCurrentPageIndex();
+			if (currentPageIndex < 0 || currentPageIndex >= pages.size()) {
+				return;
+			}
+			highestStart = pages.get(currentPageIndex).getStart();
+		}
+		for (Page page : pages) {
+			if (page.getStart() > highestStart) {
+				starts.add(page.getStart());
+				highestStart = page.getStart();
+			}
+		}
+	}
+
+	/**
+	 * Takes the next start offset.
+	 * 
+	 * @return the start offset, null if none is known
+	 */
+	public Integer poll() {
+		return starts.poll();
+	}
+
+	/**
+	 * Checks if no start offset is known.
+	 * 
+	 * @return true, if is empty
+	 */
+	public boolean isEmpty() {
+		return starts.isEmpty();
+	}
+
+	/**
+	 * Forgets the start offsets known.
+	 */
+	public void clear() {
+		starts.clear();
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.paging;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.googleapis.ajax.common.PagedArrayList;
+
+/**
+ * The Class MergedPagedList.
+ *
+ * The results of all the pages of a cursor in cursor order, with the cursor
+ * of the first page. The pages that failed are left out and their errors
+ * kept by start offset, so that the results of the others are not lost.
+ */
+public class MergedPagedList<E> extends PagedArrayList<E> {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = -3486210563795621347L;
+
+	/** The errors of the failed pages by start offset, in cursor order. */
+	private final Map<Integer, Throwable> failures = new LinkedHashMap<Integer, Throwable>();
+
+	/**
+	 * Adds the error of a failed page.
+	 *
+	 * @param start the start offset of the page
+	 * @param error the error
+	 */
+	void addFailure(int start, Throwable error) {
+		failures.put(start, error);
+	}
+
+	/**
+	 * Gets the errors of the failed pages.
+	 *
+	 * @return the errors by start offset of the page, in cursor order
+	 */
+	public Map<Integer, Throwable> getFailures() {
+		return Collections.unmodifiableMap(failures);
+	}
+
+	/**
+	 * Checks if every page was read.
+	 *
+	 * @return true, if no page failed
+	 */
+	public boolean isComplete() {
+		return failures.isEmpty();
+	}
+}
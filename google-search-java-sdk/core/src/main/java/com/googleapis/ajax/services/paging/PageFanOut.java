@@ -0,0 +1,193 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.paging;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+import com.googleapis.ajax.common.PagedList;
+
+/**
+ * The Class PageFanOut.
+ *
+ * Fetches the pages after the first one of a cursor concurrently, at most
+ * the parallelism level at a time, and merges them back in cursor order.
+ * The start offsets of all the pages are known from the cursor of the first
+ * page, so a new page is requested as soon as one of those in flight
+ * completes. A failed page is recorded and the others are still merged.
+ */
+public class PageFanOut<T> {
+
+	/** The page at a start offset. */
+	private final IntFunction<CompletableFuture<PagedList<T>>> page;
+
+	/** The most pages in flight at once. */
+	private final int parallelism;
+
+	/**
+	 * Instantiates a new page fan out.
+	 *
+	 * @param page the page at a start offset
+	 * @param parallelism the most pages in flight at once
+	 */
+	public PageFanOut(IntFunction<CompletableFuture<PagedList<T>>> page, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be positive: " + parallelism);
+		}
+		this.page = page;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Fetches the pages of the cursor of the first page that come after it
+	 * once it is read, and merges them all. The merge fails if the first page
+	 * does. Cancelling the returned future cancels the pages in flight and
+	 * requests no more.
+	 *
+	 * @param firstPage the future of the first page
+	 *
+	 * @return the future of the merged paged list
+	 */
+	public CompletableFuture<MergedPagedList<T>> fetchAll(final CompletableFuture<PagedList<T>> firstPage) {
+		final CompletableFuture<MergedPagedList<T>> merged = new CompletableFuture<MergedPagedList<T>>();
+		merged.whenComplete((list, error) -> {
+			if (merged.isCancelled()) {
+				firstPage.cancel(true);
+			}
+		});
+		firstPage.whenComplete((list, error) -> {
+			if (error != null) {
+				merged.completeExceptionally((error instanceof CompletionException) ? error.getCause() : error);
+			} else {
+				fetchAll(list, merged);
+			}
+		});
+		return merged;
+	}
+
+	/**
+	 * Fetches the pages of the cursor of the first page that come after it,
+	 * and completes the merged list once they are all complete.
+	 *
+	 * @param firstPage the first page
+	 * @param merged the future of the merged paged list
+	 */
+	private void fetchAll(final PagedList<T> firstPage, final CompletableFuture<MergedPagedList<T>> merged) {
+		final List<Integer> starts = CursorStarts.getNextStarts(firstPage);
+		final int count = starts.size();
+		final AtomicReferenceArray<CompletableFuture<PagedList<T>>> futures = new AtomicReferenceArray<CompletableFuture<PagedList<T>>>(count);
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicInteger remaining = new AtomicInteger(count);
+		if (count == 0) {
+			merged.complete(merge(firstPage, starts, futures));
+			return;
+		}
+		merged.whenComplete((list, error) -> {
+			if (merged.isCancelled()) {
+				for (int i = 0; i < count; i++) {
+					CompletableFuture<PagedList<T>> future = futures.get(i);
+					if (future != null) {
+						future.cancel(true);
+					}
+				}
+			}
+		});
+		final AtomicInteger requested = new AtomicInteger();
+		Runnable request = new Runnable() {
+
+			@Override
+			public void run() {
+				if (requested.getAndIncrement() != 0) {
+					return;
+				}
+				do {
+					requestNext();
+				} while (requested.decrementAndGet() != 0);
+			}
+
+			/**
+			 * Requests the next page. A page that completes at once asks for
+			 * the next one from within this call, which the loop in run takes
+			 * up instead of recursing, so a cursor of any length is fetched in
+			 * a constant stack depth.
+			 */
+			private void requestNext() {
+				int index = next.getAndIncrement();
+				if (index >= count) {
+					return;
+				}
+				CompletableFuture<PagedList<T>> future;
+				if (merged.isDone()) {
+					future = new CompletableFuture<PagedList<T>>();
+					future.cancel(false);
+				} else {
+					try {
+						future = page.apply(starts.get(index));
+					} catch (RuntimeException e) {
+						future = new CompletableFuture<PagedList<T>>();
+						future.completeExceptionally(e);
+					}
+				}
+				futures.set(index, future);
+				future.whenComplete((list, error) -> {
+					if (remaining.decrementAndGet() == 0) {
+						merged.complete(merge(firstPage, starts, futures));
+					} else {
+						run();
+					}
+				});
+			}
+		};
+		for (int i = 0; i < Math.min(parallelism, count); i++) {
+			request.run();
+		}
+	}
+
+	/**
+	 * Merges the pages in cursor order, once they are all complete.
+	 *
+	 * @param firstPage the first page
+	 * @param starts the start offsets of the pages after it
+	 * @param futures the futures of the pages after it
+	 *
+	 * @return the merged paged list
+	 */
+	private MergedPagedList<T> merge(PagedList<T> firstPage, List<Integer> starts,
+			AtomicReferenceArray<CompletableFuture<PagedList<T>>> futures) {
+		MergedPagedList<T> merged = new MergedPagedList<T>();
+		merged.getCursor().setPages(firstPage.getPages());
+		merged.getCursor().setCurrentPageIndex(firstPage.getCurrentPageIndex());
+		merged.getCursor().setEstimatedResultCount(firstPage.getEstimatedResultCount());
+		merged.getCursor().setMoreResultsUrl(firstPage.getMoreResultsUrl());
+		merged.addAll(firstPage);
+		for (int i = 0; i < starts.size(); i++) {
+			try {
+				merged.addAll(futures.get(i).join());
+			} catch (CompletionException e) {
+				merged.addFailure(starts.get(i), e.getCause());
+			} catch (CancellationException e) {
+				merged.addFailure(starts.get(i), e);
+			}
+		}
+		return merged;
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.paging;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.services.GoogleSearchException;
+
+/**
+ * The Class PageIterator.
+ *
+ * Iterates over the results of all the pages of a cursor. The first page is
+ * fetched on the first call to {@link #hasNext()}, its results are handed out
+ * as soon as it is read while up to the prefetch depth of the pages after it
+ * are fetched in the background. A page is only requested once the reader is
+ * within the prefetch depth of it, so stopping early never fetches the rest,
+ * and closing the iterator cancels the pages still in flight.
+ * 
+ * The iterator is not thread safe, as any other iterator.
+ */
+public class PageIterator<T> implements Iterator<T>, AutoCloseable {
+
+	/** The first page, at the start of the query. */
+	private final Supplier<CompletableFuture<PagedList<T>>> firstPage;
+
+	/** The page at a start offset. */
+	private final IntFunction<CompletableFuture<PagedList<T>>> page;
+
+	/** The pages fetched ahead of the one being read. */
+	private final int prefetchPages;
+
+	/** The pages requested and not yet read, in cursor order. */
+	private final Deque<CompletableFuture<PagedList<T>>> pending = new ArrayDeque<CompletableFuture<PagedList<T>>>();
+
+	/** The start offsets of the pages known from the cursors and not yet requested. */
+	private final CursorStarts starts = new CursorStarts();
+
+	/** The results of the page being read. */
+	private Iterator<T> current = Collections.<T>emptyIterator();
+
+	/** Whether the first page is requested. */
+	private boolean started;
+
+	/** Whether the iterator is closed. */
+	private boolean closed;
+
+	/**
+	 * Instantiates a new page iterator.
+	 * 
+	 * @param firstPage the first page, at the start of the query
+	 * @param page the page at a start offset
+	 * @param prefetchPages the pages fetched ahead of the one being read, 0 to fetch each when it is reached
+	 */
+	public PageIterator(Supplier<CompletableFuture<PagedList<T>>> firstPage,
+			IntFunction<CompletableFuture<PagedList<T>>> page, int prefetchPages) {
+		if (prefetchPages < 0) {
+			throw new IllegalArgumentException("The prefetch pages must not be negative: " + prefetchPages);
+		}
+		this.firstPage = firstPage;
+		this.page = page;
+		this.prefetchPages = prefetchPages;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#hasNext()
+	 */
+	@Override
+	public boolean hasNext() {
+		while (!current.hasNext()) {
+			if (closed) {
+				return false;
+			}
+			if (!started) {
+				started = true;
+				pending.add(firstPage.get());
+			} else if (pending.isEmpty()) {
+				if (starts.isEmpty()) {
+					return false;
+				}
+				pending.add(page.apply(starts.poll()));
+			}
+			PagedList<T> list = await(pending.poll());
+			starts.add(list);
+			prefetch();
+			current = list.iterator();
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#next()
+	 */
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return current.next();
+	}
+
+	/**
+	 * Closes the iterator, cancelling the pages still in flight. The
+	 * iterator has no next result after.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		current = Collections.<T>emptyIterator();
+		for (CompletableFuture<PagedList<T>> future : pending) {
+			future.cancel(true);
+		}
+		pending.clear();
+		starts.clear();
+	}
+
+	/**
+	 * Requests the known pages up to the prefetch depth ahead.
+	 */
+	private void prefetch() {
+		while (pending.size() < prefetchPages && !starts.isEmpty()) {
+			pending.add(page.apply(starts.poll()));
+		}
+	}
+
+	/**
+	 * Waits for a page. If it failed the pages after it are cancelled, as
+	 * the results would no longer be in order.
+	 * 
+	 * @param future the future of the page
+	 * 
+	 * @return the page
+	 */
+	private PagedList<T> await(CompletableFuture<PagedList<T>> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			close();
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new GoogleSearchException(cause);
+		} catch (CancellationException e) {
+			close();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.googleapis.ajax.services.constant.ApplicationConstants;
+
+/**
+ * The Class RateLimiter.
+ *
+ * Spreads the calls made with an application key over time so that they
+ * stay within its quota. An overall limit counts the requests, and an
+ * endpoint may have a limit of its own counted in any unit, e.g. the
+ * elements of a distance matrix. Taking permits never locks, so the
+ * limiter can be shared by all the queries of an application key. When the
+ * server reports that the quota is exceeded the rates are halved, and they
+ * recover gradually as calls succeed again.
+ */
+public class RateLimiter {
+
+	/** The limiters by application key. */
+	private static final ConcurrentMap<String, RateLimiter> LIMITERS = new ConcurrentHashMap<String, RateLimiter>();
+
+	/** The overall limit, null for none. */
+	private final TokenBucket limit;
+
+	/** The source of the time in nanos. */
+	private final LongSupplier nanoTime;
+
+	/** The limits by endpoint. */
+	private final Map<String, TokenBucket> endpointLimits = new ConcurrentHashMap<String, TokenBucket>();
+
+	/** The acquired. */
+	private final LongAdder acquired = new LongAdder();
+
+	/** The delayed. */
+	private final LongAdder delayed = new LongAdder();
+
+	/** The rejected. */
+	private final LongAdder rejected = new LongAdder();
+
+	/** The over limit. */
+	private final LongAdder overLimit = new LongAdder();
+
+	/**
+	 * Gets the limiter shared by everything using an application key,
+	 * configured from the application constants.
+	 *
+	 * @param applicationKey the application key
+	 *
+	 * @return the rate limiter
+	 */
+	public static RateLimiter forApplicationKey(String applicationKey) {
+		String key = (applicationKey == null) ? "" : applicationKey;
+		RateLimiter limiter = LIMITERS.get(key);
+		if (limiter == null) {
+			RateLimiter created = new RateLimiter();
+			limiter = LIMITERS.putIfAbsent(key, created);
+			if (limiter == null) {
+				limiter = created;
+			}
+		}
+		return limiter;
+	}
+
+	/**
+	 * Removes the limiter shared by an application key, e.g. once the key is
+	 * no longer used. The queries that have it keep it, the next call to
+	 * {@link #forApplicationKey(String)} creates a new one.
+	 *
+	 * @param applicationKey the application key
+	 *
+	 * @return the rate limiter removed, null if there was none
+	 */
+	public static RateLimiter evict(String applicationKey) {
+		return LIMITERS.remove((applicationKey == null) ? "" : applicationKey);
+	}
+
+	/**
+	 * Instantiates a new rate limiter with the limits of the application
+	 * constants.
+	 */
+	public RateLimiter() {
+		this(ApplicationConstants.RATE_LIMIT_PERMITS_PER_SECOND, ApplicationConstants.RATE_LIMIT_BURST);
+		for (Map.Entry<String, String> entry : ApplicationConstants.RATE_LIMIT_ENDPOINT_PERMITS_PER_SECOND.entrySet()) {
+			String burst = ApplicationConstants.RATE_LIMIT_ENDPOINT_BURST.get(entry.getKey());
+			setLimit(entry.getKey(), Double.parseDouble(entry.getValue()),
+					(burst == null) ? 1 : Integer.parseInt(burst));
+		}
+	}
+
+	/**
+	 * Instantiates a new rate limiter.
+	 *
+	 * @param permitsPerSecond the requests per second, 0 for no overall limit
+	 * @param burst the requests that may be made at once
+	 */
+	public RateLimiter(double permitsPerSecond, int burst) {
+		this(permitsPerSecond, burst, System::nanoTime);
+	}
+
+	/**
+	 * Instantiates a new rate limiter that reads the time from a source of
+	 * its own.
+	 *
+	 * @param permitsPerSecond the requests per second, 0 for no overall limit
+	 * @param burst the requests that may be made at once
+	 * @param nanoTime the source of the time in nanos
+	 */
+	RateLimiter(double permitsPerSecond, int burst, LongSupplier nanoTime) {
+		this.nanoTime = nanoTime;
+		this.limit = (permitsPerSecond > 0) ? new TokenBucket(permitsPerSecond, burst, nanoTime) : null;
+	}
+
+	/**
+	 * Sets the limit of an endpoint.
+	 *
+	 * @param endpoint the trailing part of the endpoint path, e.g. distancematrix/json
+	 * @param permitsPerSecond the permits per second, 0 to remove the limit
+	 * @param burst the permits that may be taken at once
+	 */
+	public void setLimit(String endpoint, double permitsPerSecond, int burst) {
+		String key = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
+		if (permitsPerSecond > 0) {
+			endpointLimits.put(key, new TokenBucket(permitsPerSecond, burst, nanoTime));
+		} else {
+			endpointLimits.remove(key);
+		}
+	}
+
+	/**
+	 * Takes permits for a request, waiting as long as needed.
+	 *
+	 * @param url the url of the request
+	 * @param permits the permits against the limit of the endpoint
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void acquire(String url, int permits) throws InterruptedException {
+		long wait = reserve(url, permits, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+	/**
+	 * Takes permits for a request if they are available right away.
+	 *
+	 * @param url the url of the request
+	 * @param permits the permits against the limit of the endpoint
+	 *
+	 * @return true, if the request may go ahead
+	 */
+	public boolean tryAcquire(String url, int permits) {
+		return reserve(url, permits, 0, TimeUnit.NANOSECONDS) == 0;
+	}
+
+	/**
+	 * Takes permits for a request if they are available within a timeout,
+	 * waiting for them.
+	 *
+	 * @param url the url of the request
+	 * @param permits the permits against the limit of the endpoint
+	 * @param timeout the timeout
+	 * @param unit the unit
+	 *
+	 * @return true, if the request may go ahead
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean tryAcquire(String url, int permits, long timeout, TimeUnit unit) throws InterruptedException {
+		long wait = reserve(url, permits, timeout, unit);
+		if (wait < 0) {
+			return false;
+		}
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+		return true;
+	}
+
+	/**
+	 * Takes permits for a request to be made later, for callers that wait
+	 * without blocking a thread. A request counts as one permit against the
+	 * overall limit.
+	 *
+	 * @param url the url of the request
+	 * @param permits the permits against the limit of the endpoint
+	 * @param maximumWait the longest wait acceptable
+	 * @param unit the unit
+	 *
+	 * @return the nanos to wait before making the request, -1 if that would
+	 * be longer than the maximum wait, in which case nothing is taken
+	 */
+	public long reserve(String url, int permits, long maximumWait, TimeUnit unit) {
+		long maximumNanos = unit.toNanos(maximumWait);
+		long wait = 0;
+		if (limit != null) {
+			wait = limit.reserve(1, maximumNanos);
+			if (wait < 0) {
+				rejected.increment();
+				return -1;
+			}
+		}
+		TokenBucket endpointLimit = getEndpointLimit(url);
+		if (endpointLimit != null) {
+			long endpointWait = endpointLimit.reserve(permits, maximumNanos);
+			if (endpointWait < 0) {
+				if (limit != null) {
+					limit.release(1);
+				}
+				rejected.increment();
+				return -1;
+			}
+			wait = Math.max(wait, endpointWait);
+		}
+		acquired.increment();
+		if (wait > 0) {
+			delayed.increment();
+		}
+		return wait;
+	}
+
+	/**
+	 * Records that the server reported the quota as exceeded, lowering the
+	 * rates.
+	 *
+	 * @param url the url of the request
+	 */
+	public void onOverLimit(String url) {
+		overLimit.increment();
+		if (limit != null) {
+			limit.slowDown();
+		}
+		TokenBucket endpointLimit = getEndpointLimit(url);
+		if (endpointLimit != null) {
+			endpointLimit.slowDown();
+		}
+	}
+
+	/**
+	 * Records a successful call, letting lowered rates recover.
+	 *
+	 * @param url the url of the request
+	 */
+	public void onSuccess(String url) {
+		if (limit != null) {
+			limit.speedUp();
+		}
+		TokenBucket endpointLimit = getEndpointLimit(url);
+		if (endpointLimit != null) {
+			endpointLimit.speedUp();
+		}
+	}
+
+	/**
+	 * Gets the current overall rate.
+	 *
+	 * @return the requests per second, 0 if there is no overall limit
+	 */
+	public double getRate() {
+		return (limit == null) ? 0 : limit.getRate();
+	}
+
+	/**
+	 * Gets the current rate of an endpoint.
+	 *
+	 * @param url the url of a request to the endpoint
+	 *
+	 * @return the permits per second, 0 if the endpoint has no limit
+	 */
+	public double getRate(String url) {
+		TokenBucket endpointLimit = getEndpointLimit(url);
+		return (endpointLimit == null) ? 0 : endpointLimit.getRate();
+	}
+
+	/**
+	 * Gets the stats.
+	 *
+	 * @return the stats
+	 */
+	public RateLimiterStats getStats() {
+		return new RateLimiterStats(acquired.sum(), delayed.sum(), rejected.sum(), overLimit.sum(), getRate());
+	}
+
+	/**
+	 * Gets the limit of the endpoint of an url, the longest match wins.
+	 *
+	 * @param url the url
+	 *
+	 * @return the limit, null if none
+	 */
+	private TokenBucket getEndpointLimit(String url) {
+		if (endpointLimits.isEmpty()) {
+			return null;
+		}
+		int query = url.indexOf('?');
+		String path = (query < 0) ? url : url.substring(0, query);
+		String match = null;
+		for (String endpoint : endpointLimits.keySet()) {
+			if (path.endsWith(endpoint) && (match == null || endpoint.length() > match.length())) {
+				match = endpoint;
+			}
+		}
+		return (match == null) ? null : endpointLimits.get(match);
+	}
+}
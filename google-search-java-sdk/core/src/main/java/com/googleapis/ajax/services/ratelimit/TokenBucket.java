@@ -0,0 +1,148 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The Class TokenBucket.
+ *
+ * A lock-free token bucket kept as the theoretical arrival time of the next
+ * permit (the generic cell rate algorithm), so that taking permits is a
+ * single compare and set. The rate can be lowered while the server reports
+ * that the quota is exceeded, it then creeps back to the configured rate.
+ */
+class TokenBucket {
+
+	/** The Constant SLOWDOWN_INTERVAL, the least time between two rate cuts. */
+	private static final long SLOWDOWN_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	/** The Constant MAXIMUM_SLOWDOWN, the lowest rate as a fraction of the configured one. */
+	private static final int MAXIMUM_SLOWDOWN = 16;
+
+	/** The Constant RECOVERY_STEPS, the successes needed to add back the configured rate. */
+	private static final int RECOVERY_STEPS = 50;
+
+	/** The configured interval between permits in nanos. */
+	private final long configuredInterval;
+
+	/** The burst. */
+	private final int burst;
+
+	/** The source of the time in nanos. */
+	private final LongSupplier nanoTime;
+
+	/** The current interval between permits in nanos. */
+	private final AtomicLong interval;
+
+	/** The theoretical arrival time of the next permit. */
+	private final AtomicLong arrival;
+
+	/** The time of the last rate cut. */
+	private final AtomicLong lastSlowdown;
+
+	/**
+	 * Instantiates a new full token bucket.
+	 *
+	 * @param permitsPerSecond the permits per second
+	 * @param burst the permits that may be taken at once
+	 * @param nanoTime the source of the time in nanos, e.g. System::nanoTime
+	 */
+	TokenBucket(double permitsPerSecond, int burst, LongSupplier nanoTime) {
+		this.configuredInterval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+		this.burst = Math.max(burst, 1);
+		this.nanoTime = nanoTime;
+		this.interval = new AtomicLong(configuredInterval);
+		long now = nanoTime.getAsLong();
+		this.arrival = new AtomicLong(now);
+		this.lastSlowdown = new AtomicLong(now - SLOWDOWN_INTERVAL);
+	}
+
+	/**
+	 * Takes permits, possibly ahead of time.
+	 *
+	 * @param permits the permits
+	 * @param maximumWait the longest wait acceptable in nanos
+	 *
+	 * @return the nanos to wait before the permits are due, -1 if that would
+	 * be longer than the maximum wait, in which case nothing is taken
+	 */
+	long reserve(int permits, long maximumWait) {
+		long step = interval.get();
+		long tolerance = Math.max(burst, permits) * step;
+		while (true) {
+			long now = nanoTime.getAsLong();
+			long current = arrival.get();
+			long next = ((current - now > 0) ? current : now) + permits * step;
+			long wait = next - tolerance - now;
+			if (wait > maximumWait) {
+				return -1;
+			}
+			if (arrival.compareAndSet(current, next)) {
+				return Math.max(wait, 0);
+			}
+		}
+	}
+
+	/**
+	 * Gives back permits taken but not used.
+	 *
+	 * @param permits the permits
+	 */
+	void release(int permits) {
+		arrival.addAndGet(-permits * interval.get());
+	}
+
+	/**
+	 * Halves the rate, at most once a second so that the replies to a burst
+	 * of requests only count once.
+	 */
+	void slowDown() {
+		long now = nanoTime.getAsLong();
+		long last = lastSlowdown.get();
+		if (now - last < SLOWDOWN_INTERVAL || !lastSlowdown.compareAndSet(last, now)) {
+			return;
+		}
+		long current;
+		do {
+			current = interval.get();
+		} while (!interval.compareAndSet(current, Math.min(current * 2, configuredInterval * MAXIMUM_SLOWDOWN)));
+	}
+
+	/**
+	 * Raises the rate a notch towards the configured one.
+	 */
+	void speedUp() {
+		long current = interval.get();
+		if (current <= configuredInterval) {
+			return;
+		}
+		double rate = 1.0 / current + 1.0 / configuredInterval / RECOVERY_STEPS;
+		interval.compareAndSet(current, Math.max(configuredInterval, (long) (1 / rate)));
+	}
+
+	/**
+	 * Gets the current rate.
+	 *
+	 * @return the permits per second
+	 */
+	double getRate() {
+		return (double) TimeUnit.SECONDS.toNanos(1) / interval.get();
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.reactive;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.services.paging.CursorStarts;
+
+/**
+ * The Class CursorPageSource.
+ *
+ * The pages of a result cursor, the first one at the start of the query and
+ * the ones after at the start offsets the cursors of the pages read list.
+ */
+public class CursorPageSource<T> implements PageSource<T> {
+
+	/** The first page, at the start of the query. */
+	private final Supplier<CompletableFuture<PagedList<T>>> firstPage;
+
+	/** The page at a start offset. */
+	private final IntFunction<CompletableFuture<PagedList<T>>> page;
+
+	/** The start offsets of the pages known from the cursors and not yet fetched. */
+	private final CursorStarts starts = new CursorStarts();
+
+	/** Whether the first page is fetched. */
+	private boolean started;
+
+	/**
+	 * Instantiates a new cursor page source.
+	 *
+	 * @param firstPage the first page, at the start of the query
+	 * @param page the page at a start offset
+	 */
+	public CursorPageSource(Supplier<CompletableFuture<PagedList<T>>> firstPage,
+			IntFunction<CompletableFuture<PagedList<T>>> page) {
+		this.firstPage = firstPage;
+		this.page = page;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.reactive.PageSource#nextPage(java.util.List)
+	 */
+	@Override
+	public CompletableFuture<? extends List<T>> nextPage(List<T> previousPage) {
+		if (!started) {
+			started = true;
+			return firstPage.get();
+		}
+		if (previousPage instanceof PagedList<?>) {
+			starts.add((PagedList<?>) previousPage);
+		}
+		Integer start = starts.poll();
+		return (start != null) ? page.apply(start) : null;
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.reactive;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The Class ResultPublisher.
+ *
+ * Publishes the results of the pages of a source one at a time, as the
+ * subscriber asks for them. A page is only fetched once the results of the
+ * one before are all emitted and the subscriber still has demand, so a slow
+ * subscriber holds the fetches back and no more than one page is ever kept.
+ * Cancelling the subscription cancels the page in flight, which aborts its
+ * connection.
+ *
+ * The publisher is cold, each subscriber walks the pages from the start.
+ * The results are emitted on the thread that asks for them or on the one
+ * that completes the fetch of their page.
+ */
+public class ResultPublisher<T> implements Flow.Publisher<T> {
+
+	/** The Constant LOG. */
+	private static final Logger LOG = Logger.getLogger(ResultPublisher.class.getCanonicalName());
+
+	/** The sources of the pages, one per subscription. */
+	private final Supplier<? extends PageSource<T>> pageSources;
+
+	/**
+	 * Instantiates a new result publisher.
+	 *
+	 * @param pageSources the sources of the pages, one per subscription
+	 */
+	public ResultPublisher(Supplier<? extends PageSource<T>> pageSources) {
+		this.pageSources = pageSources;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Flow.Publisher#subscribe(java.util.concurrent.Flow.Subscriber)
+	 */
+	@Override
+	public void subscribe(Flow.Subscriber<? super T> subscriber) {
+		Objects.requireNonNull(subscriber, "subscriber");
+		subscriber.onSubscribe(new ResultSubscription<T>(subscriber, pageSources.get()));
+	}
+
+	/**
+	 * The Class ResultSubscription.
+	 *
+	 * Emits in a drain loop that one thread at a time runs, the others only
+	 * leave it the work to do.
+	 */
+	private static final class ResultSubscription<T> implements Flow.Subscription {
+
+		/** The subscriber. */
+		private final Flow.Subscriber<? super T> subscriber;
+
+		/** The pages. */
+		private final PageSource<T> pages;
+
+		/** The results asked for and not yet emitted. */
+		private final AtomicLong demand = new AtomicLong();
+
+		/** The calls to drain not yet handled, the thread that makes it positive drains. */
+		private final AtomicInteger work = new AtomicInteger();
+
+		/** Whether the subscription is cancelled or terminated. */
+		private volatile boolean cancelled;
+
+		/** The error of an invalid request, signalled by the drain loop. */
+		private volatile IllegalArgumentException invalidRequest;
+
+		/** The page in flight, or fetched and not yet read. */
+		private volatile CompletableFuture<? extends List<T>> page;
+
+		/** The page being emitted. */
+		private List<T> currentPage;
+
+		/** The results of the page being emitted. */
+		private Iterator<T> results = Collections.<T>emptyIterator();
+
+		/**
+		 * Instantiates a new result subscription.
+		 *
+		 * @param subscriber the subscriber
+		 * @param pages the pages
+		 */
+		ResultSubscription(Flow.Subscriber<? super T> subscriber, PageSource<T> pages) {
+			this.subscriber = subscriber;
+			this.pages = pages;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Subscription#request(long)
+		 */
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				invalidRequest = new IllegalArgumentException("The number of results requested must be positive: " + n);
+			} else {
+				demand.getAndUpdate(current -> (current + n < 0) ? Long.MAX_VALUE : current + n);
+			}
+			drain();
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.Flow.Subscription#cancel()
+		 */
+		@Override
+		public void cancel() {
+			cancelled = true;
+			CompletableFuture<? extends List<T>> future = page;
+			if (future != null) {
+				future.cancel(true);
+			}
+			drain();
+		}
+
+		/**
+		 * Drains, unless another thread is draining, in which case it drains
+		 * once more before it leaves.
+		 */
+		private void drain() {
+			if (work.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				emit();
+				missed = work.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		/**
+		 * Emits the results asked for, and fetches the next page once they
+		 * are all emitted and more are asked for.
+		 */
+		private void emit() {
+			while (!cancelled) {
+				if (invalidRequest != null) {
+					terminate(invalidRequest);
+					return;
+				}
+				if (results.hasNext()) {
+					if (demand.get() == 0) {
+						return;
+					}
+					demand.decrementAndGet();
+					try {
+						subscriber.onNext(results.next());
+					} catch (RuntimeException e) {
+						LOG.log(Level.WARNING, "The subscriber failed, cancelling its subscription.", e);
+						cancel();
+					}
+					continue;
+				}
+				CompletableFuture<? extends List<T>> future = page;
+				if (future != null) {
+					if (!future.isDone()) {
+						// its completion drains again.
+						return;
+					}
+					page = null;
+					try {
+						currentPage = future.join();
+						results = currentPage.iterator();
+					} catch (CompletionException e) {
+						terminate((e.getCause() != null) ? e.getCause() : e);
+						return;
+					} catch (CancellationException e) {
+						terminate(e);
+						return;
+					}
+					continue;
+				}
+				if (demand.get() == 0) {
+					// the next page waits until results are asked for.
+					return;
+				}
+				try {
+					future = pages.nextPage(currentPage);
+				} catch (RuntimeException e) {
+					terminate(e);
+					return;
+				}
+				currentPage = null;
+				if (future == null) {
+					cancelled = true;
+					subscriber.onComplete();
+					return;
+				}
+				page = future;
+				if (cancelled) {
+					future.cancel(true);
+					break;
+				}
+				future.whenComplete((list, error) -> drain());
+				return;
+			}
+			// let go of the page of a cancelled subscription.
+			currentPage = null;
+			results = Collections.<T>emptyIterator();
+		}
+
+		/**
+		 * Terminates the subscription with an error.
+		 *
+		 * @param error the error
+		 */
+		private void terminate(Throwable error) {
+			cancelled = true;
+			currentPage = null;
+			results = Collections.<T>emptyIterator();
+			subscriber.onError(error);
+		}
+	}
+}
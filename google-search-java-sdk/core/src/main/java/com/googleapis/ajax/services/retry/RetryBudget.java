@@ -0,0 +1,95 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Class RetryBudget.
+ *
+ * Caps the retries to a share of the requests. Every request deposits a
+ * fraction of a token and every retry withdraws a whole one, so when a
+ * backend is down the retries add at most that share to the load instead
+ * of multiplying it. The balance is capped by a small reserve that lets
+ * the occasional failure be retried while traffic is light. One budget may
+ * be shared by several policies to bound the retries of a whole
+ * application.
+ */
+public class RetryBudget {
+
+	/** The Constant SCALE, the balance is kept in thousandths of a token. */
+	private static final long SCALE = 1000;
+
+	/** The deposit per request. */
+	private final long deposit;
+
+	/** The maximum balance. */
+	private final long maximumBalance;
+
+	/** The balance. */
+	private final AtomicLong balance;
+
+	/**
+	 * Instantiates a new retry budget.
+	 *
+	 * @param ratio the share of the requests that may be retried, e.g. 0.1
+	 * @param reserve the retries allowed regardless of the traffic
+	 */
+	public RetryBudget(double ratio, int reserve) {
+		this.deposit = Math.round(ratio * SCALE);
+		this.maximumBalance = Math.max(reserve, 1) * SCALE;
+		this.balance = new AtomicLong(maximumBalance);
+	}
+
+	/**
+	 * Records a request, crediting the budget.
+	 */
+	public void recordRequest() {
+		long current;
+		do {
+			current = balance.get();
+			if (current >= maximumBalance) {
+				return;
+			}
+		} while (!balance.compareAndSet(current, Math.min(maximumBalance, current + deposit)));
+	}
+
+	/**
+	 * Withdraws a retry from the budget.
+	 *
+	 * @return true, if the retry may go ahead
+	 */
+	public boolean tryAcquire() {
+		long current;
+		do {
+			current = balance.get();
+			if (current < SCALE) {
+				return false;
+			}
+		} while (!balance.compareAndSet(current, current - SCALE));
+		return true;
+	}
+
+	/**
+	 * Gets the number of retries currently available.
+	 *
+	 * @return the available retries
+	 */
+	public double getAvailable() {
+		return (double) balance.get() / SCALE;
+	}
+}
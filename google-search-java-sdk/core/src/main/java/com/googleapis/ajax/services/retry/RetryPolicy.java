@@ -0,0 +1,200 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.retry;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.googleapis.ajax.services.ResponseStatusException;
+import com.googleapis.ajax.services.constant.ApplicationConstants;
+
+/**
+ * The Class RetryPolicy.
+ *
+ * Decides which failed calls are retried and how long to wait before each
+ * retry. Network failures, server errors and the status codes configured
+ * as transient (by default request timeout and too many requests) are
+ * retried, whether they come with the HTTP status or with the
+ * <code>responseStatus</code> of the response. Other client errors would
+ * only fail again and are not. The waits follow a decorrelated jitter
+ * backoff, so that clients failing together do not retry together, and
+ * every retry is taken from a {@link RetryBudget}.
+ */
+public class RetryPolicy {
+
+	/** The maximum attempts, the first one included. */
+	private final int maximumAttempts;
+
+	/** The base delay in millis. */
+	private final long baseDelay;
+
+	/** The maximum delay in millis. */
+	private final long maximumDelay;
+
+	/** The budget. */
+	private final RetryBudget budget;
+
+	/** The retryable status codes besides the server errors. */
+	private final Set<Integer> retryableStatusCodes = ConcurrentHashMap.newKeySet();
+
+	/** The requests. */
+	private final LongAdder requests = new LongAdder();
+
+	/** The retries. */
+	private final LongAdder retries = new LongAdder();
+
+	/** The budget rejections. */
+	private final LongAdder budgetRejections = new LongAdder();
+
+	/** The exhausted. */
+	private final LongAdder exhausted = new LongAdder();
+
+	/**
+	 * Instantiates a new retry policy with the settings of the application
+	 * constants.
+	 */
+	public RetryPolicy() {
+		this(ApplicationConstants.RETRY_MAXIMUM_ATTEMPTS, ApplicationConstants.RETRY_BASE_DELAY,
+				ApplicationConstants.RETRY_MAXIMUM_DELAY, new RetryBudget(ApplicationConstants.RETRY_BUDGET_RATIO,
+						ApplicationConstants.RETRY_BUDGET_RESERVE));
+	}
+
+	/**
+	 * Instantiates a new retry policy retrying the status codes of the
+	 * application constants.
+	 *
+	 * @param maximumAttempts the maximum attempts, the first one included
+	 * @param baseDelay the base delay in millis
+	 * @param maximumDelay the maximum delay in millis
+	 * @param budget the budget, may be shared with other policies
+	 */
+	public RetryPolicy(int maximumAttempts, long baseDelay, long maximumDelay, RetryBudget budget) {
+		this.maximumAttempts = maximumAttempts;
+		this.baseDelay = Math.max(baseDelay, 1);
+		this.maximumDelay = Math.max(maximumDelay, this.baseDelay);
+		this.budget = budget;
+		if (ApplicationConstants.RETRY_STATUS_CODES != null) {
+			for (String statusCode : ApplicationConstants.RETRY_STATUS_CODES.split(",")) {
+				if (statusCode.trim().length() > 0) {
+					retryableStatusCodes.add(Integer.valueOf(statusCode.trim()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds status codes to retry besides the server errors.
+	 *
+	 * @param statusCodes the status codes
+	 */
+	public void addRetryableStatusCodes(int... statusCodes) {
+		for (int statusCode : statusCodes) {
+			retryableStatusCodes.add(statusCode);
+		}
+	}
+
+	/**
+	 * Gets the budget.
+	 *
+	 * @return the budget
+	 */
+	public RetryBudget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Records a new request, before its first attempt.
+	 */
+	public void recordRequest() {
+		requests.increment();
+		budget.recordRequest();
+	}
+
+	/**
+	 * Decides whether a failed attempt is retried.
+	 *
+	 * @param error the failure of the attempt
+	 * @param attempt the attempt that failed, starting at 1
+	 * @param previousDelay the delay before that attempt, 0 for the first one
+	 *
+	 * @return the delay in millis before the next attempt, -1 not to retry
+	 */
+	public long nextDelay(Throwable error, int attempt, long previousDelay) {
+		if (!isRetryable(error)) {
+			return -1;
+		}
+		if (attempt >= maximumAttempts) {
+			exhausted.increment();
+			return -1;
+		}
+		if (!budget.tryAcquire()) {
+			budgetRejections.increment();
+			exhausted.increment();
+			return -1;
+		}
+		retries.increment();
+		// decorrelated jitter: random between the base and three times the previous delay.
+		long upper = Math.min(maximumDelay, Math.max(previousDelay, baseDelay) * 3);
+		return ThreadLocalRandom.current().nextLong(baseDelay, upper + 1);
+	}
+
+	/**
+	 * Checks if a failure is transient.
+	 *
+	 * @param error the error
+	 *
+	 * @return true, if is retryable
+	 */
+	public boolean isRetryable(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof CancellationException || cause instanceof InterruptedException) {
+				return false;
+			}
+			if (cause instanceof IOException) {
+				return true;
+			}
+			if (cause instanceof ResponseStatusException) {
+				return isRetryable(((ResponseStatusException) cause).getStatusCode());
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if a status code is transient.
+	 *
+	 * @param statusCode the status code
+	 *
+	 * @return true, if is retryable
+	 */
+	protected boolean isRetryable(int statusCode) {
+		return statusCode >= 500 || retryableStatusCodes.contains(statusCode);
+	}
+
+	/**
+	 * Gets the stats.
+	 *
+	 * @return the stats
+	 */
+	public RetryStats getStats() {
+		return new RetryStats(requests.sum(), retries.sum(), budgetRejections.sum(), exhausted.sum());
+	}
+}
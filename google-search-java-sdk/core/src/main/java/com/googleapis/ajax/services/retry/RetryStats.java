@@ -0,0 +1,108 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.retry;
+
+/**
+ * The Class RetryStats.
+ *
+ * An immutable snapshot of a retry policy.
+ */
+public class RetryStats {
+
+	/** The requests. */
+	private final long requests;
+
+	/** The retries. */
+	private final long retries;
+
+	/** The budget rejections. */
+	private final long budgetRejections;
+
+	/** The exhausted. */
+	private final long exhausted;
+
+	/**
+	 * Instantiates a new retry stats.
+	 *
+	 * @param requests the requests
+	 * @param retries the retries
+	 * @param budgetRejections the budget rejections
+	 * @param exhausted the exhausted
+	 */
+	public RetryStats(long requests, long retries, long budgetRejections, long exhausted) {
+		this.requests = requests;
+		this.retries = retries;
+		this.budgetRejections = budgetRejections;
+		this.exhausted = exhausted;
+	}
+
+	/**
+	 * Gets the number of requests made, not counting the retries.
+	 *
+	 * @return the requests
+	 */
+	public long getRequests() {
+		return requests;
+	}
+
+	/**
+	 * Gets the number of retries made.
+	 *
+	 * @return the retries
+	 */
+	public long getRetries() {
+		return retries;
+	}
+
+	/**
+	 * Gets the number of retryable failures not retried because the retry
+	 * budget was spent.
+	 *
+	 * @return the budget rejections
+	 */
+	public long getBudgetRejections() {
+		return budgetRejections;
+	}
+
+	/**
+	 * Gets the number of requests that failed after their last attempt.
+	 *
+	 * @return the exhausted
+	 */
+	public long getExhausted() {
+		return exhausted;
+	}
+
+	/**
+	 * Gets the share of the traffic made of retries.
+	 *
+	 * @return the retry ratio
+	 */
+	public double getRetryRatio() {
+		return (requests == 0) ? 0 : (double) retries / requests;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "RetryStats [requests=" + requests + ", retries=" + retries
+				+ ", budgetRejections=" + budgetRejections + ", exhausted=" + exhausted
+				+ ", retryRatio=" + getRetryRatio() + "]";
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.ajax.schema.BlogResult;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.ParameterNames;
+import com.googleapis.ajax.services.enumeration.BlogSortOrder;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.impl.BlogSearchQueryImpl;
+import com.googleapis.ajax.services.json.FieldProjection;
+
+/**
+ * The Class BlogSearchSpec.
+ * 
+ * The immutable spec of a blog search query.
+ */
+public final class BlogSearchSpec extends GoogleSearchSpec<BlogResult, BlogSearchSpec> {
+
+	/**
+	 * Instantiates a new blog search spec.
+	 */
+	public BlogSearchSpec() {
+		super(GoogleSearchApiUrls.SEARCH_BLOG_URL, BlogResult.class);
+	}
+
+	/**
+	 * Instantiates a new blog search spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private BlogSearchSpec(BlogSearchSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With order.
+	 * 
+	 * @param order the order
+	 * 
+	 * @return the blog search spec
+	 */
+	public BlogSearchSpec withOrder(BlogSortOrder order) {
+		return withParameter(ParameterNames.SCORING, order);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#newSpec(java.util.SortedMap, com.googleapis.ajax.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected BlogSearchSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new BlogSearchSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleSearchApiQuery<BlogResult> createQuery(String applicationKey) {
+		return new BlogSearchQueryImpl(applicationKey);
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.ajax.schema.BookResult;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.ParameterNames;
+import com.googleapis.ajax.services.enumeration.BookSearchType;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.impl.BookSearchQueryImpl;
+import com.googleapis.ajax.services.json.FieldProjection;
+
+/**
+ * The Class BookSearchSpec.
+ * 
+ * The immutable spec of a book search query.
+ */
+public final class BookSearchSpec extends GoogleSearchSpec<BookResult, BookSearchSpec> {
+
+	/**
+	 * Instantiates a new book search spec.
+	 */
+	public BookSearchSpec() {
+		super(GoogleSearchApiUrls.SEARCH_BOOK_URL, BookResult.class);
+	}
+
+	/**
+	 * Instantiates a new book search spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private BookSearchSpec(BookSearchSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With library.
+	 * 
+	 * @param library the library
+	 * 
+	 * @return the book search spec
+	 */
+	public BookSearchSpec withLibrary(String library) {
+		return withParameter(ParameterNames.BOOK_LIBRARY, library);
+	}
+
+	/**
+	 * With search type.
+	 * 
+	 * @param type the type
+	 * 
+	 * @return the book search spec
+	 */
+	public BookSearchSpec withSearchType(BookSearchType type) {
+		return (type.value() == null) ? self() : withParameter(type.value(), "1");
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#newSpec(java.util.SortedMap, com.googleapis.ajax.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected BookSearchSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new BookSearchSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleSearchApiQuery<BookResult> createQuery(String applicationKey) {
+		return new BookSearchQueryImpl(applicationKey);
+	}
+}
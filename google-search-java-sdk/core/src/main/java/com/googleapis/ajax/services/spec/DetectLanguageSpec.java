@@ -0,0 +1,69 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.ajax.schema.DetectLanguageResult;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.impl.DetectLanguageQueryImpl;
+import com.googleapis.ajax.services.json.FieldProjection;
+
+/**
+ * The Class DetectLanguageSpec.
+ * 
+ * The immutable spec of a detect language query.
+ */
+public final class DetectLanguageSpec extends GoogleSearchSpec<DetectLanguageResult, DetectLanguageSpec> {
+
+	/**
+	 * Instantiates a new detect language spec.
+	 */
+	public DetectLanguageSpec() {
+		super(GoogleSearchApiUrls.LANGUAGE_DETECT_URL, DetectLanguageResult.class);
+	}
+
+	/**
+	 * Instantiates a new detect language spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private DetectLanguageSpec(DetectLanguageSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#newSpec(java.util.SortedMap, com.googleapis.ajax.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected DetectLanguageSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new DetectLanguageSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleSearchApiQuery<DetectLanguageResult> createQuery(String applicationKey) {
+		return new DetectLanguageQueryImpl(applicationKey);
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.ajax.schema.ImageResult;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.ParameterNames;
+import com.googleapis.ajax.services.enumeration.ImageColor;
+import com.googleapis.ajax.services.enumeration.ImageColorization;
+import com.googleapis.ajax.services.enumeration.ImageFileType;
+import com.googleapis.ajax.services.enumeration.ImageRights;
+import com.googleapis.ajax.services.enumeration.ImageSize;
+import com.googleapis.ajax.services.enumeration.ImageType;
+import com.googleapis.ajax.services.enumeration.SafetyLevel;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.impl.ImageSearchQueryImpl;
+import com.googleapis.ajax.services.json.FieldProjection;
+
+/**
+ * The Class ImageSearchSpec.
+ * 
+ * The immutable spec of a image search query.
+ */
+public final class ImageSearchSpec extends GoogleSearchSpec<ImageResult, ImageSearchSpec> {
+
+	/**
+	 * Instantiates a new image search spec.
+	 */
+	public ImageSearchSpec() {
+		super(GoogleSearchApiUrls.SEARCH_IMAGE_URL, ImageResult.class);
+	}
+
+	/**
+	 * Instantiates a new image search spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private ImageSearchSpec(ImageSearchSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With file type.
+	 * 
+	 * @param fileType the file type
+	 * 
+	 * @return the image search spec
+	 */
+	public ImageSearchSpec withFileType(ImageFileType fileType) {
+		return withParameter(ParameterNames.IMAGE_FILE_TYPE, fileType);
+	}
+
+	/**
+	 * With image color.
+	 * 
+	 * @param color the color
+	 * 
+	 * @return the image search spec
+	 */
+	public ImageSearchSpec withImageColor(ImageColor color) {
+		return withParameter(ParameterNames.IMAGE_COLOR, color);
+	}
+
+	/**
+	 * With image colorization.
+	 * 
+	 * @param colorization the colorization
+	 * 
+	 * @return the image search spec
+	 */
+	public ImageSearchSpec withImageColorization(ImageColorization colorization) {
+		return withParameter(ParameterNames.IMAGE_COLORIZATION, colorization);
+	}
+
+	/**
+	 * With image rights.
+	 * 
+	 * @param rights the rights
+	 * 
+	 * @return the image search spec
+	 */
+	public ImageSearchSpec withImageRights(ImageRights rights) {
+		return withParameter(ParameterNames.IMAGE_RIGHTS, rights);
+	}
+
+	/**
+	 * With image size.
+	 * 
+	 * @param imgsz the imgsz
+	 * 
+	 * @return the image search spec
+	 */
+	public ImageSearchSpec withImageSize(ImageSize imgsz) {
+		return withParameter(ParameterNames.IMAGE_SIZE, imgsz);
+	}
+
+	/**
+	 * With image type.
+	 * 
+	 * @param type the type
+	 * 
+	 * @return the image search spec
+	 */
+	public ImageSearchSpec withImageType(ImageType type) {
+		return withParameter(ParameterNames.IMAGE_TYPE, type);
+	}
+
+	/**
+	 * With safety level.
+	 * 
+	 * @param safe the safe
+	 * 
+	 * @return the image search spec
+	 */
+	public ImageSearchSpec withSafetyLevel(SafetyLevel safe) {
+		return withParameter(ParameterNames.SAFETY_LEVEL, safe);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#newSpec(java.util.SortedMap, com.googleapis.ajax.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected ImageSearchSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new ImageSearchSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleSearchApiQuery<ImageResult> createQuery(String applicationKey) {
+		return new ImageSearchQueryImpl(applicationKey);
+	}
+}
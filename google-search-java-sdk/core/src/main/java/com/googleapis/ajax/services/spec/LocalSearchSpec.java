@@ -0,0 +1,106 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.ajax.schema.LocalResult;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.ParameterNames;
+import com.googleapis.ajax.services.enumeration.LocalSearchType;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.impl.LocalSearchQueryImpl;
+import com.googleapis.ajax.services.json.FieldProjection;
+
+/**
+ * The Class LocalSearchSpec.
+ * 
+ * The immutable spec of a local search query.
+ */
+public final class LocalSearchSpec extends GoogleSearchSpec<LocalResult, LocalSearchSpec> {
+
+	/**
+	 * Instantiates a new local search spec.
+	 */
+	public LocalSearchSpec() {
+		super(GoogleSearchApiUrls.SEARCH_LOCAL_URL, LocalResult.class);
+	}
+
+	/**
+	 * Instantiates a new local search spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private LocalSearchSpec(LocalSearchSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With bounding box.
+	 * 
+	 * @param x the x
+	 * @param y the y
+	 * 
+	 * @return the local search spec
+	 */
+	public LocalSearchSpec withBoundingBox(double x, double y) {
+		return withParameter(ParameterNames.BOUNDING_BOX, x + "," + y);
+	}
+
+	/**
+	 * With local search type.
+	 * 
+	 * @param type the type
+	 * 
+	 * @return the local search spec
+	 */
+	public LocalSearchSpec withLocalSearchType(LocalSearchType type) {
+		return withParameter(ParameterNames.TYPE_OF_LISTING, type);
+	}
+
+	/**
+	 * With location.
+	 * 
+	 * @param latitude the latitude
+	 * @param longitude the longitude
+	 * 
+	 * @return the local search spec
+	 */
+	public LocalSearchSpec withLocation(double latitude, double longitude) {
+		return withParameter(ParameterNames.SEARCH_CENTER_POINT, latitude + "," + longitude);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#newSpec(java.util.SortedMap, com.googleapis.ajax.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected LocalSearchSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new LocalSearchSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleSearchApiQuery<LocalResult> createQuery(String applicationKey) {
+		return new LocalSearchQueryImpl(applicationKey);
+	}
+}
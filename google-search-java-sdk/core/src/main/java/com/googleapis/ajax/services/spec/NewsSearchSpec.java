@@ -0,0 +1,128 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.ajax.schema.NewsResult;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.ParameterNames;
+import com.googleapis.ajax.services.enumeration.NewsEdition;
+import com.googleapis.ajax.services.enumeration.NewsSortOrder;
+import com.googleapis.ajax.services.enumeration.NewsTopic;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.impl.NewsSearchQueryImpl;
+import com.googleapis.ajax.services.json.FieldProjection;
+
+/**
+ * The Class NewsSearchSpec.
+ * 
+ * The immutable spec of a news search query.
+ */
+public final class NewsSearchSpec extends GoogleSearchSpec<NewsResult, NewsSearchSpec> {
+
+	/**
+	 * Instantiates a new news search spec.
+	 */
+	public NewsSearchSpec() {
+		super(GoogleSearchApiUrls.SEARCH_NEWS_URL, NewsResult.class);
+	}
+
+	/**
+	 * Instantiates a new news search spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private NewsSearchSpec(NewsSearchSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With edition.
+	 * 
+	 * @param edition the edition
+	 * 
+	 * @return the news search spec
+	 */
+	public NewsSearchSpec withEdition(NewsEdition edition) {
+		return withParameter(ParameterNames.NEWS_EDITION, edition);
+	}
+
+	/**
+	 * With location.
+	 * 
+	 * @param location the location
+	 * 
+	 * @return the news search spec
+	 */
+	public NewsSearchSpec withLocation(String location) {
+		return withParameter(ParameterNames.GEO, location);
+	}
+
+	/**
+	 * With order.
+	 * 
+	 * @param order the order
+	 * 
+	 * @return the news search spec
+	 */
+	public NewsSearchSpec withOrder(NewsSortOrder order) {
+		return withParameter(ParameterNames.SCORING, order);
+	}
+
+	/**
+	 * With quote type id.
+	 * 
+	 * @param qsid the qsid
+	 * 
+	 * @return the news search spec
+	 */
+	public NewsSearchSpec withQuoteTypeId(String qsid) {
+		return withParameter(ParameterNames.QSID, qsid);
+	}
+
+	/**
+	 * With topic.
+	 * 
+	 * @param topic the topic
+	 * 
+	 * @return the news search spec
+	 */
+	public NewsSearchSpec withTopic(NewsTopic topic) {
+		return withParameter(ParameterNames.TOPIC, topic);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#newSpec(java.util.SortedMap, com.googleapis.ajax.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected NewsSearchSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new NewsSearchSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleSearchApiQuery<NewsResult> createQuery(String applicationKey) {
+		return new NewsSearchQueryImpl(applicationKey);
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.ajax.schema.PatentResult;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.ParameterNames;
+import com.googleapis.ajax.services.enumeration.PatentSearchType;
+import com.googleapis.ajax.services.enumeration.PatentSortOrder;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.impl.PatentSearchQueryImpl;
+import com.googleapis.ajax.services.json.FieldProjection;
+
+/**
+ * The Class PatentSearchSpec.
+ * 
+ * The immutable spec of a patent search query.
+ */
+public final class PatentSearchSpec extends GoogleSearchSpec<PatentResult, PatentSearchSpec> {
+
+	/**
+	 * Instantiates a new patent search spec.
+	 */
+	public PatentSearchSpec() {
+		super(GoogleSearchApiUrls.SEARCH_PATENT_URL, PatentResult.class);
+	}
+
+	/**
+	 * Instantiates a new patent search spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private PatentSearchSpec(PatentSearchSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With order.
+	 * 
+	 * @param order the order
+	 * 
+	 * @return the patent search spec
+	 */
+	public PatentSearchSpec withOrder(PatentSortOrder order) {
+		return withParameter(ParameterNames.SCORING, order);
+	}
+
+	/**
+	 * With search type.
+	 * 
+	 * @param type the type
+	 * 
+	 * @return the patent search spec
+	 */
+	public PatentSearchSpec withSearchType(PatentSearchType type) {
+		return (type.value() == null) ? self() : withParameter(type.value(), "1");
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#newSpec(java.util.SortedMap, com.googleapis.ajax.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected PatentSearchSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new PatentSearchSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleSearchApiQuery<PatentResult> createQuery(String applicationKey) {
+		return new PatentSearchQueryImpl(applicationKey);
+	}
+}
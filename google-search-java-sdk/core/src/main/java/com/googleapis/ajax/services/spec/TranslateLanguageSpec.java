@@ -0,0 +1,99 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.ajax.schema.Language;
+import com.googleapis.ajax.schema.TranslateLanguageResult;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.ParameterNames;
+import com.googleapis.ajax.services.enumeration.TranslationFormat;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.impl.TranslateLanguageQueryImpl;
+import com.googleapis.ajax.services.json.FieldProjection;
+
+/**
+ * The Class TranslateLanguageSpec.
+ * 
+ * The immutable spec of a translate language query.
+ */
+public final class TranslateLanguageSpec extends GoogleSearchSpec<TranslateLanguageResult, TranslateLanguageSpec> {
+
+	/**
+	 * Instantiates a new translate language spec.
+	 */
+	public TranslateLanguageSpec() {
+		super(GoogleSearchApiUrls.LANGUAGE_TRANSLATE_URL, TranslateLanguageResult.class);
+	}
+
+	/**
+	 * Instantiates a new translate language spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private TranslateLanguageSpec(TranslateLanguageSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With format.
+	 * 
+	 * @param format the format
+	 * 
+	 * @return the translate language spec
+	 */
+	public TranslateLanguageSpec withFormat(TranslationFormat format) {
+		return withParameter(ParameterNames.FORMAT, format);
+	}
+
+	/**
+	 * With language pair.
+	 * 
+	 * @param sourceLanguage the source language, null to detect it
+	 * @param targetLanguage the target language
+	 * 
+	 * @return the translate language spec
+	 */
+	public TranslateLanguageSpec withLanguagePair(Language sourceLanguage, Language targetLanguage) {
+		String languagePair = "|" + targetLanguage.value();
+		if (sourceLanguage != null) {
+			languagePair = sourceLanguage.value() + languagePair;
+		}
+		return withParameter(ParameterNames.LANGUAGE_PAIR, languagePair);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#newSpec(java.util.SortedMap, com.googleapis.ajax.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected TranslateLanguageSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new TranslateLanguageSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleSearchApiQuery<TranslateLanguageResult> createQuery(String applicationKey) {
+		return new TranslateLanguageQueryImpl(applicationKey);
+	}
+}
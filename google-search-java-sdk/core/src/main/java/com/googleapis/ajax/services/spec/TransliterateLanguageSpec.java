@@ -0,0 +1,99 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.spec;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import com.googleapis.ajax.schema.Language;
+import com.googleapis.ajax.schema.TransliterateLanguageResult;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.ParameterNames;
+import com.googleapis.ajax.services.enumeration.TranslationFormat;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.impl.TransliterateLanguageQueryImpl;
+import com.googleapis.ajax.services.json.FieldProjection;
+
+/**
+ * The Class TransliterateLanguageSpec.
+ * 
+ * The immutable spec of a transliterate language query.
+ */
+public final class TransliterateLanguageSpec extends GoogleSearchSpec<TransliterateLanguageResult, TransliterateLanguageSpec> {
+
+	/**
+	 * Instantiates a new transliterate language spec.
+	 */
+	public TransliterateLanguageSpec() {
+		super(GoogleSearchApiUrls.LANGUAGE_TRANSLITERATE_URL, TransliterateLanguageResult.class);
+	}
+
+	/**
+	 * Instantiates a new transliterate language spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private TransliterateLanguageSpec(TransliterateLanguageSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With format.
+	 * 
+	 * @param format the format
+	 * 
+	 * @return the transliterate language spec
+	 */
+	public TransliterateLanguageSpec withFormat(TranslationFormat format) {
+		return withParameter(ParameterNames.FORMAT, format);
+	}
+
+	/**
+	 * With language pair.
+	 * 
+	 * @param sourceLanguage the source language
+	 * @param targetLanguage the target language
+	 * 
+	 * @return the transliterate language spec
+	 */
+	public TransliterateLanguageSpec withLanguagePair(Language sourceLanguage, Language targetLanguage) {
+		String languagePair = "|" + targetLanguage.value();
+		if (sourceLanguage != null) {
+			languagePair = sourceLanguage.value() + languagePair;
+		}
+		return withParameter(ParameterNames.LANGUAGE_PAIR, languagePair);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#newSpec(java.util.SortedMap, com.googleapis.ajax.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected TransliterateLanguageSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new TransliterateLanguageSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleSearchApiQuery<TransliterateLanguageResult> createQuery(String applicationKey) {
+		return new TransliterateLanguageQueryImpl(applicationKey);
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.spec;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedMap;
+
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls;
+import com.googleapis.ajax.services.constant.ParameterNames;
+import com.googleapis.ajax.services.enumeration.DuplicateContentFilter;
+import com.googleapis.ajax.services.enumeration.LanguageFilter;
+import com.googleapis.ajax.services.enumeration.SafetyLevel;
+import com.googleapis.ajax.services.impl.BaseGoogleSearchApiQuery;
+import com.googleapis.ajax.services.impl.WebSearchQueryImpl;
+import com.googleapis.ajax.services.json.FieldProjection;
+
+/**
+ * The Class WebSearchSpec.
+ * 
+ * The immutable spec of a web search query.
+ */
+public final class WebSearchSpec extends GoogleSearchSpec<WebResult, WebSearchSpec> {
+
+	/**
+	 * Instantiates a new web search spec.
+	 */
+	public WebSearchSpec() {
+		super(GoogleSearchApiUrls.SEARCH_WEB_URL, WebResult.class);
+	}
+
+	/**
+	 * Instantiates a new web search spec derived from another one.
+	 * 
+	 * @param spec the spec derived from
+	 * @param parameters the parameters
+	 * @param projection the projection
+	 * @param timeout the timeout in milliseconds
+	 */
+	private WebSearchSpec(WebSearchSpec spec, SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		super(spec, parameters, projection, timeout);
+	}
+
+	/**
+	 * With country.
+	 * 
+	 * @param country the country
+	 * 
+	 * @return the web search spec
+	 */
+	public WebSearchSpec withCountry(Locale country) {
+		return withParameter(ParameterNames.COUNTRY_RESTRICTION, country.getCountry());
+	}
+
+	/**
+	 * With custome search engine id.
+	 * 
+	 * @param cx the cx
+	 * 
+	 * @return the web search spec
+	 */
+	public WebSearchSpec withCustomeSearchEngineId(String cx) {
+		return withParameter(ParameterNames.CUSTOM_SEARCH_ID, cx);
+	}
+
+	/**
+	 * With custome search engine url.
+	 * 
+	 * @param cx the cx
+	 * 
+	 * @return the web search spec
+	 */
+	public WebSearchSpec withCustomeSearchEngineUrl(String cx) {
+		return withParameter(ParameterNames.CUSTOM_SEARCH_URL, cx);
+	}
+
+	/**
+	 * With duplicate filter.
+	 * 
+	 * @param filter the filter
+	 * 
+	 * @return the web search spec
+	 */
+	public WebSearchSpec withDuplicateFilter(DuplicateContentFilter filter) {
+		return withParameter(ParameterNames.DUPLICATE_FILTER, filter);
+	}
+
+	/**
+	 * With language.
+	 * 
+	 * @param language the language
+	 * 
+	 * @return the web search spec
+	 */
+	public WebSearchSpec withLanguage(LanguageFilter language) {
+		return withParameter(ParameterNames.LANGUAGE_RESTRICTION, language);
+	}
+
+	/**
+	 * With safety level.
+	 * 
+	 * @param safe the safe
+	 * 
+	 * @return the web search spec
+	 */
+	public WebSearchSpec withSafetyLevel(SafetyLevel safe) {
+		return withParameter(ParameterNames.SAFETY_LEVEL, safe);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#newSpec(java.util.SortedMap, com.googleapis.ajax.services.json.FieldProjection, long)
+	 */
+	@Override
+	protected WebSearchSpec newSpec(SortedMap<String, List<String>> parameters, FieldProjection projection, long timeout) {
+		return new WebSearchSpec(this, parameters, projection, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.spec.GoogleSearchSpec#createQuery(java.lang.String)
+	 */
+	@Override
+	public BaseGoogleSearchApiQuery<WebResult> createQuery(String applicationKey) {
+		return new WebSearchQueryImpl(applicationKey);
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.transport;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Class Deadline.
+ *
+ * The point in time by which a call must be over. The call and its
+ * retries and hedges share the deadline, every phase of it takes from the
+ * time that is left.
+ */
+public final class Deadline {
+
+	/** The timeout in nanos. */
+	private final long timeout;
+
+	/** The deadline in nanos, on the {@link System#nanoTime()} scale. */
+	private final long deadline;
+
+	/**
+	 * Instantiates a new deadline.
+	 *
+	 * @param timeout the timeout in nanos
+	 */
+	private Deadline(long timeout) {
+		this.timeout = timeout;
+		this.deadline = System.nanoTime() + timeout;
+	}
+
+	/**
+	 * Creates a deadline the given time from now.
+	 *
+	 * @param timeout the timeout
+	 * @param unit the unit
+	 *
+	 * @return the deadline
+	 */
+	public static Deadline after(long timeout, TimeUnit unit) {
+		return new Deadline(unit.toNanos(timeout));
+	}
+
+	/**
+	 * Gets the timeout the deadline was created with.
+	 *
+	 * @param unit the unit
+	 *
+	 * @return the timeout
+	 */
+	public long getTimeout(TimeUnit unit) {
+		return unit.convert(timeout, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets the time left before the deadline.
+	 *
+	 * @param unit the unit
+	 *
+	 * @return the time remaining, 0 once expired
+	 */
+	public long timeRemaining(TimeUnit unit) {
+		return unit.convert(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Checks if the deadline has passed.
+	 *
+	 * @return true, if is expired
+	 */
+	public boolean isExpired() {
+		return deadline - System.nanoTime() <= 0;
+	}
+
+	/**
+	 * Runs an action once the deadline passes, e.g. to abort the exchange in
+	 * progress. Cancel the returned future if the action is no longer needed.
+	 *
+	 * @param action the action, it must not block
+	 *
+	 * @return the scheduled future
+	 */
+	public ScheduledFuture<?> whenExpired(Runnable action) {
+		return TimerHolder.INSTANCE.schedule(action, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Deadline [timeout=" + getTimeout(TimeUnit.MILLISECONDS) + " ms, remaining="
+				+ timeRemaining(TimeUnit.MILLISECONDS) + " ms]";
+	}
+
+	/**
+	 * The Class TimerHolder.
+	 */
+	private static class TimerHolder {
+
+		/** The Constant INSTANCE, cancelled timers are removed so that long deadlines do not pile up. */
+		private static final ScheduledThreadPoolExecutor INSTANCE = newTimer();
+
+		/**
+		 * Creates the timer.
+		 *
+		 * @return the scheduled thread pool executor
+		 */
+		private static ScheduledThreadPoolExecutor newTimer() {
+			ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "google-search-deadline");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			timer.setRemoveOnCancelPolicy(true);
+			return timer;
+		}
+	}
+}
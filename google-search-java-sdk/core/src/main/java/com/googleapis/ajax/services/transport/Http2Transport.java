@@ -0,0 +1,365 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.googleapis.ajax.services.constant.ApplicationConstants;
+
+/**
+ * The Class Http2Transport.
+ *
+ * A non blocking transport on top of the JDK {@link HttpClient}. Requests to
+ * the same host are multiplexed over a single HTTP/2 connection, cleartext
+ * endpoints are upgraded to h2c, and servers that only speak HTTP/1.1 are
+ * handled transparently.
+ * 
+ * The JDK client takes its connect timeout once for all its connections, so
+ * the transport keeps a client for each connect timeout its requests are
+ * configured with. The deadline of a request bounds the whole exchange,
+ * connecting included.
+ */
+public class Http2Transport implements AsyncHttpTransport {
+
+	/** The headers the JDK client sets itself and refuses to take. */
+	private static final Set<String> RESTRICTED_HEADERS = new HashSet<String>(Arrays.asList(
+			"connection", "content-length", "expect", "host", "upgrade"));
+
+	/** The client, with the connect timeout of the application constants. */
+	private final HttpClient client;
+
+	/** The executor the clients complete responses on, null for the default. */
+	private final Executor executor;
+
+	/** The clients by connect timeout, null if all the requests go through the given client. */
+	private final ConcurrentMap<Integer, HttpClient> clients;
+
+	/**
+	 * Instantiates a new http2 transport using the default executor of the
+	 * JDK client.
+	 */
+	public Http2Transport() {
+		this((Executor) null);
+	}
+
+	/**
+	 * Instantiates a new http2 transport that completes responses on the given
+	 * executor.
+	 *
+	 * @param executor the executor, null for the default
+	 */
+	public Http2Transport(Executor executor) {
+		this.executor = executor;
+		this.client = newClient(executor, ApplicationConstants.CONNECT_TIMEOUT);
+		this.clients = new ConcurrentHashMap<Integer, HttpClient>();
+		clients.put(getConnectTimeoutKey(ApplicationConstants.CONNECT_TIMEOUT), client);
+	}
+
+	/**
+	 * Instantiates a new http2 transport that sends all the requests through
+	 * the given client, whatever their connect timeout.
+	 *
+	 * @param client the client
+	 */
+	public Http2Transport(HttpClient client) {
+		this.executor = null;
+		this.client = client;
+		this.clients = null;
+	}
+
+	/**
+	 * Gets the shared instance.
+	 *
+	 * @return the shared instance
+	 */
+	public static Http2Transport getSharedInstance() {
+		return SharedInstanceHolder.INSTANCE;
+	}
+
+	/**
+	 * Gets the client.
+	 *
+	 * @return the client
+	 */
+	public HttpClient getClient() {
+		return client;
+	}
+
+	/**
+	 * Gets the client with the connect timeout of a request.
+	 *
+	 * @param request the request
+	 *
+	 * @return the client
+	 */
+	HttpClient getClient(HttpRequest request) {
+		if (clients == null) {
+			return client;
+		}
+		return clients.computeIfAbsent(getConnectTimeoutKey(request.getConfiguredConnectTimeout()),
+				connectTimeout -> newClient(executor, connectTimeout));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.transport.HttpTransport#execute(com.googleapis.ajax.services.transport.HttpRequest)
+	 */
+	@Override
+	public HttpResponse execute(HttpRequest request) throws IOException {
+		final CompletableFuture<java.net.http.HttpResponse<InputStream>> exchange =
+			getClient(request).sendAsync(toClientRequest(request), BodyHandlers.ofInputStream());
+		request.setAbortHandle(new Closeable() {
+			@Override
+			public void close() {
+				exchange.cancel(true);
+			}
+		});
+		try {
+			final java.net.http.HttpResponse<InputStream> response = exchange.get();
+			request.setAbortHandle(response.body());
+			return new Http2Response(response, response.body());
+		} catch (InterruptedException e) {
+			exchange.cancel(true);
+			Thread.currentThread().interrupt();
+			InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for " + request.getUrl());
+			exception.initCause(e);
+			throw exception;
+		} catch (CancellationException e) {
+			throw new IOException("Request has been aborted: " + request, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.transport.AsyncHttpTransport#executeAsync(com.googleapis.ajax.services.transport.HttpRequest)
+	 */
+	@Override
+	public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+		java.net.http.HttpRequest clientRequest;
+		try {
+			clientRequest = toClientRequest(request);
+		} catch (IllegalArgumentException e) {
+			CompletableFuture<HttpResponse> failed = new CompletableFuture<HttpResponse>();
+			failed.completeExceptionally(new IOException("Invalid request " + request, e));
+			return failed;
+		}
+		final CompletableFuture<java.net.http.HttpResponse<byte[]>> exchange = getClient(request).sendAsync(clientRequest, BodyHandlers.ofByteArray());
+		// a future of our own, the ones derived from the client future do not cancel reliably.
+		final CompletableFuture<HttpResponse> result = new CompletableFuture<HttpResponse>();
+		exchange.whenComplete((response, error) -> {
+			if (error == null) {
+				result.complete(new Http2Response(response, new ByteArrayInputStream(response.body())));
+			} else {
+				result.completeExceptionally(error);
+			}
+		});
+		// propagate cancellation so that the stream is reset on the wire.
+		result.whenComplete((response, error) -> {
+			if (result.isCancelled()) {
+				exchange.cancel(true);
+			}
+		});
+		try {
+			request.setAbortHandle(new Closeable() {
+				@Override
+				public void close() {
+					exchange.cancel(true);
+				}
+			});
+		} catch (IOException e) {
+			result.cancel(true);
+		}
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.transport.HttpTransport#shutdown()
+	 */
+	@Override
+	public void shutdown() {
+		// the JDK client releases its connections once it is unreachable.
+	}
+
+	/**
+	 * Converts the request to a JDK client request.
+	 *
+	 * @param request the request
+	 *
+	 * @return the JDK client request
+	 */
+	private static java.net.http.HttpRequest toClientRequest(HttpRequest request) {
+		java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest.newBuilder(URI.create(request.getUrl()));
+		long timeout = getTimeout(request);
+		if (timeout > 0) {
+			builder.timeout(Duration.ofMillis(timeout));
+		}
+		for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+			if (!RESTRICTED_HEADERS.contains(header.getKey().toLowerCase(Locale.ENGLISH))) {
+				builder.header(header.getKey(), header.getValue());
+			}
+		}
+		if (request.getBody() != null) {
+			builder.method(request.getMethod(), BodyPublishers.ofByteArray(request.getBody()));
+		} else {
+			builder.method(request.getMethod(), BodyPublishers.noBody());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Gets the timeout of the whole exchange of a request. The JDK client
+	 * starts it before connecting, so it takes the connect and read timeouts
+	 * together, bounded by the time left before the deadline.
+	 *
+	 * @param request the request
+	 *
+	 * @return the timeout in millis, 0 or less for none
+	 */
+	private static long getTimeout(HttpRequest request) {
+		int connectTimeout = request.getConfiguredConnectTimeout();
+		int readTimeout = request.getReadTimeout();
+		long timeout = (readTimeout > 0 && connectTimeout > 0) ? (long) connectTimeout + readTimeout : readTimeout;
+		Deadline deadline = request.getDeadline();
+		if (deadline != null) {
+			// a zero timeout is refused, wait at least a millisecond instead.
+			long remaining = Math.max(deadline.timeRemaining(TimeUnit.MILLISECONDS), 1);
+			timeout = (timeout > 0) ? Math.min(timeout, remaining) : remaining;
+		}
+		return timeout;
+	}
+
+	/**
+	 * Gets the key of the client with a connect timeout, all the timeouts
+	 * that mean none share one.
+	 *
+	 * @param connectTimeout the connect timeout in millis, 0 or less for none
+	 *
+	 * @return the key
+	 */
+	private static Integer getConnectTimeoutKey(int connectTimeout) {
+		return Math.max(connectTimeout, 0);
+	}
+
+	/**
+	 * Creates a new HTTP/2 client.
+	 *
+	 * @param executor the executor, null for the default
+	 * @param connectTimeout the connect timeout in millis, 0 or less for none
+	 *
+	 * @return the http client
+	 */
+	private static HttpClient newClient(Executor executor, int connectTimeout) {
+		HttpClient.Builder builder = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_2)
+			.followRedirects(HttpClient.Redirect.NORMAL);
+		if (connectTimeout > 0) {
+			builder.connectTimeout(Duration.ofMillis(connectTimeout));
+		}
+		if (executor != null) {
+			builder.executor(executor);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * The Class Http2Response.
+	 */
+	private static class Http2Response implements HttpResponse {
+
+		/** The response. */
+		private final java.net.http.HttpResponse<?> response;
+
+		/** The content. */
+		private final InputStream content;
+
+		/**
+		 * Instantiates a new http2 response.
+		 *
+		 * @param response the response
+		 * @param content the content
+		 */
+		Http2Response(java.net.http.HttpResponse<?> response, InputStream content) {
+			this.response = response;
+			this.content = content;
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getStatusCode()
+		 */
+		@Override
+		public int getStatusCode() {
+			return response.statusCode();
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getHeader(java.lang.String)
+		 */
+		@Override
+		public String getHeader(String name) {
+			return response.headers().firstValue(name).orElse(null);
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getContentEncoding()
+		 */
+		@Override
+		public String getContentEncoding() {
+			return getHeader("Content-Encoding");
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getContent()
+		 */
+		@Override
+		public InputStream getContent() {
+			return content;
+		}
+	}
+
+	/**
+	 * The Class SharedInstanceHolder.
+	 */
+	private static class SharedInstanceHolder {
+
+		/** The Constant INSTANCE. */
+		private static final Http2Transport INSTANCE = new Http2Transport();
+	}
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.transport;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.googleapis.ajax.services.constant.ApplicationConstants;
+
+/**
+ * The Class HttpConnectionPool.
+ *
+ * Keeps persistent connections per route (scheme, host and port). At most
+ * <code>maxConnectionsPerHost</code> connections are open to a route, further
+ * callers wait up to <code>leaseTimeout</code> for one to be released. Idle
+ * connections are evicted after <code>idleTimeout</code>, and those idle for
+ * longer than <code>validateAfterInactivity</code> are optionally validated
+ * before being handed out again. A connection reused right away is never
+ * checked, the check costs a short blocking read.
+ */
+public class HttpConnectionPool {
+
+	/** The max connections per host. */
+	private final int maxConnectionsPerHost;
+
+	/** The idle timeout in millis. */
+	private final long idleTimeout;
+
+	/** The lease timeout in millis, 0 to wait forever. */
+	private final long leaseTimeout;
+
+	/** The idle millis after which a connection is validated before reuse, -1 never to validate. */
+	private final long validateAfterInactivity;
+
+	/** The route pools. */
+	private final ConcurrentMap<String, RoutePool> routePools = new ConcurrentHashMap<String, RoutePool>();
+
+	/** The shutdown. */
+	private volatile boolean shutdown;
+
+	/**
+	 * Instantiates a new http connection pool.
+	 *
+	 * @param maxConnectionsPerHost the max connections per host
+	 * @param idleTimeout the idle timeout in millis
+	 * @param leaseTimeout the lease timeout in millis, 0 to wait forever
+	 * @param validateOnBorrow whether to check connections idle for longer than the
+	 * validate after inactivity of the application constants before reuse
+	 */
+	public HttpConnectionPool(int maxConnectionsPerHost, long idleTimeout, long leaseTimeout, boolean validateOnBorrow) {
+		this(maxConnectionsPerHost, idleTimeout, leaseTimeout,
+				validateOnBorrow ? ApplicationConstants.VALIDATE_AFTER_INACTIVITY : -1);
+	}
+
+	/**
+	 * Instantiates a new http connection pool.
+	 *
+	 * @param maxConnectionsPerHost the max connections per host
+	 * @param idleTimeout the idle timeout in millis
+	 * @param leaseTimeout the lease timeout in millis, 0 to wait forever
+	 * @param validateAfterInactivity the idle millis after which a connection is checked before reuse, -1 never to check
+	 */
+	public HttpConnectionPool(int maxConnectionsPerHost, long idleTimeout, long leaseTimeout, long validateAfterInactivity) {
+		if (maxConnectionsPerHost < 1) {
+			throw new IllegalArgumentException("maxConnectionsPerHost must be positive.");
+		}
+		this.maxConnectionsPerHost = maxConnectionsPerHost;
+		this.idleTimeout = idleTimeout;
+		this.leaseTimeout = leaseTimeout;
+		this.validateAfterInactivity = validateAfterInactivity;
+	}
+
+	/**
+	 * Leases a connection to the given host, reusing an idle one if possible.
+	 *
+	 * @param host the host
+	 * @param port the port
+	 * @param secure whether to use TLS
+	 * @param connectTimeout the connect timeout, -1 for none
+	 * @param callDeadline the deadline of the call, it bounds the wait for a connection, null for none
+	 *
+	 * @return the http connection
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	HttpConnection lease(String host, int port, boolean secure, int connectTimeout, Deadline callDeadline)
+			throws IOException {
+		if (shutdown) {
+			throw new IOException("Connection pool has been shut down.");
+		}
+		String route = (secure ? "https://" : "http://") + host + ":" + port;
+		RoutePool pool = getRoutePool(route);
+		HttpConnection connection;
+		while ((connection = pool.leaseIdle(callDeadline)) != null) {
+			// validate outside the lock, the check blocks for a moment.
+			if (needsValidation(connection) && connection.isStale()) {
+				connection.close();
+				pool.releaseClosed();
+				continue;
+			}
+			pool.reused();
+			return connection;
+		}
+		// a slot has been reserved for us, connect outside the lock.
+		try {
+			connection = HttpConnection.open(route, host, port, secure, connectTimeout);
+		} catch (IOException e) {
+			pool.cancelReservation();
+			throw e;
+		}
+		pool.created();
+		return connection;
+	}
+
+	/**
+	 * Checks if a connection has been idle long enough to be validated
+	 * before reuse.
+	 *
+	 * @param connection the connection
+	 *
+	 * @return true, if it needs validation
+	 */
+	private boolean needsValidation(HttpConnection connection) {
+		return validateAfterInactivity >= 0
+				&& System.currentTimeMillis() - connection.getLastUsed() > validateAfterInactivity;
+	}
+
+	/**
+	 * Returns a connection to the pool.
+	 *
+	 * @param connection the connection
+	 * @param reusable whether the connection can serve another request
+	 */
+	void release(HttpConnection connection, boolean reusable) {
+		RoutePool pool = getRoutePool(connection.getRoute());
+		if (reusable && !shutdown) {
+			connection.touch();
+			pool.releaseIdle(connection);
+		} else {
+			connection.close();
+			pool.releaseClosed();
+		}
+	}
+
+	/**
+	 * Closes the connections idle for longer than the idle timeout. Eviction
+	 * also happens lazily on every lease, call this to reclaim sockets of
+	 * routes that are no longer used.
+	 */
+	public void closeIdleConnections() {
+		for (RoutePool pool : routePools.values()) {
+			pool.evictIdle(System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Closes all the idle connections, connections in use are closed when
+	 * they are released.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		for (RoutePool pool : routePools.values()) {
+			pool.closeAll();
+		}
+	}
+
+	/**
+	 * Gets the stats summed over all routes.
+	 *
+	 * @return the stats
+	 */
+	public PoolStats getStats() {
+		int leased = 0, available = 0, pending = 0, max = 0;
+		long created = 0, reused = 0, evicted = 0, discarded = 0;
+		for (RoutePool pool : routePools.values()) {
+			PoolStats stats = pool.getStats();
+			leased += stats.getLeased();
+			available += stats.getAvailable();
+			pending += stats.getPending();
+			max += stats.getMax();
+			created += stats.getCreated();
+			reused += stats.getReused();
+			evicted += stats.getEvicted();
+			discarded += stats.getDiscarded();
+		}
+		return new PoolStats(leased, available, pending, max, created, reused, evicted, discarded);
+	}
+
+	/**
+	 * Gets the stats per route, keyed by <code>scheme://host:port</code>.
+	 *
+	 * @return the route stats
+	 */
+	public Map<String, PoolStats> getRouteStats() {
+		Map<String, PoolStats> stats = new HashMap<String, PoolStats>();
+		for (Map.Entry<String, RoutePool> entry : routePools.entrySet()) {
+			stats.put(entry.getKey(), entry.getValue().getStats());
+		}
+		return stats;
+	}
+
+	/**
+	 * Gets the route pool.
+	 *
+	 * @param route the route
+	 *
+	 * @return the route pool
+	 */
+	private RoutePool getRoutePool(String route) {
+		RoutePool pool = routePools.get(route);
+		if (pool == null) {
+			RoutePool newPool = new RoutePool();
+			pool = routePools.putIfAbsent(route, newPool);
+			if (pool == null) {
+				pool = newPool;
+			}
+		}
+		return pool;
+	}
+
+	/**
+	 * The Class RoutePool.
+	 *
+	 * Guarded by an explicit lock rather than a monitor, so that virtual
+	 * threads waiting for a connection unmount from their carrier. Sockets
+	 * are never closed while the lock is held.
+	 */
+	private class RoutePool {
+
+		/** The lock. */
+		private final Lock lock = new ReentrantLock();
+
+		/** Signalled when a connection or a slot becomes available. */
+		private final Condition available = lock.newCondition();
+
+		/** The idle connections, most recently used first. */
+		private final LinkedList<HttpConnection> idle = new LinkedList<HttpConnection>();
+
+		/** The leased. */
+		private int leased;
+
+		/** The pending. */
+		private int pending;
+
+		/** The created. */
+		private long created;
+
+		/** The reused. */
+		private long reused;
+
+		/** The evicted. */
+		private long evicted;
+
+		/** The discarded. */
+		private long discarded;
+
+		/**
+		 * Takes an idle connection or reserves a slot for a new one, waiting
+		 * while the route is at its maximum.
+		 *
+		 * @param callDeadline the deadline of the call, null for none
+		 *
+		 * @return the idle connection, or null if a slot was reserved instead
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		HttpConnection leaseIdle(Deadline callDeadline) throws IOException {
+			long deadline = (leaseTimeout > 0) ? System.currentTimeMillis() + leaseTimeout : 0;
+			if (callDeadline != null) {
+				long callEnd = System.currentTimeMillis() + Math.max(callDeadline.timeRemaining(TimeUnit.MILLISECONDS), 1);
+				deadline = (deadline > 0) ? Math.min(deadline, callEnd) : callEnd;
+			}
+			List<HttpConnection> expired = new ArrayList<HttpConnection>();
+			lock.lock();
+			try {
+				while (true) {
+					removeExpired(System.currentTimeMillis(), expired);
+					if (!idle.isEmpty()) {
+						leased++;
+						return idle.removeFirst();
+					}
+					if (leased < maxConnectionsPerHost) {
+						leased++;
+						return null;
+					}
+					long wait = 0;
+					if (deadline > 0) {
+						wait = deadline - System.currentTimeMillis();
+						if (wait <= 0) {
+							throw new IOException("Timeout waiting for a pooled connection.");
+						}
+					}
+					pending++;
+					try {
+						if (wait > 0) {
+							available.await(wait, TimeUnit.MILLISECONDS);
+						} else {
+							available.await();
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IOException("Interrupted while waiting for a pooled connection.");
+					} finally {
+						pending--;
+					}
+					if (shutdown) {
+						throw new IOException("Connection pool has been shut down.");
+					}
+				}
+			} finally {
+				lock.unlock();
+				closeAll(expired);
+			}
+		}
+
+		/**
+		 * Cancels a reservation made by {@link #leaseIdle(Deadline)}.
+		 */
+		void cancelReservation() {
+			lock.lock();
+			try {
+				leased--;
+				available.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Records a newly opened connection.
+		 */
+		void created() {
+			lock.lock();
+			try {
+				created++;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Records a lease served by an idle connection.
+		 */
+		void reused() {
+			lock.lock();
+			try {
+				reused++;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Puts a connection back for reuse.
+		 *
+		 * @param connection the connection
+		 */
+		void releaseIdle(HttpConnection connection) {
+			lock.lock();
+			try {
+				leased--;
+				idle.addFirst(connection);
+				available.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Records a leased connection that has been closed.
+		 */
+		void releaseClosed() {
+			lock.lock();
+			try {
+				leased--;
+				discarded++;
+				available.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Evicts idle connections.
+		 *
+		 * @param now the now
+		 */
+		void evictIdle(long now) {
+			List<HttpConnection> expired = new ArrayList<HttpConnection>();
+			lock.lock();
+			try {
+				removeExpired(now, expired);
+			} finally {
+				lock.unlock();
+			}
+			closeAll(expired);
+		}
+
+		/**
+		 * Moves the connections idle for too long to the given list, must be
+		 * called with the lock held.
+		 *
+		 * @param now the now
+		 * @param expired the expired connections
+		 */
+		private void removeExpired(long now, List<HttpConnection> expired) {
+			if (idleTimeout <= 0) {
+				return;
+			}
+			for (Iterator<HttpConnection> iter = idle.iterator(); iter.hasNext();) {
+				HttpConnection connection = iter.next();
+				if (now - connection.getLastUsed() > idleTimeout) {
+					iter.remove();
+					expired.add(connection);
+					evicted++;
+				}
+			}
+		}
+
+		/**
+		 * Closes all idle connections.
+		 */
+		void closeAll() {
+			List<HttpConnection> connections;
+			lock.lock();
+			try {
+				connections = new ArrayList<HttpConnection>(idle);
+				idle.clear();
+				available.signalAll();
+			} finally {
+				lock.unlock();
+			}
+			closeAll(connections);
+		}
+
+		/**
+		 * Closes the given connections.
+		 *
+		 * @param connections the connections
+		 */
+		private void closeAll(List<HttpConnection> connections) {
+			for (HttpConnection connection : connections) {
+				connection.close();
+			}
+		}
+
+		/**
+		 * Gets the stats.
+		 *
+		 * @return the stats
+		 */
+		PoolStats getStats() {
+			lock.lock();
+			try {
+				return new PoolStats(leased, idle.size(), pending, maxConnectionsPerHost, created, reused, evicted, discarded);
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+}
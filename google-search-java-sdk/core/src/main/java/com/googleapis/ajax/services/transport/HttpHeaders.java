@@ -0,0 +1,109 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The Class HttpHeaders.
+ *
+ * Case insensitive HTTP/1.1 header block.
+ */
+class HttpHeaders {
+
+	/** The Constant MAX_LINE_LENGTH. */
+	private static final int MAX_LINE_LENGTH = 8192;
+
+	/** The headers keyed by lower case name. */
+	private final Map<String, String> headers = new HashMap<String, String>();
+
+	/**
+	 * Reads a header block up to and including the empty line.
+	 *
+	 * @param in the in
+	 *
+	 * @return the http headers
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	static HttpHeaders read(InputStream in) throws IOException {
+		HttpHeaders headers = new HttpHeaders();
+		String line;
+		while ((line = readLine(in)) != null && line.length() > 0) {
+			int colon = line.indexOf(':');
+			if (colon > 0) {
+				headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+			}
+		}
+		return headers;
+	}
+
+	/**
+	 * Reads a CRLF (or LF) terminated ISO-8859-1 line.
+	 *
+	 * @param in the in
+	 *
+	 * @return the line without terminator, or null at end of stream
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	static String readLine(InputStream in) throws IOException {
+		StringBuilder builder = new StringBuilder();
+		int b;
+		while ((b = in.read()) != -1) {
+			if (b == '\n') {
+				int length = builder.length();
+				if (length > 0 && builder.charAt(length - 1) == '\r') {
+					builder.setLength(length - 1);
+				}
+				return builder.toString();
+			}
+			if (builder.length() >= MAX_LINE_LENGTH) {
+				throw new IOException("HTTP header line too long.");
+			}
+			builder.append((char) b);
+		}
+		return (builder.length() == 0) ? null : builder.toString();
+	}
+
+	/**
+	 * Adds the header, repeated headers are folded into one value.
+	 *
+	 * @param name the name
+	 * @param value the value
+	 */
+	void add(String name, String value) {
+		String key = name.toLowerCase(Locale.ENGLISH);
+		String existing = headers.get(key);
+		headers.put(key, (existing == null) ? value : existing + ", " + value);
+	}
+
+	/**
+	 * Gets the header.
+	 *
+	 * @param name the name
+	 *
+	 * @return the header value or null
+	 */
+	String get(String name) {
+		return headers.get(name.toLowerCase(Locale.ENGLISH));
+	}
+}
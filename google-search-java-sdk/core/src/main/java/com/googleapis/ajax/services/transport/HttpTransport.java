@@ -0,0 +1,47 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.transport;
+
+import java.io.IOException;
+
+/**
+ * The Interface HttpTransport.
+ *
+ * The SPI used by the gateway to talk HTTP. Implementations must be thread
+ * safe, a single instance is normally shared by every query created from the
+ * same factory.
+ */
+public interface HttpTransport {
+
+	/**
+	 * Executes the request and returns once the status line and the headers
+	 * have been read. The caller must close the response content to release
+	 * the underlying connection.
+	 *
+	 * @param request the request
+	 *
+	 * @return the http response
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public HttpResponse execute(HttpRequest request) throws IOException;
+
+	/**
+	 * Releases all the resources held by this transport.
+	 */
+	public void shutdown();
+}
@@ -0,0 +1,509 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+
+import com.googleapis.ajax.services.constant.ApplicationConstants;
+
+/**
+ * The Class PooledHttpTransport.
+ *
+ * The default transport. Speaks HTTP/1.1 over connections kept in a
+ * {@link HttpConnectionPool}, so consecutive calls to the same host skip the
+ * TCP and TLS handshakes. The pooled connections go directly to the host,
+ * so the requests the default {@link ProxySelector} sends through a proxy are
+ * handed to a {@link UrlConnectionTransport}, which honours it.
+ */
+public class PooledHttpTransport implements HttpTransport {
+
+	/** The Constant CRLF. */
+	private static final byte[] CRLF = {'\r', '\n'};
+
+	/** The Constant HEADER_CHARSET. */
+	private static final String HEADER_CHARSET = "ISO-8859-1";
+
+	/** The Constant DRAIN_LIMIT. */
+	private static final int DRAIN_LIMIT = 64 * 1024;
+
+	/** The pool. */
+	private final HttpConnectionPool pool;
+
+	/** The transport of the requests that go through a proxy. */
+	private final HttpTransport proxyTransport = new UrlConnectionTransport();
+
+	/**
+	 * Instantiates a new pooled http transport configured from
+	 * ApplicationConstants.properties.
+	 */
+	public PooledHttpTransport() {
+		this(new HttpConnectionPool(ApplicationConstants.MAX_CONNECTIONS_PER_HOST,
+				ApplicationConstants.IDLE_CONNECTION_TIMEOUT,
+				ApplicationConstants.CONNECTION_REQUEST_TIMEOUT,
+				ApplicationConstants.VALIDATE_CONNECTION_ON_BORROW));
+	}
+
+	/**
+	 * Instantiates a new pooled http transport.
+	 *
+	 * @param pool the pool
+	 */
+	public PooledHttpTransport(HttpConnectionPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Gets the shared instance used by queries that have not been given a
+	 * transport of their own.
+	 *
+	 * @return the shared instance
+	 */
+	public static PooledHttpTransport getSharedInstance() {
+		return SharedInstanceHolder.INSTANCE;
+	}
+
+	/**
+	 * Gets the connection pool.
+	 *
+	 * @return the connection pool
+	 */
+	public HttpConnectionPool getConnectionPool() {
+		return pool;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.transport.HttpTransport#execute(com.googleapis.ajax.services.transport.HttpRequest)
+	 */
+	@Override
+	public HttpResponse execute(HttpRequest request) throws IOException {
+		URL url = new URL(request.getUrl());
+		if (isProxied(url)) {
+			return proxyTransport.execute(request);
+		}
+		boolean secure = "https".equalsIgnoreCase(url.getProtocol());
+		if (!secure && !"http".equalsIgnoreCase(url.getProtocol())) {
+			throw new IOException("Unsupported protocol: " + url.getProtocol());
+		}
+		int port = (url.getPort() == -1) ? url.getDefaultPort() : url.getPort();
+		boolean idempotent = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+
+		while (true) {
+			final HttpConnection connection = pool.lease(url.getHost(), port, secure, request.getConnectTimeout(),
+					request.getDeadline());
+			boolean reused = connection.isReused();
+			try {
+				request.setAbortHandle(new Closeable() {
+					@Override
+					public void close() {
+						connection.close();
+					}
+				});
+				connection.setReadTimeout(request.getReadTimeout());
+				writeRequest(connection.getOutput(), url, port, request);
+				return readResponse(connection, request);
+			} catch (IOException e) {
+				request.clearAbortHandle();
+				pool.release(connection, false);
+				// the server may have closed a kept alive connection just as we
+				// picked it up, an idempotent request can safely go again.
+				if (!(idempotent && reused && isConnectionReset(e)) || request.isAborted()) {
+					throw e;
+				}
+			} catch (RuntimeException e) {
+				request.clearAbortHandle();
+				pool.release(connection, false);
+				throw e;
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.transport.HttpTransport#shutdown()
+	 */
+	@Override
+	public void shutdown() {
+		pool.shutdown();
+		proxyTransport.shutdown();
+	}
+
+	/**
+	 * Checks if the default proxy selector sends the requests to an url
+	 * through a proxy.
+	 *
+	 * @param url the url
+	 *
+	 * @return true, if is proxied
+	 */
+	private static boolean isProxied(URL url) {
+		ProxySelector selector = ProxySelector.getDefault();
+		if (selector == null) {
+			return false;
+		}
+		try {
+			for (Proxy proxy : selector.select(url.toURI())) {
+				if (proxy.type() != Proxy.Type.DIRECT) {
+					return true;
+				}
+			}
+		} catch (URISyntaxException e) {
+			// not a valid uri, let the direct connection fail on it.
+		} catch (IllegalArgumentException e) {
+			// no proxy applies to the uri.
+		}
+		return false;
+	}
+
+	/**
+	 * Writes the request head and body.
+	 *
+	 * @param out the out
+	 * @param url the url
+	 * @param port the port
+	 * @param request the request
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void writeRequest(OutputStream out, URL url, int port, HttpRequest request) throws IOException {
+		String path = url.getFile();
+		StringBuilder head = new StringBuilder(256);
+		head.append(request.getMethod()).append(' ').append(path.length() == 0 ? "/" : path).append(" HTTP/1.1\r\n");
+		head.append("Host: ").append(url.getHost());
+		if (port != url.getDefaultPort()) {
+			head.append(':').append(port);
+		}
+		head.append("\r\n");
+		for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+			if (!"Host".equalsIgnoreCase(header.getKey()) && !"Content-Length".equalsIgnoreCase(header.getKey())) {
+				head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+			}
+		}
+		byte[] body = request.getBody();
+		if (body != null) {
+			head.append("Content-Length: ").append(body.length).append("\r\n");
+		}
+		out.write(head.toString().getBytes(HEADER_CHARSET));
+		out.write(CRLF);
+		if (body != null) {
+			out.write(body);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Reads the status line and headers and frames the body.
+	 *
+	 * @param connection the connection
+	 * @param request the request
+	 *
+	 * @return the http response
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private HttpResponse readResponse(HttpConnection connection, HttpRequest request) throws IOException {
+		InputStream in = connection.getInput();
+		String statusLine;
+		int statusCode;
+		HttpHeaders headers;
+		do {
+			statusLine = HttpHeaders.readLine(in);
+			if (statusLine == null) {
+				throw new ConnectionResetException("Connection closed before the status line was received.");
+			}
+			statusCode = parseStatusCode(statusLine);
+			headers = HttpHeaders.read(in);
+		} while (statusCode >= 100 && statusCode < 200);
+
+		boolean http10 = statusLine.startsWith("HTTP/1.0");
+		String connectionHeader = headers.get("Connection");
+		boolean keepAlive = http10 ? "keep-alive".equalsIgnoreCase(connectionHeader) : !"close".equalsIgnoreCase(connectionHeader);
+
+		InputStream body;
+		String transferEncoding = headers.get("Transfer-Encoding");
+		String contentLength = headers.get("Content-Length");
+		if ("HEAD".equals(request.getMethod()) || statusCode == 204 || statusCode == 304) {
+			body = new ByteArrayInputStream(new byte[0]);
+		} else if (transferEncoding != null && transferEncoding.toLowerCase().contains("chunked")) {
+			body = new ChunkedInputStream(in);
+		} else if (contentLength != null) {
+			try {
+				body = new ContentLengthInputStream(in, Long.parseLong(contentLength.trim()));
+			} catch (NumberFormatException e) {
+				throw new IOException("Invalid Content-Length: " + contentLength);
+			}
+		} else {
+			// delimited by the end of the connection.
+			body = in;
+			keepAlive = false;
+		}
+		return new PooledHttpResponse(statusCode, headers, new ReleasingInputStream(body, connection, request, keepAlive));
+	}
+
+	/**
+	 * Parses the status code.
+	 *
+	 * @param statusLine the status line
+	 *
+	 * @return the status code
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static int parseStatusCode(String statusLine) throws IOException {
+		int start = statusLine.indexOf(' ');
+		if (!statusLine.startsWith("HTTP/") || start < 0 || statusLine.length() < start + 4) {
+			throw new IOException("Invalid status line: " + statusLine);
+		}
+		try {
+			return Integer.parseInt(statusLine.substring(start + 1, start + 4));
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid status line: " + statusLine);
+		}
+	}
+
+	/**
+	 * Checks if the failure means the peer had already dropped the connection.
+	 *
+	 * @param e the e
+	 *
+	 * @return true, if is connection reset
+	 */
+	private static boolean isConnectionReset(IOException e) {
+		return (e instanceof ConnectionResetException) || (e instanceof java.net.SocketException);
+	}
+
+	/**
+	 * The Class ConnectionResetException.
+	 */
+	private static class ConnectionResetException extends IOException {
+
+		/** The Constant serialVersionUID. */
+		private static final long serialVersionUID = 3362812453017616042L;
+
+		/**
+		 * Instantiates a new connection reset exception.
+		 *
+		 * @param message the message
+		 */
+		ConnectionResetException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * The Class PooledHttpResponse.
+	 */
+	private static class PooledHttpResponse implements HttpResponse {
+
+		/** The status code. */
+		private final int statusCode;
+
+		/** The headers. */
+		private final HttpHeaders headers;
+
+		/** The content. */
+		private final InputStream content;
+
+		/**
+		 * Instantiates a new pooled http response.
+		 *
+		 * @param statusCode the status code
+		 * @param headers the headers
+		 * @param content the content
+		 */
+		PooledHttpResponse(int statusCode, HttpHeaders headers, InputStream content) {
+			this.statusCode = statusCode;
+			this.headers = headers;
+			this.content = content;
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getStatusCode()
+		 */
+		@Override
+		public int getStatusCode() {
+			return statusCode;
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getHeader(java.lang.String)
+		 */
+		@Override
+		public String getHeader(String name) {
+			return headers.get(name);
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getContentEncoding()
+		 */
+		@Override
+		public String getContentEncoding() {
+			return headers.get("Content-Encoding");
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getContent()
+		 */
+		@Override
+		public InputStream getContent() {
+			return content;
+		}
+	}
+
+	/**
+	 * The Class ReleasingInputStream.
+	 *
+	 * Hands the connection back to the pool once the body has been consumed.
+	 */
+	private class ReleasingInputStream extends FilterInputStream {
+
+		/** The connection. */
+		private final HttpConnection connection;
+
+		/** The request. */
+		private final HttpRequest request;
+
+		/** The keep alive. */
+		private final boolean keepAlive;
+
+		/** The eof. */
+		private boolean eof;
+
+		/** The released. */
+		private boolean released;
+
+		/**
+		 * Instantiates a new releasing input stream.
+		 *
+		 * @param body the body
+		 * @param connection the connection
+		 * @param request the request
+		 * @param keepAlive the keep alive
+		 */
+		ReleasingInputStream(InputStream body, HttpConnection connection, HttpRequest request, boolean keepAlive) {
+			super(body);
+			this.connection = connection;
+			this.request = request;
+			this.keepAlive = keepAlive;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.FilterInputStream#read()
+		 */
+		@Override
+		public int read() throws IOException {
+			if (eof) {
+				return -1;
+			}
+			try {
+				int b = in.read();
+				if (b == -1) {
+					eof = true;
+				}
+				return b;
+			} catch (IOException e) {
+				release(false);
+				throw e;
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.FilterInputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (eof) {
+				return -1;
+			}
+			try {
+				int read = in.read(b, off, len);
+				if (read == -1) {
+					eof = true;
+				}
+				return read;
+			} catch (IOException e) {
+				release(false);
+				throw e;
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.FilterInputStream#markSupported()
+		 */
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.FilterInputStream#close()
+		 */
+		@Override
+		public void close() throws IOException {
+			if (released) {
+				return;
+			}
+			if (!eof && keepAlive) {
+				// parsers stop at the end of the JSON value, drain whatever is
+				// left so that the connection can be reused.
+				try {
+					byte[] buffer = new byte[1024];
+					int drained = 0;
+					int read;
+					while (drained < DRAIN_LIMIT && (read = in.read(buffer)) != -1) {
+						drained += read;
+					}
+					eof = (in.read() == -1);
+				} catch (IOException e) {
+					eof = false;
+				}
+			}
+			release(eof && keepAlive);
+		}
+
+		/**
+		 * Release.
+		 *
+		 * @param reusable the reusable
+		 */
+		private void release(boolean reusable) {
+			if (!released) {
+				released = true;
+				// an aborted request has had its connection closed under it.
+				boolean aborted = !request.clearAbortHandle();
+				pool.release(connection, reusable && !aborted);
+			}
+		}
+	}
+
+	/**
+	 * The Class SharedInstanceHolder.
+	 */
+	private static class SharedInstanceHolder {
+
+		/** The Constant INSTANCE. */
+		private static final PooledHttpTransport INSTANCE = new PooledHttpTransport();
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * The Class UrlConnectionTransport.
+ *
+ * A transport on top of {@link HttpURLConnection}. Connection reuse is left to
+ * the keep-alive cache of the JDK, it honours the JDK proxy settings.
+ */
+public class UrlConnectionTransport implements HttpTransport {
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.transport.HttpTransport#execute(com.googleapis.ajax.services.transport.HttpRequest)
+	 */
+	@Override
+	public HttpResponse execute(HttpRequest request) throws IOException {
+        URL               url        = new URL(request.getUrl());
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+
+        request.setAbortHandle(new Closeable() {
+        	@Override
+        	public void close() {
+        		connection.disconnect();
+        	}
+        });
+
+        if (request.getConnectTimeout() > -1) {
+        	connection.setConnectTimeout(request.getConnectTimeout());
+        }
+
+        if (request.getReadTimeout() > -1) {
+        	connection.setReadTimeout(request.getReadTimeout());
+        }
+
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+        	connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+
+        connection.setRequestMethod(request.getMethod());
+
+        if (request.getBody() != null) {
+        	connection.setDoOutput(true);
+        	OutputStream out = connection.getOutputStream();
+        	try {
+        		out.write(request.getBody());
+        		out.flush();
+        	} finally {
+        		out.close();
+        	}
+        }
+
+        connection.connect();
+
+        return new UrlConnectionResponse(connection);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.googleapis.ajax.services.transport.HttpTransport#shutdown()
+	 */
+	@Override
+	public void shutdown() {
+		// nothing to release, the JDK owns the connections.
+	}
+
+	/**
+	 * The Class UrlConnectionResponse.
+	 */
+	private static class UrlConnectionResponse implements HttpResponse {
+
+		/** The connection. */
+		private final HttpURLConnection connection;
+
+		/** The status code. */
+		private final int statusCode;
+
+		/**
+		 * Instantiates a new url connection response.
+		 *
+		 * @param connection the connection
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		private UrlConnectionResponse(HttpURLConnection connection) throws IOException {
+			this.connection = connection;
+			this.statusCode = connection.getResponseCode();
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getStatusCode()
+		 */
+		@Override
+		public int getStatusCode() {
+			return statusCode;
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getHeader(java.lang.String)
+		 */
+		@Override
+		public String getHeader(String name) {
+			return connection.getHeaderField(name);
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getContentEncoding()
+		 */
+		@Override
+		public String getContentEncoding() {
+			return connection.getContentEncoding();
+		}
+
+		/* (non-Javadoc)
+		 * @see com.googleapis.ajax.services.transport.HttpResponse#getContent()
+		 */
+		@Override
+		public InputStream getContent() {
+			InputStream content;
+			try {
+				content = (statusCode >= HttpURLConnection.HTTP_BAD_REQUEST) ? connection.getErrorStream() : connection.getInputStream();
+			} catch (IOException e) {
+				content = connection.getErrorStream();
+			}
+			return (content == null) ? new ByteArrayInputStream(new byte[0]) : content;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.googleapis.ajax.schema.NewsResult;
+import com.googleapis.ajax.services.constant.ApplicationConstants;
+import com.googleapis.ajax.services.json.JsonStreamReader;
+import com.googleapis.ajax.services.json.Rfc822DateCodec;
+
+/**
+ * The Class DateParsingBenchmark.
+ *
+ * Reads the published dates of the recorded news corpus the way gson used
+ * to, through one <code>SimpleDateFormat</code> the threads synchronize on,
+ * the way the first generated codecs did, through a format per thread, and
+ * through the RFC-822 codecs. Run with <code>mvn test-compile exec:java
+ * -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.googleapis.ajax.services.benchmark.DateParsingBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DateParsingBenchmark {
+
+	/** The parser: the shared format, a format per thread, or the date or instant codec. */
+	@Param({"sharedFormat", "threadLocalFormat", "rfc822Date", "rfc822Instant"})
+	private String parser;
+
+	/** The json array of the dates. */
+	private String json;
+
+	/** The shared format. */
+	private final SimpleDateFormat sharedFormat = new SimpleDateFormat(ApplicationConstants.RFC822DATEFORMAT, Locale.US);
+
+	/** The formats per thread. */
+	private final ThreadLocal<SimpleDateFormat> threadLocalFormat = ThreadLocal
+			.withInitial(() -> new SimpleDateFormat(ApplicationConstants.RFC822DATEFORMAT, Locale.US));
+
+	/**
+	 * Sets the up.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		StringBuilder dates = new StringBuilder("[");
+		for (NewsResult result : StringPoolFootprint.bind(StringPoolFootprint.readCorpus(), null)) {
+			dates.append((dates.length() == 1) ? "\"" : ", \"")
+					.append(Rfc822DateCodec.DATE.format(result.getPublishedDate())).append('"');
+		}
+		json = dates.append(']').toString();
+	}
+
+	/**
+	 * Parses the dates.
+	 *
+	 * @param blackhole the blackhole
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws ParseException the parse exception
+	 */
+	@Benchmark
+	public void parse(Blackhole blackhole) throws IOException, ParseException {
+		JsonStreamReader reader = new JsonStreamReader(new StringReader(json));
+		reader.beginArray();
+		while (reader.hasNext()) {
+			if ("rfc822Date".equals(parser)) {
+				blackhole.consume(Rfc822DateCodec.DATE.read(reader));
+			} else if ("rfc822Instant".equals(parser)) {
+				blackhole.consume(Rfc822DateCodec.INSTANT.read(reader));
+			} else if ("threadLocalFormat".equals(parser)) {
+				blackhole.consume(threadLocalFormat.get().parse(reader.nextString()));
+			} else {
+				String value = reader.nextString();
+				synchronized (sharedFormat) {
+					blackhole.consume(sharedFormat.parse(value));
+				}
+			}
+		}
+		reader.endArray();
+	}
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 *
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DateParsingBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build()).run();
+	}
+}
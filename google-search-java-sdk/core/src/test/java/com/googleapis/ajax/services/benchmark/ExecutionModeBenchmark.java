@@ -0,0 +1,152 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.enumeration.ExecutionMode;
+import com.googleapis.ajax.services.search.StubGoogleSearchServer;
+import com.googleapis.ajax.services.transport.HttpConnectionPool;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
+
+/**
+ * The Class ExecutionModeBenchmark.
+ *
+ * Fans out a burst of asynchronous web searches against a local stub that
+ * answers after a fixed delay, once on a fixed pool of platform threads and
+ * once with a virtual thread per call. Run with
+ * <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.googleapis.ajax.services.benchmark.ExecutionModeBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+	/** The Constant FIXED_POOL_SIZE. */
+	private static final int FIXED_POOL_SIZE = 16;
+
+	/** The executor, a fixed platform pool or virtual threads. */
+	@Param({"fixed", "virtual"})
+	private String executor;
+
+	/** The number of concurrent queries. */
+	@Param({"128"})
+	private int concurrency;
+
+	/** The server response delay in millis. */
+	@Param({"20"})
+	private long delay;
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The fixed pool. */
+	private ExecutorService fixedPool;
+
+	/** The factory. */
+	private GoogleSearchQueryFactory factory;
+
+	/**
+	 * Sets the up.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		server.setDelay(delay);
+		HttpConnectionPool pool = new HttpConnectionPool(concurrency, 30000, 30000, false);
+		factory = GoogleSearchQueryFactory.newInstance("benchmark", server.redirect(new PooledHttpTransport(pool)));
+		if ("virtual".equals(executor)) {
+			factory.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+		} else {
+			fixedPool = Executors.newFixedThreadPool(FIXED_POOL_SIZE);
+			factory.setExecutor(fixedPool);
+		}
+	}
+
+	/**
+	 * Tear down.
+	 */
+	@TearDown
+	public void tearDown() {
+		factory.getTransport().shutdown();
+		server.stop();
+		if (fixedPool != null) {
+			fixedPool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Fan out.
+	 *
+	 * @return the number of results
+	 *
+	 * @throws Exception the exception
+	 */
+	@Benchmark
+	public int fanOut() throws Exception {
+		List<CompletableFuture<PagedList<WebResult>>> futures = new ArrayList<CompletableFuture<PagedList<WebResult>>>(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			futures.add(factory.newWebSearchQuery().withQuery("google").withStartIndex(i).listAsync());
+		}
+		int results = 0;
+		for (CompletableFuture<PagedList<WebResult>> future : futures) {
+			results += future.get().size();
+		}
+		return results;
+	}
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 *
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ExecutionModeBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.googleapis.ajax.services.compression.GzipDecoder;
+import com.googleapis.ajax.services.search.StubGoogleSearchServer;
+
+/**
+ * The Class GzipDecoderBenchmark.
+ *
+ * Decodes a gzip web search response the way the gateway used to, with a
+ * buffered {@link GZIPInputStream} per call, and with the pooled decoder.
+ * The GC profiler reports the bytes allocated per call as
+ * <code>gc.alloc.rate.norm</code>; the native memory of the inflaters does
+ * not show there, the pooled decoder creates none once warm. Run with
+ * <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.googleapis.ajax.services.benchmark.GzipDecoderBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GzipDecoderBenchmark {
+
+	/** The decoder, the per call jdk streams or the pooled one. */
+	@Param({"jdk", "pooled"})
+	private String decoder;
+
+	/** The gzip response. */
+	private byte[] response;
+
+	/** The sink the decoded content is read into. */
+	private final byte[] sink = new byte[8192];
+
+	/**
+	 * Sets the up.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		InputStream in = StubGoogleSearchServer.class.getResourceAsStream(StubGoogleSearchServer.DEFAULT_RESPONSE);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GZIPOutputStream gzip = new GZIPOutputStream(out);
+		int read;
+		while ((read = in.read(sink)) != -1) {
+			gzip.write(sink, 0, read);
+		}
+		gzip.close();
+		in.close();
+		response = out.toByteArray();
+	}
+
+	/**
+	 * Decode.
+	 *
+	 * @return the number of decoded bytes
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Benchmark
+	public int decode() throws IOException {
+		InputStream content = new ByteArrayInputStream(response);
+		InputStream in = "jdk".equals(decoder) ? new BufferedInputStream(new GZIPInputStream(content))
+				: GzipDecoder.getSharedInstance().decode(content);
+		try {
+			int total = 0;
+			int read;
+			while ((read = in.read(sink)) != -1) {
+				total += read;
+			}
+			return total;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 *
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(GzipDecoderBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build()).run();
+	}
+}
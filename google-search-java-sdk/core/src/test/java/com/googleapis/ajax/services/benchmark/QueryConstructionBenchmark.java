@@ -0,0 +1,120 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.GoogleSearchQuery;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.search.StubGoogleSearchServer;
+import com.googleapis.ajax.services.transport.HttpConnectionPool;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
+
+/**
+ * The Class QueryConstructionBenchmark.
+ *
+ * Measures what a query costs to create, alone and together with a call to
+ * a local stub, so that the setup of a query can be told apart from the
+ * call itself. The stub answers at once and the coalescer is off, so each
+ * call reaches it. Run with
+ * <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.googleapis.ajax.services.benchmark.QueryConstructionBenchmark</code>
+ * and the gc profiler to see the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueryConstructionBenchmark {
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The factory. */
+	private GoogleSearchQueryFactory factory;
+
+	/**
+	 * Sets the up.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		factory = GoogleSearchQueryFactory.newInstance("benchmark",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(4, 30000, 30000, false))));
+		factory.setRequestCoalescer(null);
+	}
+
+	/**
+	 * Tear down.
+	 */
+	@TearDown
+	public void tearDown() {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Creates a query.
+	 *
+	 * @return the query
+	 */
+	@Benchmark
+	public GoogleSearchQuery<WebResult> create() {
+		return factory.newWebSearchQuery().withQuery("google");
+	}
+
+	/**
+	 * Creates a query and lists its results.
+	 *
+	 * @return the number of results
+	 */
+	@Benchmark
+	public int createAndList() {
+		return factory.newWebSearchQuery().withQuery("google").list().size();
+	}
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 *
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(QueryConstructionBenchmark.class.getSimpleName()).build()).run();
+	}
+}
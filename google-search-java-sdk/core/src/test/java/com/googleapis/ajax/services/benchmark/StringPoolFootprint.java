@@ -0,0 +1,148 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.benchmark;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.googleapis.ajax.schema.NewsResult;
+import com.googleapis.ajax.services.constant.ApplicationConstants;
+import com.googleapis.ajax.services.json.JsonCodec;
+import com.googleapis.ajax.services.json.JsonCodecs;
+import com.googleapis.ajax.services.json.JsonStreamReader;
+import com.googleapis.ajax.services.json.StringPool;
+
+/**
+ * The Class StringPoolFootprint.
+ *
+ * Binds the recorded news corpus as many times as a crawl of that many
+ * pages would, keeps the results and reports the heap they hold with and
+ * without the string pool of the application constants.
+ * Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.googleapis.ajax.services.benchmark.StringPoolFootprint</code>.
+ */
+public class StringPoolFootprint {
+
+	/** The Constant CORPUS. */
+	public static final String CORPUS = "NewsCorpus.json";
+
+	/** The Constant PASSES, the number of times the corpus is bound. */
+	private static final int PASSES = 500;
+
+	/**
+	 * Reads the recorded corpus.
+	 *
+	 * @return the json of the corpus
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static String readCorpus() throws IOException {
+		Reader reader = new InputStreamReader(StringPoolFootprint.class.getResourceAsStream(CORPUS), "UTF-8");
+		try {
+			StringWriter json = new StringWriter();
+			char[] buffer = new char[4096];
+			for (int count = reader.read(buffer); count != -1; count = reader.read(buffer)) {
+				json.write(buffer, 0, count);
+			}
+			return json.toString();
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Binds the corpus.
+	 *
+	 * @param json the json of the corpus
+	 * @param stringPool the string pool, null not to pool strings
+	 *
+	 * @return the results
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static List<NewsResult> bind(String json, StringPool stringPool) throws IOException {
+		JsonCodec<NewsResult> codec = JsonCodecs.get(NewsResult.class);
+		JsonStreamReader reader = new JsonStreamReader(new StringReader(json));
+		reader.setStringPool(stringPool);
+		return JsonCodecs.readList(reader, codec);
+	}
+
+	/**
+	 * Binds the corpus for every pass and measures the heap held by the results.
+	 *
+	 * @param json the json of the corpus
+	 * @param stringPool the string pool, null not to pool strings
+	 * @param results the results, kept reachable
+	 *
+	 * @return the bytes held
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static long measure(String json, StringPool stringPool, List<List<NewsResult>> results) throws IOException {
+		long before = usedHeap();
+		for (int i = 0; i < PASSES; i++) {
+			results.add(bind(json, stringPool));
+		}
+		return usedHeap() - before;
+	}
+
+	/**
+	 * Gets the heap in use after a collection.
+	 *
+	 * @return the used heap
+	 */
+	private static long usedHeap() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static void main(String[] args) throws IOException {
+		String json = readCorpus();
+		int resultCount = bind(json, null).size();
+		StringPool stringPool = new StringPool(ApplicationConstants.STRING_POOL_CAPACITY,
+				Arrays.asList(ApplicationConstants.STRING_POOL_FIELDS.split("\\s*,\\s*")));
+
+		List<List<NewsResult>> unpooled = new ArrayList<List<NewsResult>>();
+		long unpooledBytes = measure(json, null, unpooled);
+		List<List<NewsResult>> pooled = new ArrayList<List<NewsResult>>();
+		long pooledBytes = measure(json, stringPool, pooled);
+
+		System.out.printf("%d results (%d passes of %d)%n", pooled.size() * resultCount, PASSES, resultCount);
+		System.out.printf("heap held without pool: %,d bytes%n", unpooledBytes);
+		System.out.printf("heap held with pool:    %,d bytes (%.1f%% less)%n", pooledBytes,
+				100.0 * (unpooledBytes - pooledBytes) / unpooledBytes);
+		System.out.printf("pool estimate:          %,d bytes saved, %s%n", stringPool.getBytesSaved(), stringPool);
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.googleapis.ajax.schema.ImageResult;
+import com.googleapis.ajax.schema.LocalResult;
+import com.googleapis.ajax.schema.NewsResult;
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.json.GsonRegistry;
+import com.googleapis.ajax.services.json.JsonCodec;
+import com.googleapis.ajax.services.json.JsonCodecs;
+import com.googleapis.ajax.services.json.JsonStreamReader;
+
+/**
+ * The Class UnmarshallBenchmark.
+ *
+ * Reads and binds one result of each type the way the queries used to,
+ * through a tree and a Gson built per result, through a tree and the shared
+ * Gson of the {@link GsonRegistry}, and through the generated codec.
+ * Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.googleapis.ajax.services.benchmark.UnmarshallBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UnmarshallBenchmark {
+
+	/** The result type. */
+	@Param({"web", "local", "news", "image"})
+	private String resultType;
+
+	/** The binding: a gson built per result, the shared gson or the generated codec. */
+	@Param({"perResultGson", "sharedGson", "generatedCodec"})
+	private String binding;
+
+	/** The json. */
+	private String json;
+
+	/** The codec. */
+	private JsonCodec<?> codec;
+
+	/** The result class. */
+	private Class<?> resultClass;
+
+	/**
+	 * Sets the up.
+	 */
+	@Setup
+	public void setUp() {
+		if ("local".equals(resultType)) {
+			resultClass = LocalResult.class;
+			json = "{\"GsearchResultClass\": \"GlocalSearch\", \"viewportmode\": \"computed\", \"listingType\": \"local\","
+					+ " \"lat\": \"37.423021\", \"lng\": \"-122.083739\", \"accuracy\": \"8\", \"title\": \"<b>Google</b> Inc\","
+					+ " \"titleNoFormatting\": \"Google Inc\", \"ddUrl\": \"http://www.google.com/maps?source=uds&daddr=Mountain+View\","
+					+ " \"url\": \"http://www.google.com/maps/place?source=uds&q=google\", \"streetAddress\": \"1600 Amphitheatre Pkwy\","
+					+ " \"city\": \"Mountain View\", \"region\": \"CA\", \"country\": \"United States\","
+					+ " \"phoneNumbers\": [{\"type\": \"main\", \"number\": \"(650) 253-0000\"}, {\"type\": \"fax\", \"number\": \"(650) 253-0001\"}],"
+					+ " \"addressLines\": [\"1600 Amphitheatre Pkwy\", \"Mountain View, CA\"]}";
+		} else if ("news".equals(resultType)) {
+			resultClass = NewsResult.class;
+			json = "{\"GsearchResultClass\": \"GnewsSearch\", \"clusterUrl\": \"http://news.google.com/news/story?ncl=1\","
+					+ " \"content\": \"<b>Google</b> said on Monday it would open a new office.\", \"unescapedUrl\": \"http://example.com/a\","
+					+ " \"url\": \"http%3A%2F%2Fexample.com%2Fa\", \"title\": \"<b>Google</b> opens office\", \"titleNoFormatting\": \"Google opens office\","
+					+ " \"location\": \"London,England,UK\", \"publisher\": \"Reuters\", \"publishedDate\": \"Mon, 04 Oct 2010 07:51:47 -0700\","
+					+ " \"signedRedirectUrl\": \"http://news.google.com/news/url?sa=T\", \"language\": \"en\","
+					+ " \"image\": {\"url\": \"http://example.com/a.jpg\", \"tbUrl\": \"http://example.com/t.jpg\", \"tbWidth\": 80, \"tbHeight\": 60},"
+					+ " \"relatedStories\": [{\"unescapedUrl\": \"http://example.com/b\", \"url\": \"http%3A%2F%2Fexample.com%2Fb\","
+					+ " \"title\": \"Related\", \"titleNoFormatting\": \"Related\", \"location\": \"Paris\", \"publisher\": \"AFP\","
+					+ " \"publishedDate\": \"Mon, 04 Oct 2010 08:00:00 -0700\", \"language\": \"en\"}]}";
+		} else if ("image".equals(resultType)) {
+			resultClass = ImageResult.class;
+			json = "{\"GsearchResultClass\": \"GimageSearch\", \"width\": \"1024\", \"height\": \"768\", \"imageId\": \"ANd9GcQ\","
+					+ " \"tbWidth\": \"150\", \"tbHeight\": \"113\", \"unescapedUrl\": \"http://example.com/logo.png\","
+					+ " \"url\": \"http://example.com/logo.png\", \"visibleUrl\": \"example.com\", \"title\": \"<b>Google</b> logo\","
+					+ " \"titleNoFormatting\": \"Google logo\", \"originalContextUrl\": \"http://example.com/\","
+					+ " \"content\": \"<b>Google</b> logo\", \"contentNoFormatting\": \"Google logo\", \"tbUrl\": \"http://images.google.com/images?q=tbn:ANd9GcQ\"}";
+		} else {
+			resultClass = WebResult.class;
+			json = "{\"GsearchResultClass\": \"GwebSearch\", \"unescapedUrl\": \"http://www.google.com/\", \"url\": \"http://www.google.com/\","
+					+ " \"visibleUrl\": \"www.google.com\", \"cacheUrl\": \"http://www.google.com/search?q=cache:y14FcUQOGl4J:www.google.com\","
+					+ " \"title\": \"<b>Google</b>\", \"titleNoFormatting\": \"Google\","
+					+ " \"content\": \"Search the world&#39;s information, including webpages, images and videos.\"}";
+		}
+		codec = JsonCodecs.get(resultClass);
+	}
+
+	/**
+	 * Unmarshall.
+	 *
+	 * @return the result
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Benchmark
+	public Object unmarshall() throws IOException {
+		JsonStreamReader reader = new JsonStreamReader(new StringReader(json));
+		if ("generatedCodec".equals(binding)) {
+			return codec.read(reader);
+		}
+		if ("sharedGson".equals(binding)) {
+			return GsonRegistry.getGson().fromJson(reader.readElement(), resultClass);
+		}
+		return GsonRegistry.newGsonBuilder().create().fromJson(reader.readElement(), resultClass);
+	}
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 *
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(UnmarshallBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build()).run();
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.compression;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.Test;
+
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+
+/**
+ * The Class GzipDecoderTest.
+ */
+public class GzipDecoderTest extends BaseGoogleSearchClientTest {
+
+	/**
+	 * Test decode matches the jdk.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testDecodeConcatenatedMembers() throws Exception {
+		GzipDecoder decoder = new GzipDecoder(2, 2, 64);
+		byte[] first = content(10000, 7);
+		byte[] second = content(300, 13);
+		ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+		gzip.write(gzip(first));
+		gzip.write(gzip(second));
+
+		InputStream in = decoder.decode(new ByteArrayInputStream(gzip.toByteArray()));
+		ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+		byte[] chunk = new byte[37];
+		int read;
+		while ((read = in.read(chunk)) != -1) {
+			decoded.write(chunk, 0, read);
+		}
+		assertEquals(-1, in.read());
+		in.close();
+		byte[] expected = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, expected, first.length, second.length);
+		assertTrue("Decoded content should match.", Arrays.equals(expected, decoded.toByteArray()));
+
+		for (int i = 0; i < 3; i++) {
+			InputStream again = decoder.decode(new ByteArrayInputStream(gzip(first)));
+			while (again.read(chunk) != -1) {
+				// drain
+			}
+			again.close();
+		}
+		assertEquals("The inflater should be reused.", 1, decoder.getInflaterPool().getCreatedCount());
+		assertEquals(3, decoder.getInflaterPool().getReusedCount());
+		assertEquals(1, decoder.getBufferPool().getIdleCount());
+	}
+
+	/**
+	 * Test corrupt trailer.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCorruptTrailer() throws Exception {
+		GzipDecoder decoder = new GzipDecoder(2, 2, 64);
+		byte[] gzip = gzip(content(1000, 3));
+		gzip[gzip.length - 6]++;
+		InputStream in = decoder.decode(new ByteArrayInputStream(gzip));
+		try {
+			while (in.read(new byte[100]) != -1) {
+				// drain
+			}
+			fail("The checksum should not match.");
+		} catch (ZipException e) {
+			// expected
+		} finally {
+			in.close();
+		}
+		try {
+			decoder.decode(new ByteArrayInputStream(content(100, 1)));
+			fail("Not gzip.");
+		} catch (ZipException e) {
+			assertEquals("Resources should go back on failure.", 1, decoder.getInflaterPool().getIdleCount());
+		}
+	}
+
+	/**
+	 * Content.
+	 *
+	 * @param length the length
+	 * @param seed the seed
+	 *
+	 * @return the bytes
+	 */
+	private static byte[] content(int length, int seed) {
+		byte[] content = new byte[length];
+		for (int i = 0; i < length; i++) {
+			content[i] = (byte) ('a' + (i * seed) % 26);
+		}
+		return content;
+	}
+
+	/**
+	 * Gzip.
+	 *
+	 * @param content the content
+	 *
+	 * @return the bytes
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static byte[] gzip(byte[] content) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GZIPOutputStream gzip = new GZIPOutputStream(out);
+		gzip.write(content);
+		gzip.close();
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.constant;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import com.googleapis.ajax.schema.ListingType;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.GoogleSearchApiUrlBuilder;
+import com.googleapis.ajax.services.constant.GoogleSearchApiUrls.UrlTemplate;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+
+/**
+ * The Class GoogleSearchApiUrlsTest.
+ */
+public class GoogleSearchApiUrlsTest extends BaseGoogleSearchClientTest {
+
+	/**
+	 * Test the urls built from the compiled templates.
+	 */
+	@Test
+	public void testBuildUrl() {
+		assertSame(UrlTemplate.compile(GoogleSearchApiUrls.SEARCH_NEWS_URL),
+				UrlTemplate.compile(GoogleSearchApiUrls.SEARCH_NEWS_URL));
+
+		String url = new GoogleSearchApiUrlBuilder(GoogleSearchApiUrls.SEARCH_NEWS_URL, "1.0")
+				.withParameter(ParameterNames.QUERY, "google & co").withParameterSuffix(ParameterNames.QUERY, "site:a.com ")
+				.withParameterEnum(ParameterNames.TYPE_OF_LISTING, ListingType.LOCAL).withParameter(ParameterNames.START, "")
+				.buildUrl();
+		assertTrue(url, url.startsWith("http://ajax.googleapis.com/ajax/services/search/news?"));
+		String query = url.substring(url.indexOf('?') + 1);
+		assertEquals(3, query.split("&").length);
+		assertTrue(query, Arrays.asList(query.split("&")).containsAll(Arrays.asList("v=1.0",
+				"q=site%3Aa.com+google+%26+co", "mrt=" + ListingType.LOCAL.value())));
+
+		url = new GoogleSearchApiUrlBuilder("http://example.com/{lang}/detect?{queryParameters}", "2.0")
+				.withParameters(ParameterNames.HOST_LANGUAGE, Arrays.asList("en", "fr")).buildUrl();
+		assertTrue(url, url.equals("http://example.com/{lang}/detect?v=2.0&hl=en&hl=fr")
+				|| url.equals("http://example.com/{lang}/detect?hl=en&hl=fr&v=2.0"));
+		assertEquals("http://example.com/v=1.0", new GoogleSearchApiUrlBuilder("http://example.com/{queryParameters}")
+				.withParameterEnumSet(ParameterNames.TYPE_OF_LISTING, EnumSet.noneOf(ListingType.class)).buildUrl());
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.hedging;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.circuitbreaker.CircuitBreaker;
+import com.googleapis.ajax.services.circuitbreaker.CircuitBreakerRegistry;
+import com.googleapis.ajax.services.retry.RetryBudget;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+import com.googleapis.ajax.services.search.StubGoogleSearchServer;
+import com.googleapis.ajax.services.transport.HttpConnectionPool;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
+
+/**
+ * The Class HedgingPolicyTest.
+ */
+public class HedgingPolicyTest extends BaseGoogleSearchClientTest {
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The factory. */
+	private GoogleSearchQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		factory = GoogleSearchQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		factory.setHedgingPolicy(new HedgingPolicy(95, 500, 500, new RetryBudget(0.1, 1)));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test hedge wins over slow response.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testHedgeWinsOverSlowResponse() throws Exception {
+		server.stallNext(1, 5000);
+		long start = System.nanoTime();
+		PagedList<WebResult> results = factory.newWebSearchQuery().withQuery("google").list();
+		assertFalse(results.isEmpty());
+		assertTrue("Hedge should answer before the stalled request.",
+				System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+		assertEquals(2, server.getRequestCount());
+
+		server.stallNext(1, 5000);
+		start = System.nanoTime();
+		factory.newWebSearchQuery().withQuery("yahoo").listAsync().get(10, TimeUnit.SECONDS);
+		assertTrue("Spent budget should not hedge.", System.nanoTime() - start > TimeUnit.SECONDS.toNanos(4));
+
+		HedgingStats stats = factory.getHedgingPolicy().getStats();
+		assertEquals(2, stats.getRequests());
+		assertEquals(1, stats.getHedges());
+		assertEquals(1, stats.getWins());
+		assertEquals(1, stats.getBudgetRejections());
+	}
+
+	/**
+	 * Test the hedge goes through the circuit breaker.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testHedgeGoesThroughCircuitBreaker() throws Exception {
+		CircuitBreakerRegistry registry = new CircuitBreakerRegistry();
+		factory.setCircuitBreakerRegistry(registry);
+		server.stallNext(1, 5000);
+		assertFalse(factory.newWebSearchQuery().withQuery("google").list().isEmpty());
+		assertEquals(2, server.getRequestCount());
+		assertEquals("The hedge should use the circuit breaker of the call.", 1, registry.getCircuitBreakers().size());
+		CircuitBreaker breaker = registry.getCircuitBreakers().iterator().next();
+		assertEquals("The hedge should be recorded with the call.", 2, breaker.getStats().getBufferedCalls());
+
+		factory.setHedgingPolicy(new HedgingPolicy(95, 500, 500, new RetryBudget(0.1, 1)));
+		server.stallNext(1, 1500);
+		CompletableFuture<PagedList<WebResult>> future = factory.newWebSearchQuery().withQuery("yahoo").listAsync();
+		long deadline = System.currentTimeMillis() + 400;
+		while (server.getRequestCount() < 3 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals("The call should be sent.", 3, server.getRequestCount());
+		breaker.open();
+		assertFalse(future.get(10, TimeUnit.SECONDS).isEmpty());
+		assertEquals("Open circuit should not let the hedge through.", 3, server.getRequestCount());
+		assertEquals(1, breaker.getStats().getNotPermittedCalls());
+		assertEquals(0, factory.getHedgingPolicy().getStats().getHedges());
+	}
+
+	/**
+	 * Test latency percentile.
+	 */
+	@Test
+	public void testLatencyPercentile() {
+		LatencyTracker tracker = new LatencyTracker();
+		String url = "http://ajax.googleapis.com/ajax/services/search/web?q=";
+		for (int i = 1; i < LatencyTracker.MINIMUM_SAMPLES; i++) {
+			tracker.record(url + i, i, TimeUnit.MILLISECONDS);
+		}
+		assertEquals("Too few samples.", -1, tracker.getPercentile(url, 95, TimeUnit.MILLISECONDS));
+		for (int i = LatencyTracker.MINIMUM_SAMPLES; i <= 100; i++) {
+			tracker.record(url + i, i, TimeUnit.MILLISECONDS);
+		}
+		long p95 = tracker.getPercentile(url, 95, TimeUnit.MILLISECONDS);
+		assertTrue("Percentile should be within a bucket: " + p95, p95 >= 95 && p95 <= 95 * 1.125);
+		assertEquals(-1, tracker.getPercentile("http://ajax.googleapis.com/ajax/services/search/news", 95,
+				TimeUnit.MILLISECONDS));
+
+		HedgingPolicy policy = new HedgingPolicy(50, 10, 30, new RetryBudget(0.1, 1));
+		assertEquals("Maximum delay until the latency is known.", TimeUnit.MILLISECONDS.toNanos(30), policy.getDelay(url));
+		for (int i = 0; i < LatencyTracker.MINIMUM_SAMPLES; i++) {
+			policy.recordLatency(url, TimeUnit.MILLISECONDS.toNanos(20));
+		}
+		long delay = TimeUnit.NANOSECONDS.toMillis(policy.getDelay(url));
+		assertTrue("Delay should follow the latency: " + delay, delay >= 20 && delay < 23);
+	}
+}
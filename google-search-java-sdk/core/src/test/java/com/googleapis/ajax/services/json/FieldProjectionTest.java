@@ -0,0 +1,80 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.googleapis.ajax.schema.NewsResult;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+
+/**
+ * The Class FieldProjectionTest.
+ */
+public class FieldProjectionTest extends BaseGoogleSearchClientTest {
+
+	/** The Constant NEWS. */
+	private static final String NEWS = "{\"title\": \"<b>Google</b>\", \"titleNoFormatting\": \"Google\","
+			+ " \"content\": \"skipped \\\"content\\\"\", \"url\": \"http://example.com/a\","
+			+ " \"image\": {\"url\": \"http://example.com/a.jpg\", \"tbUrl\": \"http://example.com/t.jpg\", \"tbWidth\": 80},"
+			+ " \"relatedStories\": [{\"title\": \"Related\", \"url\": \"http://example.com/b\"}]}";
+
+	/**
+	 * Test the generated codecs and the trees read the projected members only.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testProjectedRead() throws Exception {
+		FieldProjection projection = FieldProjection.of(NewsResult.class, "url", "titleNoFormatting", "image.url",
+				"relatedStories.title");
+		assertEquals("image(url),relatedStories(title),titleNoFormatting,url", projection.toString());
+
+		NewsResult generated = JsonCodecs.get(NewsResult.class).read(new JsonStreamReader(new StringReader(NEWS)),
+				projection);
+		NewsResult reflected = GsonRegistry.getGson().fromJson(
+				projection.readElement(new JsonStreamReader(new StringReader(NEWS))), NewsResult.class);
+		for (NewsResult result : new NewsResult[] { generated, reflected }) {
+			assertEquals("http://example.com/a", result.getUrl());
+			assertEquals("Google", result.getTitleNoFormatting());
+			assertNull(result.getTitle());
+			assertNull(result.getContent());
+			assertEquals("http://example.com/a.jpg", result.getImage().getUrl());
+			assertNull(result.getImage().getTbUrl());
+			assertEquals(0, result.getImage().getTbWidth());
+			assertEquals("Related", result.getRelatedStories().get(0).getTitle());
+			assertNull(result.getRelatedStories().get(0).getUrl());
+		}
+	}
+
+	/**
+	 * Test the fields are checked against the schema class.
+	 */
+	@Test
+	public void testUnknownFields() {
+		assertEquals("image", FieldProjection.of(NewsResult.class, "image.url", "image").toString());
+		for (String field : new String[] { "visibleUrl", "image.width", "url.host", "logger" }) {
+			try {
+				FieldProjection.of(NewsResult.class, field);
+				fail("Field " + field + " is not one of the news results.");
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains(field));
+			}
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import org.junit.Test;
+
+import com.google.gson.JsonParser;
+import com.googleapis.ajax.schema.GsearchResultClass;
+import com.googleapis.ajax.schema.ListingType;
+import com.googleapis.ajax.schema.LocalResult;
+import com.googleapis.ajax.schema.PhoneNumberType;
+import com.googleapis.ajax.schema.ViewPortMode;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+
+/**
+ * The Class GsonRegistryTest.
+ */
+public class GsonRegistryTest extends BaseGoogleSearchClientTest {
+
+	/**
+	 * Test value enums are bound from their values.
+	 */
+	@Test
+	public void testValueEnums() {
+		LocalResult result = GsonRegistry.getGson().fromJson(new JsonParser().parse(
+				"{\"GsearchResultClass\": \"GlocalSearch\", \"viewportmode\": \"computed\", \"listingType\": \"local\","
+				+ " \"phoneNumbers\": [{\"type\": \"main\", \"number\": \"1\"}, {\"type\": \"unknown\", \"number\": \"2\"}]}"),
+				LocalResult.class);
+		assertEquals(GsearchResultClass.GlocalSearch, result.getGsearchResultClass());
+		assertEquals(ViewPortMode.COMPUTED, result.getViewportmode());
+		assertEquals(ListingType.LOCAL, result.getListingType());
+		assertEquals(PhoneNumberType.MAIN, result.getPhoneNumbers().get(0).getType());
+		assertNull("Unknown values map to null.", result.getPhoneNumbers().get(1).getType());
+		assertSame(GsonRegistry.getGson(), GsonRegistry.getGson());
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import com.google.gson.JsonParser;
+import com.googleapis.ajax.schema.ListingType;
+import com.googleapis.ajax.schema.LocalResult;
+import com.googleapis.ajax.schema.NewsResult;
+import com.googleapis.ajax.schema.PhoneNumberType;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+
+/**
+ * The Class JsonCodecsTest.
+ */
+public class JsonCodecsTest extends BaseGoogleSearchClientTest {
+
+	/**
+	 * Test the generated codecs bind nested entities as gson does.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testGeneratedCodecMatchesGson() throws Exception {
+		String json = "{\"GsearchResultClass\": \"GnewsSearch\", \"title\": \"<b>Google</b> opens office\","
+				+ " \"publishedDate\": \"Mon, 04 Oct 2010 07:51:47 -0700\", \"unknown\": {\"a\": [1, 2]}, \"author\": null,"
+				+ " \"image\": {\"url\": \"http://example.com/a.jpg\", \"tbWidth\": \"80\", \"tbHeight\": 60},"
+				+ " \"relatedStories\": [{\"title\": \"Related\", \"publishedDate\": \"Mon, 04 Oct 2010 08:00:00 -0700\"}]}";
+		JsonCodec<NewsResult> codec = JsonCodecs.get(NewsResult.class);
+		assertNotNull("No codec was generated for the news results.", codec);
+		NewsResult generated = codec.read(new JsonStreamReader(new StringReader(json)));
+		NewsResult reflected = GsonRegistry.getGson().fromJson(new JsonParser().parse(json), NewsResult.class);
+		assertEquals(reflected.getGsearchResultClass(), generated.getGsearchResultClass());
+		assertEquals(reflected.getTitle(), generated.getTitle());
+		assertEquals(reflected.getPublishedDate(), generated.getPublishedDate());
+		assertNull(generated.getAuthor());
+		assertEquals(reflected.getImage().getUrl(), generated.getImage().getUrl());
+		assertEquals(80, generated.getImage().getTbWidth());
+		assertEquals(60, generated.getImage().getTbHeight());
+		assertEquals(1, generated.getRelatedStories().size());
+		assertEquals(reflected.getRelatedStories().get(0).getPublishedDate(),
+				generated.getRelatedStories().get(0).getPublishedDate());
+	}
+
+	/**
+	 * Test what a codec writes reads back the same.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testRoundTrip() throws Exception {
+		String json = "{\"GsearchResultClass\": \"GlocalSearch\", \"listingType\": \"local\", \"lat\": \"37.423021\","
+				+ " \"title\": \"Say \\\"hi\\\"\\n\", \"phoneNumbers\": [{\"type\": \"main\", \"number\": \"(650) 253-0000\"}],"
+				+ " \"addressLines\": [\"1600 Amphitheatre Pkwy\", \"Mountain View, CA\"]}";
+		JsonCodec<LocalResult> codec = JsonCodecs.get(LocalResult.class);
+		LocalResult result = codec.read(new JsonStreamReader(new StringReader(json)));
+		StringWriter written = new StringWriter();
+		codec.write(new JsonStreamWriter(written), result);
+		LocalResult read = codec.read(new JsonStreamReader(new StringReader(written.toString())));
+		assertEquals(ListingType.LOCAL, read.getListingType());
+		assertEquals(37.423021, read.getLat(), 0);
+		assertEquals("Say \"hi\"\n", read.getTitle());
+		assertEquals(PhoneNumberType.MAIN, read.getPhoneNumbers().get(0).getType());
+		assertEquals(result.getAddressLines(), read.getAddressLines());
+		assertEquals(written.toString(), new JsonParser().parse(written.toString()).toString());
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.gson.JsonParser;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+import com.googleapis.ajax.services.search.StubGoogleSearchServer;
+
+/**
+ * The Class JsonStreamReaderTest.
+ */
+public class JsonStreamReaderTest extends BaseGoogleSearchClientTest {
+
+	/**
+	 * Test read element matches the tree parser.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testReadElementMatchesParser() throws Exception {
+		JsonStreamReader reader = new JsonStreamReader(new InputStreamReader(
+				StubGoogleSearchServer.class.getResourceAsStream(StubGoogleSearchServer.DEFAULT_RESPONSE), "UTF-8"));
+		String streamed = reader.readElement().toString();
+		assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+		String parsed = new JsonParser().parse(new InputStreamReader(
+				StubGoogleSearchServer.class.getResourceAsStream(StubGoogleSearchServer.DEFAULT_RESPONSE), "UTF-8")).toString();
+		assertEquals(parsed, streamed);
+
+		// a string longer than the buffer, with escapes on both sides of the refills.
+		char[] filler = new char[3000];
+		Arrays.fill(filler, 'x');
+		String json = "{\"a\": \"\\u003cb\\u003e" + new String(filler) + "\\\"\\n\", \"b\": [1, -2.5e3, true, null]}";
+		assertEquals(new JsonParser().parse(json).toString(), new JsonStreamReader(new StringReader(json)).readElement().toString());
+	}
+
+	/**
+	 * Test skip value.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testSkipValue() throws Exception {
+		JsonStreamReader reader = new JsonStreamReader(new StringReader(
+				"{\"skipped\": {\"a\": [\"]}\\\"\", {\"b\": {}}], \"c\": []}, \"read\": \"value\", \"last\": 1}"));
+		reader.beginObject();
+		assertEquals("skipped", reader.nextName());
+		reader.skipValue();
+		assertEquals("read", reader.nextName());
+		assertEquals("value", reader.nextString());
+		reader.skipValue();
+		assertFalse(reader.hasNext());
+		reader.endObject();
+		assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+	}
+}
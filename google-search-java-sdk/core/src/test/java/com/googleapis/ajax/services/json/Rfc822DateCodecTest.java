@@ -0,0 +1,85 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.google.gson.JsonParseException;
+import com.googleapis.ajax.schema.NewsResult;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+
+/**
+ * The Class Rfc822DateCodecTest.
+ */
+public class Rfc822DateCodecTest extends BaseGoogleSearchClientTest {
+
+	/**
+	 * Test the dates of the responses and their variants parse to the same instants.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testParse() throws Exception {
+		String[][] dates = {
+				{ "Mon, 04 Oct 2010 07:51:47 -0700", "2010-10-04T14:51:47Z" },
+				{ "4 oct 2010 07:51 +0530", "2010-10-04T02:21:00Z" },
+				{ "Sun, 29 Feb 2004 23:59:59 GMT", "2004-02-29T23:59:59Z" },
+				{ "Thu, 01 Jan 1970 00:00:00 +0000", "1970-01-01T00:00:00Z" },
+				{ "Tue, 30 Feb 2010 00:00:00 +0000", "2010-03-02T00:00:00Z" },
+				{ "Mon, 04 Oct 2010 07:51:47 PDT", "2010-10-04T14:51:47Z" } };
+		for (int pass = 0; pass < 2; pass++) {
+			for (String[] date : dates) {
+				Instant expected = Instant.parse(date[1]);
+				assertEquals(date[0], expected, Rfc822DateCodec.INSTANT.parse(date[0]));
+				assertEquals(date[0], new Date(expected.toEpochMilli()), Rfc822DateCodec.DATE.parse(date[0]));
+			}
+		}
+		try {
+			Rfc822DateCodec.DATE.parse("Mon, 04 Oct 2010");
+			fail("The date has no time.");
+		} catch (JsonParseException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("Mon, 04 Oct 2010"));
+		}
+		Date date = new Date(1286203907000L);
+		assertEquals(date, Rfc822DateCodec.DATE.parse(Rfc822DateCodec.DATE.format(date)));
+	}
+
+	/**
+	 * Test the codecs, buffered and escaped dates alike, and the gson adapters.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testReadAndDeserialize() throws Exception {
+		JsonStreamReader reader = new JsonStreamReader(new StringReader(
+				"[\"Mon, 04 Oct 2010 07:51:47 -0700\", \"Mon,\\u002004 Oct 2010 07:51:47 -0700\", null]"));
+		reader.beginArray();
+		Instant expected = Instant.parse("2010-10-04T14:51:47Z");
+		assertEquals(expected, JsonCodecs.INSTANT.read(reader));
+		assertEquals(new Date(expected.toEpochMilli()), JsonCodecs.DATE.read(reader));
+		assertNull(JsonCodecs.DATE.read(reader));
+		reader.endArray();
+
+		NewsResult result = GsonRegistry.getGson().fromJson(
+				"{\"publishedDate\": \"Mon, 04 Oct 2010 07:51:47 -0700\"}", NewsResult.class);
+		assertEquals(new Date(expected.toEpochMilli()), result.getPublishedDate());
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.json;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.googleapis.ajax.schema.NewsResult;
+import com.googleapis.ajax.services.benchmark.StringPoolFootprint;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+
+/**
+ * The Class StringPoolTest.
+ */
+public class StringPoolTest extends BaseGoogleSearchClientTest {
+
+	/**
+	 * Test the values of the pooled fields are shared and the others are not.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCanonicalize() throws Exception {
+		StringPool pool = new StringPool(16, Arrays.asList("publisher"));
+		String first = pool.canonicalize("publisher", new String("Reuters"));
+		String second = pool.canonicalize("publisher", new String("Reuters"));
+		assertSame(first, second);
+		String title = new String("Reuters");
+		assertSame(title, pool.canonicalize("title", title));
+		assertNull(pool.canonicalize("publisher", null));
+		assertEquals(2, pool.getLookupCount());
+		assertEquals(1, pool.getDeduplicatedCount());
+		assertEquals(24 + 24, pool.getBytesSaved());
+	}
+
+	/**
+	 * Test the generated codecs pool the results of the recorded corpus.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testPooledCorpus() throws Exception {
+		String json = StringPoolFootprint.readCorpus();
+		StringPool pool = new StringPool(4096, Arrays.asList("publisher", "location", "language"));
+		List<NewsResult> first = StringPoolFootprint.bind(json, pool);
+		List<NewsResult> second = StringPoolFootprint.bind(json, pool);
+		List<NewsResult> unpooled = StringPoolFootprint.bind(json, null);
+		assertEquals(first.size(), second.size());
+		for (int i = 0; i < first.size(); i++) {
+			assertSame(first.get(i).getPublisher(), second.get(i).getPublisher());
+			assertSame(first.get(i).getLanguage(), second.get(i).getLanguage());
+			assertNotSame(first.get(i).getTitle(), second.get(i).getTitle());
+			assertEquals(unpooled.get(i).getPublisher(), first.get(i).getPublisher());
+			assertNotSame(unpooled.get(i).getPublisher(), first.get(i).getPublisher());
+		}
+		assertTrue(pool.toString(), pool.getDeduplicatedCount() > first.size());
+	}
+}
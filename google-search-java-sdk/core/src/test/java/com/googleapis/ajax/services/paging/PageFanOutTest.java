@@ -0,0 +1,99 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.paging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.googleapis.ajax.common.PagedArrayList;
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.common.PagedList.Page;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+
+/**
+ * The Class PageFanOutTest.
+ */
+public class PageFanOutTest extends BaseGoogleSearchClientTest {
+
+	/** The pages of the cursor, enough to overflow the stack if each one recursed. */
+	private static final int PAGE_COUNT = 20000;
+
+	/**
+	 * Test pages that complete at once are fetched without recursing.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCompletedPagesDoNotRecurse() throws Exception {
+		final List<Page> pages = new ArrayList<Page>();
+		for (int i = 0; i < PAGE_COUNT; i++) {
+			Page page = new Page();
+			page.setStart(i);
+			page.setLabel(i + 1);
+			pages.add(page);
+		}
+		PageFanOut<Integer> fanOut = new PageFanOut<Integer>(start -> CompletableFuture.completedFuture(newPage(pages, start)), 1);
+		MergedPagedList<Integer> merged = fanOut.fetchAll(CompletableFuture.completedFuture(newPage(pages, 0))).get(5, TimeUnit.SECONDS);
+		assertTrue("No page should fail.", merged.isComplete());
+		assertEquals("Every page should be merged.", PAGE_COUNT, merged.size());
+		for (int i = 0; i < PAGE_COUNT; i++) {
+			assertEquals("Pages should be merged in cursor order.", Integer.valueOf(i), merged.get(i));
+		}
+	}
+
+	/**
+	 * Test pages that fail at once are recorded without recursing.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testFailedPagesDoNotRecurse() throws Exception {
+		final List<Page> pages = new ArrayList<Page>();
+		for (int i = 0; i < PAGE_COUNT; i++) {
+			Page page = new Page();
+			page.setStart(i);
+			pages.add(page);
+		}
+		PageFanOut<Integer> fanOut = new PageFanOut<Integer>(start -> {
+			throw new IllegalStateException("page " + start);
+		}, 2);
+		MergedPagedList<Integer> merged = fanOut.fetchAll(CompletableFuture.completedFuture(newPage(pages, 0))).get(5, TimeUnit.SECONDS);
+		assertEquals("Only the first page should be merged.", 1, merged.size());
+		assertEquals("Every other page should fail.", PAGE_COUNT - 1, merged.getFailures().size());
+	}
+
+	/**
+	 * Creates a page with the given cursor, holding its start offset as its
+	 * only result.
+	 *
+	 * @param pages the pages of the cursor
+	 * @param start the start offset of the page
+	 *
+	 * @return the paged list
+	 */
+	private static PagedList<Integer> newPage(List<Page> pages, int start) {
+		PagedArrayList<Integer> list = new PagedArrayList<Integer>();
+		list.getCursor().setPages(pages);
+		list.getCursor().setCurrentPageIndex(start);
+		list.add(start);
+		return list;
+	}
+}
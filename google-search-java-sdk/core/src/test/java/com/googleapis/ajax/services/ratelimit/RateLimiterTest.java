@@ -0,0 +1,141 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.retry.RetryBudget;
+import com.googleapis.ajax.services.retry.RetryPolicy;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+import com.googleapis.ajax.services.search.StubGoogleSearchServer;
+import com.googleapis.ajax.services.transport.HttpConnectionPool;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
+
+/**
+ * The Class RateLimiterTest.
+ */
+public class RateLimiterTest extends BaseGoogleSearchClientTest {
+
+	/** The Constant SEARCH_URL. */
+	private static final String SEARCH_URL = "http://ajax.googleapis.com/ajax/services/search/web?v=1.0&q=google";
+
+	/** The Constant MATRIX_URL. */
+	private static final String MATRIX_URL = "http://maps.googleapis.com/maps/api/distancematrix/json?origins=a&destinations=b";
+
+	/** The time in nanos seen by the limiters, moved by the tests. */
+	private final AtomicLong now = new AtomicLong();
+
+	/**
+	 * Moves the time of the limiters forward.
+	 *
+	 * @param millis the millis
+	 */
+	private void advance(long millis) {
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+
+	/**
+	 * Test burst then throttle.
+	 */
+	@Test
+	public void testBurstThenThrottle() {
+		RateLimiter limiter = new RateLimiter(10, 5, now::get);
+		for (int i = 0; i < 5; i++) {
+			assertTrue("Burst should go through.", limiter.tryAcquire(SEARCH_URL, 1));
+		}
+		assertFalse("Request past the burst should wait.", limiter.tryAcquire(SEARCH_URL, 1));
+		assertEquals("Request should wait for the next permit.", TimeUnit.MILLISECONDS.toNanos(100),
+				limiter.reserve(SEARCH_URL, 1, 1, TimeUnit.SECONDS));
+		assertEquals(-1, limiter.reserve(SEARCH_URL, 1, 10, TimeUnit.MILLISECONDS));
+		advance(200);
+		assertTrue("Permit should be due after its interval.", limiter.tryAcquire(SEARCH_URL, 1));
+		assertFalse(limiter.tryAcquire(SEARCH_URL, 1));
+		advance(1000);
+		for (int i = 0; i < 5; i++) {
+			assertTrue("Idle time should refill the burst.", limiter.tryAcquire(SEARCH_URL, 1));
+		}
+		assertFalse(limiter.tryAcquire(SEARCH_URL, 1));
+		assertEquals(4, limiter.getStats().getRejected());
+		assertEquals(1, limiter.getStats().getDelayed());
+
+		limiter = new RateLimiter(0, 1, now::get);
+		limiter.setLimit("distancematrix/json", 10, 100);
+		assertTrue("Elements up to the burst should go through.", limiter.tryAcquire(MATRIX_URL, 100));
+		assertFalse(limiter.tryAcquire(MATRIX_URL, 1));
+		assertTrue("Other endpoints should not be limited.", limiter.tryAcquire(SEARCH_URL, 1));
+		advance(100);
+		assertTrue("Element should be due after its interval.", limiter.tryAcquire(MATRIX_URL, 1));
+		assertEquals(1, limiter.getStats().getRejected());
+	}
+
+	/**
+	 * Test over limit replies halve the rate at most once a second.
+	 */
+	@Test
+	public void testSlowDownOncePerSecond() {
+		RateLimiter limiter = new RateLimiter(100, 10, now::get);
+		limiter.onOverLimit(SEARCH_URL);
+		assertEquals("Over limit reply should halve the rate.", 50.0, limiter.getRate(), 0.01);
+		advance(500);
+		limiter.onOverLimit(SEARCH_URL);
+		assertEquals("Replies within a second should count once.", 50.0, limiter.getRate(), 0.01);
+		advance(500);
+		limiter.onOverLimit(SEARCH_URL);
+		assertEquals(25.0, limiter.getRate(), 0.01);
+		for (int i = 0; i < 10; i++) {
+			advance(1000);
+			limiter.onOverLimit(SEARCH_URL);
+		}
+		assertEquals("Rate should not drop below a sixteenth.", 6.25, limiter.getRate(), 0.01);
+		assertEquals(13, limiter.getStats().getOverLimit());
+	}
+
+	/**
+	 * Test rate adapts to over limit.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testRateAdaptsToOverLimit() throws Exception {
+		StubGoogleSearchServer server = new StubGoogleSearchServer().start();
+		GoogleSearchQueryFactory factory = GoogleSearchQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		try {
+			RateLimiter limiter = new RateLimiter(100, 10, now::get);
+			factory.setRateLimiter(limiter);
+			factory.setRetryPolicy(new RetryPolicy(3, 1, 10, new RetryBudget(0.1, 10)));
+			server.failNext(1, 429);
+			factory.newWebSearchQuery().withQuery("google").list();
+			// halved, then raised a notch by the successful retry.
+			assertEquals("Over limit reply should halve the rate.", 52.0, limiter.getRate(), 0.5);
+			assertEquals(1, limiter.getStats().getOverLimit());
+			assertEquals(2, limiter.getStats().getAcquired());
+
+			for (int i = 0; i < 5; i++) {
+				factory.newWebSearchQuery().withQuery("google " + i).listAsync().get(5, TimeUnit.SECONDS);
+			}
+			assertTrue("Successes should restore the rate.", limiter.getRate() > 61);
+		} finally {
+			factory.getTransport().shutdown();
+			server.stop();
+		}
+	}
+}
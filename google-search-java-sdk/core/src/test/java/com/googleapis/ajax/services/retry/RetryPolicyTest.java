@@ -0,0 +1,130 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.retry;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.GoogleSearchException;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.ResponseStatusException;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+import com.googleapis.ajax.services.search.StubGoogleSearchServer;
+import com.googleapis.ajax.services.transport.HttpConnectionPool;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
+
+/**
+ * The Class RetryPolicyTest.
+ */
+public class RetryPolicyTest extends BaseGoogleSearchClientTest {
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The factory. */
+	private GoogleSearchQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		factory = GoogleSearchQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		factory.setRetryPolicy(new RetryPolicy(3, 1, 10, new RetryBudget(0.1, 10)));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test transient failures are retried.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testTransientFailuresAreRetried() throws Exception {
+		server.failNext(2, 503);
+		PagedList<WebResult> results = factory.newWebSearchQuery().withQuery("google").list();
+		assertFalse(results.isEmpty());
+		assertEquals("Both failures should be retried.", 3, server.getRequestCount());
+
+		server.failNext(1, 429);
+		results = factory.newWebSearchQuery().withQuery("google").listAsync().get(5, TimeUnit.SECONDS);
+		assertFalse(results.isEmpty());
+		assertEquals("Asynchronous calls should be retried too.", 5, server.getRequestCount());
+
+		RetryStats stats = factory.getRetryPolicy().getStats();
+		assertEquals(2, stats.getRequests());
+		assertEquals(3, stats.getRetries());
+	}
+
+	/**
+	 * Test client errors are not retried.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testClientErrorsAreNotRetried() throws Exception {
+		server.failNext(3, 400);
+		try {
+			factory.newWebSearchQuery().withQuery("google").list();
+			fail("Bad request should fail.");
+		} catch (ResponseStatusException e) {
+			assertEquals(400, e.getStatusCode());
+		}
+		assertEquals("Bad request should not be retried.", 1, server.getRequestCount());
+
+		RetryPolicy policy = factory.getRetryPolicy();
+		assertTrue(policy.isRetryable(new GoogleSearchException(new IOException("reset"))));
+		assertTrue(policy.isRetryable(new ResponseStatusException(500, "backend error")));
+		assertFalse(policy.isRetryable(new ResponseStatusException(403, "terms of service abuse")));
+	}
+
+	/**
+	 * Test budget caps retries.
+	 */
+	@Test
+	public void testBudgetCapsRetries() {
+		RetryPolicy policy = new RetryPolicy(5, 10, 1000, new RetryBudget(0.1, 2));
+		IOException failure = new IOException("reset");
+		assertTrue(policy.nextDelay(failure, 1, 0) >= 10);
+		assertTrue(policy.nextDelay(failure, 1, 0) >= 10);
+		assertEquals("Reserve should be spent.", -1, policy.nextDelay(failure, 1, 0));
+		for (int i = 0; i < 10; i++) {
+			policy.recordRequest();
+		}
+		long delay = policy.nextDelay(failure, 2, 100);
+		assertTrue("Ten requests should earn one retry.", delay >= 10 && delay <= 300);
+		assertEquals(-1, policy.nextDelay(failure, 1, 0));
+		assertEquals("Last attempt should not be retried.", -1, policy.nextDelay(failure, 5, 0));
+		assertEquals(2, policy.getStats().getBudgetRejections());
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.AsyncResponseHandler;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.WebSearchQuery;
+import com.googleapis.ajax.services.transport.Http2Transport;
+import com.googleapis.ajax.services.transport.HttpConnectionPool;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
+
+/**
+ * The Class GoogleSearchAsyncQueryTest.
+ */
+public class GoogleSearchAsyncQueryTest extends BaseGoogleSearchClientTest {
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The pool. */
+	private HttpConnectionPool pool;
+
+	/** The factory. */
+	private GoogleSearchQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		pool = new HttpConnectionPool(10, 30000, 5000, true);
+		factory = GoogleSearchQueryFactory.newInstance("test", server.redirect(new PooledHttpTransport(pool)));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test list async.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testListAsync() throws Exception {
+		final CountDownLatch handled = new CountDownLatch(1);
+		WebSearchQuery query = factory.newWebSearchQuery();
+		AsyncResponseHandler<PagedList<WebResult>> handler = new AsyncResponseHandler<PagedList<WebResult>>() {
+			@Override
+			public void handleResponse(PagedList<WebResult> response) {
+				handled.countDown();
+			}
+		};
+		query.addResonseHandler(handler);
+		CompletableFuture<PagedList<WebResult>> future = query.withQuery("google").listAsync();
+		assertSame("Handler should be given the future.", future, handler.getFuture());
+		PagedList<WebResult> result = future.get(5, TimeUnit.SECONDS);
+		assertEquals("All results should be parsed.", 4, result.size());
+		assertTrue("Handler should be notified.", handled.await(5, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Test list async keeps the fields it was called with.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testListAsyncKeepsFields() throws Exception {
+		server.setDelay(300);
+		WebSearchQuery query = factory.newWebSearchQuery();
+		query.withQuery("google").withFields("url");
+		CompletableFuture<PagedList<WebResult>> future = query.listAsync();
+		query.withFields();
+		PagedList<WebResult> result = future.get(5, TimeUnit.SECONDS);
+		assertNotNull("Projected field should be read.", result.get(0).getUrl());
+		assertNull("Fields changed after the call should not apply.", result.get(0).getTitle());
+	}
+
+	/**
+	 * Test fan out.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testFanOut() throws Exception {
+		server.setDelay(300);
+		List<CompletableFuture<PagedList<WebResult>>> futures = new ArrayList<CompletableFuture<PagedList<WebResult>>>();
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 5; i++) {
+			futures.add(factory.newWebSearchQuery().withQuery("google").withStartIndex(i * 4).listAsync());
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).get(5, TimeUnit.SECONDS);
+		long elapsed = System.currentTimeMillis() - start;
+		assertTrue("Queries should run concurrently, took " + elapsed + "ms.", elapsed < 5 * 300);
+		for (CompletableFuture<PagedList<WebResult>> future : futures) {
+			assertEquals("All results should be parsed.", 4, future.get().size());
+		}
+	}
+
+	/**
+	 * Test list async over http2.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testListAsyncOverHttp2() throws Exception {
+		GoogleSearchQueryFactory http2Factory = GoogleSearchQueryFactory.newInstance("test", server.redirect(new Http2Transport()));
+		PagedList<WebResult> result = http2Factory.newWebSearchQuery().withQuery("google").listAsync().get(5, TimeUnit.SECONDS);
+		assertEquals("All results should be parsed.", 4, result.size());
+	}
+
+	/**
+	 * Test cancel aborts connection.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCancelAbortsConnection() throws Exception {
+		server.setDelay(3000);
+		CompletableFuture<PagedList<WebResult>> future = factory.newWebSearchQuery().withQuery("google").listAsync();
+		long deadline = System.currentTimeMillis() + 2000;
+		while (pool.getStats().getLeased() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals("Request should hold a connection.", 1, pool.getStats().getLeased());
+		assertTrue("Pending query should be cancellable.", future.cancel(true));
+		deadline = System.currentTimeMillis() + 2000;
+		while (pool.getStats().getLeased() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals("Connection should be released.", 0, pool.getStats().getLeased());
+		assertEquals("Aborted connection should not be reused.", 0, pool.getStats().getAvailable());
+		try {
+			future.join();
+			fail("Cancelled query should not complete.");
+		} catch (CancellationException e) {
+			// expected
+		}
+	}
+}
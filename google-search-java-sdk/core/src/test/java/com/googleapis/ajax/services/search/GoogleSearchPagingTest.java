@@ -0,0 +1,119 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.GoogleSearchQuery;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.paging.MergedPagedList;
+import com.googleapis.ajax.services.transport.HttpConnectionPool;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
+
+/**
+ * The Class GoogleSearchPagingTest.
+ */
+public class GoogleSearchPagingTest extends BaseGoogleSearchClientTest {
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The factory. */
+	private GoogleSearchQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		factory = GoogleSearchQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test list all walks every page of the cursor.
+	 */
+	@Test
+	public void testListAllWalksEveryPage() {
+		GoogleSearchQuery<WebResult> query = factory.newWebSearchQuery().withQuery("google");
+		Iterable<WebResult> results = query.listAll(2);
+		query.withQuery("changed");
+		assertEquals("Nothing should be fetched before iterating.", 0, server.getRequestCount());
+		List<WebResult> all = new ArrayList<WebResult>();
+		for (WebResult result : results) {
+			all.add(result);
+		}
+		assertEquals("Every page of the cursor should be read.", 16, all.size());
+		assertEquals("Each page should be fetched once.", 4, server.getRequestCount());
+	}
+
+	/**
+	 * Test a stream that stops early does not fetch the pages it does not reach.
+	 */
+	@Test
+	public void testStreamStopsEarly() {
+		GoogleSearchQuery<WebResult> query = factory.newWebSearchQuery().withQuery("google");
+		try (Stream<WebResult> results = query.stream(0)) {
+			assertEquals("The first page should be enough.", 3, results.limit(3).collect(Collectors.toList()).size());
+		}
+		assertEquals("Only the first page should be fetched.", 1, server.getRequestCount());
+		try (Stream<WebResult> results = query.stream(1)) {
+			assertEquals("The second page should be read too.", 6, results.limit(6).count());
+		}
+		assertTrue("Only the pages reached and the prefetched one should be fetched.", server.getRequestCount() <= 4);
+	}
+
+	/**
+	 * Test list all pages merges the pages and keeps the results of the
+	 * pages that did not fail.
+	 */
+	@Test
+	public void testListAllPagesKeepsPartialResults() {
+		server.failMatching("start=8", 404);
+		server.setDelay(50);
+		GoogleSearchQuery<WebResult> query = factory.newWebSearchQuery().withQuery("google");
+		long start = System.nanoTime();
+		MergedPagedList<WebResult> results = query.listAllPages(3);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertEquals("Each page should be fetched once.", 4, server.getRequestCount());
+		assertEquals("The results of the other pages should be kept.", 12, results.size());
+		assertFalse("The merge should not be complete.", results.isComplete());
+		assertEquals("The failed page should be known by its start.", Collections.singleton(8), results.getFailures().keySet());
+		assertEquals("The cursor of the first page should be kept.", 4, results.getPages().size());
+		assertTrue("The pages after the first should be fetched at once, took " + elapsed + " ms.", elapsed < 4 * 50);
+	}
+}
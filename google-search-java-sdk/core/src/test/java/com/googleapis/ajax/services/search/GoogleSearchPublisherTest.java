@@ -0,0 +1,157 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.search;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.transport.HttpConnectionPool;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
+
+/**
+ * The Class GoogleSearchPublisherTest.
+ */
+public class GoogleSearchPublisherTest extends BaseGoogleSearchClientTest {
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The factory. */
+	private GoogleSearchQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		factory = GoogleSearchQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test the pages are only fetched as the results are asked for.
+	 */
+	@Test
+	public void testPublisherHonoursDemand() {
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		factory.newWebSearchQuery().withQuery("google").publisher().subscribe(subscriber);
+		assertEquals("Nothing should be fetched before a request.", 0, server.getRequestCount());
+		subscriber.subscription.request(1);
+		waitFor(() -> subscriber.results.size() == 1);
+		assertEquals("Only the first page should be fetched.", 1, server.getRequestCount());
+		subscriber.subscription.request(4);
+		waitFor(() -> subscriber.results.size() == 5);
+		assertEquals("The second page should be fetched once the first is emitted.", 2, server.getRequestCount());
+		assertFalse("The publisher should not complete early.", subscriber.completed);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		waitFor(() -> subscriber.completed);
+		assertEquals("Every page of the cursor should be emitted.", 16, subscriber.results.size());
+		assertEquals("Each page should be fetched once.", 4, server.getRequestCount());
+		assertNull("The publisher should not fail.", subscriber.error);
+	}
+
+	/**
+	 * Test cancelling the subscription stops the page in flight.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCancelStopsPublisher() throws Exception {
+		server.setDelay(300);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		factory.newWebSearchQuery().withQuery("google").publisher().subscribe(subscriber);
+		subscriber.subscription.request(10);
+		subscriber.subscription.cancel();
+		Thread.sleep(500);
+		assertTrue("Nothing should be emitted after cancel.", subscriber.results.isEmpty());
+		assertFalse("The publisher should not complete after cancel.", subscriber.completed);
+		assertNull("The publisher should not fail after cancel.", subscriber.error);
+		assertTrue("No page should be fetched after cancel.", server.getRequestCount() <= 1);
+	}
+
+	/**
+	 * Waits for a condition.
+	 *
+	 * @param condition the condition
+	 */
+	private static void waitFor(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) {
+				fail("Timed out waiting for the publisher.");
+			}
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * The Class RecordingSubscriber.
+	 */
+	private static class RecordingSubscriber implements Flow.Subscriber<WebResult> {
+
+		/** The results. */
+		private final List<WebResult> results = new CopyOnWriteArrayList<WebResult>();
+
+		/** The subscription. */
+		private volatile Flow.Subscription subscription;
+
+		/** The completed. */
+		private volatile boolean completed;
+
+		/** The error. */
+		private volatile Throwable error;
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(WebResult item) {
+			results.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.GoogleSearchClient;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.enumeration.SafetyLevel;
+import com.googleapis.ajax.services.spec.WebSearchSpec;
+import com.googleapis.ajax.services.transport.HttpConnectionPool;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
+
+/**
+ * The Class GoogleSearchSpecTest.
+ */
+public class GoogleSearchSpecTest extends BaseGoogleSearchClientTest {
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The factory. */
+	private GoogleSearchQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		factory = GoogleSearchQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test deriving a spec leaves it unchanged.
+	 */
+	@Test
+	public void testDerivingLeavesSpecUnchanged() {
+		WebSearchSpec google = new WebSearchSpec().withQuery("google");
+		String url = google.getUrl();
+		WebSearchSpec safe = google.withSafetyLevel(SafetyLevel.ACTIVE).withSiteRestriction("example.com");
+		assertEquals("Base spec should keep its url.", url, google.getUrl());
+		assertEquals("Base spec should keep its query.", "google", google.getParameters().get("q").get(0));
+		assertEquals("Derived spec should prefix the query.", "site:example.com google", safe.getParameters().get("q").get(0));
+		assertFalse("Derived spec should have its own key.", google.getKey().equals(safe.getKey()));
+		try {
+			google.getParameters().put("q", null);
+			fail("Parameters should not be modifiable.");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test the key does not depend on the order the spec was built in.
+	 */
+	@Test
+	public void testKeyIsCanonical() {
+		WebSearchSpec first = new WebSearchSpec().withQuery("google").withStartIndex(4).withSafetyLevel(SafetyLevel.OFF);
+		WebSearchSpec second = new WebSearchSpec().withSafetyLevel(SafetyLevel.OFF).withStartIndex(4).withQuery("google");
+		assertEquals("Same parameters should make the same url.", first.getUrl(), second.getUrl());
+		assertEquals("Same parameters should make equal specs.", first, second);
+		assertEquals("Timeout should not change the key.", first.getKey(), first.withTimeout(1, TimeUnit.SECONDS).getKey());
+		assertFalse("Fields should change the key.", first.getKey().equals(first.withFields("url").getKey()));
+	}
+
+	/**
+	 * Test one spec runs concurrently through a shared client.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testSharedSpecRunsConcurrently() throws Exception {
+		final GoogleSearchClient client = factory.newClient();
+		final WebSearchSpec spec = new WebSearchSpec().withQuery("google").withFields("url");
+		ExecutorService threads = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<PagedList<WebResult>>> results = new ArrayList<Future<PagedList<WebResult>>>();
+			for (int i = 0; i < 8; i++) {
+				results.add(threads.submit(new Callable<PagedList<WebResult>>() {
+					@Override
+					public PagedList<WebResult> call() throws Exception {
+						return client.list(spec);
+					}
+				}));
+			}
+			for (Future<PagedList<WebResult>> result : results) {
+				PagedList<WebResult> list = result.get(5, TimeUnit.SECONDS);
+				assertEquals("Each run should get all the results.", 4, list.size());
+				assertNotNull("Projected field should be read.", list.get(0).getUrl());
+				assertNull("Other fields should be skipped.", list.get(0).getTitle());
+			}
+		} finally {
+			threads.shutdown();
+		}
+		assertEquals("Async runs should share the client too.", 4,
+				client.listAsync(spec.withStartIndex(4)).get(5, TimeUnit.SECONDS).size());
+	}
+}
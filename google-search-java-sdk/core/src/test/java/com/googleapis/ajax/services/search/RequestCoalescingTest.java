@@ -0,0 +1,152 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.coalescing.CoalescingStats;
+import com.googleapis.ajax.services.transport.HttpConnectionPool;
+import com.googleapis.ajax.services.transport.PooledHttpTransport;
+
+/**
+ * The Class RequestCoalescingTest.
+ */
+public class RequestCoalescingTest extends BaseGoogleSearchClientTest {
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The factory. */
+	private GoogleSearchQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		server.setDelay(500);
+		factory = GoogleSearchQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test identical queries share one call.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testIdenticalQueriesShareOneCall() throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(5);
+		try {
+			List<Future<PagedList<WebResult>>> results = new ArrayList<Future<PagedList<WebResult>>>();
+			for (int i = 0; i < 5; i++) {
+				results.add(threads.submit(new Callable<PagedList<WebResult>>() {
+					@Override
+					public PagedList<WebResult> call() throws Exception {
+						return factory.newWebSearchQuery().withQuery("google").list();
+					}
+				}));
+			}
+			PagedList<WebResult> first = results.get(0).get(5, TimeUnit.SECONDS);
+			for (Future<PagedList<WebResult>> result : results) {
+				assertSame("Parsed result should be shared.", first, result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			threads.shutdown();
+		}
+		assertEquals("Only one call should reach the server.", 1, server.getRequestCount());
+		CoalescingStats stats = factory.getRequestCoalescer().getStats();
+		assertEquals("All requests should be counted.", 5, stats.getRequests());
+		assertEquals("Coalescing ratio should be reported.", 0.8, stats.getCoalescingRatio(), 0.001);
+		assertEquals("Nothing should be left in flight.", 0, stats.getInFlight());
+
+		factory.newWebSearchQuery().withQuery("google").list();
+		assertEquals("Completed calls should not be reused.", 2, server.getRequestCount());
+	}
+
+	/**
+	 * Test a shared list cannot be changed by one of the callers.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testSharedListIsReadOnly() throws Exception {
+		CompletableFuture<PagedList<WebResult>> first = factory.newWebSearchQuery().withQuery("google").listAsync();
+		CompletableFuture<PagedList<WebResult>> second = factory.newWebSearchQuery().withQuery("google").listAsync();
+		PagedList<WebResult> mutated = first.get(5, TimeUnit.SECONDS);
+		try {
+			mutated.clear();
+			fail("Shared list should be read-only.");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		assertEquals("Other caller should get the list unchanged.", 4, second.get(5, TimeUnit.SECONDS).size());
+		assertEquals("Only one call should reach the server.", 1, server.getRequestCount());
+	}
+
+	/**
+	 * Test different queries are not coalesced.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testDifferentQueriesAreNotCoalesced() throws Exception {
+		CompletableFuture<PagedList<WebResult>> google = factory.newWebSearchQuery().withQuery("google").listAsync();
+		CompletableFuture<PagedList<WebResult>> yahoo = factory.newWebSearchQuery().withQuery("yahoo").listAsync();
+		CompletableFuture<WebResult> single = factory.newWebSearchQuery().withQuery("google").singleResultAsync();
+		CompletableFuture.allOf(google, yahoo, single).get(5, TimeUnit.SECONDS);
+		assertEquals("Each distinct query should make its own call.", 3, server.getRequestCount());
+	}
+
+	/**
+	 * Test cancelling one caller keeps the shared call.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCancellingOneCallerKeepsTheSharedCall() throws Exception {
+		CompletableFuture<PagedList<WebResult>> cancelled = factory.newWebSearchQuery().withQuery("google").listAsync();
+		CompletableFuture<PagedList<WebResult>> kept = factory.newWebSearchQuery().withQuery("google").listAsync();
+		assertTrue("Caller should be able to cancel.", cancelled.cancel(true));
+		assertEquals("Other caller should still get the result.", 4, kept.get(5, TimeUnit.SECONDS).size());
+		assertEquals("Only one call should reach the server.", 1, server.getRequestCount());
+	}
+}
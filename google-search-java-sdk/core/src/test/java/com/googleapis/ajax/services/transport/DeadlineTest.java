@@ -0,0 +1,115 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.transport;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.ajax.services.DeadlineExceededException;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+import com.googleapis.ajax.services.search.StubGoogleSearchServer;
+
+/**
+ * The Class DeadlineTest.
+ */
+public class DeadlineTest extends BaseGoogleSearchClientTest {
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The factory. */
+	private GoogleSearchQueryFactory factory;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		factory = GoogleSearchQueryFactory.newInstance("test",
+				server.redirect(new PooledHttpTransport(new HttpConnectionPool(10, 30000, 5000, true))));
+		factory.setClientConfiguration(new ClientConfiguration(-1, 5000, 300));
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		factory.getTransport().shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test deadline aborts stalled request.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testDeadlineAbortsStalledRequest() throws Exception {
+		server.stallNext(1, 5000);
+		long start = System.nanoTime();
+		try {
+			factory.newWebSearchQuery().withQuery("google").list();
+			fail("The call should be out of time.");
+		} catch (DeadlineExceededException e) {
+			long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			assertTrue("The call should end at its deadline: " + elapsed, elapsed >= 300 && elapsed < 2000);
+		}
+		assertEquals("An aborted call is not retried.", 1, server.getRequestCount());
+
+		server.stallNext(1, 5000);
+		try {
+			factory.newWebSearchQuery().withQuery("yahoo").listAsync().get(10, TimeUnit.SECONDS);
+			fail("The call should be out of time.");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof DeadlineExceededException);
+		}
+
+		server.stallNext(1, 500);
+		assertFalse("A longer deadline should let it through.",
+				factory.newWebSearchQuery().withQuery("bing").withTimeout(5, TimeUnit.SECONDS).list().isEmpty());
+	}
+
+	/**
+	 * Test timeouts shrink with the deadline.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testTimeoutsShrinkWithTheDeadline() throws Exception {
+		HttpRequest request = new HttpRequest("GET", StubGoogleSearchServer.API_BASE_URL);
+		request.setConnectTimeout(100);
+		request.setReadTimeout(5000);
+		request.setDeadline(Deadline.after(1, TimeUnit.SECONDS));
+		assertEquals(100, request.getConnectTimeout());
+		assertTrue(request.getReadTimeout() <= 1000);
+		Thread.sleep(200);
+		assertTrue("Read timeout should shrink: " + request.getReadTimeout(), request.getReadTimeout() <= 800);
+		assertSame(request.getDeadline(), request.duplicate().getDeadline());
+
+		request.setDeadline(Deadline.after(10, TimeUnit.MILLISECONDS));
+		Thread.sleep(20);
+		assertTrue(request.getDeadline().isExpired());
+		assertEquals("Never 0, it would wait forever.", 1, request.getReadTimeout());
+	}
+}
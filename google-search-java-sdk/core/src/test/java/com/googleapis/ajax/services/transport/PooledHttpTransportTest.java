@@ -0,0 +1,234 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.services.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googleapis.ajax.common.PagedList;
+import com.googleapis.ajax.schema.WebResult;
+import com.googleapis.ajax.services.GoogleSearchQueryFactory;
+import com.googleapis.ajax.services.search.BaseGoogleSearchClientTest;
+import com.googleapis.ajax.services.search.StubGoogleSearchServer;
+
+/**
+ * The Class PooledHttpTransportTest.
+ */
+public class PooledHttpTransportTest extends BaseGoogleSearchClientTest {
+
+	/** The server. */
+	private StubGoogleSearchServer server;
+
+	/** The pool. */
+	private HttpConnectionPool pool;
+
+	/** The transport. */
+	private PooledHttpTransport transport;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new StubGoogleSearchServer().start();
+		pool = new HttpConnectionPool(2, 30000, 1000, true);
+		transport = new PooledHttpTransport(pool);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		transport.shutdown();
+		server.stop();
+	}
+
+	/**
+	 * Test connection reuse.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testConnectionReuse() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			assertTrue("Response should not be empty.", get(server.getBaseUrl() + "/web").length() > 0);
+		}
+		PoolStats stats = pool.getStats();
+		assertEquals("Only one connection should be opened.", 1, stats.getCreated());
+		assertEquals("Connection should be reused.", 4, stats.getReused());
+		assertEquals("Connection should be back in the pool.", 1, stats.getAvailable());
+		assertEquals("No connection should be leased.", 0, stats.getLeased());
+	}
+
+	/**
+	 * Test chunked response.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testChunkedResponse() throws Exception {
+		server.setChunked(true);
+		String first = get(server.getBaseUrl() + "/web");
+		String second = get(server.getBaseUrl() + "/web");
+		assertEquals("Chunked bodies should be decoded completely.", first, second);
+		assertEquals("Connection should be reused after a chunked body.", 1, pool.getStats().getCreated());
+	}
+
+	/**
+	 * Test idle eviction.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testIdleEviction() throws Exception {
+		transport.shutdown();
+		pool = new HttpConnectionPool(2, 50, 1000, true);
+		transport = new PooledHttpTransport(pool);
+		get(server.getBaseUrl() + "/web");
+		Thread.sleep(100);
+		pool.closeIdleConnections();
+		assertEquals("Idle connection should be evicted.", 1, pool.getStats().getEvicted());
+		get(server.getBaseUrl() + "/web");
+		assertEquals("A new connection should be opened.", 2, pool.getStats().getCreated());
+	}
+
+	/**
+	 * Test lease timeout.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testLeaseTimeout() throws Exception {
+		transport.shutdown();
+		pool = new HttpConnectionPool(1, 30000, 100, true);
+		transport = new PooledHttpTransport(pool);
+		HttpResponse response = transport.execute(new HttpRequest("GET", server.getBaseUrl() + "/web"));
+		try {
+			transport.execute(new HttpRequest("GET", server.getBaseUrl() + "/web"));
+			fail("Lease should time out when the pool is exhausted.");
+		} catch (IOException e) {
+			// expected
+		} finally {
+			response.getContent().close();
+		}
+		assertEquals("Released connection should be available.", 1, pool.getStats().getAvailable());
+	}
+
+	/**
+	 * Test a connection idle for longer than the validation threshold is
+	 * checked, and kept when it is still open.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testValidateAfterInactivity() throws Exception {
+		transport.shutdown();
+		pool = new HttpConnectionPool(2, 30000, 1000, 20L);
+		transport = new PooledHttpTransport(pool);
+		get(server.getBaseUrl() + "/web");
+		get(server.getBaseUrl() + "/web");
+		Thread.sleep(50);
+		get(server.getBaseUrl() + "/web");
+		assertEquals("A live connection should pass validation.", 1, pool.getStats().getCreated());
+		assertEquals("Connection should be reused.", 2, pool.getStats().getReused());
+	}
+
+	/**
+	 * Test the requests the default proxy selector proxies do not use the
+	 * pooled connections.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testProxiedRequestsBypassThePool() throws Exception {
+		ProxySelector defaultSelector = ProxySelector.getDefault();
+		final Proxy proxy = new Proxy(Proxy.Type.HTTP, new InetSocketAddress("127.0.0.1",
+				Integer.parseInt(server.getBaseUrl().substring(server.getBaseUrl().lastIndexOf(':') + 1))));
+		ProxySelector.setDefault(new ProxySelector() {
+			@Override
+			public List<Proxy> select(URI uri) {
+				return Collections.singletonList(proxy);
+			}
+
+			@Override
+			public void connectFailed(URI uri, SocketAddress address, IOException e) {
+			}
+		});
+		try {
+			assertTrue("Response should come through the proxy.", get("http://search.example.invalid/web").length() > 0);
+		} finally {
+			ProxySelector.setDefault(defaultSelector);
+		}
+		assertEquals("The proxy should be reached.", 1, server.getRequestCount());
+		assertEquals("No pooled connection should be opened.", 0, pool.getStats().getCreated());
+	}
+
+	/**
+	 * Test search through pooled transport.
+	 */
+	@Test
+	public void testSearchThroughPooledTransport() {
+		server.setGzip(true);
+		GoogleSearchQueryFactory factory = GoogleSearchQueryFactory.newInstance("test", server.redirect(transport));
+		for (int i = 0; i < 3; i++) {
+			PagedList<WebResult> result = factory.newWebSearchQuery().withQuery("google").list();
+			assertEquals("All results should be parsed.", 4, result.size());
+			assertEquals("Cursor should be parsed.", 16, result.getEstimatedResultCount());
+		}
+		assertEquals("All requests should hit the server.", 3, server.getRequestCount());
+		assertEquals("Searches should share one connection.", 1, pool.getStats().getCreated());
+	}
+
+	/**
+	 * Executes a get request and reads the body.
+	 *
+	 * @param url the url
+	 *
+	 * @return the body
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private String get(String url) throws IOException {
+		HttpResponse response = transport.execute(new HttpRequest("GET", url));
+		assertEquals("Status should be OK.", 200, response.getStatusCode());
+		InputStream in = response.getContent();
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toString("UTF-8");
+		} finally {
+			in.close();
+		}
+	}
+}
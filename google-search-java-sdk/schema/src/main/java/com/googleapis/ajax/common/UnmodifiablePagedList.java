@@ -0,0 +1,109 @@
+/*
+ * Copyright 2010 Nabeel Mukhtar 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ * 
+ */
+package com.googleapis.ajax.common;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The Class UnmodifiablePagedList.
+ * 
+ * A read-only view of a paged list, for results that are handed to more
+ * than one caller. Any attempt to change it throws an
+ * {@link UnsupportedOperationException}.
+ */
+public class UnmodifiablePagedList<E> extends AbstractList<E> implements PagedList<E>, RandomAccess, Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = -3264813537104911785L;
+
+	/** The list. */
+	private final PagedList<? extends E> list;
+
+	/**
+	 * Instantiates a new unmodifiable paged list.
+	 * 
+	 * @param list the list to view
+	 */
+	public UnmodifiablePagedList(PagedList<? extends E> list) {
+		this.list = list;
+	}
+
+	/**
+	 * Returns a read-only view of the list, the list itself if it is one
+	 * already.
+	 * 
+	 * @param list the list
+	 * 
+	 * @return the read-only view
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PagedList<E> of(PagedList<? extends E> list) {
+		if (list instanceof UnmodifiablePagedList) {
+			return (PagedList<E>) list;
+		}
+		return new UnmodifiablePagedList<E>(list);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractList#get(int)
+	 */
+	@Override
+	public E get(int index) {
+		return list.get(index);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractCollection#size()
+	 */
+	@Override
+	public int size() {
+		return list.size();
+	}
+
+	/**
+	 * @return the pages
+	 */
+	public List<Page> getPages() {
+		List<Page> pages = list.getPages();
+		return (pages == null) ? null : Collections.unmodifiableList(pages);
+	}
+
+	/**
+	 * @return the estimatedResultCount
+	 */
+	public long getEstimatedResultCount() {
+		return list.getEstimatedResultCount();
+	}
+
+	/**
+	 * @return the currentPageIndex
+	 */
+	public int getCurrentPageIndex() {
+		return list.getCurrentPageIndex();
+	}
+
+	/**
+	 * @return the moreResultsUrl
+	 */
+	public String getMoreResultsUrl() {
+		return list.getMoreResultsUrl();
+	}
+}